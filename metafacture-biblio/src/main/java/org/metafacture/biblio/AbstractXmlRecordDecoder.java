@@ -0,0 +1,142 @@
+/*
+ * Copyright 2026 hbz
+ *
+ * Licensed under the Apache License, Version 2.0 the "License";
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.metafacture.biblio;
+
+import java.io.Reader;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.metafacture.framework.MetafactureException;
+import org.metafacture.framework.StreamReceiver;
+import org.metafacture.framework.helpers.DefaultObjectPipe;
+
+/**
+ * Base class for decoders which read XML records with a StAX pull parser
+ * and emit stream events directly, without the detour through the SAX
+ * events of {@code decode-xml}.
+ * <p>
+ * The StAX implementation is looked up with
+ * {@link XMLInputFactory#newInstance()}, so a faster implementation such as
+ * Aalto or Woodstox is used if it is on the class path. Element names are
+ * compared with {@link String#equals(Object)}, which returns on identity
+ * first; StAX implementations intern names, so these comparisons are cheap.
+ * <p>
+ * All text content is collected in one value buffer which is reused for all
+ * values. Subclasses clear the buffer with {@link #clearValue()} when a
+ * value element starts and read it with {@link #getValue(boolean)} when it
+ * ends.
+ */
+public abstract class AbstractXmlRecordDecoder
+        extends DefaultObjectPipe<Reader, StreamReceiver> {
+
+    private static final String INTERN_NAMES = "org.codehaus.stax2.internNames";
+
+    private final XMLInputFactory factory;
+    private final StringBuilder value = new StringBuilder();
+
+    protected AbstractXmlRecordDecoder() {
+        factory = XMLInputFactory.newInstance();
+        factory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, Boolean.TRUE);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, Boolean.FALSE);
+        if (factory.isPropertySupported(INTERN_NAMES)) {
+            factory.setProperty(INTERN_NAMES, Boolean.TRUE);
+        }
+    }
+
+    @Override
+    public void process(final Reader reader) {
+        XMLStreamReader xmlReader = null;
+        try {
+            xmlReader = factory.createXMLStreamReader(reader);
+            while (xmlReader.hasNext()) {
+                switch (xmlReader.next()) {
+                    case XMLStreamConstants.START_ELEMENT:
+                        startElement(xmlReader);
+                        break;
+                    case XMLStreamConstants.END_ELEMENT:
+                        endElement(xmlReader);
+                        break;
+                    case XMLStreamConstants.CHARACTERS:
+                    case XMLStreamConstants.CDATA:
+                    case XMLStreamConstants.SPACE:
+                        value.append(xmlReader.getTextCharacters(),
+                                xmlReader.getTextStart(), xmlReader.getTextLength());
+                        break;
+                    default:
+                        break;
+                }
+            }
+        } catch (final XMLStreamException e) {
+            throw new MetafactureException(e);
+        } finally {
+            value.setLength(0);
+            if (xmlReader != null) {
+                try {
+                    xmlReader.close();
+                } catch (final XMLStreamException e) {
+                    // Nothing to do; the underlying reader is not closed anyway
+                }
+            }
+        }
+    }
+
+    /**
+     * Called for each start tag.
+     *
+     * @param reader the XML reader positioned on the start tag
+     */
+    protected abstract void startElement(XMLStreamReader reader);
+
+    /**
+     * Called for each end tag.
+     *
+     * @param reader the XML reader positioned on the end tag
+     */
+    protected abstract void endElement(XMLStreamReader reader);
+
+    /**
+     * Clears the value buffer.
+     */
+    protected final void clearValue() {
+        value.setLength(0);
+    }
+
+    /**
+     * Returns the text collected since the last call to
+     * {@link #clearValue()}.
+     *
+     * @param trim whether to remove leading and trailing whitespace in the
+     *             same way as {@link String#trim()}
+     * @return the collected text
+     */
+    protected final String getValue(final boolean trim) {
+        int start = 0;
+        int end = value.length();
+        if (trim) {
+            while (start < end && value.charAt(start) <= ' ') {
+                start += 1;
+            }
+            while (end > start && value.charAt(end - 1) <= ' ') {
+                end -= 1;
+            }
+        }
+        return value.substring(start, end);
+    }
+
+}
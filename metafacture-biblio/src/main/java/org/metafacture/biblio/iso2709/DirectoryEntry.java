@@ -38,6 +38,7 @@ class DirectoryEntry {
     private final int implDefinedPartLength;
     private final int entryLength;
 
+    private Iso646Interner interner;
     private int currentPosition;
 
     DirectoryEntry(final Iso646ByteBuffer buffer, final RecordFormat recordFormat,
@@ -56,6 +57,10 @@ class DirectoryEntry {
         rewind();
     }
 
+    void setInterner(final Iso646Interner interner) {
+        this.interner = interner;
+    }
+
     void rewind() {
         currentPosition = RECORD_LABEL_LENGTH;
     }
@@ -71,7 +76,7 @@ boolean endOfDirectoryReached() {
 
     char[] getTag() {
         assert currentPosition < directoryEnd;
-        return buffer.charsAt(currentPosition, TAG_LENGTH);
+        return charsAt(currentPosition, TAG_LENGTH);
     }
 
     int getFieldLength() {
@@ -91,17 +96,24 @@ char[] getImplDefinedPart() {
         assert currentPosition < directoryEnd;
         final int implDefinedPartStart = currentPosition + TAG_LENGTH +
                 fieldLengthLength + fieldStartLength;
-        return buffer.charsAt(implDefinedPartStart, implDefinedPartLength);
+        return charsAt(implDefinedPartStart, implDefinedPartLength);
+    }
+
+    private char[] charsAt(final int fromIndex, final int length) {
+        if (interner == null) {
+            return buffer.charsAt(fromIndex, length);
+        }
+        return interner.charsAt(buffer, fromIndex, length);
     }
 
     boolean isRecordIdField() {
-        final char[] tag = getTag();
-        return tag[0] == '0' && tag[1] == '0' && tag[2] == '1';
+        return isReferenceField() && buffer.byteAt(currentPosition + 2) == '1';
     }
 
     boolean isReferenceField() {
-        final char[] tag = getTag();
-        return tag[0] == '0' && tag[1] == '0';
+        assert currentPosition < directoryEnd;
+        return buffer.byteAt(currentPosition) == '0' &&
+                buffer.byteAt(currentPosition + 1) == '0';
     }
 
     boolean isContinuedField() {
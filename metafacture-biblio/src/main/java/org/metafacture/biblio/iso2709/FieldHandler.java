@@ -18,6 +18,10 @@
 /**
  * Callback interface defining the events emitted by
  * {@link Record#processFields(FieldHandler)}.
+ * <p>
+ * If the record uses an {@link Iso646Interner}, the {@code char[]} arguments
+ * are shared between fields and records. Implementations must not modify
+ * them.
  *
  * @author Christoph Böhme
  */
@@ -0,0 +1,220 @@
+/*
+ * Copyright 2026 hbz
+ *
+ * Licensed under the Apache License, Version 2.0 the "License";
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.metafacture.biblio.iso2709;
+
+/**
+ * Interns the short character sequences which occur in every field of a
+ * record: tags, indicators, identifiers and implementation defined parts.
+ * It also interns names built from these sequences, such as the entity names
+ * emitted for data fields.
+ * <p>
+ * An interner is meant to be shared by all records read by a decoder (see
+ * {@link Record#setInterner(Iso646Interner)}). Equal sequences are then
+ * represented by the same {@code char[]} or {@code String} instance, so
+ * processing a record does not allocate any objects for them once they have
+ * been seen. The arrays handed out by the interner are shared and must not
+ * be modified.
+ * <p>
+ * Only sequences of up to {@value #MAX_INTERNED_LENGTH} ISO 646 characters
+ * are interned. Each table holds at most {@value #MAX_ENTRIES} sequences.
+ * Longer sequences and sequences which do not fit into a full table are
+ * returned as new instances. Instances of this class are not thread-safe.
+ *
+ * @see Record#setInterner(Iso646Interner)
+ */
+public final class Iso646Interner {
+
+    public static final int MAX_INTERNED_LENGTH = 8;
+    public static final int MAX_ENTRIES = 1 << 16;
+
+    private static final int LENGTH_BITS = 4;
+    private static final int BITS_PER_CHAR = 7;
+
+    private static final String[] SINGLE_CHARS = new String[Iso646Constants.MAX_CHAR_CODE + 1];
+
+    static {
+        for (char c = 0; c < SINGLE_CHARS.length; ++c) {
+            SINGLE_CHARS[c] = String.valueOf(c);
+        }
+    }
+
+    private final Table chars = new Table();
+    private final Table names = new Table();
+
+    /**
+     * Returns a string consisting of the single character {@code c}. Strings
+     * for ISO 646 characters are shared by all interners.
+     *
+     * @param c the character
+     * @return a string containing only {@code c}
+     */
+    public static String valueOf(final char c) {
+        if (c < SINGLE_CHARS.length) {
+            return SINGLE_CHARS[c];
+        }
+        return String.valueOf(c);
+    }
+
+    /**
+     * Returns the string representation of {@code name}.
+     *
+     * @param name the characters of the name
+     * @return a string with the characters in {@code name}
+     */
+    public String name(final char[] name) {
+        return name(name, name, 0);
+    }
+
+    /**
+     * Returns the string representation of the concatenation of {@code prefix}
+     * and {@code suffix}. This is used for building names such as
+     * <i>tag + indicators</i> without a temporary array.
+     *
+     * @param prefix the first part of the name
+     * @param suffix the second part of the name
+     * @return a string with the characters in {@code prefix} followed by
+     * those in {@code suffix}
+     */
+    public String name(final char[] prefix, final char[] suffix) {
+        return name(prefix, suffix, suffix.length);
+    }
+
+    private String name(final char[] prefix, final char[] suffix, final int suffixLength) {
+        final int length = prefix.length + suffixLength;
+        if (length > MAX_INTERNED_LENGTH) {
+            return concat(prefix, suffix, suffixLength);
+        }
+        long key = length;
+        int shift = LENGTH_BITS;
+        for (final char c : prefix) {
+            if (c > Iso646Constants.MAX_CHAR_CODE) {
+                return concat(prefix, suffix, suffixLength);
+            }
+            key |= (long) c << shift;
+            shift += BITS_PER_CHAR;
+        }
+        for (int i = 0; i < suffixLength; ++i) {
+            final char c = suffix[i];
+            if (c > Iso646Constants.MAX_CHAR_CODE) {
+                return concat(prefix, suffix, suffixLength);
+            }
+            key |= (long) c << shift;
+            shift += BITS_PER_CHAR;
+        }
+        final int slot = names.findSlot(key);
+        if (names.values[slot] != null) {
+            return (String) names.values[slot];
+        }
+        final String name = concat(prefix, suffix, suffixLength);
+        names.put(slot, key, name);
+        return name;
+    }
+
+    private static String concat(final char[] prefix, final char[] suffix,
+            final int suffixLength) {
+        final char[] name = new char[prefix.length + suffixLength];
+        System.arraycopy(prefix, 0, name, 0, prefix.length);
+        System.arraycopy(suffix, 0, name, prefix.length, suffixLength);
+        return String.valueOf(name);
+    }
+
+    /**
+     * Returns the characters in the specified part of {@code buffer}. If the
+     * part contains a byte which is not a valid ISO 646 character, a
+     * {@link org.metafacture.framework.FormatException} is thrown as in
+     * {@link Iso646ByteBuffer#charsAt(int, int)}.
+     */
+    char[] charsAt(final Iso646ByteBuffer buffer, final int fromIndex,
+            final int length) {
+        if (length > MAX_INTERNED_LENGTH) {
+            return buffer.charsAt(fromIndex, length);
+        }
+        long key = length;
+        int shift = LENGTH_BITS;
+        for (int i = 0; i < length; ++i) {
+            final byte value = buffer.byteAt(fromIndex + i);
+            if (value < 0) {
+                // Let the buffer report the invalid character:
+                return buffer.charsAt(fromIndex, length);
+            }
+            key |= (long) value << shift;
+            shift += BITS_PER_CHAR;
+        }
+        final int slot = chars.findSlot(key);
+        if (chars.values[slot] != null) {
+            return (char[]) chars.values[slot];
+        }
+        final char[] value = buffer.charsAt(fromIndex, length);
+        chars.put(slot, key, value);
+        return value;
+    }
+
+    /**
+     * Open-addressing hash table with packed character sequences as keys.
+     */
+    private static final class Table {
+
+        private static final int INITIAL_CAPACITY = 256;
+        private static final long GOLDEN_RATIO = 0x9e3779b97f4a7c15L;
+        private static final int HASH_SHIFT = 32;
+
+        private long[] keys = new long[INITIAL_CAPACITY];
+        private Object[] values = new Object[INITIAL_CAPACITY];
+        private int size;
+
+        int findSlot(final long key) {
+            final int mask = keys.length - 1;
+            int slot = hash(key) & mask;
+            while (values[slot] != null && keys[slot] != key) {
+                slot = (slot + 1) & mask;
+            }
+            return slot;
+        }
+
+        void put(final int slot, final long key, final Object value) {
+            if (size >= MAX_ENTRIES) {
+                return;
+            }
+            keys[slot] = key;
+            values[slot] = value;
+            size += 1;
+            if (size > keys.length / 2) {
+                resize();
+            }
+        }
+
+        private void resize() {
+            final long[] oldKeys = keys;
+            final Object[] oldValues = values;
+            keys = new long[oldKeys.length * 2];
+            values = new Object[oldValues.length * 2];
+            for (int i = 0; i < oldKeys.length; ++i) {
+                if (oldValues[i] != null) {
+                    final int slot = findSlot(oldKeys[i]);
+                    keys[slot] = oldKeys[i];
+                    values[slot] = oldValues[i];
+                }
+            }
+        }
+
+        private static int hash(final long key) {
+            final long hash = key * GOLDEN_RATIO;
+            return (int) (hash ^ (hash >>> HASH_SHIFT));
+        }
+
+    }
+
+}
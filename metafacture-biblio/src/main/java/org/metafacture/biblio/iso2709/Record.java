@@ -49,6 +49,7 @@ public final class Record {
     private final int recordIdFieldStart;
 
     private Charset charset = StandardCharsets.UTF_8;
+    private Iso646Interner interner;
 
     private FieldHandler fieldHandler;
 
@@ -59,9 +60,23 @@ public final class Record {
      * @param recordData a byte array containing a record in ISO 2709:2008 format.
      */
     public Record(final byte[] recordData) {
+        this(Require.notNull(recordData), 0, recordData.length);
+    }
+
+    /**
+     * Creates an instance of {@code Record} which provides access to a record
+     * stored in a range of the array passed as argument. The array is not
+     * copied, so it must not be modified while the record is in use.
+     *
+     * @param recordData a byte array containing a record in ISO 2709:2008 format.
+     * @param offset index of the first byte of the record in the array.
+     * @param length length of the record in bytes.
+     */
+    public Record(final byte[] recordData, final int offset, final int length) {
         Require.notNull(recordData);
-        checkRecordDataLength(recordData);
-        buffer = new Iso646ByteBuffer(recordData);
+        Require.validArraySlice(offset, length, recordData.length);
+        checkRecordDataLength(length);
+        buffer = new Iso646ByteBuffer(recordData, offset, length);
         label = new Label(buffer);
         baseAddress = label.getBaseAddress();
         checkBaseAddress();
@@ -72,8 +87,8 @@ public Record(final byte[] recordData) {
         recordIdFieldStart = findRecordIdFieldStart();
     }
 
-    private void checkRecordDataLength(final byte[] recordData) {
-        if (recordData.length < MIN_RECORD_LENGTH) {
+    private void checkRecordDataLength(final int length) {
+        if (length < MIN_RECORD_LENGTH) {
             throw new FormatException("record is too short");
         }
     }
@@ -138,6 +153,24 @@ public Charset getCharset() {
         return charset;
     }
 
+    /**
+     * Sets the interner for the tags, indicators, identifiers and
+     * implementation defined parts passed to the {@link FieldHandler}. If an
+     * interner is set, these arrays are shared with other records and must
+     * not be modified by the field handler. By default, new arrays are
+     * created for each field.
+     *
+     * @param interner the interner to use or null to disable interning
+     */
+    public void setInterner(final Iso646Interner interner) {
+        this.interner = interner;
+        directoryEntry.setInterner(interner);
+    }
+
+    public Iso646Interner getInterner() {
+        return interner;
+    }
+
     /**
      * Returns the contents of the record identifier field. The record identifier
      * field has the tag <i>001</i>. It must be the first field in the record.
@@ -197,7 +230,7 @@ private void processReferenceField() {
 
     private void processDataField() {
         final int fieldStart = baseAddress + directoryEntry.getFieldStart();
-        final char[] indicators = buffer.charsAt(fieldStart, indicatorLength);
+        final char[] indicators = charsAt(fieldStart, indicatorLength);
         fieldHandler.startDataField(directoryEntry.getTag(),
                 directoryEntry.getImplDefinedPart(), indicators);
         processDataValues(fieldStart + indicatorLength);
@@ -231,9 +264,16 @@ private int processDataValue(final int fromIndex) {
 
     private char[] getIdentifier(final int fromIndex) {
         if (identifierLength > 1) {
-            return buffer.charsAt(fromIndex + 1, identifierLength - 1);
+            return charsAt(fromIndex + 1, identifierLength - 1);
         }
         return EMPTY_IDENTIFIER;
     }
 
+    private char[] charsAt(final int fromIndex, final int length) {
+        if (interner == null) {
+            return buffer.charsAt(fromIndex, length);
+        }
+        return interner.charsAt(buffer, fromIndex, length);
+    }
+
 }
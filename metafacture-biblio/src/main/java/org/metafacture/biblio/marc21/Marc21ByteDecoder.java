@@ -0,0 +1,92 @@
+/*
+ * Copyright 2026 hbz
+ *
+ * Licensed under the Apache License, Version 2.0 the "License";
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.metafacture.biblio.marc21;
+
+import java.nio.ByteBuffer;
+
+import org.metafacture.biblio.iso2709.Record;
+import org.metafacture.framework.FluxCommand;
+import org.metafacture.framework.StreamReceiver;
+import org.metafacture.framework.annotations.Description;
+import org.metafacture.framework.annotations.In;
+import org.metafacture.framework.annotations.Out;
+import org.metafacture.framework.helpers.DefaultObjectPipe;
+
+/**
+ * Decodes MARC 21 records which are passed as raw bytes into an event stream.
+ * The decoder produces the same events as {@link Marc21Decoder} but reads
+ * the record directly from the bytes between the position and the limit of
+ * the buffer. The record is neither converted into a string nor copied (unless
+ * the buffer is not backed by an array), so only the field values are
+ * decoded into strings. Use together with {@code as-byte-records} to avoid
+ * decoding the input into characters and encoding it back into bytes.
+ * <p>
+ * The decoder does not change the position or limit of the buffer and does
+ * not keep a reference to it after {@link #process(ByteBuffer)} returns.
+ * Empty buffers are ignored.
+ *
+ * @see Marc21Decoder
+ */
+@In(ByteBuffer.class)
+@Out(StreamReceiver.class)
+@Description("Decodes MARC 21 records from byte buffers")
+@FluxCommand("decode-marc21-bytes")
+public final class Marc21ByteDecoder
+        extends DefaultObjectPipe<ByteBuffer, StreamReceiver> {
+
+    private final Marc21Decoder decoder = new Marc21Decoder();
+
+    private byte[] copyBuffer = new byte[0];
+
+    /**
+     * Controls whether the decoder aborts processing if a record has no
+     * identifier. See {@link Marc21Decoder#setIgnoreMissingId(boolean)}.
+     *
+     * @param ignoreMissingId
+     *            true if missing identifiers should be silently ignored.
+     */
+    public void setIgnoreMissingId(final boolean ignoreMissingId) {
+        decoder.setIgnoreMissingId(ignoreMissingId);
+    }
+
+    public boolean getIgnoreMissingId() {
+        return decoder.getIgnoreMissingId();
+    }
+
+    @Override
+    public void process(final ByteBuffer obj) {
+        final int length = obj.remaining();
+        if (length == 0) {
+            return;
+        }
+        if (obj.hasArray()) {
+            decoder.process(new Record(obj.array(),
+                    obj.arrayOffset() + obj.position(), length));
+        } else {
+            if (copyBuffer.length < length) {
+                copyBuffer = new byte[length];
+            }
+            obj.duplicate().get(copyBuffer, 0, length);
+            decoder.process(new Record(copyBuffer, 0, length));
+        }
+    }
+
+    @Override
+    protected void onSetReceiver() {
+        decoder.setReceiver(getReceiver());
+    }
+
+}
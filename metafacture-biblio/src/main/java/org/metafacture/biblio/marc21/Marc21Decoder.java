@@ -16,6 +16,7 @@
 package org.metafacture.biblio.marc21;
 
 import org.metafacture.biblio.iso2709.FieldHandler;
+import org.metafacture.biblio.iso2709.Iso646Interner;
 import org.metafacture.biblio.iso2709.Record;
 import org.metafacture.biblio.iso2709.RecordFormat;
 import org.metafacture.framework.FluxCommand;
@@ -138,6 +139,7 @@
         extends DefaultObjectPipe<String, StreamReceiver> {
 
     private final FieldHandler fieldHandler = new Marc21Handler();
+    private final Iso646Interner interner = new Iso646Interner();
 
     private boolean ignoreMissingId;
 
@@ -169,8 +171,19 @@ public void process(final String obj) {
         if (obj.isEmpty()) {
             return;
         }
-        final Record record = new Record(obj.getBytes(Marc21Constants.MARC21_CHARSET));
+        process(new Record(obj.getBytes(Marc21Constants.MARC21_CHARSET)));
+    }
+
+    /**
+     * Decodes a record which has already been wrapped in a {@link Record}.
+     * This is used by {@link Marc21ByteDecoder} to decode records directly
+     * from their bytes.
+     *
+     * @param record the record to decode
+     */
+    void process(final Record record) {
         record.setCharset(Marc21Constants.MARC21_CHARSET);
+        record.setInterner(interner);
 
         requireMarc21RecordFormat(record.getRecordFormat());
         requireUTF8Encoding(record);
@@ -210,21 +223,21 @@ private void emitLeader(final Record record) {
         final char[] implCodes = record.getImplCodes();
         final char[] systemChars = record.getSystemChars();
         getReceiver().startEntity(Marc21EventNames.LEADER_ENTITY);
-        getReceiver().literal(Marc21EventNames.RECORD_STATUS_LITERAL, String.valueOf(
+        getReceiver().literal(Marc21EventNames.RECORD_STATUS_LITERAL, Iso646Interner.valueOf(
                 record.getRecordStatus()));
-        getReceiver().literal(Marc21EventNames.RECORD_TYPE_LITERAL, String.valueOf(
+        getReceiver().literal(Marc21EventNames.RECORD_TYPE_LITERAL, Iso646Interner.valueOf(
                 implCodes[Marc21Constants.RECORD_TYPE_INDEX]));
-        getReceiver().literal(Marc21EventNames.BIBLIOGRAPHIC_LEVEL_LITERAL, String.valueOf(
+        getReceiver().literal(Marc21EventNames.BIBLIOGRAPHIC_LEVEL_LITERAL, Iso646Interner.valueOf(
                 implCodes[Marc21Constants.BIBLIOGRAPHIC_LEVEL_INDEX]));
-        getReceiver().literal(Marc21EventNames.TYPE_OF_CONTROL_LITERAL, String.valueOf(
+        getReceiver().literal(Marc21EventNames.TYPE_OF_CONTROL_LITERAL, Iso646Interner.valueOf(
                 implCodes[Marc21Constants.TYPE_OF_CONTROL_INDEX]));
-        getReceiver().literal(Marc21EventNames.CHARACTER_CODING_LITERAL, String.valueOf(
+        getReceiver().literal(Marc21EventNames.CHARACTER_CODING_LITERAL, Iso646Interner.valueOf(
                 implCodes[Marc21Constants.CHARACTER_CODING_INDEX]));
-        getReceiver().literal(Marc21EventNames.ENCODING_LEVEL_LITERAL, String.valueOf(
+        getReceiver().literal(Marc21EventNames.ENCODING_LEVEL_LITERAL, Iso646Interner.valueOf(
                 systemChars[Marc21Constants.ENCODING_LEVEL_INDEX]));
-        getReceiver().literal(Marc21EventNames.CATALOGING_FORM_LITERAL, String.valueOf(
+        getReceiver().literal(Marc21EventNames.CATALOGING_FORM_LITERAL, Iso646Interner.valueOf(
                 systemChars[Marc21Constants.CATALOGING_FORM_INDEX]));
-        getReceiver().literal(Marc21EventNames.MULTIPART_LEVEL_LITERAL, String.valueOf(
+        getReceiver().literal(Marc21EventNames.MULTIPART_LEVEL_LITERAL, Iso646Interner.valueOf(
                 systemChars[Marc21Constants.MULTIPART_LEVEL_INDEX]));
         getReceiver().endEntity();
     }
@@ -237,21 +250,13 @@ private final class Marc21Handler implements FieldHandler {
         @Override
         public void referenceField(final char[] tag, final char[] implDefinedPart,
                 final String value) {
-            getReceiver().literal(String.valueOf(tag), value);
+            getReceiver().literal(interner.name(tag), value);
         }
 
         @Override
         public void startDataField(final char[] tag, final char[] implDefinedPart,
                 final char[] indicators) {
-            getReceiver().startEntity(buildName(tag, indicators));
-        }
-
-        private String buildName(final char[] tag, final char[] indicators) {
-            final int nameLength = tag.length + indicators.length;
-            final char[] name = new char[nameLength];
-            System.arraycopy(tag, 0, name, 0, tag.length);
-            System.arraycopy(indicators, 0, name, tag.length, indicators.length);
-            return String.valueOf(name);
+            getReceiver().startEntity(interner.name(tag, indicators));
         }
 
         @Override
@@ -266,7 +271,7 @@ public void additionalImplDefinedPart(final char[] implDefinedPart) {
 
         @Override
         public void data(final char[] identifier, final String value) {
-            getReceiver().literal(String.valueOf(identifier[0]), value);
+            getReceiver().literal(Iso646Interner.valueOf(identifier[0]), value);
         }
 
     }
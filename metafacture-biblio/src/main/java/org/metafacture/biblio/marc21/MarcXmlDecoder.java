@@ -0,0 +1,88 @@
+/*
+ * Copyright 2026 hbz
+ *
+ * Licensed under the Apache License, Version 2.0 the "License";
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.metafacture.biblio.marc21;
+
+import java.io.Reader;
+
+import javax.xml.stream.XMLStreamReader;
+
+import org.metafacture.biblio.AbstractXmlRecordDecoder;
+import org.metafacture.framework.FluxCommand;
+import org.metafacture.framework.StreamReceiver;
+import org.metafacture.framework.annotations.Description;
+import org.metafacture.framework.annotations.In;
+import org.metafacture.framework.annotations.Out;
+
+/**
+ * Reads MARCXML records with a StAX parser. The decoder emits the same
+ * events as {@code decode-xml | handle-marcxml} but does not allocate a
+ * buffer per value.
+ *
+ * @see MarcXmlHandler
+ */
+@Description("Reads MARCXML records with a StAX parser. Emits the same events as decode-xml | handle-marcxml.")
+@In(Reader.class)
+@Out(StreamReceiver.class)
+@FluxCommand("decode-marcxml")
+public final class MarcXmlDecoder extends AbstractXmlRecordDecoder {
+
+    private static final String SUBFIELD = "subfield";
+    private static final String DATAFIELD = "datafield";
+    private static final String CONTROLFIELD = "controlfield";
+    private static final String RECORD = "record";
+    private static final String NAMESPACE = "http://www.loc.gov/MARC21/slim";
+    private static final String LEADER = "leader";
+    private static final String TYPE = "type";
+
+    private String currentTag = "";
+
+    @Override
+    protected void startElement(final XMLStreamReader reader) {
+        final String localName = reader.getLocalName();
+        if (SUBFIELD.equals(localName)) {
+            clearValue();
+            currentTag = reader.getAttributeValue(null, "code");
+        } else if (DATAFIELD.equals(localName)) {
+            getReceiver().startEntity(reader.getAttributeValue(null, "tag")
+                    + reader.getAttributeValue(null, "ind1")
+                    + reader.getAttributeValue(null, "ind2"));
+        } else if (CONTROLFIELD.equals(localName)) {
+            clearValue();
+            currentTag = reader.getAttributeValue(null, "tag");
+        } else if (RECORD.equals(localName) && NAMESPACE.equals(reader.getNamespaceURI())) {
+            getReceiver().startRecord("");
+            getReceiver().literal(TYPE, reader.getAttributeValue(null, TYPE));
+        } else if (LEADER.equals(localName)) {
+            clearValue();
+            currentTag = LEADER;
+        }
+    }
+
+    @Override
+    protected void endElement(final XMLStreamReader reader) {
+        final String localName = reader.getLocalName();
+        if (SUBFIELD.equals(localName) || CONTROLFIELD.equals(localName)) {
+            getReceiver().literal(currentTag, getValue(true));
+        } else if (DATAFIELD.equals(localName)) {
+            getReceiver().endEntity();
+        } else if (RECORD.equals(localName) && NAMESPACE.equals(reader.getNamespaceURI())) {
+            getReceiver().endRecord();
+        } else if (LEADER.equals(localName)) {
+            getReceiver().literal(currentTag, getValue(false));
+        }
+    }
+
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright 2026 hbz
+ *
+ * Licensed under the Apache License, Version 2.0 the "License";
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.metafacture.biblio.pica;
+
+import java.io.Reader;
+import java.text.Normalizer;
+
+import javax.xml.stream.XMLStreamReader;
+
+import org.metafacture.biblio.AbstractXmlRecordDecoder;
+import org.metafacture.framework.FluxCommand;
+import org.metafacture.framework.StreamReceiver;
+import org.metafacture.framework.annotations.Description;
+import org.metafacture.framework.annotations.In;
+import org.metafacture.framework.annotations.Out;
+
+/**
+ * Reads PICA-XML records with a StAX parser. The decoder emits the same
+ * events as {@code decode-xml | handle-picaxml} but does not allocate a
+ * buffer per value. Values which are already in NFC are not normalised
+ * again.
+ *
+ * @see PicaXmlHandler
+ */
+@Description("Reads PICA-XML records with a StAX parser. Emits the same events as decode-xml | handle-picaxml.")
+@In(Reader.class)
+@Out(StreamReceiver.class)
+@FluxCommand("decode-picaxml")
+public final class PicaXmlDecoder extends AbstractXmlRecordDecoder {
+
+    private static final String SUBFIELD = "subf";
+    private static final String DATAFIELD = "tag";
+    private static final String RECORD = "record";
+    private static final String NAMESPACE =
+            "http://www.oclcpica.org/xmlns/ppxml-1.0";
+
+    private String currentTag = "";
+
+    @Override
+    protected void startElement(final XMLStreamReader reader) {
+        final String localName = reader.getLocalName();
+        if (SUBFIELD.equals(localName)) {
+            clearValue();
+            currentTag = reader.getAttributeValue(null, "id");
+        } else if (DATAFIELD.equals(localName)) {
+            getReceiver().startEntity(reader.getAttributeValue(null, "id")
+                    + reader.getAttributeValue(null, "occ"));
+        } else if (RECORD.equals(localName) && NAMESPACE.equals(reader.getNamespaceURI())) {
+            getReceiver().startRecord("");
+        }
+    }
+
+    @Override
+    protected void endElement(final XMLStreamReader reader) {
+        final String localName = reader.getLocalName();
+        if (SUBFIELD.equals(localName)) {
+            getReceiver().literal(currentTag, normalize(getValue(true)));
+        } else if (DATAFIELD.equals(localName)) {
+            getReceiver().endEntity();
+        } else if (RECORD.equals(localName) && NAMESPACE.equals(reader.getNamespaceURI())) {
+            getReceiver().endRecord();
+        }
+    }
+
+    private static String normalize(final String value) {
+        if (Normalizer.isNormalized(value, Normalizer.Form.NFC)) {
+            return value;
+        }
+        return Normalizer.normalize(value, Normalizer.Form.NFC);
+    }
+
+}
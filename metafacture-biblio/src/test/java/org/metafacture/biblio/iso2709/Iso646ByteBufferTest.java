@@ -40,6 +40,26 @@ public void getLength_shouldReturnRecordLength() {
         assertEquals(3, byteBuffer.getLength());
     }
 
+    @Test
+    public void getLength_shouldReturnSliceLength() {
+        byteBuffer = new Iso646ByteBuffer(asBytes("TuxTux"), 2, 3);
+        assertEquals(3, byteBuffer.getLength());
+    }
+
+    @Test
+    public void distanceTo_byte_shouldStopAtEndOfSlice() {
+        byteBuffer = new Iso646ByteBuffer(asBytes("TuxTux"), 1, 3);
+        assertEquals(1, byteBuffer.distanceTo((byte) 'x', 0));
+        assertEquals(2, byteBuffer.distanceTo((byte) 'u', 1));
+    }
+
+    @Test
+    public void stringAt_shouldReturnStringRelativeToSliceOffset() {
+        byteBuffer = new Iso646ByteBuffer(asBytes("TuxTux"), 2, 3);
+        assertEquals("Tu", byteBuffer.stringAt(1, 2, StandardCharsets.UTF_8));
+        assertEquals('x', byteBuffer.charAt(0));
+    }
+
     @Test
     public void getFreeSpace_shouldReturnBufferLengthIfNothingWasWritten() {
         byteBuffer = new Iso646ByteBuffer(5);
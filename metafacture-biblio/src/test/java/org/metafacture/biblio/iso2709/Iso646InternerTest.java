@@ -0,0 +1,115 @@
+/*
+ * Copyright 2026 hbz
+ *
+ * Licensed under the Apache License, Version 2.0 the "License";
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.metafacture.biblio.iso2709;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.metafacture.framework.FormatException;
+
+/**
+ * Tests for class {@link Iso646Interner}.
+ */
+public final class Iso646InternerTest {
+
+    private Iso646Interner interner;
+
+    @Before
+    public void setup() {
+        interner = new Iso646Interner();
+    }
+
+    @Test
+    public void charsAt_shouldReturnSameInstanceForEqualSequences() {
+        final Iso646ByteBuffer buffer = new Iso646ByteBuffer(asBytes("100x100"));
+
+        final char[] first = interner.charsAt(buffer, 0, 3);
+        final char[] second = interner.charsAt(buffer, 4, 3);
+
+        assertArrayEquals("100".toCharArray(), first);
+        assertSame(first, second);
+    }
+
+    @Test
+    public void charsAt_shouldDistinguishSequencesOfDifferentLength() {
+        final Iso646ByteBuffer buffer = new Iso646ByteBuffer(new byte[4]);
+
+        final char[] shortSequence = interner.charsAt(buffer, 0, 2);
+        final char[] longSequence = interner.charsAt(buffer, 0, 3);
+
+        assertEquals(2, shortSequence.length);
+        assertEquals(3, longSequence.length);
+    }
+
+    @Test
+    public void charsAt_shouldNotInternLongSequences() {
+        final Iso646ByteBuffer buffer = new Iso646ByteBuffer(asBytes("0123456789"));
+
+        final char[] first = interner.charsAt(buffer, 0, 10);
+        final char[] second = interner.charsAt(buffer, 0, 10);
+
+        assertArrayEquals("0123456789".toCharArray(), first);
+        assertNotSame(first, second);
+    }
+
+    @Test(expected = FormatException.class)
+    public void charsAt_shouldThrowFormatExceptionForNonIso646Characters() {
+        final Iso646ByteBuffer buffer = new Iso646ByteBuffer(
+                "ä".getBytes(StandardCharsets.UTF_8));
+
+        interner.charsAt(buffer, 0, 2);
+    }
+
+    @Test
+    public void name_shouldReturnSameInstanceForEqualNames() {
+        final String first = interner.name("100".toCharArray(), "ab".toCharArray());
+        final String second = interner.name("100".toCharArray(), "ab".toCharArray());
+
+        assertEquals("100ab", first);
+        assertSame(first, second);
+    }
+
+    @Test
+    public void name_shouldInternSingleArrays() {
+        final String first = interner.name("001".toCharArray());
+
+        assertEquals("001", first);
+        assertSame(first, interner.name("001".toCharArray()));
+    }
+
+    @Test
+    public void name_shouldHandleNonIso646Characters() {
+        assertEquals("10ä", interner.name("10ä".toCharArray()));
+    }
+
+    @Test
+    public void valueOf_shouldReturnSharedSingleCharacterStrings() {
+        assertEquals("a", Iso646Interner.valueOf('a'));
+        assertSame(Iso646Interner.valueOf('a'), Iso646Interner.valueOf('a'));
+        assertEquals("ä", Iso646Interner.valueOf('ä'));
+    }
+
+    private static byte[] asBytes(final String str) {
+        return str.getBytes(Iso646Constants.CHARSET);
+    }
+
+}
@@ -0,0 +1,144 @@
+/*
+ * Copyright 2026 hbz
+ *
+ * Licensed under the Apache License, Version 2.0 the "License";
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.metafacture.biblio.marc21;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.verifyZeroInteractions;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.metafacture.framework.MissingIdException;
+import org.metafacture.framework.StreamReceiver;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+/**
+ * Tests for class {@link Marc21ByteDecoder}.
+ */
+public final class Marc21ByteDecoderTest {
+
+    private static final char SUBFIELD_MARKER = '\u001f';
+    private static final char FIELD_SEPARATOR = '\u001e';
+    private static final char RECORD_SEPARATOR = '\u001d';
+
+    private static final String RECORD_ID = "identifier";
+
+    private static final String RECORD_LABEL = "00073noa a2200049zu 4500";
+    private static final String DIRECTORY = "001001100000" + "100001200011";
+    private static final String DATA = RECORD_ID + FIELD_SEPARATOR
+            + "AB" + SUBFIELD_MARKER + "1" + "välue1" + FIELD_SEPARATOR;
+    private static final String RECORD = RECORD_LABEL + DIRECTORY
+            + FIELD_SEPARATOR + DATA + RECORD_SEPARATOR;
+
+    private static final String PADDING = "garbage";
+
+    private Marc21ByteDecoder marc21ByteDecoder;
+
+    @Mock
+    private StreamReceiver receiver;
+
+    @Before
+    public void setup() {
+        MockitoAnnotations.initMocks(this);
+        marc21ByteDecoder = new Marc21ByteDecoder();
+        marc21ByteDecoder.setReceiver(receiver);
+    }
+
+    @After
+    public void cleanup() {
+        marc21ByteDecoder.closeStream();
+    }
+
+    @Test
+    public void shouldProcessRecordInSliceOfArray() {
+        final byte[] data = (PADDING + RECORD + PADDING)
+                .getBytes(StandardCharsets.UTF_8);
+        final ByteBuffer buffer = ByteBuffer.wrap(data);
+        buffer.position(PADDING.length());
+        buffer.limit(data.length - PADDING.length());
+
+        marc21ByteDecoder.process(buffer);
+
+        verifyRecord();
+        assertEquals(PADDING.length(), buffer.position());
+        assertEquals(data.length - PADDING.length(), buffer.limit());
+    }
+
+    @Test
+    public void shouldProcessRecordInSlicedBuffer() {
+        final ByteBuffer buffer = ByteBuffer.wrap((PADDING + RECORD)
+                .getBytes(StandardCharsets.UTF_8));
+        buffer.position(PADDING.length());
+
+        marc21ByteDecoder.process(buffer.slice());
+
+        verifyRecord();
+    }
+
+    @Test
+    public void shouldProcessRecordInDirectBuffer() {
+        final byte[] data = RECORD.getBytes(StandardCharsets.UTF_8);
+        final ByteBuffer buffer = ByteBuffer.allocateDirect(data.length);
+        buffer.put(data);
+        buffer.flip();
+
+        marc21ByteDecoder.process(buffer);
+
+        verifyRecord();
+    }
+
+    @Test
+    public void shouldIgnoreEmptyBuffers() {
+        marc21ByteDecoder.process(ByteBuffer.allocate(0));
+
+        verifyZeroInteractions(receiver);
+    }
+
+    @Test(expected = MissingIdException.class)
+    public void shouldThrowMissingIdExceptionIfRecordHasNoId() {
+        marc21ByteDecoder.process(ByteBuffer.wrap(("00049noa a2200037zu 4500"
+                + "100001200000" + FIELD_SEPARATOR + "AB" + SUBFIELD_MARKER
+                + "1" + "value1" + FIELD_SEPARATOR + RECORD_SEPARATOR)
+                .getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private void verifyRecord() {
+        final InOrder ordered = inOrder(receiver);
+        ordered.verify(receiver).startRecord(RECORD_ID);
+        ordered.verify(receiver).startEntity("leader");
+        ordered.verify(receiver).literal("status", "n");
+        ordered.verify(receiver).literal("type", "o");
+        ordered.verify(receiver).literal("bibliographicLevel", "a");
+        ordered.verify(receiver).literal("typeOfControl", " ");
+        ordered.verify(receiver).literal("characterCodingScheme", "a");
+        ordered.verify(receiver).literal("encodingLevel", "z");
+        ordered.verify(receiver).literal("catalogingForm", "u");
+        ordered.verify(receiver).literal("multipartLevel", " ");
+        ordered.verify(receiver).endEntity();
+        ordered.verify(receiver).literal("001", RECORD_ID);
+        ordered.verify(receiver).startEntity("100AB");
+        ordered.verify(receiver).literal("1", "välue1");
+        ordered.verify(receiver).endEntity();
+        ordered.verify(receiver).endRecord();
+    }
+
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright 2026 hbz
+ *
+ * Licensed under the Apache License, Version 2.0 the "License";
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.metafacture.biblio.marc21;
+
+import static org.mockito.Mockito.inOrder;
+
+import java.io.StringReader;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.metafacture.framework.MetafactureException;
+import org.metafacture.framework.StreamReceiver;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnit;
+import org.mockito.junit.MockitoRule;
+
+/**
+ * Tests for class {@link MarcXmlDecoder}.
+ */
+public final class MarcXmlDecoderTest {
+
+    private static final String START = "<collection xmlns='http://www.loc.gov/MARC21/slim'>";
+    private static final String END = "</collection>";
+
+    @Rule
+    public final MockitoRule mockitoRule = MockitoJUnit.rule();
+
+    @Mock
+    private StreamReceiver receiver;
+
+    private MarcXmlDecoder decoder;
+
+    @Before
+    public void setup() {
+        decoder = new MarcXmlDecoder();
+        decoder.setReceiver(receiver);
+    }
+
+    @Test
+    public void shouldEmitRecordWithLeaderAndFields() {
+        decoder.process(new StringReader(START
+                + "<record type='Bibliographic'>"
+                + "<leader>  cam a22  </leader>"
+                + "<controlfield tag='001'> 1234 </controlfield>"
+                + "<datafield tag='245' ind1='1' ind2=' '>"
+                + "<subfield code='a'>\n  Title &amp; <![CDATA[more]]>\n</subfield>"
+                + "<subfield code='b'></subfield>"
+                + "</datafield>"
+                + "</record>"
+                + END));
+
+        final InOrder ordered = inOrder(receiver);
+        ordered.verify(receiver).startRecord("");
+        ordered.verify(receiver).literal("type", "Bibliographic");
+        ordered.verify(receiver).literal("leader", "  cam a22  ");
+        ordered.verify(receiver).literal("001", "1234");
+        ordered.verify(receiver).startEntity("2451 ");
+        ordered.verify(receiver).literal("a", "Title & more");
+        ordered.verify(receiver).literal("b", "");
+        ordered.verify(receiver).endEntity();
+        ordered.verify(receiver).endRecord();
+        ordered.verifyNoMoreInteractions();
+    }
+
+    @Test
+    public void shouldEmitAllRecordsOfCollection() {
+        decoder.process(new StringReader(START
+                + "<record><controlfield tag='001'>1</controlfield></record>\n"
+                + "<record><controlfield tag='001'>2</controlfield></record>"
+                + END));
+
+        final InOrder ordered = inOrder(receiver);
+        ordered.verify(receiver).startRecord("");
+        ordered.verify(receiver).literal("type", null);
+        ordered.verify(receiver).literal("001", "1");
+        ordered.verify(receiver).endRecord();
+        ordered.verify(receiver).startRecord("");
+        ordered.verify(receiver).literal("type", null);
+        ordered.verify(receiver).literal("001", "2");
+        ordered.verify(receiver).endRecord();
+        ordered.verifyNoMoreInteractions();
+    }
+
+    @Test
+    public void shouldIgnoreRecordElementsInOtherNamespaces() {
+        decoder.process(new StringReader("<record><controlfield tag='001'>1</controlfield></record>"));
+
+        final InOrder ordered = inOrder(receiver);
+        ordered.verify(receiver).literal("001", "1");
+        ordered.verifyNoMoreInteractions();
+    }
+
+    @Test
+    public void shouldReuseDecoderForSeveralDocuments() {
+        decoder.process(new StringReader(START + "<record/>" + END));
+        decoder.process(new StringReader(START + "<record/>" + END));
+
+        final InOrder ordered = inOrder(receiver);
+        ordered.verify(receiver).startRecord("");
+        ordered.verify(receiver).literal("type", null);
+        ordered.verify(receiver).endRecord();
+        ordered.verify(receiver).startRecord("");
+        ordered.verify(receiver).literal("type", null);
+        ordered.verify(receiver).endRecord();
+        ordered.verifyNoMoreInteractions();
+    }
+
+    @Test(expected = MetafactureException.class)
+    public void shouldThrowMetafactureExceptionIfXmlIsMalformed() {
+        decoder.process(new StringReader(START + "<record>" + END));
+    }
+
+}
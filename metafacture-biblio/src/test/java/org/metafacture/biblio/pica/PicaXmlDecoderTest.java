@@ -0,0 +1,77 @@
+/*
+ * Copyright 2026 hbz
+ *
+ * Licensed under the Apache License, Version 2.0 the "License";
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.metafacture.biblio.pica;
+
+import static org.mockito.Mockito.inOrder;
+
+import java.io.StringReader;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.metafacture.framework.StreamReceiver;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnit;
+import org.mockito.junit.MockitoRule;
+
+/**
+ * Tests for class {@link PicaXmlDecoder}.
+ */
+public final class PicaXmlDecoderTest {
+
+    @Rule
+    public final MockitoRule mockitoRule = MockitoJUnit.rule();
+
+    @Mock
+    private StreamReceiver receiver;
+
+    private PicaXmlDecoder decoder;
+
+    @Before
+    public void setup() {
+        decoder = new PicaXmlDecoder();
+        decoder.setReceiver(receiver);
+    }
+
+    @Test
+    public void shouldEmitRecordWithFields() {
+        decoder.process(new StringReader(
+                "<collection xmlns='http://www.oclcpica.org/xmlns/ppxml-1.0'>"
+                + "<record>"
+                + "<global opacflag='2'>ignored</global>"
+                + "<tag id='021A' occ=''>"
+                + "<subf id='a'> Title </subf>"
+                + "<subf id='d'>Cafe\u0301</subf>"
+                + "</tag>"
+                + "<tag id='101@' occ='01'><subf id='a'>1</subf></tag>"
+                + "</record>"
+                + "</collection>"));
+
+        final InOrder ordered = inOrder(receiver);
+        ordered.verify(receiver).startRecord("");
+        ordered.verify(receiver).startEntity("021A");
+        ordered.verify(receiver).literal("a", "Title");
+        ordered.verify(receiver).literal("d", "Caf\u00e9");
+        ordered.verify(receiver).endEntity();
+        ordered.verify(receiver).startEntity("101@01");
+        ordered.verify(receiver).literal("a", "1");
+        ordered.verify(receiver).endEntity();
+        ordered.verify(receiver).endRecord();
+        ordered.verifyNoMoreInteractions();
+    }
+
+}
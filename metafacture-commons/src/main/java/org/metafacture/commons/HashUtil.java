@@ -0,0 +1,101 @@
+/*
+ * Copyright 2026 hbz
+ *
+ * Licensed under the Apache License, Version 2.0 the "License";
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.metafacture.commons;
+
+/**
+ * 64 bit hash function for hash tables and sketches. The hash is computed
+ * with FNV-1a followed by the finaliser of MurmurHash3. Unlike
+ * {@link String#hashCode()}, the hash values are well distributed over all
+ * bits.
+ * <p>
+ * Data which is not available as a string or byte array can be hashed by
+ * starting with {@link #FNV_OFFSET_BASIS}, passing each value to
+ * {@link #fnv1a(long, int)} and finishing with {@link #mix(long)}.
+ */
+public final class HashUtil {
+
+    public static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    // null has a hash of its own which differs from the hash of the empty
+    // string:
+    private static final long NULL_HASH = mix(FNV_PRIME);
+
+    private HashUtil() {
+        // no instances allowed
+    }
+
+    /**
+     * Hashes the chars of a string.
+     *
+     * @param value the string to hash; may be null
+     * @return the hash value
+     */
+    public static long hash64(final String value) {
+        if (value == null) {
+            return NULL_HASH;
+        }
+        long hash = FNV_OFFSET_BASIS;
+        for (int i = 0; i < value.length(); ++i) {
+            hash = fnv1a(hash, value.charAt(i));
+        }
+        return mix(hash);
+    }
+
+    /**
+     * Hashes the bytes of an array. Strings consisting of ASCII chars only
+     * have the same hash as their bytes.
+     *
+     * @param bytes the bytes to hash
+     * @return the hash value
+     */
+    public static long hash64(final byte[] bytes) {
+        long hash = FNV_OFFSET_BASIS;
+        for (final byte b : bytes) {
+            hash = fnv1a(hash, b & 0xff);
+        }
+        return mix(hash);
+    }
+
+    /**
+     * Adds a value to an FNV-1a hash.
+     *
+     * @param hash the hash of the preceding values
+     * @param value the next value
+     * @return the hash including {@code value}
+     */
+    public static long fnv1a(final long hash, final int value) {
+        return (hash ^ value) * FNV_PRIME;
+    }
+
+    /**
+     * Spreads the bits of an FNV-1a hash with the finaliser of MurmurHash3.
+     *
+     * @param hash the FNV-1a hash
+     * @return the final hash value
+     */
+    public static long mix(final long hash) {
+        long h = hash;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+}
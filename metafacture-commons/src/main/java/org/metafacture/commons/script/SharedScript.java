@@ -0,0 +1,150 @@
+/*
+ * Copyright 2026 hbz
+ *
+ * Licensed under the Apache License, Version 2.0 the "License";
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.metafacture.commons.script;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.script.Bindings;
+import javax.script.Compilable;
+import javax.script.CompiledScript;
+import javax.script.Invocable;
+import javax.script.ScriptEngine;
+import javax.script.ScriptEngineManager;
+import javax.script.ScriptException;
+
+import org.metafacture.commons.ResourceUtil;
+
+/**
+ * A JavaScript file which is compiled once per JVM and shared by all users
+ * of the file.
+ * <p>
+ * Each {@link Invoker} evaluates the compiled script in its own global scope
+ * (one per thread), so that users do not see each other's global variables
+ * and can call the script's functions from several threads at the same
+ * time. Calls are made through the global scope object instead of the
+ * engine's default context, which would not be thread-safe.
+ * <p>
+ * Compiled scripts are cached by file name. Changes to a script file are not
+ * noticed after the file was compiled.
+ */
+public final class SharedScript {
+
+    private static final String ENGINE_NAME = "JavaScript";
+
+    private static final Map<String, SharedScript> SCRIPTS = new ConcurrentHashMap<>();
+
+    private final ScriptEngine engine;
+    private final CompiledScript compiledScript;
+
+    private SharedScript(final ScriptEngine engine, final CompiledScript compiledScript) {
+        this.engine = engine;
+        this.compiledScript = compiledScript;
+    }
+
+    /**
+     * Returns the compiled script for a file. The script is compiled on the
+     * first request for the file.
+     *
+     * @param file name of the script file or resource
+     * @return the compiled script
+     * @throws FileNotFoundException if the file does not exist
+     * @throws ScriptException if the script cannot be compiled
+     */
+    public static SharedScript forFile(final String file)
+            throws FileNotFoundException, ScriptException {
+        SharedScript script = SCRIPTS.get(file);
+        if (script == null) {
+            script = compile(file);
+            final SharedScript existingScript = SCRIPTS.putIfAbsent(file, script);
+            if (existingScript != null) {
+                script = existingScript;
+            }
+        }
+        return script;
+    }
+
+    private static SharedScript compile(final String file)
+            throws FileNotFoundException, ScriptException {
+        final ScriptEngine engine = new ScriptEngineManager().getEngineByName(ENGINE_NAME);
+        if (!(engine instanceof Compilable && engine instanceof Invocable)) {
+            throw new ScriptException("No compiling " + ENGINE_NAME + " engine available");
+        }
+        try (Reader reader = ResourceUtil.getReader(file)) {
+            return new SharedScript(engine, ((Compilable) engine).compile(reader));
+        } catch (final FileNotFoundException | ScriptException e) {
+            throw e;
+        } catch (final IOException e) {
+            throw new ScriptException(e);
+        }
+    }
+
+    /**
+     * Creates a new invoker for the functions of this script. The script is
+     * evaluated immediately for the calling thread so that errors in the
+     * script are reported early. Other threads evaluate the script on their
+     * first call.
+     *
+     * @return a new invoker
+     * @throws ScriptException if the evaluation of the script fails
+     */
+    public Invoker newInvoker() throws ScriptException {
+        final Invoker invoker = new Invoker();
+        invoker.getGlobalScope();
+        return invoker;
+    }
+
+    /**
+     * Calls functions of a {@link SharedScript}. Each thread using an invoker
+     * has its own global scope.
+     */
+    public final class Invoker {
+
+        private final ThreadLocal<Bindings> globalScopes = new ThreadLocal<>();
+
+        private Invoker() {
+        }
+
+        /**
+         * Calls a function of the script.
+         *
+         * @param function name of the function
+         * @param arguments the arguments of the function
+         * @return the result of the function
+         * @throws ScriptException if the function fails
+         * @throws NoSuchMethodException if the script has no such function
+         */
+        public Object invoke(final String function, final Object... arguments)
+                throws ScriptException, NoSuchMethodException {
+            return ((Invocable) engine).invokeMethod(getGlobalScope(), function, arguments);
+        }
+
+        private Bindings getGlobalScope() throws ScriptException {
+            Bindings globalScope = globalScopes.get();
+            if (globalScope == null) {
+                globalScope = engine.createBindings();
+                compiledScript.eval(globalScope);
+                globalScopes.set(globalScope);
+            }
+            return globalScope;
+        }
+
+    }
+
+}
@@ -0,0 +1,331 @@
+/*
+ * Copyright 2026 hbz
+ *
+ * Licensed under the Apache License, Version 2.0 the "License";
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.metafacture.commons.tries;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.regex.Pattern;
+
+/**
+ * A drop-in replacement for {@link SimpleRegexTrie} which compiles all
+ * registered key patterns into a deterministic finite automaton.
+ * <p>
+ * Key patterns have the same syntax and matching semantics as in
+ * {@link SimpleRegexTrie} and {@link WildcardTrie}: '|' separates
+ * alternatives, '*' and '?' are wildcards and simple character classes such
+ * as 'a[bc]' are expanded. The automaton is built on the first call to
+ * {@link #get(String)} after keys have been added. Each lookup then is a
+ * single table walk over the characters of the key which does not allocate
+ * any objects. The returned lists are shared between lookups and must not be
+ * modified. Values are returned in the order in which they were first
+ * registered.
+ * <p>
+ * If a set of patterns produces more than {@value #MAX_EAGER_STATES} states
+ * the remaining states are built on first use.
+ * <p>
+ * Instances of this class are not thread-safe.
+ *
+ * @param <P> type of value stored
+ */
+public final class CompiledWildcardTrie<P> {
+
+    public static final int MAX_EAGER_STATES = 4096;
+
+    private static final Pattern OR_PATTERN =
+            Pattern.compile(WildcardTrie.OR_STRING, Pattern.LITERAL);
+    private static final String SIMPLE_CHARACTER_CLASS =
+            ".*" + SimpleRegexTrie.SIMPLE_CHARACTER_CLASS + ".*";
+
+    private static final int ASCII_RANGE = 128;
+    private static final int OTHER_CHAR_CLASS = 0;
+    private static final int DEAD_STATE = 0;
+    private static final int START_STATE = 1;
+    private static final int UNKNOWN = -1;
+
+    private final List<Node<P>> nodes = new ArrayList<>();
+    private final Node<P> root = newNode();
+
+    private boolean compiled;
+    private int registrations;
+
+    private final int[] asciiCharClasses = new int[ASCII_RANGE];
+    private CharMap<Integer> charClasses = new CharMap<>();
+    private char[] charClassRepresentatives;
+    private int charClassCount;
+
+    private final List<BitSet> states = new ArrayList<>();
+    private final Map<BitSet, Integer> stateIds = new HashMap<>();
+    private final List<List<P>> stateValues = new ArrayList<>();
+    private int[] transitions = new int[0];
+
+    /**
+     * Inserts keys into the trie. Use '|' to concatenate. Use '*' (0,inf) and
+     * '?' (1,1) to express wildcards. Simple character classes like
+     * 'a[agt][ac]' are supported as well.
+     *
+     * @param keys pattern of keys to register
+     * @param value value to associate with the key pattern.
+     */
+    public void put(final String keys, final P value) {
+        if (keys.matches(SIMPLE_CHARACTER_CLASS)) {
+            int charClassStart = keys.indexOf('[', 0);
+            final int charClassEnd = keys.indexOf(']', 1);
+            final String begin = keys.substring(0, charClassStart);
+            final String end = keys.substring(charClassEnd + 1, keys.length());
+            for (; charClassStart < charClassEnd - 1; charClassStart++) {
+                final char middle = keys.charAt(charClassStart + 1);
+                put(begin + middle + end, value);
+            }
+        } else if (keys.contains(WildcardTrie.OR_STRING)) {
+            for (final String key : OR_PATTERN.split(keys)) {
+                simplyPut(key, value);
+            }
+        } else {
+            simplyPut(keys, value);
+        }
+    }
+
+    private void simplyPut(final String key, final P value) {
+        Node<P> node = root;
+        final int length = key.length();
+        for (int i = 0; i < length; ++i) {
+            final char c = key.charAt(i);
+            Node<P> next = node.getNext(c);
+            if (next == null) {
+                next = newNode();
+                node.links.put(c, next);
+                if (c == WildcardTrie.STAR_WILDCARD) {
+                    next.links.put(WildcardTrie.STAR_WILDCARD, next);
+                }
+            }
+            node = next;
+        }
+        node.addValue(value, registrations++);
+        compiled = false;
+    }
+
+    private Node<P> newNode() {
+        final Node<P> node = new Node<>(nodes.size());
+        nodes.add(node);
+        return node;
+    }
+
+    /**
+     * Returns all values whose key patterns match {@code key}.
+     *
+     * @param key the key to look up
+     * @return an unmodifiable list of the matching values. The list is empty
+     * if no pattern matches.
+     */
+    public List<P> get(final String key) {
+        if (!compiled) {
+            compile();
+        }
+        int state = START_STATE;
+        final int length = key.length();
+        for (int i = 0; i < length && state != DEAD_STATE; ++i) {
+            final int charClass = getCharClass(key.charAt(i));
+            state = getTransition(state, charClass);
+        }
+        return stateValues.get(state);
+    }
+
+    private int getCharClass(final char c) {
+        if (c < ASCII_RANGE) {
+            return asciiCharClasses[c];
+        }
+        final Integer charClass = charClasses.get(c);
+        if (charClass == null) {
+            return OTHER_CHAR_CLASS;
+        }
+        return charClass.intValue();
+    }
+
+    private int getTransition(final int state, final int charClass) {
+        final int index = state * charClassCount + charClass;
+        int next = transitions[index];
+        if (next == UNKNOWN) {
+            // Computing the transition may grow the transition table:
+            next = computeTransition(state, charClass);
+            transitions[index] = next;
+        }
+        return next;
+    }
+
+    private void compile() {
+        buildCharClasses();
+
+        states.clear();
+        stateIds.clear();
+        stateValues.clear();
+        transitions = new int[0];
+        addState(new BitSet());
+        final BitSet startNodes = new BitSet();
+        startNodes.set(root.id);
+        addState(startNodes);
+
+        // The dead state loops on every input:
+        Arrays.fill(transitions, 0, charClassCount, DEAD_STATE);
+
+        final Deque<Integer> pending = new ArrayDeque<>();
+        pending.add(Integer.valueOf(START_STATE));
+        while (!pending.isEmpty() && states.size() < MAX_EAGER_STATES) {
+            final int state = pending.poll().intValue();
+            for (int charClass = 0; charClass < charClassCount; ++charClass) {
+                final int knownStates = states.size();
+                final int next = getTransition(state, charClass);
+                if (next >= knownStates) {
+                    pending.add(Integer.valueOf(next));
+                }
+            }
+        }
+        compiled = true;
+    }
+
+    private void buildCharClasses() {
+        final Set<Character> alphabet = new TreeSet<>();
+        for (final Node<P> node : nodes) {
+            alphabet.addAll(node.links.keySet());
+        }
+        charClassCount = alphabet.size() + 1;
+        charClassRepresentatives = new char[charClassCount];
+        Arrays.fill(asciiCharClasses, OTHER_CHAR_CLASS);
+        charClasses = new CharMap<>();
+        int charClass = OTHER_CHAR_CLASS + 1;
+        for (final Character c : alphabet) {
+            charClassRepresentatives[charClass] = c.charValue();
+            if (c.charValue() < ASCII_RANGE) {
+                asciiCharClasses[c.charValue()] = charClass;
+            } else {
+                charClasses.put(c.charValue(), Integer.valueOf(charClass));
+            }
+            charClass += 1;
+        }
+    }
+
+    private int addState(final BitSet stateNodes) {
+        final int state = states.size();
+        states.add(stateNodes);
+        stateIds.put(stateNodes, Integer.valueOf(state));
+        stateValues.add(collectValues(stateNodes));
+
+        final int requiredLength = (state + 1) * charClassCount;
+        final int oldLength = transitions.length;
+        if (requiredLength > oldLength) {
+            transitions = Arrays.copyOf(transitions,
+                    Math.max(2 * oldLength, requiredLength));
+            Arrays.fill(transitions, oldLength, transitions.length, UNKNOWN);
+        }
+        return state;
+    }
+
+    private List<P> collectValues(final BitSet stateNodes) {
+        final List<Entry<P, Integer>> entries = new ArrayList<>();
+        for (int i = stateNodes.nextSetBit(0); i >= 0; i = stateNodes.nextSetBit(i + 1)) {
+            entries.addAll(nodes.get(i).values.entrySet());
+        }
+        if (entries.isEmpty()) {
+            return Collections.emptyList();
+        }
+        // Node ids follow the order in which nodes were created, not the
+        // order in which values were registered:
+        entries.sort(Comparator.comparingInt(Entry::getValue));
+        final List<P> values = new ArrayList<>(entries.size());
+        for (final Entry<P, Integer> entry : entries) {
+            values.add(entry.getKey());
+        }
+        return Collections.unmodifiableList(values);
+    }
+
+    /**
+     * Advances all nodes in a state by one character. This follows exactly the
+     * same rules as {@link WildcardTrie#get(String)}.
+     */
+    private int computeTransition(final int state, final int charClass) {
+        final BitSet nextNodes = new BitSet();
+        final BitSet stateNodes = states.get(state);
+        final boolean isOtherChar = charClass == OTHER_CHAR_CLASS;
+        final char c = charClassRepresentatives[charClass];
+        for (int i = stateNodes.nextSetBit(0); i >= 0; i = stateNodes.nextSetBit(i + 1)) {
+            final Node<P> node = nodes.get(i);
+            if (!isOtherChar) {
+                addNode(nextNodes, node.getNext(c));
+            }
+            addNode(nextNodes, node.getNext(WildcardTrie.Q_WILDCARD));
+            final Node<P> star = node.getNext(WildcardTrie.STAR_WILDCARD);
+            if (star != null) {
+                nextNodes.set(star.id);
+                if (star != node && !isOtherChar) {
+                    addNode(nextNodes, star.getNext(c));
+                }
+            }
+        }
+        final Integer knownState = stateIds.get(nextNodes);
+        if (knownState != null) {
+            return knownState.intValue();
+        }
+        return addState(nextNodes);
+    }
+
+    private static void addNode(final BitSet nodeSet, final Node<?> node) {
+        if (node != null) {
+            nodeSet.set(node.id);
+        }
+    }
+
+    /**
+     * Node in the nondeterministic automaton from which the deterministic
+     * automaton is built.
+     *
+     * @param <T> type of the value associated with this node.
+     */
+    private static final class Node<T> {
+
+        private final int id;
+        // Maps each value to the index of its first registration:
+        private Map<T, Integer> values = Collections.emptyMap();
+        private final CharMap<Node<T>> links = new CharMap<>();
+
+        Node(final int id) {
+            this.id = id;
+        }
+
+        void addValue(final T value, final int registration) {
+            if (values.isEmpty()) {
+                values = new LinkedHashMap<>();
+            }
+            values.putIfAbsent(value, Integer.valueOf(registration));
+        }
+
+        Node<T> getNext(final char key) {
+            return links.get(key);
+        }
+
+    }
+
+}
@@ -0,0 +1,292 @@
+/*
+ * Copyright 2026 hbz
+ *
+ * Licensed under the Apache License, Version 2.0 the "License";
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.metafacture.commons.types;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.ObjLongConsumer;
+
+/**
+ * A map from keys to primitive {@code long} counters. Keys are stored in an
+ * open-addressing table with linear probing so that incrementing a counter
+ * neither boxes the count nor allocates an entry object.
+ * <p>
+ * The {@code null} key is supported; its counter is kept outside of the
+ * table. Instances of this class are not thread-safe.
+ *
+ * @param <K> type of the keys
+ */
+public final class CounterMap<K> {
+
+    private static final int DEFAULT_CAPACITY = 16;
+    private static final int MAX_CAPACITY = 1 << 30;
+    private static final int GOLDEN_RATIO = 0x9e3779b9;
+
+    private Object[] keys;
+    private long[] counts;
+    private int size;
+    private int resizeThreshold;
+    private boolean hasNullKey;
+    private long nullKeyCount;
+
+    public CounterMap() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates a map which holds {@code expectedSize} keys without resizing.
+     *
+     * @param expectedSize the number of keys to expect
+     */
+    public CounterMap(final int expectedSize) {
+        allocate(tableSizeFor(expectedSize));
+    }
+
+    /**
+     * Adds one to the counter of {@code key}.
+     *
+     * @param key the key whose counter is incremented
+     * @return the new value of the counter
+     */
+    public long increment(final K key) {
+        return add(key, 1);
+    }
+
+    /**
+     * Adds {@code delta} to the counter of {@code key}. Counters of keys which
+     * are not in the map start at zero.
+     *
+     * @param key the key whose counter is changed
+     * @param delta the value to add
+     * @return the new value of the counter
+     */
+    public long add(final K key, final long delta) {
+        if (key == null) {
+            addNullKey();
+            nullKeyCount += delta;
+            return nullKeyCount;
+        }
+        final int slot = findSlot(key);
+        if (keys[slot] == null) {
+            insert(slot, key, delta);
+            return delta;
+        }
+        counts[slot] += delta;
+        return counts[slot];
+    }
+
+    /**
+     * Sets the counter of {@code key} to {@code count}.
+     *
+     * @param key the key whose counter is set
+     * @param count the new value of the counter
+     * @return the previous value of the counter or zero if the key was not in
+     *         the map
+     */
+    public long put(final K key, final long count) {
+        if (key == null) {
+            addNullKey();
+            final long previousCount = nullKeyCount;
+            nullKeyCount = count;
+            return previousCount;
+        }
+        final int slot = findSlot(key);
+        if (keys[slot] == null) {
+            insert(slot, key, count);
+            return 0;
+        }
+        final long previousCount = counts[slot];
+        counts[slot] = count;
+        return previousCount;
+    }
+
+    /**
+     * Adds all counters of {@code other} to the counters of this map.
+     *
+     * @param other the map whose counters are added
+     */
+    public void addAll(final CounterMap<? extends K> other) {
+        other.forEach(this::add);
+    }
+
+    /**
+     * Returns the counter of {@code key}.
+     *
+     * @param key the key to look up
+     * @return the value of the counter or zero if the key is not in the map
+     */
+    public long get(final Object key) {
+        if (key == null) {
+            return nullKeyCount;
+        }
+        final int slot = findSlot(key);
+        if (keys[slot] == null) {
+            return 0;
+        }
+        return counts[slot];
+    }
+
+    public boolean containsKey(final Object key) {
+        if (key == null) {
+            return hasNullKey;
+        }
+        return keys[findSlot(key)] != null;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        Arrays.fill(keys, null);
+        Arrays.fill(counts, 0);
+        size = 0;
+        hasNullKey = false;
+        nullKeyCount = 0;
+    }
+
+    /**
+     * Passes all keys and their counters to {@code consumer}. The iteration
+     * order is unspecified.
+     *
+     * @param consumer receives the keys and counters
+     */
+    @SuppressWarnings("unchecked")
+    public void forEach(final ObjLongConsumer<? super K> consumer) {
+        if (hasNullKey) {
+            consumer.accept(null, nullKeyCount);
+        }
+        for (int i = 0; i < keys.length; ++i) {
+            if (keys[i] != null) {
+                consumer.accept((K) keys[i], counts[i]);
+            }
+        }
+    }
+
+    /**
+     * Returns an iterator over the keys. The iteration order is unspecified.
+     * The map must not be modified while iterating over it and keys cannot be
+     * removed through the iterator.
+     *
+     * @return an iterator over the keys
+     */
+    public Iterator<K> keyIterator() {
+        return new KeyIterator();
+    }
+
+    private void addNullKey() {
+        if (!hasNullKey) {
+            hasNullKey = true;
+            size += 1;
+        }
+    }
+
+    private int findSlot(final Object key) {
+        final int mask = keys.length - 1;
+        int slot = hash(key) & mask;
+        while (keys[slot] != null && !keys[slot].equals(key)) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void insert(final int slot, final K key, final long count) {
+        keys[slot] = key;
+        counts[slot] = count;
+        size += 1;
+        if (size > resizeThreshold) {
+            resize();
+        }
+    }
+
+    private void resize() {
+        final Object[] oldKeys = keys;
+        final long[] oldCounts = counts;
+        allocate(oldKeys.length * 2);
+        for (int i = 0; i < oldKeys.length; ++i) {
+            if (oldKeys[i] != null) {
+                final int slot = findSlot(oldKeys[i]);
+                keys[slot] = oldKeys[i];
+                counts[slot] = oldCounts[i];
+            }
+        }
+    }
+
+    private void allocate(final int capacity) {
+        if (capacity > MAX_CAPACITY) {
+            throw new IllegalStateException("CounterMap cannot grow any further");
+        }
+        keys = new Object[capacity];
+        counts = new long[capacity];
+        // Keep the load factor at 0.5 to keep probe sequences short:
+        resizeThreshold = capacity / 2;
+    }
+
+    private static int hash(final Object key) {
+        final int hash = key.hashCode() * GOLDEN_RATIO;
+        return hash ^ (hash >>> 16);
+    }
+
+    private static int nextKeySlot(final Object[] table, final int start) {
+        int slot = start;
+        while (slot < table.length && table[slot] == null) {
+            slot += 1;
+        }
+        return slot;
+    }
+
+    private static int tableSizeFor(final int expectedSize) {
+        int capacity = DEFAULT_CAPACITY;
+        while (capacity / 2 < expectedSize && capacity < MAX_CAPACITY) {
+            capacity *= 2;
+        }
+        return capacity;
+    }
+
+    private final class KeyIterator implements Iterator<K> {
+
+        private final Object[] table = keys;
+        private boolean nullKeyPending = hasNullKey;
+        private int slot = nextKeySlot(table, 0);
+
+        @Override
+        public boolean hasNext() {
+            return nullKeyPending || slot < table.length;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public K next() {
+            if (nullKeyPending) {
+                nullKeyPending = false;
+                return null;
+            }
+            if (slot >= table.length) {
+                throw new NoSuchElementException();
+            }
+            final K key = (K) table[slot];
+            slot = nextKeySlot(table, slot + 1);
+            return key;
+        }
+
+    }
+
+}
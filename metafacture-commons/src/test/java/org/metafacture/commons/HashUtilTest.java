@@ -0,0 +1,59 @@
+/*
+ * Copyright 2026 hbz
+ *
+ * Licensed under the Apache License, Version 2.0 the "License";
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.metafacture.commons;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Test;
+
+/**
+ * Tests for the static methods in {@link HashUtil}.
+ */
+public final class HashUtilTest {
+
+    @Test
+    public void shouldHashAsciiStringsLikeTheirBytes() {
+        final String value = "Aloha Hawaii";
+
+        assertEquals(HashUtil.hash64(value.getBytes(StandardCharsets.US_ASCII)),
+                HashUtil.hash64(value));
+    }
+
+    @Test
+    public void shouldHashIncrementallyLikeByteArrays() {
+        final byte[] bytes = {1, -2, 3};
+        long hash = HashUtil.FNV_OFFSET_BASIS;
+        for (final byte b : bytes) {
+            hash = HashUtil.fnv1a(hash, b & 0xff);
+        }
+
+        assertEquals(HashUtil.hash64(bytes), HashUtil.mix(hash));
+    }
+
+    @Test
+    public void shouldDistinguishNullFromEmptyString() {
+        assertNotEquals(HashUtil.hash64(""), HashUtil.hash64((String) null));
+    }
+
+    @Test
+    public void shouldDistinguishDifferentStrings() {
+        assertNotEquals(HashUtil.hash64("ab"), HashUtil.hash64("ba"));
+    }
+
+}
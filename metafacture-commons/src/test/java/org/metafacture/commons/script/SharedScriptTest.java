@@ -0,0 +1,118 @@
+/*
+ * Copyright 2026 hbz
+ *
+ * Licensed under the Apache License, Version 2.0 the "License";
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.metafacture.commons.script;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import javax.script.ScriptException;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Tests for class {@link SharedScript}.
+ */
+public final class SharedScriptTest {
+
+    private static final String SCRIPT =
+            "var count = 0;\n"
+            + "function process(value) { count += 1; return value + count; }\n";
+
+    @Rule
+    public final TemporaryFolder tempFolder = new TemporaryFolder();
+
+    private String scriptFile;
+
+    @Before
+    public void writeScript() throws IOException {
+        final File file = tempFolder.newFile("script.js");
+        Files.write(file.toPath(), SCRIPT.getBytes(StandardCharsets.UTF_8));
+        scriptFile = file.getPath();
+    }
+
+    @Test
+    public void shouldCompileScriptOnlyOnce() throws Exception {
+        assertSame(SharedScript.forFile(scriptFile), SharedScript.forFile(scriptFile));
+    }
+
+    @Test
+    public void shouldInvokeFunction() throws Exception {
+        final SharedScript.Invoker invoker = SharedScript.forFile(scriptFile).newInvoker();
+
+        assertEquals("a1", invoker.invoke("process", "a"));
+        assertEquals("b2", invoker.invoke("process", "b"));
+    }
+
+    @Test
+    public void shouldNotShareGlobalsBetweenInvokers() throws Exception {
+        final SharedScript script = SharedScript.forFile(scriptFile);
+        final SharedScript.Invoker invoker1 = script.newInvoker();
+        final SharedScript.Invoker invoker2 = script.newInvoker();
+
+        assertEquals("a1", invoker1.invoke("process", "a"));
+        assertEquals("b1", invoker2.invoke("process", "b"));
+        assertEquals("c2", invoker1.invoke("process", "c"));
+    }
+
+    @Test
+    public void shouldNotShareGlobalsBetweenThreads() throws Exception {
+        final SharedScript.Invoker invoker = SharedScript.forFile(scriptFile).newInvoker();
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            final Future<Object> result1 = executor.submit(() -> invokeRepeatedly(invoker));
+            final Future<Object> result2 = executor.submit(() -> invokeRepeatedly(invoker));
+
+            assertEquals("x1000", result1.get());
+            assertEquals("x1000", result2.get());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test(expected = NoSuchMethodException.class)
+    public void shouldThrowNoSuchMethodExceptionIfFunctionIsMissing() throws Exception {
+        SharedScript.forFile(scriptFile).newInvoker().invoke("missing", "a");
+    }
+
+    @Test(expected = ScriptException.class)
+    public void shouldThrowScriptExceptionIfScriptIsInvalid() throws Exception {
+        final File file = tempFolder.newFile("invalid.js");
+        Files.write(file.toPath(), "function (".getBytes(StandardCharsets.UTF_8));
+
+        SharedScript.forFile(file.getPath());
+    }
+
+    private static Object invokeRepeatedly(final SharedScript.Invoker invoker)
+            throws ScriptException, NoSuchMethodException {
+        Object result = null;
+        for (int i = 0; i < 1000; ++i) {
+            result = invoker.invoke("process", "x");
+        }
+        return result;
+    }
+
+}
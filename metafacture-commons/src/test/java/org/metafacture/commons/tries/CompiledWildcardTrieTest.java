@@ -0,0 +1,156 @@
+/*
+ * Copyright 2026 hbz
+ *
+ * Licensed under the Apache License, Version 2.0 the "License";
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.metafacture.commons.tries;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for class {@link CompiledWildcardTrie}.
+ *
+ */
+public final class CompiledWildcardTrieTest {
+
+    private static final String ABC = "abc";
+    private static final String CCB = "ccb";
+    private static final String AAQBB = "aa?bb";
+    private static final String A_STAR_B = "a*b";
+    private static final String A_STAR_BC = "a*bc";
+    private static final String AA_STAR_BB = "aa*bb";
+    private static final String STAR_B = "*b";
+    private static final String A_STAR = "a*";
+    private static final String AACBB = "aacbb";
+    private static final String AABB = "aabb";
+    private static final String AB = "ab";
+
+    private static final String[] PATTERNS = { ABC, CCB, AAQBB, A_STAR_B,
+            A_STAR_BC, AA_STAR_BB, STAR_B, A_STAR, AABB, "a|b*", "?", "*",
+            "a[bc]?", "ab*c*", "??c", "ä*ß", "" };
+    private static final String[] KEYS = { "", "a", "b", ABC, CCB, AACBB,
+            AABB, AB, "acb", "abbc", "abcc", "ac", "ba", "xyz", "äbß",
+            "äß", "*", "a*b" };
+
+    private CompiledWildcardTrie<String> trie;
+
+    @Before
+    public void createSystemUnderTest() {
+        trie = new CompiledWildcardTrie<>();
+    }
+
+    @Test
+    public void shouldMatchQWildcard() {
+        assertTrue(trie.get("").isEmpty());
+        assertTrue(trie.get("x").isEmpty());
+
+        trie.put(ABC, ABC);
+        assertTrue(trie.get(ABC).contains(ABC));
+
+        trie.put(AAQBB, AAQBB);
+        assertTrue(trie.get(AACBB).contains(AAQBB));
+        assertTrue(trie.get(AABB).isEmpty());
+
+        trie.put(AABB, AABB);
+        assertEquals(Collections.singletonList(AABB), trie.get(AABB));
+
+        trie.put(AACBB, AACBB);
+        assertTrue(trie.get(AACBB).contains(AACBB));
+        assertTrue(trie.get(AACBB).contains(AAQBB));
+    }
+
+    @Test
+    public void shouldMatchStarWildcards() {
+        trie.put(STAR_B, STAR_B);
+        trie.put(A_STAR, A_STAR);
+        trie.put(A_STAR_B, A_STAR_B);
+
+        assertEquals(3, trie.get(AACBB).size());
+
+        trie.put(AA_STAR_BB, AA_STAR_BB);
+        assertEquals(4, trie.get(AACBB).size());
+
+        assertEquals(3, trie.get(AB).size());
+        assertEquals(1, trie.get(CCB).size());
+        assertEquals(3, trie.get("acb").size());
+    }
+
+    @Test
+    public void shouldMatchAlternativesAndCharacterClasses() {
+        trie.put("aacbb|a[ab]bb", "x");
+
+        assertEquals(1, trie.get(AACBB).size());
+        assertEquals(1, trie.get(AABB).size());
+        assertEquals(1, trie.get("abbb").size());
+        assertTrue(trie.get("acbb").isEmpty());
+    }
+
+    @Test
+    public void shouldReturnSameListForRepeatedLookups() {
+        trie.put(A_STAR_B, A_STAR_B);
+
+        assertSame(trie.get(AACBB), trie.get(AABB));
+    }
+
+    @Test
+    public void shouldReturnValuesInRegistrationOrder() {
+        trie.put(AACBB, "1");
+        trie.put(A_STAR, "2");
+        trie.put(AAQBB, "3");
+
+        assertEquals(Arrays.asList("1", "2", "3"), trie.get(AACBB));
+    }
+
+    @Test
+    public void shouldReturnValuesInRegistrationOrderIfPatternIsRegisteredAgain() {
+        trie.put(A_STAR, "1");
+        trie.put(AACBB, "2");
+        trie.put(A_STAR, "3");
+
+        assertEquals(Arrays.asList("1", "2", "3"), trie.get(AACBB));
+    }
+
+    @Test
+    public void shouldMatchLikeWildcardTrie() {
+        final WildcardTrie<String> reference = new WildcardTrie<>();
+        for (final String pattern : PATTERNS) {
+            trie.put(pattern, pattern);
+            if (!pattern.contains("[")) {
+                reference.put(pattern, pattern);
+            } else {
+                reference.put("ab?|ac?", pattern);
+            }
+            for (final String key : KEYS) {
+                assertEquals("key: " + key, sorted(reference.get(key)),
+                        sorted(trie.get(key)));
+            }
+        }
+    }
+
+    private static List<String> sorted(final List<String> list) {
+        final List<String> copy = new ArrayList<>(list);
+        Collections.sort(copy);
+        return copy;
+    }
+
+}
@@ -0,0 +1,151 @@
+/*
+ * Copyright 2026 hbz
+ *
+ * Licensed under the Apache License, Version 2.0 the "License";
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.metafacture.commons.types;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.Test;
+
+/**
+ * Tests for class {@link CounterMap}.
+ *
+ */
+public final class CounterMapTest {
+
+    private static final String KEY1 = "k1";
+    private static final String KEY2 = "k2";
+
+    @Test
+    public void shouldCountKeys() {
+        final CounterMap<String> counterMap = new CounterMap<>();
+
+        assertEquals(1, counterMap.increment(KEY1));
+        assertEquals(2, counterMap.increment(KEY1));
+        assertEquals(5, counterMap.add(KEY2, 5));
+
+        assertEquals(2, counterMap.get(KEY1));
+        assertEquals(5, counterMap.get(KEY2));
+        assertEquals(0, counterMap.get("k3"));
+        assertEquals(2, counterMap.size());
+        assertTrue(counterMap.containsKey(KEY1));
+        assertFalse(counterMap.containsKey("k3"));
+    }
+
+    @Test
+    public void shouldReplaceCountsOnPut() {
+        final CounterMap<String> counterMap = new CounterMap<>();
+
+        assertEquals(0, counterMap.put(KEY1, 3));
+        assertEquals(3, counterMap.put(KEY1, 7));
+
+        assertEquals(7, counterMap.get(KEY1));
+        assertEquals(1, counterMap.size());
+    }
+
+    @Test
+    public void shouldAddCountsOfOtherMap() {
+        final CounterMap<String> counterMap = new CounterMap<>();
+        counterMap.add(KEY1, 2);
+        final CounterMap<String> other = new CounterMap<>();
+        other.add(KEY1, 3);
+        other.add(KEY2, 4);
+
+        counterMap.addAll(other);
+
+        assertEquals(5, counterMap.get(KEY1));
+        assertEquals(4, counterMap.get(KEY2));
+        assertEquals(2, counterMap.size());
+    }
+
+    @Test
+    public void shouldKeepCountsWhenGrowing() {
+        final CounterMap<Integer> counterMap = new CounterMap<>(1);
+        for (int i = 0; i < 10000; ++i) {
+            counterMap.add(Integer.valueOf(i % 1000), i);
+        }
+
+        final Map<Integer, Long> counts = new HashMap<>();
+        counterMap.forEach((key, count) -> counts.put(key, Long.valueOf(count)));
+
+        assertEquals(1000, counterMap.size());
+        assertEquals(1000, counts.size());
+        assertEquals(Long.valueOf(45000), counts.get(Integer.valueOf(0)));
+        assertEquals(45000 + 10 * 999, counterMap.get(Integer.valueOf(999)));
+    }
+
+    @Test
+    public void shouldCountNullKey() {
+        final CounterMap<String> counterMap = new CounterMap<>();
+
+        assertFalse(counterMap.containsKey(null));
+        assertEquals(1, counterMap.increment(null));
+        assertEquals(2, counterMap.increment(null));
+        counterMap.increment(KEY1);
+
+        assertEquals(2, counterMap.get(null));
+        assertEquals(2, counterMap.size());
+        assertTrue(counterMap.containsKey(null));
+
+        final Map<String, Long> counts = new HashMap<>();
+        counterMap.forEach((key, count) -> counts.put(key, Long.valueOf(count)));
+        assertEquals(Long.valueOf(2), counts.get(null));
+
+        counterMap.clear();
+        assertFalse(counterMap.containsKey(null));
+        assertTrue(counterMap.isEmpty());
+    }
+
+    @Test
+    public void shouldIterateOverAllKeys() {
+        final CounterMap<String> counterMap = new CounterMap<>(1);
+        final Set<String> expected = new HashSet<>();
+        expected.add(null);
+        for (int i = 0; i < 100; ++i) {
+            expected.add("key" + i);
+        }
+        for (final String key : expected) {
+            counterMap.increment(key);
+        }
+
+        final Set<String> keys = new HashSet<>();
+        final Iterator<String> iterator = counterMap.keyIterator();
+        while (iterator.hasNext()) {
+            assertTrue(keys.add(iterator.next()));
+        }
+
+        assertEquals(expected, keys);
+    }
+
+    @Test
+    public void shouldRemoveAllKeysOnClear() {
+        final CounterMap<String> counterMap = new CounterMap<>();
+        counterMap.increment(KEY1);
+
+        counterMap.clear();
+
+        assertTrue(counterMap.isEmpty());
+        assertEquals(0, counterMap.get(KEY1));
+    }
+
+}
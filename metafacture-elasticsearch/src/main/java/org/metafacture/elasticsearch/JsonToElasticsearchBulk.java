@@ -25,15 +25,30 @@
 import java.util.regex.Pattern;
 
 import org.metafacture.framework.FluxCommand;
+import org.metafacture.framework.MetafactureException;
 import org.metafacture.framework.ObjectReceiver;
 import org.metafacture.framework.annotations.In;
 import org.metafacture.framework.annotations.Out;
 import org.metafacture.framework.helpers.DefaultObjectPipe;
 
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 /**
  * Add Elasticsearch bulk indexing metadata to JSON input.
+ * <p>
+ * By default, each record is parsed into a map and serialised again after
+ * the id has been looked up. Values of fields with identical names are
+ * collected in a list. In {@link #setStreaming(boolean) streaming} mode,
+ * the id is extracted with a single pass over the JSON tokens which stops
+ * as soon as the id has been found, and the record is passed on unchanged.
+ * <p>
+ * Several records can be combined into a single bulk request body with
+ * {@link #setBatchSize(int)} and {@link #setBatchBytes(int)}.
  *
  * @author Fabian Steeg (fsteeg)
  * @author Jens Wille
@@ -73,11 +88,25 @@ public Object put(String key, Object value) {
         }
     }
 
+    private static final char LINE_SEPARATOR = '\n';
+
+    private static final int MAX_ONE_BYTE_CHAR = 0x7f;
+    private static final int MAX_TWO_BYTE_CHAR = 0x7ff;
+
     private ObjectMapper mapper = new ObjectMapper();
     private String[] idPath;
     private String type;
     private String index;
 
+    private boolean streaming;
+    private int batchSize = 1;
+    private int batchBytes;
+
+    private final JsonFactory jsonFactory = new JsonFactory();
+    private final StringBuilder batch = new StringBuilder();
+    private int batchedRecords;
+    private long batchedBytes;
+
     /**
      * @param idPath The key path of the JSON value to be used as the ID for the record
      * @param type The Elasticsearch index type
@@ -108,8 +137,91 @@ public JsonToElasticsearchBulk(String idKey, String type, String index, String e
         this(idKey.split(Pattern.quote(entitySeparator)), type, index);
     }
 
+    /**
+     * Controls whether records are passed on as they are instead of being
+     * parsed and serialised again. In streaming mode, the first value of the
+     * id path is used if a field name occurs several times; such records are
+     * not modified.
+     * <p>
+     * The bulk format requires each record to be on a single line. Records
+     * which contain line breaks, such as pretty-printed JSON, are therefore
+     * written again in compact form. Passing records on unchanged is only
+     * fast for input with one record per line.
+     * <p>
+     * The default value is false.
+     *
+     * @param streaming true to copy records unchanged
+     */
+    public void setStreaming(final boolean streaming) {
+        this.streaming = streaming;
+    }
+
+    public boolean getStreaming() {
+        return streaming;
+    }
+
+    /**
+     * Sets the maximum number of records which are combined into a single
+     * output object. The records in an output object are separated by a
+     * newline.
+     * <p>
+     * The default value is 1.
+     *
+     * @param batchSize number of records per output object
+     */
+    public void setBatchSize(final int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("'batchSize' must be at least 1");
+        }
+        this.batchSize = batchSize;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    /**
+     * Sets the size in bytes (UTF-8 encoded) after which a batch is passed on
+     * even if it contains less than {@link #setBatchSize(int) batchSize}
+     * records. A batch contains at least one record, so single records may
+     * exceed this limit. If the value is zero, batches are not limited by
+     * size.
+     * <p>
+     * The default value is 0.
+     *
+     * @param batchBytes maximum size of a batch in bytes
+     */
+    public void setBatchBytes(final int batchBytes) {
+        if (batchBytes < 0) {
+            throw new IllegalArgumentException("'batchBytes' must not be negative");
+        }
+        this.batchBytes = batchBytes;
+    }
+
+    public int getBatchBytes() {
+        return batchBytes;
+    }
+
     @Override
     public void process(String obj) {
+        if (streaming) {
+            processStreaming(obj);
+        } else {
+            processMapped(obj);
+        }
+    }
+
+    @Override
+    protected void onResetStream() {
+        emitBatch();
+    }
+
+    @Override
+    protected void onCloseStream() {
+        emitBatch();
+    }
+
+    private void processMapped(String obj) {
         StringWriter stringWriter = new StringWriter();
         try {
             Map<String, Object> json = mapper.readValue(obj, MultiMap.class);
@@ -125,7 +237,138 @@ public void process(String obj) {
         } catch (IOException e) {
             e.printStackTrace();
         }
-        getReceiver().process(stringWriter.toString());
+        addToBatch(stringWriter.toString());
+    }
+
+    private void processStreaming(final String obj) {
+        final StringBuilder record = new StringBuilder(obj.length() + 100);
+        record.append("{\"index\":{\"_index\":");
+        appendQuoted(record, index);
+        record.append(",\"_type\":");
+        appendQuoted(record, type);
+        record.append(",\"_id\":");
+        try {
+            record.append(findIdStreaming(obj));
+            record.append("}}").append(LINE_SEPARATOR);
+            if (obj.indexOf(LINE_SEPARATOR) < 0) {
+                record.append(obj);
+            } else {
+                record.append(compact(obj));
+            }
+        } catch (final IOException e) {
+            throw new MetafactureException(e);
+        }
+        addToBatch(record.toString());
+    }
+
+    /**
+     * Writes {@code obj} again without whitespace so that it fits on a single
+     * line of the bulk request body.
+     */
+    private String compact(final String obj) throws IOException {
+        try (JsonParser parser = jsonFactory.createParser(obj)) {
+            parser.nextToken();
+            return copyValue(parser);
+        }
+    }
+
+    private static void appendQuoted(final StringBuilder builder, final String value) {
+        if (value == null) {
+            builder.append("null");
+        } else {
+            builder.append('"');
+            builder.append(JsonStringEncoder.getInstance().quoteAsString(value));
+            builder.append('"');
+        }
+    }
+
+    /**
+     * Follows the id path through the tokens of {@code obj}. Fields which are
+     * not on the path are skipped without being parsed into values.
+     *
+     * @return the id value as JSON or "null" if there is no such value
+     */
+    private String findIdStreaming(final String obj) throws IOException {
+        if (idPath.length < 1) {
+            return "null";
+        }
+        try (JsonParser parser = jsonFactory.createParser(obj)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return "null";
+            }
+            int depth = 0;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                final String name = parser.getCurrentName();
+                final JsonToken value = parser.nextToken();
+                if (name.equals(idPath[depth])) {
+                    if (depth == idPath.length - 1) {
+                        return copyValue(parser);
+                    }
+                    if (value != JsonToken.START_OBJECT) {
+                        return "null";
+                    }
+                    depth += 1;
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            return "null";
+        }
+    }
+
+    private String copyValue(final JsonParser parser) throws IOException {
+        final StringWriter writer = new StringWriter();
+        try (JsonGenerator generator = jsonFactory.createGenerator(writer)) {
+            generator.copyCurrentStructure(parser);
+        }
+        return writer.toString();
+    }
+
+    private void addToBatch(final String record) {
+        if (batchSize == 1 && batchBytes == 0) {
+            getReceiver().process(record);
+            return;
+        }
+        if (batchedRecords > 0) {
+            batch.append(LINE_SEPARATOR);
+        }
+        batch.append(record);
+        batchedRecords += 1;
+        if (batchBytes > 0) {
+            batchedBytes += utf8Length(record) + 1;
+        }
+        if (batchedRecords >= batchSize || batchBytes > 0 && batchedBytes >= batchBytes) {
+            emitBatch();
+        }
+    }
+
+    private void emitBatch() {
+        if (batchedRecords == 0) {
+            return;
+        }
+        final String records = batch.toString();
+        batch.setLength(0);
+        batchedRecords = 0;
+        batchedBytes = 0;
+        getReceiver().process(records);
+    }
+
+    private static int utf8Length(final String str) {
+        int length = 0;
+        for (int i = 0; i < str.length(); ++i) {
+            final char c = str.charAt(i);
+            if (c <= MAX_ONE_BYTE_CHAR) {
+                length += 1;
+            } else if (c <= MAX_TWO_BYTE_CHAR) {
+                length += 2;
+            } else if (Character.isSurrogate(c)) {
+                // A surrogate pair is encoded in four bytes:
+                length += 2;
+            } else {
+                length += 3;
+            }
+        }
+        return length;
     }
 
     private Object findId(Object value) {
@@ -197,6 +197,86 @@ public void testShouldNotExtractIntermediateEntityIdPath() {
         shouldNotExtractId("{'En1':{'L1':'V1'}}");
     }
 
+    @Test
+    public void testShouldExtractIdPathInStreamingMode() {
+        setBulk(new String[]{ENTITY1, LITERAL1});
+        bulk.setStreaming(true);
+        shouldExtractId("{'En2':{'L1':'V1','L2':'V2'},'En1':{'L1':'V1','L2':'V2'}}");
+    }
+
+    @Test
+    public void testShouldExtractEntityAsIdInStreamingMode() {
+        setBulk(ENTITY1);
+        bulk.setStreaming(true);
+        shouldExtractId("{'En1':{'L1':'V1','Li1':['V1',1]}}", "{'L1':'V1','Li1':['V1',1]}");
+    }
+
+    @Test
+    public void testShouldNotExtractMissingIdPathInStreamingMode() {
+        setBulk(new String[]{ENTITY1, ENTITY2, LITERAL1});
+        bulk.setStreaming(true);
+        shouldNotExtractId("{'En1':{'L1':'V1'},'L1':'V1'}");
+    }
+
+    @Test
+    public void testShouldNotExtractIntermediateLiteralInStreamingMode() {
+        setBulk(new String[]{LITERAL1, LITERAL4});
+        bulk.setStreaming(true);
+        shouldNotExtractId("{'L1':'V1','L4':'V1'}");
+    }
+
+    @Test
+    public void testShouldPassRecordUnchangedInStreamingMode() {
+        setBulk(LITERAL1);
+        bulk.setStreaming(true);
+        shouldExtractId("{ 'L1' : 'V1', 'L1':'V2', 'Li1':[] }", "'V1'");
+    }
+
+    @Test
+    public void testShouldCompactMultiLineRecordInStreamingMode() {
+        setBulk(LITERAL1);
+        bulk.setStreaming(true);
+        shouldExtractId("{\n  'L1' : 'V1',\n  'Li1' : [ 1, 2 ]\n}", "'V1'", "{'L1':'V1','Li1':[1,2]}");
+    }
+
+    @Test
+    public void testShouldBatchRecords() {
+        setBulk(LITERAL1);
+        bulk.setBatchSize(2);
+        bulk.setReceiver(receiver);
+
+        bulk.process(fixQuotes("{'L1':'V1'}"));
+        bulk.process(fixQuotes("{'L1':'V2'}"));
+        bulk.process(fixQuotes("{'L1':'V3'}"));
+        bulk.closeStream();
+
+        verify(receiver).process(fixQuotes(String.format(METADATA, "'V1'") + "\n{'L1':'V1'}\n"
+                + String.format(METADATA, "'V2'") + "\n{'L1':'V2'}"));
+        verify(receiver).process(fixQuotes(String.format(METADATA, "'V3'") + "\n{'L1':'V3'}"));
+        verify(receiver).closeStream();
+        verifyNoMoreInteractions(receiver);
+    }
+
+    @Test
+    public void testShouldBatchRecordsBySize() {
+        setBulk(LITERAL1);
+        bulk.setStreaming(true);
+        bulk.setBatchSize(100);
+        bulk.setBatchBytes(100);
+        bulk.setReceiver(receiver);
+
+        bulk.process(fixQuotes("{'L1':'V1'}"));
+        bulk.process(fixQuotes("{'L1':'V2'}"));
+        bulk.process(fixQuotes("{'L1':'V3'}"));
+        bulk.resetStream();
+
+        verify(receiver).process(fixQuotes(String.format(METADATA, "'V1'") + "\n{'L1':'V1'}\n"
+                + String.format(METADATA, "'V2'") + "\n{'L1':'V2'}"));
+        verify(receiver).process(fixQuotes(String.format(METADATA, "'V3'") + "\n{'L1':'V3'}"));
+        verify(receiver).resetStream();
+        verifyNoMoreInteractions(receiver);
+    }
+
     /*
      * Utility methods to set bulk indexer based on given ID key/path.
      */
@@ -15,8 +15,7 @@
  */
 package org.metafacture.flowcontrol;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Arrays;
 
 import org.metafacture.framework.StreamPipe;
 import org.metafacture.framework.StreamReceiver;
@@ -26,6 +25,13 @@
 /**
  * {@link StreamPipe} which buffers incoming records and replays them upon
  * request.
+ * <p>
+ * The events are stored in parallel arrays: one byte per event type, an
+ * index into a table of names for entities and literals, and a reference per
+ * record identifier or literal value. Entity and literal names are stored
+ * only once per buffer. Replaying the buffer does not allocate any objects,
+ * and {@link #clear()} keeps the arrays and the name table for the next
+ * record.
  *
  * @author Markus Michael Geipel
  *
@@ -33,89 +39,105 @@
 public final class StreamBuffer
         extends DefaultStreamPipe<StreamReceiver> {
 
-    /**
-     * Defines entity and literal message types.
-     */
-    private enum MessageType {
-        RECORD_START, RECORD_END, ENTITY_START, ENTITY_END, LITERAL
-    }
+    private static final byte RECORD_START = 0;
+    private static final byte RECORD_END = 1;
+    private static final byte ENTITY_START = 2;
+    private static final byte ENTITY_END = 3;
+    private static final byte LITERAL = 4;
 
-    private final List<MessageType> typeBuffer = new ArrayList<StreamBuffer.MessageType>();
-    private final List<String> valueBuffer = new ArrayList<String>();
+    private static final int INITIAL_CAPACITY = 32;
 
+    // The name table is dropped on clear if it grows beyond this size:
+    private static final int MAX_RETAINED_NAMES = 4096;
+
+    private byte[] types = new byte[INITIAL_CAPACITY];
+    private int typeCount;
+    private int[] names = new int[INITIAL_CAPACITY];
+    private int nameCount;
+    private String[] values = new String[INITIAL_CAPACITY];
+    private int valueCount;
+
+    private final NameTable nameTable = new NameTable();
 
     public boolean isEmpty(){
-        return typeBuffer.isEmpty();
+        return typeCount == 0;
     }
 
     /**
      * Replays the buffered event.
      */
     public void replay() {
-
-        int index = 0;
-        for (MessageType type : typeBuffer) {
-            switch (type) {
+        final StreamReceiver receiver = getReceiver();
+        int nameIndex = 0;
+        int valueIndex = 0;
+        for (int i = 0; i < typeCount; ++i) {
+            switch (types[i]) {
             case RECORD_START:
-                getReceiver().startRecord(valueBuffer.get(index));
-                ++index;
+                receiver.startRecord(values[valueIndex]);
+                ++valueIndex;
                 break;
             case RECORD_END:
-                getReceiver().endRecord();
+                receiver.endRecord();
                 break;
-
             case ENTITY_START:
-                getReceiver().startEntity(valueBuffer.get(index));
-                ++index;
+                receiver.startEntity(nameTable.get(names[nameIndex]));
+                ++nameIndex;
                 break;
             case ENTITY_END:
-                getReceiver().endEntity();
+                receiver.endEntity();
                 break;
             default:
-                getReceiver().literal(valueBuffer.get(index), valueBuffer.get(index+1));
-                index +=2;
+                receiver.literal(nameTable.get(names[nameIndex]), values[valueIndex]);
+                ++nameIndex;
+                ++valueIndex;
                 break;
             }
         }
     }
 
     public void clear() {
-        typeBuffer.clear();
-        valueBuffer.clear();
+        typeCount = 0;
+        nameCount = 0;
+        // Release the values so that they can be garbage collected:
+        Arrays.fill(values, 0, valueCount, null);
+        valueCount = 0;
+        if (nameTable.size() > MAX_RETAINED_NAMES) {
+            nameTable.clear();
+        }
     }
 
     @Override
     public void startRecord(final String identifier) {
         assert !isClosed();
-        typeBuffer.add(MessageType.RECORD_START);
-        valueBuffer.add(identifier);
+        addType(RECORD_START);
+        addValue(identifier);
     }
 
     @Override
     public void endRecord() {
         assert !isClosed();
-        typeBuffer.add(MessageType.RECORD_END);
+        addType(RECORD_END);
     }
 
     @Override
     public void startEntity(final String name) {
         assert !isClosed();
-        typeBuffer.add(MessageType.ENTITY_START);
-        valueBuffer.add(name);
+        addType(ENTITY_START);
+        addName(name);
     }
 
     @Override
     public void endEntity() {
         assert !isClosed();
-        typeBuffer.add(MessageType.ENTITY_END);
+        addType(ENTITY_END);
     }
 
     @Override
     public void literal(final String name, final String value) {
         assert !isClosed();
-        typeBuffer.add(MessageType.LITERAL);
-        valueBuffer.add(name);
-        valueBuffer.add(value);
+        addType(LITERAL);
+        addName(name);
+        addValue(value);
     }
 
     @Override
@@ -123,4 +145,101 @@ protected void onResetStream() {
         clear();
     }
 
+    private void addType(final byte type) {
+        if (typeCount == types.length) {
+            types = Arrays.copyOf(types, typeCount * 2);
+        }
+        types[typeCount] = type;
+        ++typeCount;
+    }
+
+    private void addName(final String name) {
+        if (nameCount == names.length) {
+            names = Arrays.copyOf(names, nameCount * 2);
+        }
+        names[nameCount] = nameTable.indexOf(name);
+        ++nameCount;
+    }
+
+    private void addValue(final String value) {
+        if (valueCount == values.length) {
+            values = Arrays.copyOf(values, valueCount * 2);
+        }
+        values[valueCount] = value;
+        ++valueCount;
+    }
+
+    /**
+     * Assigns consecutive indices to names. Uses open addressing to avoid
+     * boxing the indices.
+     */
+    private static final class NameTable {
+
+        private static final int NULL_INDEX = -1;
+
+        private String[] names = new String[INITIAL_CAPACITY];
+        private int size;
+        private String[] slots = new String[INITIAL_CAPACITY * 2];
+        private int[] slotIndices = new int[INITIAL_CAPACITY * 2];
+
+        int indexOf(final String name) {
+            if (name == null) {
+                return NULL_INDEX;
+            }
+            final int mask = slots.length - 1;
+            int slot = spread(name.hashCode()) & mask;
+            while (slots[slot] != null) {
+                if (slots[slot] == name || slots[slot].equals(name)) {
+                    return slotIndices[slot];
+                }
+                slot = (slot + 1) & mask;
+            }
+            if (size == names.length) {
+                names = Arrays.copyOf(names, size * 2);
+            }
+            names[size] = name;
+            slots[slot] = name;
+            slotIndices[slot] = size;
+            ++size;
+            if (size * 2 > slots.length) {
+                rehash();
+            }
+            return size - 1;
+        }
+
+        String get(final int index) {
+            return index == NULL_INDEX ? null : names[index];
+        }
+
+        int size() {
+            return size;
+        }
+
+        void clear() {
+            names = new String[INITIAL_CAPACITY];
+            slots = new String[INITIAL_CAPACITY * 2];
+            slotIndices = new int[INITIAL_CAPACITY * 2];
+            size = 0;
+        }
+
+        private void rehash() {
+            slots = new String[slots.length * 2];
+            slotIndices = new int[slots.length];
+            final int mask = slots.length - 1;
+            for (int i = 0; i < size; ++i) {
+                int slot = spread(names[i].hashCode()) & mask;
+                while (slots[slot] != null) {
+                    slot = (slot + 1) & mask;
+                }
+                slots[slot] = names[i];
+                slotIndices[slot] = i;
+            }
+        }
+
+        private static int spread(final int hash) {
+            return hash ^ (hash >>> 16);
+        }
+
+    }
+
 }
@@ -95,6 +95,65 @@ public void shouldClearBufferIfClearIsCalled() {
         verifyZeroInteractions(receiver);
     }
 
+    @Test
+    public void shouldReplayRecordsWithManyEvents() {
+        streamBuffer.startRecord("1");
+        for (int i = 0; i < 1000; ++i) {
+            streamBuffer.startEntity("e" + i % 7);
+            streamBuffer.literal("l" + i, "v" + i);
+            streamBuffer.endEntity();
+        }
+        streamBuffer.endRecord();
+
+        streamBuffer.replay();
+
+        final InOrder ordered = inOrder(receiver);
+        ordered.verify(receiver).startRecord("1");
+        for (int i = 0; i < 1000; ++i) {
+            ordered.verify(receiver).startEntity("e" + i % 7);
+            ordered.verify(receiver).literal("l" + i, "v" + i);
+            ordered.verify(receiver).endEntity();
+        }
+        ordered.verify(receiver).endRecord();
+    }
+
+    @Test
+    public void shouldReplayNullNamesAndValues() {
+        streamBuffer.startRecord(null);
+        streamBuffer.startEntity(null);
+        streamBuffer.literal(null, null);
+        streamBuffer.endEntity();
+        streamBuffer.endRecord();
+
+        streamBuffer.replay();
+
+        final InOrder ordered = inOrder(receiver);
+        ordered.verify(receiver).startRecord(null);
+        ordered.verify(receiver).startEntity(null);
+        ordered.verify(receiver).literal(null, null);
+        ordered.verify(receiver).endEntity();
+        ordered.verify(receiver).endRecord();
+    }
+
+    @Test
+    public void shouldReuseBufferAfterClear() {
+        streamBuffer.startRecord("1");
+        streamBuffer.literal("l", "v1");
+        streamBuffer.endRecord();
+        streamBuffer.clear();
+        streamBuffer.startRecord("2");
+        streamBuffer.literal("l", "v2");
+        streamBuffer.endRecord();
+
+        streamBuffer.replay();
+
+        final InOrder ordered = inOrder(receiver);
+        ordered.verify(receiver).startRecord("2");
+        ordered.verify(receiver).literal("l", "v2");
+        ordered.verify(receiver).endRecord();
+        ordered.verifyNoMoreInteractions();
+    }
+
     @Test
     public void shouldClearBufferIfStreamIsReset() {
         streamBuffer.startRecord("1");
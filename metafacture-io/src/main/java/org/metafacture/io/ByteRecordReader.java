@@ -0,0 +1,149 @@
+/*
+ * Copyright 2026 hbz
+ *
+ * Licensed under the Apache License, Version 2.0 the "License";
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.metafacture.io;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+
+import org.metafacture.framework.FluxCommand;
+import org.metafacture.framework.MetafactureException;
+import org.metafacture.framework.ObjectReceiver;
+import org.metafacture.framework.annotations.Description;
+import org.metafacture.framework.annotations.In;
+import org.metafacture.framework.annotations.Out;
+import org.metafacture.framework.helpers.DefaultObjectPipe;
+
+/**
+ * <p>Reads data from an {@code InputStream} and splits it into individual
+ * records without decoding the bytes into characters. This is the byte
+ * oriented counterpart of {@link RecordReader}.</p>
+ *
+ * <p>The records are passed to the receiver as {@link ByteBuffer}s whose
+ * position and limit mark the record in the internal read buffer of this
+ * module. To avoid copying, the same buffer object and backing array are
+ * reused for all records. The contents of a record are therefore only valid
+ * until the receiver returns from {@code process}. Receivers which need to
+ * keep a record must copy it.</p>
+ *
+ * <p>The default separator is the global separator character (0x001d).
+ * Empty records are skipped by default.</p>
+ */
+@Description("Reads data from an InputStream and splits it into individual records "
+        + "of raw bytes")
+@In(InputStream.class)
+@Out(ByteBuffer.class)
+@FluxCommand("as-byte-records")
+public final class ByteRecordReader extends
+        DefaultObjectPipe<InputStream, ObjectReceiver<ByteBuffer>> {
+
+    public static final char DEFAULT_SEPARATOR = RecordReader.DEFAULT_SEPARATOR;
+
+    private static final int INITIAL_BUFFER_SIZE = 1024 * 1024;
+    private static final int MAX_SEPARATOR = 0x7f;
+
+    private byte[] buffer = new byte[INITIAL_BUFFER_SIZE];
+    private ByteBuffer record = ByteBuffer.wrap(buffer);
+
+    private byte separator = (byte) DEFAULT_SEPARATOR;
+    private boolean skipEmptyRecords = true;
+
+    public void setSeparator(final String separator) {
+        if (separator.length() >= 1) {
+            setSeparator(separator.charAt(0));
+        } else {
+            setSeparator(DEFAULT_SEPARATOR);
+        }
+    }
+
+    /**
+     * Sets the record separator. Since the input is not decoded, only
+     * characters which are represented by a single byte in ASCII-compatible
+     * encodings are supported.
+     *
+     * @param separator an ASCII character
+     */
+    public void setSeparator(final char separator) {
+        if (separator > MAX_SEPARATOR) {
+            throw new IllegalArgumentException(
+                    "separator must be an ASCII character");
+        }
+        this.separator = (byte) separator;
+    }
+
+    public char getSeparator() {
+        return (char) separator;
+    }
+
+    public void setSkipEmptyRecords(final boolean skipEmptyRecords) {
+        this.skipEmptyRecords = skipEmptyRecords;
+    }
+
+    public boolean getSkipEmptyRecords() {
+        return skipEmptyRecords;
+    }
+
+    @Override
+    public void process(final InputStream inputStream) {
+        assert !isClosed();
+
+        try {
+            boolean nothingRead = true;
+            int filled = 0;
+            int size;
+            while ((size = inputStream.read(buffer, filled, buffer.length - filled)) != -1) {
+                nothingRead = false;
+                int start = 0;
+                final int end = filled + size;
+                for (int i = filled; i < end; ++i) {
+                    if (buffer[i] == separator) {
+                        emitRecord(start, i);
+                        start = i + 1;
+                    }
+                }
+                filled = end - start;
+                if (start > 0) {
+                    System.arraycopy(buffer, start, buffer, 0, filled);
+                } else if (filled == buffer.length) {
+                    growBuffer();
+                }
+            }
+            if (!nothingRead) {
+                emitRecord(0, filled);
+            }
+
+        } catch (final IOException e) {
+            throw new MetafactureException(e);
+        }
+    }
+
+    private void emitRecord(final int start, final int end) {
+        if (!skipEmptyRecords || start < end) {
+            record.clear();
+            record.position(start);
+            record.limit(end);
+            getReceiver().process(record);
+        }
+    }
+
+    private void growBuffer() {
+        final byte[] newBuffer = new byte[buffer.length * 2];
+        System.arraycopy(buffer, 0, newBuffer, 0, buffer.length);
+        buffer = newBuffer;
+        record = ByteBuffer.wrap(buffer);
+    }
+
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright 2026 hbz
+ *
+ * Licensed under the Apache License, Version 2.0 the "License";
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.metafacture.io;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.metafacture.framework.FluxCommand;
+import org.metafacture.framework.MetafactureException;
+import org.metafacture.framework.ObjectReceiver;
+import org.metafacture.framework.annotations.Description;
+import org.metafacture.framework.annotations.In;
+import org.metafacture.framework.annotations.Out;
+import org.metafacture.framework.helpers.DefaultObjectPipe;
+
+/**
+ * Opens a file and passes an input stream for it to the receiver. Unlike
+ * {@link FileOpener} the contents of the file are not decoded into
+ * characters. Compressed files are decompressed, though.
+ *
+ * @see ByteRecordReader
+ */
+@Description("Opens a file as a stream of bytes.")
+@In(String.class)
+@Out(java.io.InputStream.class)
+@FluxCommand("open-file-bytes")
+public final class ByteStreamFileOpener
+        extends DefaultObjectPipe<String, ObjectReceiver<InputStream>> {
+
+    private FileCompression compression = FileCompression.AUTO;
+
+    public FileCompression getCompression() {
+        return compression;
+    }
+
+    public void setCompression(final FileCompression compression) {
+        this.compression = compression;
+    }
+
+    public void setCompression(final String compression) {
+        setCompression(FileCompression.valueOf(compression.toUpperCase()));
+    }
+
+    @Override
+    public void process(final String file) {
+        try {
+            final InputStream fileStream = new FileInputStream(file);
+            try {
+                final InputStream decompressor = compression.createDecompressor(fileStream);
+                try {
+                    getReceiver().process(decompressor);
+                } catch (final MetafactureException e) {
+                    decompressor.close();
+                    throw e;
+                }
+            } catch (final IOException | MetafactureException e) {
+                fileStream.close();
+                throw e;
+            }
+        } catch (final IOException e) {
+            throw new MetafactureException(e);
+        }
+    }
+
+}
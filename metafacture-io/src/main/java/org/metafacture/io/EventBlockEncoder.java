@@ -0,0 +1,220 @@
+/*
+ * Copyright 2026 hbz
+ *
+ * Licensed under the Apache License, Version 2.0 the "License";
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.metafacture.io;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.Deflater;
+
+import org.metafacture.framework.MetafactureException;
+import org.metafacture.framework.StreamReceiver;
+
+/**
+ * Encodes stream events in the {@link EventStreamFormat} and writes them to
+ * an output stream. Events are collected in a block buffer which is written
+ * after the first record that fills it.
+ */
+final class EventBlockEncoder implements StreamReceiver {
+
+    private static final int MAX_VARINT_SIZE = 5;
+
+    private final OutputStream out;
+    private final int blockSize;
+    private final Deflater deflater;
+    private final Map<String, Integer> names = new HashMap<>();
+
+    private final byte[] header = new byte[2 * MAX_VARINT_SIZE];
+    private byte[] block;
+    private int blockLength;
+    private byte[] compressed = new byte[0];
+
+    /**
+     * Creates an encoder and writes the file header.
+     *
+     * @param out the stream receiving the encoded events
+     * @param blockSize the minimum size of a block in bytes
+     * @param compressionLevel the deflate level or zero for no compression
+     * @throws IOException if the file header cannot be written
+     */
+    EventBlockEncoder(final OutputStream out, final int blockSize,
+            final int compressionLevel) throws IOException {
+        this.out = out;
+        this.blockSize = blockSize;
+        block = new byte[blockSize + blockSize / 2];
+        deflater = compressionLevel == 0 ? null : new Deflater(compressionLevel, true);
+        out.write(EventStreamFormat.MAGIC);
+        out.write(EventStreamFormat.VERSION);
+    }
+
+    @Override
+    public void startRecord(final String identifier) {
+        writeOpcode(EventStreamFormat.START_RECORD);
+        writeString(identifier);
+    }
+
+    @Override
+    public void endRecord() {
+        writeOpcode(EventStreamFormat.END_RECORD);
+        if (blockLength >= blockSize) {
+            writeBlock();
+        }
+    }
+
+    @Override
+    public void startEntity(final String name) {
+        writeOpcode(EventStreamFormat.START_ENTITY);
+        writeName(name);
+    }
+
+    @Override
+    public void endEntity() {
+        writeOpcode(EventStreamFormat.END_ENTITY);
+    }
+
+    @Override
+    public void literal(final String name, final String value) {
+        writeOpcode(EventStreamFormat.LITERAL);
+        writeName(name);
+        writeString(value);
+    }
+
+    /**
+     * Writes all buffered events and flushes the output stream.
+     */
+    @Override
+    public void resetStream() {
+        writeBlock();
+        try {
+            out.flush();
+        } catch (final IOException e) {
+            throw new MetafactureException(e);
+        }
+    }
+
+    @Override
+    public void closeStream() {
+        try {
+            writeBlock();
+            out.close();
+        } catch (final IOException e) {
+            throw new MetafactureException(e);
+        } finally {
+            if (deflater != null) {
+                deflater.end();
+            }
+        }
+    }
+
+    private void writeBlock() {
+        if (blockLength == 0) {
+            return;
+        }
+        try {
+            byte[] data = block;
+            int dataLength = blockLength;
+            if (deflater != null) {
+                final int compressedLength = compress();
+                if (compressedLength < blockLength) {
+                    data = compressed;
+                    dataLength = compressedLength;
+                }
+            }
+            int headerLength = putVarint(header, 0, blockLength);
+            headerLength = putVarint(header, headerLength, dataLength);
+            out.write(header, 0, headerLength);
+            out.write(data, 0, dataLength);
+        } catch (final IOException e) {
+            throw new MetafactureException(e);
+        }
+        blockLength = 0;
+        names.clear();
+    }
+
+    private int compress() {
+        if (compressed.length < blockLength) {
+            compressed = new byte[blockLength];
+        }
+        deflater.reset();
+        deflater.setInput(block, 0, blockLength);
+        deflater.finish();
+        int length = 0;
+        while (!deflater.finished() && length < compressed.length) {
+            length += deflater.deflate(compressed, length, compressed.length - length);
+        }
+        // Incompressible data is stored as it is:
+        return deflater.finished() ? length : blockLength;
+    }
+
+    private void writeOpcode(final byte opcode) {
+        ensureCapacity(1);
+        block[blockLength] = opcode;
+        blockLength += 1;
+    }
+
+    private void writeName(final String name) {
+        if (name == null) {
+            writeVarint(0);
+            return;
+        }
+        final Integer reference = names.get(name);
+        if (reference != null) {
+            writeVarint(reference.intValue());
+        } else {
+            final int newReference = names.size() + 1;
+            names.put(name, Integer.valueOf(newReference));
+            writeVarint(newReference);
+            writeString(name);
+        }
+    }
+
+    private void writeString(final String string) {
+        if (string == null) {
+            writeVarint(0);
+            return;
+        }
+        final int utf8Length = Utf8Encoding.getEncodedLength(string);
+        ensureCapacity(MAX_VARINT_SIZE + utf8Length);
+        blockLength = putVarint(block, blockLength, utf8Length + 1);
+        blockLength = Utf8Encoding.encode(string, 0, string.length(), block, blockLength);
+    }
+
+    private void writeVarint(final int value) {
+        ensureCapacity(MAX_VARINT_SIZE);
+        blockLength = putVarint(block, blockLength, value);
+    }
+
+    private static int putVarint(final byte[] buffer, final int offset, final int value) {
+        int pos = offset;
+        int remaining = value;
+        while ((remaining & ~0x7f) != 0) {
+            buffer[pos++] = (byte) (remaining & 0x7f | 0x80);
+            remaining >>>= 7;
+        }
+        buffer[pos++] = (byte) remaining;
+        return pos;
+    }
+
+    private void ensureCapacity(final int additionalBytes) {
+        final int required = blockLength + additionalBytes;
+        if (required > block.length) {
+            block = Arrays.copyOf(block, Math.max(required, block.length * 2));
+        }
+    }
+
+}
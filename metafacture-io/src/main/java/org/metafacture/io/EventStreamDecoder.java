@@ -0,0 +1,225 @@
+/*
+ * Copyright 2026 hbz
+ *
+ * Licensed under the Apache License, Version 2.0 the "License";
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.metafacture.io;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+import org.metafacture.framework.FluxCommand;
+import org.metafacture.framework.MetafactureException;
+import org.metafacture.framework.StreamReceiver;
+import org.metafacture.framework.annotations.Description;
+import org.metafacture.framework.annotations.In;
+import org.metafacture.framework.annotations.Out;
+import org.metafacture.framework.helpers.DefaultObjectPipe;
+
+/**
+ * Reads stream events written by {@link EventStreamWriter} from an input
+ * stream and passes them to the receiver. Use {@link ByteStreamFileOpener}
+ * to open the files.
+ * <p>
+ * Entity and literal names are decoded only once per block, so the receiver
+ * gets the same string instance for repeated names within a block.
+ *
+ * @see EventStreamFormat
+ */
+@Description("Decodes stream events written by write-events.")
+@In(java.io.InputStream.class)
+@Out(StreamReceiver.class)
+@FluxCommand("decode-events")
+public final class EventStreamDecoder
+        extends DefaultObjectPipe<InputStream, StreamReceiver> {
+
+    private static final int INITIAL_BUFFER_SIZE = 64 * 1024;
+    private static final int INITIAL_DICTIONARY_SIZE = 64;
+
+    private final Inflater inflater = new Inflater(true);
+
+    private InputStream in;
+    private byte[] stored = new byte[INITIAL_BUFFER_SIZE];
+    private byte[] block = new byte[INITIAL_BUFFER_SIZE];
+    private int blockLength;
+    private int pos;
+    private String[] names = new String[INITIAL_DICTIONARY_SIZE];
+    private int nameCount;
+
+    @Override
+    public void process(final InputStream inputStream) {
+        in = inputStream;
+        try {
+            readFileHeader();
+            while (readBlock()) {
+                decodeBlock();
+            }
+        } catch (final IOException | DataFormatException e) {
+            throw new MetafactureException(e);
+        } finally {
+            in = null;
+            Arrays.fill(names, 0, nameCount, null);
+        }
+    }
+
+    @Override
+    protected void onCloseStream() {
+        inflater.end();
+    }
+
+    private void readFileHeader() throws IOException {
+        final byte[] magic = new byte[EventStreamFormat.MAGIC.length + 1];
+        readFully(magic, magic.length);
+        if (!Arrays.equals(Arrays.copyOf(magic, EventStreamFormat.MAGIC.length),
+                EventStreamFormat.MAGIC)) {
+            throw new MetafactureException("Not an event stream");
+        }
+        if (magic[EventStreamFormat.MAGIC.length] != EventStreamFormat.VERSION) {
+            throw new MetafactureException("Unsupported event stream version: "
+                    + magic[EventStreamFormat.MAGIC.length]);
+        }
+    }
+
+    private boolean readBlock() throws IOException, DataFormatException {
+        final int first = in.read();
+        if (first == -1) {
+            return false;
+        }
+        blockLength = readStreamVarint(first);
+        final int storedLength = readStreamVarint(in.read());
+        if (block.length < blockLength) {
+            block = new byte[blockLength];
+        }
+        if (storedLength < blockLength) {
+            if (stored.length < storedLength) {
+                stored = new byte[storedLength];
+            }
+            readFully(stored, storedLength);
+            inflater.reset();
+            inflater.setInput(stored, 0, storedLength);
+            if (inflater.inflate(block, 0, blockLength) != blockLength) {
+                throw new MetafactureException("Corrupted event stream block");
+            }
+        } else {
+            readFully(block, blockLength);
+        }
+        return true;
+    }
+
+    private void decodeBlock() {
+        final StreamReceiver receiver = getReceiver();
+        pos = 0;
+        Arrays.fill(names, 0, nameCount, null);
+        nameCount = 0;
+        while (pos < blockLength) {
+            final byte opcode = block[pos];
+            pos += 1;
+            switch (opcode) {
+            case EventStreamFormat.START_RECORD:
+                receiver.startRecord(readString());
+                break;
+            case EventStreamFormat.END_RECORD:
+                receiver.endRecord();
+                break;
+            case EventStreamFormat.START_ENTITY:
+                receiver.startEntity(readName());
+                break;
+            case EventStreamFormat.END_ENTITY:
+                receiver.endEntity();
+                break;
+            case EventStreamFormat.LITERAL:
+                final String name = readName();
+                receiver.literal(name, readString());
+                break;
+            default:
+                throw new MetafactureException("Unknown event type in event stream: " + opcode);
+            }
+        }
+    }
+
+    private String readName() {
+        final int reference = readVarint();
+        if (reference == 0) {
+            return null;
+        }
+        if (reference <= nameCount) {
+            return names[reference - 1];
+        }
+        if (reference != nameCount + 1) {
+            throw new MetafactureException("Invalid name reference in event stream");
+        }
+        if (nameCount == names.length) {
+            names = Arrays.copyOf(names, nameCount * 2);
+        }
+        names[nameCount] = readString();
+        nameCount += 1;
+        return names[nameCount - 1];
+    }
+
+    private String readString() {
+        final int length = readVarint() - 1;
+        if (length < 0) {
+            return null;
+        }
+        final String string = new String(block, pos, length, StandardCharsets.UTF_8);
+        pos += length;
+        return string;
+    }
+
+    private int readVarint() {
+        int value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = block[pos];
+            pos += 1;
+            value |= (b & 0x7f) << shift;
+            shift += 7;
+        } while (b < 0);
+        return value;
+    }
+
+    private int readStreamVarint(final int firstByte) throws IOException {
+        int value = 0;
+        int shift = 0;
+        int b = firstByte;
+        while (true) {
+            if (b == -1) {
+                throw new EOFException("Truncated event stream");
+            }
+            value |= (b & 0x7f) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+            shift += 7;
+            b = in.read();
+        }
+    }
+
+    private void readFully(final byte[] buffer, final int length) throws IOException {
+        int offset = 0;
+        while (offset < length) {
+            final int count = in.read(buffer, offset, length - offset);
+            if (count == -1) {
+                throw new EOFException("Truncated event stream");
+            }
+            offset += count;
+        }
+    }
+
+}
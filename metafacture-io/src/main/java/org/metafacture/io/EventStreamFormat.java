@@ -0,0 +1,52 @@
+/*
+ * Copyright 2026 hbz
+ *
+ * Licensed under the Apache License, Version 2.0 the "License";
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.metafacture.io;
+
+/**
+ * Constants of the binary event stream format written by
+ * {@link EventStreamWriter} and read by {@link EventStreamDecoder}.
+ * <p>
+ * A file starts with the magic bytes {@code MFES} and a version byte. It is
+ * followed by blocks which contain complete records. Each block starts with
+ * two varints, the length of the block contents and the number of bytes
+ * stored for them. If fewer bytes are stored than the block contains, the
+ * contents are compressed with deflate (without zlib header).
+ * <p>
+ * The block contents are a sequence of events. Each event starts with an
+ * opcode byte. Record identifiers and literal values are encoded as a varint
+ * of the UTF-8 length plus one, followed by the UTF-8 bytes; zero encodes
+ * {@code null}. Entity and literal names are encoded as references into a
+ * dictionary which starts empty in each block: zero encodes {@code null},
+ * <i>n</i> refers to the <i>n</i>-th name in the dictionary, and the size of
+ * the dictionary plus one announces a new name which follows as a string and
+ * is added to the dictionary. Blocks can thus be decoded independently.
+ */
+final class EventStreamFormat {
+
+    static final byte[] MAGIC = {'M', 'F', 'E', 'S'};
+    static final byte VERSION = 1;
+
+    static final byte START_RECORD = 1;
+    static final byte END_RECORD = 2;
+    static final byte START_ENTITY = 3;
+    static final byte END_ENTITY = 4;
+    static final byte LITERAL = 5;
+
+    private EventStreamFormat() {
+        throw new AssertionError("No instances allowed");
+    }
+
+}
@@ -0,0 +1,188 @@
+/*
+ * Copyright 2026 hbz
+ *
+ * Licensed under the Apache License, Version 2.0 the "License";
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.metafacture.io;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.Deflater;
+
+import org.metafacture.framework.FluxCommand;
+import org.metafacture.framework.MetafactureException;
+import org.metafacture.framework.StreamReceiver;
+import org.metafacture.framework.annotations.Description;
+import org.metafacture.framework.annotations.In;
+
+/**
+ * Writes stream events into a file in a compact binary format. The files
+ * are meant as intermediate results between pipelines and are read with
+ * {@link EventStreamDecoder}. Writing and reading them is faster than
+ * serialising the events as text and parsing them again.
+ * <p>
+ * Records are collected in blocks of at least
+ * {@link #setBlockSize(int) blockSize} bytes, which are compressed with
+ * deflate. Names of entities and literals are stored only once per block.
+ * <p>
+ * A new file is started on <i>reset-stream</i>; the file name may contain
+ * the variable {@code ${i}} which is replaced with the number of the file as
+ * in {@code write-files}. As with {@code write-files}, a file is written for
+ * each part of the stream, even if it contains no records.
+ *
+ * @see EventStreamFormat
+ */
+@Description("Writes stream events into a file in a compact binary format "
+        + "which can be read with decode-events. The file name is given in brackets.")
+@In(StreamReceiver.class)
+@FluxCommand("write-events")
+public final class EventStreamWriter implements StreamReceiver {
+
+    public static final int DEFAULT_BLOCK_SIZE = 256 * 1024;
+    public static final int DEFAULT_COMPRESSION_LEVEL = Deflater.BEST_SPEED;
+
+    private static final int MAX_BLOCK_SIZE = 64 * 1024 * 1024;
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final String path;
+
+    private int blockSize = DEFAULT_BLOCK_SIZE;
+    private int compressionLevel = DEFAULT_COMPRESSION_LEVEL;
+
+    private EventBlockEncoder encoder;
+    private int fileNumber;
+
+    public EventStreamWriter(final String path) {
+        this.path = path;
+    }
+
+    /**
+     * Sets the minimum size of a block. Blocks are written after the first
+     * record which fills them. Larger blocks compress better but need more
+     * memory.
+     * <p>
+     * The default value is {@value #DEFAULT_BLOCK_SIZE} bytes.
+     * <p>
+     * The new value becomes effective when the next file is opened.
+     *
+     * @param blockSize block size in bytes
+     */
+    public void setBlockSize(final int blockSize) {
+        if (blockSize < 1 || blockSize > MAX_BLOCK_SIZE) {
+            throw new IllegalArgumentException("'blockSize' must be between 1 and "
+                    + MAX_BLOCK_SIZE);
+        }
+        this.blockSize = blockSize;
+    }
+
+    public int getBlockSize() {
+        return blockSize;
+    }
+
+    /**
+     * Sets the deflate compression level of the blocks. 0 disables
+     * compression, 9 gives the best compression.
+     * <p>
+     * The default value is {@value #DEFAULT_COMPRESSION_LEVEL}.
+     * <p>
+     * The new value becomes effective when the next file is opened.
+     *
+     * @param compressionLevel the compression level
+     */
+    public void setCompressionLevel(final int compressionLevel) {
+        if (compressionLevel < Deflater.NO_COMPRESSION
+                || compressionLevel > Deflater.BEST_COMPRESSION) {
+            throw new IllegalArgumentException("'compressionLevel' must be between 0 and 9");
+        }
+        this.compressionLevel = compressionLevel;
+    }
+
+    public int getCompressionLevel() {
+        return compressionLevel;
+    }
+
+    @Override
+    public void startRecord(final String identifier) {
+        if (encoder == null) {
+            openFile();
+        }
+        encoder.startRecord(identifier);
+    }
+
+    @Override
+    public void endRecord() {
+        encoder.endRecord();
+    }
+
+    @Override
+    public void startEntity(final String name) {
+        encoder.startEntity(name);
+    }
+
+    @Override
+    public void endEntity() {
+        encoder.endEntity();
+    }
+
+    @Override
+    public void literal(final String name, final String value) {
+        encoder.literal(name, value);
+    }
+
+    @Override
+    public void resetStream() {
+        if (encoder == null) {
+            openFile();
+        }
+        closeFile();
+        fileNumber += 1;
+    }
+
+    @Override
+    public void closeStream() {
+        if (encoder == null) {
+            // Write a file without records so that an empty stream can be
+            // decoded like any other:
+            openFile();
+        }
+        closeFile();
+    }
+
+    private void openFile() {
+        final String fileName = NumberedFiles.getFileName(path, fileNumber);
+        final OutputStream file = NumberedFiles.openOutputStream(fileName,
+                FileCompression.NONE, BUFFER_SIZE);
+        try {
+            try {
+                encoder = new EventBlockEncoder(file, blockSize, compressionLevel);
+            } catch (final IOException e) {
+                file.close();
+                throw e;
+            }
+        } catch (final IOException e) {
+            throw new MetafactureException("Error creating file '" + fileName + "'.", e);
+        }
+    }
+
+    private void closeFile() {
+        if (encoder == null) {
+            return;
+        }
+        try {
+            encoder.closeStream();
+        } finally {
+            encoder = null;
+        }
+    }
+
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright 2026 hbz
+ *
+ * Licensed under the Apache License, Version 2.0 the "License";
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.metafacture.io;
+
+import java.io.BufferedOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.metafacture.framework.MetafactureException;
+
+/**
+ * File names and output streams for writers which start a new file on
+ * <i>reset-stream</i>. The files are numbered as in {@code write-files}.
+ */
+public final class NumberedFiles {
+
+    public static final String VAR = "${i}";
+
+    private static final Pattern VAR_PATTERN = Pattern.compile(VAR, Pattern.LITERAL);
+
+    private NumberedFiles() {
+        // no instances allowed
+    }
+
+    /**
+     * Returns the name of a file. The variable {@value #VAR} in the path is
+     * replaced with the number of the file. If the path does not contain the
+     * variable, the number is appended to all but the first file name.
+     *
+     * @param path the path of the files
+     * @param fileNumber the number of the file starting at zero
+     * @return the file name
+     */
+    public static String getFileName(final String path, final int fileNumber) {
+        final String number = String.valueOf(fileNumber);
+        final Matcher matcher = VAR_PATTERN.matcher(path);
+        if (matcher.find()) {
+            return matcher.replaceAll(Matcher.quoteReplacement(number));
+        }
+        return fileNumber == 0 ? path : path + number;
+    }
+
+    /**
+     * Creates a file and opens a buffered and optionally compressed output
+     * stream for it.
+     *
+     * @param fileName the name of the file
+     * @param compression the compression of the file
+     * @param bufferSize the size of the buffer in bytes
+     * @return the output stream
+     * @throws MetafactureException if the file cannot be created
+     */
+    public static OutputStream openOutputStream(final String fileName,
+            final FileCompression compression, final int bufferSize) {
+        try {
+            final OutputStream file = new BufferedOutputStream(
+                    new FileOutputStream(fileName), bufferSize);
+            try {
+                return compression.createCompressor(file, fileName);
+            } catch (final MetafactureException e) {
+                file.close();
+                throw e;
+            }
+        } catch (final IOException e) {
+            throw new MetafactureException("Error creating file '" + fileName + "'.", e);
+        }
+    }
+
+}
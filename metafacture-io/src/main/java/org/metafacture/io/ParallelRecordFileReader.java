@@ -0,0 +1,502 @@
+/*
+ * Copyright 2026 hbz
+ *
+ * Licensed under the Apache License, Version 2.0 the "License";
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.metafacture.io;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.metafacture.framework.FluxCommand;
+import org.metafacture.framework.MetafactureException;
+import org.metafacture.framework.ObjectPipe;
+import org.metafacture.framework.ObjectReceiver;
+import org.metafacture.framework.annotations.Description;
+import org.metafacture.framework.annotations.In;
+import org.metafacture.framework.annotations.Out;
+import org.metafacture.framework.helpers.DefaultTee;
+
+/**
+ * <p>Reads a file and splits it into individual records using several
+ * threads. The file is divided into segments of
+ * {@link #setSegmentSize(int) segmentSize} bytes which are read and split
+ * independently. A record belongs to the segment in which it starts, so
+ * records crossing a segment border are read completely by one thread. The
+ * records produced are the same as those produced by
+ * {@code open-file | as-records}; like {@code open-file}, a UTF-8 byte order
+ * mark at the start of the file is skipped. Since the file is accessed at
+ * arbitrary positions, compressed files are not supported. For the same
+ * reason, only encodings in which ASCII characters are single bytes, such as
+ * UTF-8 or ISO-8859-1, are supported.</p>
+ *
+ * <p>The records are distributed round-robin over all receivers connected
+ * to this module. If {@link #setOrdered(boolean) ordered} is true (the
+ * default), the records are passed to the receivers from the calling thread
+ * in the order in which they appear in the file. Otherwise, each receiver is
+ * fed by its own thread and the segments are passed on as soon as they have
+ * been split. The records of a segment are always passed to the same
+ * receiver in file order.</p>
+ *
+ * <p>The default separator is the global separator character (0x001d).
+ * Empty records are skipped by default.</p>
+ */
+@Description("Reads a file and splits it into records using several threads. "
+        + "Compressed files are not supported.")
+@In(String.class)
+@Out(String.class)
+@FluxCommand("read-records-parallel")
+public final class ParallelRecordFileReader extends DefaultTee<ObjectReceiver<String>>
+        implements ObjectPipe<String, ObjectReceiver<String>> {
+
+    public static final int DEFAULT_SEGMENT_SIZE = 1024 * 1024 * 16;
+    public static final int DEFAULT_THREADS =
+            Runtime.getRuntime().availableProcessors();
+
+    private static final int PENDING_SEGMENTS_PER_THREAD = 2;
+    private static final int MAX_SEPARATOR = 0x7f;
+    private static final byte[] UTF8_BOM = {(byte) 0xef, (byte) 0xbb, (byte) 0xbf};
+
+    private byte separator = (byte) RecordReader.DEFAULT_SEPARATOR;
+    private boolean skipEmptyRecords = true;
+    private Charset encoding = StandardCharsets.UTF_8;
+    private int segmentSize = DEFAULT_SEGMENT_SIZE;
+    private int threads = DEFAULT_THREADS;
+    private boolean ordered = true;
+
+    private int nextReceiver;
+
+    public void setSeparator(final String separator) {
+        if (separator.length() >= 1) {
+            setSeparator(separator.charAt(0));
+        } else {
+            setSeparator(RecordReader.DEFAULT_SEPARATOR);
+        }
+    }
+
+    /**
+     * Sets the record separator. The file is split on bytes, so only
+     * characters which are represented by a single byte in ASCII-compatible
+     * encodings are supported.
+     *
+     * @param separator an ASCII character
+     */
+    public void setSeparator(final char separator) {
+        if (separator > MAX_SEPARATOR) {
+            throw new IllegalArgumentException(
+                    "separator must be an ASCII character");
+        }
+        this.separator = (byte) separator;
+    }
+
+    public char getSeparator() {
+        return (char) separator;
+    }
+
+    public void setSkipEmptyRecords(final boolean skipEmptyRecords) {
+        this.skipEmptyRecords = skipEmptyRecords;
+    }
+
+    public boolean getSkipEmptyRecords() {
+        return skipEmptyRecords;
+    }
+
+    /**
+     * Sets the encoding of the file. The file is split on bytes, so the
+     * encoding must represent all ASCII characters by the same single bytes as
+     * ASCII. Encodings like UTF-16 are rejected.
+     * <p>
+     * The default value is UTF-8.
+     *
+     * @param encoding name of the encoding
+     */
+    public void setEncoding(final String encoding) {
+        final Charset charset = Charset.forName(encoding);
+        if (!isAsciiCompatible(charset)) {
+            throw new IllegalArgumentException("encoding '" + encoding
+                    + "' is not supported since it is not ASCII-compatible");
+        }
+        this.encoding = charset;
+    }
+
+    public String getEncoding() {
+        return encoding.name();
+    }
+
+    /**
+     * Sets the size of the segments which are split by a single thread. All
+     * records of a segment are kept in memory until they have been passed to
+     * a receiver. At most {@code 2 * threads} segments are processed at the
+     * same time.
+     * <p>
+     * The default value is {@value #DEFAULT_SEGMENT_SIZE} bytes.
+     * <p>
+     * The new value becomes effective with the next file.
+     *
+     * @param segmentSize segment size in bytes
+     */
+    public void setSegmentSize(final int segmentSize) {
+        if (segmentSize < 1) {
+            throw new IllegalArgumentException("'segmentSize' must be at least 1");
+        }
+        this.segmentSize = segmentSize;
+    }
+
+    public int getSegmentSize() {
+        return segmentSize;
+    }
+
+    /**
+     * Sets the number of threads which split the file.
+     * <p>
+     * The default value is the number of available processors.
+     * <p>
+     * The new value becomes effective with the next file.
+     *
+     * @param threads number of threads
+     */
+    public void setThreads(final int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("'threads' must be at least 1");
+        }
+        this.threads = threads;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    /**
+     * Controls whether records are passed on in file order from the calling
+     * thread or in the order in which segments complete from one thread per
+     * receiver.
+     * <p>
+     * The default value is true.
+     * <p>
+     * The new value becomes effective with the next file.
+     *
+     * @param ordered true if the file order should be kept
+     */
+    public void setOrdered(final boolean ordered) {
+        this.ordered = ordered;
+    }
+
+    public boolean getOrdered() {
+        return ordered;
+    }
+
+    @Override
+    public void process(final String file) {
+        try (FileChannel channel = FileChannel.open(Paths.get(file),
+                StandardOpenOption.READ)) {
+            final long fileSize = channel.size();
+            final long dataStart = hasByteOrderMark(channel) ? UTF8_BOM.length : 0;
+            if (fileSize == dataStart) {
+                return;
+            }
+            final ExecutorService splitters = newThreadPool(threads,
+                    "record-splitter");
+            try {
+                final Splitter splitter = new Splitter(channel, dataStart, fileSize);
+                if (ordered) {
+                    processOrdered(splitter, splitters);
+                } else {
+                    processUnordered(splitter, splitters);
+                }
+            } finally {
+                splitters.shutdownNow();
+            }
+        } catch (final IOException e) {
+            throw new MetafactureException(e);
+        }
+    }
+
+    @Override
+    protected void onResetStream() {
+        nextReceiver = 0;
+    }
+
+    private void processOrdered(final Splitter splitter,
+            final ExecutorService splitters) {
+        final Deque<Future<List<String>>> pending = new ArrayDeque<>();
+        long nextSegment = 0;
+        while (nextSegment < splitter.segments || !pending.isEmpty()) {
+            while (nextSegment < splitter.segments && pending.size() < maxPending()) {
+                final long segment = nextSegment++;
+                pending.add(splitters.submit(() -> splitter.split(segment)));
+            }
+            final List<ObjectReceiver<String>> receivers = getReceivers();
+            for (final String record : await(pending.poll())) {
+                receivers.get(nextReceiver()).process(record);
+            }
+        }
+    }
+
+    private void processUnordered(final Splitter splitter,
+            final ExecutorService splitters) {
+        final List<ObjectReceiver<String>> receivers = getReceivers();
+        final List<ExecutorService> deliverers = new ArrayList<>();
+        for (int i = 0; i < receivers.size(); ++i) {
+            deliverers.add(newThreadPool(1, "record-receiver"));
+        }
+        try {
+            final CompletionService<List<String>> splitSegments =
+                    new ExecutorCompletionService<>(splitters);
+            final Deque<Future<?>> deliveries = new ArrayDeque<>();
+            long nextSegment = 0;
+            int splitting = 0;
+            while (nextSegment < splitter.segments || splitting > 0) {
+                while (nextSegment < splitter.segments && splitting < maxPending()) {
+                    final long segment = nextSegment++;
+                    splitSegments.submit(() -> splitter.split(segment));
+                    splitting += 1;
+                }
+                final List<String> records = await(takeCompleted(splitSegments));
+                splitting -= 1;
+                final int index = nextReceiver();
+                final ObjectReceiver<String> receiver = receivers.get(index);
+                deliveries.add(deliverers.get(index).submit(
+                        () -> records.forEach(receiver::process)));
+                while (deliveries.size() > maxPending()) {
+                    await(deliveries.poll());
+                }
+            }
+            while (!deliveries.isEmpty()) {
+                await(deliveries.poll());
+            }
+        } finally {
+            deliverers.forEach(ExecutorService::shutdownNow);
+        }
+    }
+
+    private static boolean isAsciiCompatible(final Charset charset) {
+        if (!charset.canEncode()) {
+            return false;
+        }
+        final char[] ascii = new char[MAX_SEPARATOR + 1];
+        for (int i = 0; i < ascii.length; ++i) {
+            ascii[i] = (char) i;
+        }
+        final byte[] bytes = new String(ascii).getBytes(charset);
+        if (bytes.length != ascii.length) {
+            return false;
+        }
+        for (int i = 0; i < bytes.length; ++i) {
+            if (bytes[i] != i) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean hasByteOrderMark(final FileChannel channel)
+            throws IOException {
+        final ByteBuffer start = ByteBuffer.allocate(UTF8_BOM.length);
+        while (start.hasRemaining() && channel.read(start, start.position()) >= 0) {
+            // Read until the buffer is full or the file ends
+        }
+        return !start.hasRemaining() && Arrays.equals(start.array(), UTF8_BOM);
+    }
+
+    private int maxPending() {
+        return threads * PENDING_SEGMENTS_PER_THREAD;
+    }
+
+    private int nextReceiver() {
+        final int index = nextReceiver % getReceivers().size();
+        nextReceiver = index + 1;
+        return index;
+    }
+
+    private static ExecutorService newThreadPool(final int threads,
+            final String name) {
+        return Executors.newFixedThreadPool(threads, runnable -> {
+            final Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    private static <T> Future<T> takeCompleted(final CompletionService<T> service) {
+        try {
+            return service.take();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MetafactureException("Interrupted while reading records", e);
+        }
+    }
+
+    private static <T> T await(final Future<T> future) {
+        try {
+            return future.get();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MetafactureException("Interrupted while reading records", e);
+        } catch (final ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new MetafactureException(e.getCause());
+        }
+    }
+
+    /**
+     * Splits the segments of a file into records. Instances are shared by
+     * all splitter threads. Positional reads on a {@link FileChannel} are
+     * thread-safe.
+     */
+    private final class Splitter {
+
+        private final FileChannel channel;
+        private final long dataStart;
+        private final long fileSize;
+        private final long segments;
+        private final byte separator = ParallelRecordFileReader.this.separator;
+        private final boolean skipEmptyRecords = ParallelRecordFileReader.this.skipEmptyRecords;
+        private final Charset encoding = ParallelRecordFileReader.this.encoding;
+        private final int segmentSize = ParallelRecordFileReader.this.segmentSize;
+
+        Splitter(final FileChannel channel, final long dataStart, final long fileSize) {
+            this.channel = channel;
+            this.dataStart = dataStart;
+            this.fileSize = fileSize;
+            segments = (fileSize - dataStart + segmentSize - 1) / segmentSize;
+        }
+
+        List<String> split(final long segment) throws IOException {
+            final long start = dataStart + segment * segmentSize;
+            final long end = Math.min(fileSize, start + segmentSize);
+            // Read the byte before the segment to find out whether a record
+            // starts at the first byte of the segment:
+            final long readStart = start == dataStart ? start : start - 1;
+            final SegmentBuffer buffer = new SegmentBuffer(channel, readStart,
+                    fileSize, (int) (end - readStart));
+
+            int index = 0;
+            if (start > dataStart) {
+                final int firstSeparator = buffer.indexOf(separator, 0);
+                if (firstSeparator < 0) {
+                    return Collections.emptyList();
+                }
+                index = firstSeparator + 1;
+            }
+            final int segmentEnd = (int) (end - readStart);
+            final boolean lastSegment = end == fileSize;
+            final List<String> records = new ArrayList<>();
+            while (index < segmentEnd || lastSegment && index == segmentEnd) {
+                final int recordEnd = buffer.indexOf(separator, index);
+                if (recordEnd < 0) {
+                    addRecord(records, buffer, index, buffer.length);
+                    break;
+                }
+                addRecord(records, buffer, index, recordEnd);
+                index = recordEnd + 1;
+            }
+            return records;
+        }
+
+        private void addRecord(final List<String> records,
+                final SegmentBuffer buffer, final int from, final int to) {
+            if (!skipEmptyRecords || from < to) {
+                records.add(new String(buffer.bytes, from, to - from, encoding));
+            }
+        }
+
+    }
+
+    /**
+     * Holds the bytes of a segment. The buffer reads beyond the end of the
+     * segment on demand to complete the last record.
+     */
+    private static final class SegmentBuffer {
+
+        private final FileChannel channel;
+        private final long position;
+        private final long fileSize;
+
+        private byte[] bytes;
+        private int length;
+
+        SegmentBuffer(final FileChannel channel, final long position,
+                final long fileSize, final int initialLength) throws IOException {
+            this.channel = channel;
+            this.position = position;
+            this.fileSize = fileSize;
+            bytes = new byte[initialLength];
+            fill();
+        }
+
+        /**
+         * Returns the index of the next {@code value} at or after
+         * {@code fromIndex}, reading more data if necessary.
+         *
+         * @return the index or -1 if the end of the file is reached
+         */
+        int indexOf(final byte value, final int fromIndex) throws IOException {
+            int index = fromIndex;
+            while (true) {
+                for (; index < length; ++index) {
+                    if (bytes[index] == value) {
+                        return index;
+                    }
+                }
+                if (position + length >= fileSize) {
+                    return -1;
+                }
+                grow();
+            }
+        }
+
+        private void grow() throws IOException {
+            final long remaining = fileSize - position - length;
+            final long newLength = Math.min((long) length + Math.max(length, 1), length + remaining);
+            if (newLength > Integer.MAX_VALUE) {
+                throw new MetafactureException("record is too large");
+            }
+            final byte[] newBytes = new byte[(int) newLength];
+            System.arraycopy(bytes, 0, newBytes, 0, length);
+            bytes = newBytes;
+            fill();
+        }
+
+        private void fill() throws IOException {
+            final ByteBuffer target = ByteBuffer.wrap(bytes, length, bytes.length - length);
+            while (target.hasRemaining()) {
+                final int read = channel.read(target, position + target.position());
+                if (read < 0) {
+                    break;
+                }
+            }
+            length = target.position();
+        }
+
+    }
+
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright 2026 hbz
+ *
+ * Licensed under the Apache License, Version 2.0 the "License";
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.metafacture.io;
+
+/**
+ * Encodes strings in UTF-8 directly into byte arrays. Unlike
+ * {@link String#getBytes(java.nio.charset.Charset)}, no intermediate array is
+ * created. The encoded bytes are the same: unpaired surrogates are replaced
+ * with {@code '?'}.
+ */
+public final class Utf8Encoding {
+
+    /**
+     * The maximum number of bytes per char.
+     */
+    public static final int MAX_BYTES_PER_CHAR = 3;
+
+    private Utf8Encoding() {
+        // no instances allowed
+    }
+
+    /**
+     * Returns the number of bytes of a string in UTF-8.
+     *
+     * @param string the string to measure
+     * @return the length of the encoded string in bytes
+     */
+    public static int getEncodedLength(final String string) {
+        final int length = string.length();
+        int encodedLength = length;
+        for (int i = 0; i < length; ++i) {
+            final char c = string.charAt(i);
+            if (c >= 0x80) {
+                if (c < 0x800) {
+                    encodedLength += 1;
+                } else if (isSurrogatePair(string, i, length)) {
+                    // Four bytes for two chars:
+                    encodedLength += 2;
+                    i += 1;
+                } else if (!Character.isSurrogate(c)) {
+                    encodedLength += 2;
+                }
+            }
+        }
+        return encodedLength;
+    }
+
+    /**
+     * Encodes the chars of a string from {@code start} to {@code end}. The
+     * buffer must have room for {@value #MAX_BYTES_PER_CHAR} bytes per char.
+     *
+     * @param string the string to encode
+     * @param start index of the first char to encode
+     * @param end index after the last char to encode
+     * @param buffer the buffer receiving the bytes
+     * @param offset the position of the first byte in the buffer
+     * @return the position after the last byte in the buffer
+     */
+    public static int encode(final String string, final int start, final int end,
+            final byte[] buffer, final int offset) {
+        int pos = offset;
+        for (int i = start; i < end; ++i) {
+            final char c = string.charAt(i);
+            if (c < 0x80) {
+                buffer[pos++] = (byte) c;
+            } else if (c < 0x800) {
+                buffer[pos++] = (byte) (0xc0 | c >> 6);
+                buffer[pos++] = (byte) (0x80 | c & 0x3f);
+            } else if (isSurrogatePair(string, i, end)) {
+                final int codePoint = Character.toCodePoint(c, string.charAt(i + 1));
+                buffer[pos++] = (byte) (0xf0 | codePoint >> 18);
+                buffer[pos++] = (byte) (0x80 | codePoint >> 12 & 0x3f);
+                buffer[pos++] = (byte) (0x80 | codePoint >> 6 & 0x3f);
+                buffer[pos++] = (byte) (0x80 | codePoint & 0x3f);
+                i += 1;
+            } else if (Character.isSurrogate(c)) {
+                buffer[pos++] = '?';
+            } else {
+                buffer[pos++] = (byte) (0xe0 | c >> 12);
+                buffer[pos++] = (byte) (0x80 | c >> 6 & 0x3f);
+                buffer[pos++] = (byte) (0x80 | c & 0x3f);
+            }
+        }
+        return pos;
+    }
+
+    private static boolean isSurrogatePair(final String string, final int index,
+            final int end) {
+        return Character.isHighSurrogate(string.charAt(index)) && index + 1 < end
+                && Character.isLowSurrogate(string.charAt(index + 1));
+    }
+
+}
@@ -0,0 +1,153 @@
+/*
+ * Copyright 2026 hbz
+ *
+ * Licensed under the Apache License, Version 2.0 the "License";
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.metafacture.io;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.metafacture.framework.helpers.DefaultObjectReceiver;
+
+/**
+ * Tests for {@link ByteRecordReader}.
+ */
+public final class ByteRecordReaderTest {
+
+    private static final String RECORD1 = "record1";
+    private static final String RECORD2 = "recörd2";
+    private static final char SEPARATOR = ':';
+    private static final char DEFAULT_SEPARATOR = '\u001d';
+
+    private ByteRecordReader byteRecordReader;
+    private List<String> records;
+
+    @Before
+    public void setup() {
+        records = new ArrayList<>();
+        byteRecordReader = new ByteRecordReader();
+        byteRecordReader.setReceiver(new DefaultObjectReceiver<ByteBuffer>() {
+            @Override
+            public void process(final ByteBuffer obj) {
+                records.add(StandardCharsets.UTF_8.decode(obj).toString());
+            }
+        });
+    }
+
+    @After
+    public void cleanup() {
+        byteRecordReader.closeStream();
+    }
+
+    @Test
+    public void shouldProcessRecordsFollowedBySeparator() {
+        byteRecordReader.setSeparator(SEPARATOR);
+
+        byteRecordReader.process(toStream(
+                RECORD1 + SEPARATOR +
+                RECORD2 + SEPARATOR));
+
+        assertEquals(Arrays.asList(RECORD1, RECORD2), records);
+    }
+
+    @Test
+    public void shouldProcessRecordsWithoutTrailingSeparator() {
+        byteRecordReader.process(toStream(
+                RECORD1 + DEFAULT_SEPARATOR +
+                RECORD2));
+
+        assertEquals(Arrays.asList(RECORD1, RECORD2), records);
+    }
+
+    @Test
+    public void shouldSkipEmptyRecordsByDefault() {
+        byteRecordReader.setSeparator(SEPARATOR);
+
+        byteRecordReader.process(toStream(
+                SEPARATOR + RECORD1 + SEPARATOR + SEPARATOR +
+                RECORD2 + SEPARATOR));
+
+        assertEquals(Arrays.asList(RECORD1, RECORD2), records);
+    }
+
+    @Test
+    public void shouldOutputEmptyRecordsIfConfigured() {
+        byteRecordReader.setSeparator(SEPARATOR);
+        byteRecordReader.setSkipEmptyRecords(false);
+
+        byteRecordReader.process(toStream(
+                RECORD1 + SEPARATOR + SEPARATOR + RECORD2));
+
+        assertEquals(Arrays.asList(RECORD1, "", RECORD2), records);
+    }
+
+    @Test
+    public void shouldSplitRecordsWhichSpanSeveralReads() {
+        byteRecordReader.process(new TrickleInputStream(
+                RECORD1 + DEFAULT_SEPARATOR + RECORD2 + DEFAULT_SEPARATOR));
+
+        assertEquals(Arrays.asList(RECORD1, RECORD2), records);
+    }
+
+    @Test
+    public void shouldProcessRecordsLargerThanTheReadBuffer() {
+        final char[] chars = new char[3 * 1024 * 1024];
+        Arrays.fill(chars, 'x');
+        final String largeRecord = new String(chars);
+
+        byteRecordReader.process(toStream(
+                RECORD1 + DEFAULT_SEPARATOR + largeRecord + DEFAULT_SEPARATOR
+                + RECORD2));
+
+        assertEquals(Arrays.asList(RECORD1, largeRecord, RECORD2), records);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectNonAsciiSeparators() {
+        byteRecordReader.setSeparator('ä');
+    }
+
+    private static InputStream toStream(final String data) {
+        return new ByteArrayInputStream(data.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Returns at most three bytes per read.
+     */
+    private static final class TrickleInputStream extends ByteArrayInputStream {
+
+        private static final int MAX_READ = 3;
+
+        TrickleInputStream(final String data) {
+            super(data.getBytes(StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public synchronized int read(final byte[] b, final int off, final int len) {
+            return super.read(b, off, Math.min(len, MAX_READ));
+        }
+
+    }
+
+}
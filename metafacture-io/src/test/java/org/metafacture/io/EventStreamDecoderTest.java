@@ -0,0 +1,65 @@
+/*
+ * Copyright 2026 hbz
+ *
+ * Licensed under the Apache License, Version 2.0 the "License";
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.metafacture.io;
+
+import static org.mockito.Mockito.verifyZeroInteractions;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.metafacture.framework.MetafactureException;
+import org.metafacture.framework.StreamReceiver;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+/**
+ * Tests for {@link EventStreamDecoder}. Round trips are tested in
+ * {@link EventStreamWriterTest}.
+ */
+public final class EventStreamDecoderTest {
+
+    @Mock
+    private StreamReceiver receiver;
+
+    private EventStreamDecoder decoder;
+
+    @Before
+    public void setup() {
+        MockitoAnnotations.initMocks(this);
+        decoder = new EventStreamDecoder();
+        decoder.setReceiver(receiver);
+    }
+
+    @Test
+    public void shouldAcceptEmptyEventStream() {
+        decoder.process(new ByteArrayInputStream(new byte[]{'M', 'F', 'E', 'S', 1}));
+
+        verifyZeroInteractions(receiver);
+    }
+
+    @Test(expected = MetafactureException.class)
+    public void shouldRejectOtherFormats() {
+        decoder.process(new ByteArrayInputStream("<xml/>".getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test(expected = MetafactureException.class)
+    public void shouldRejectTruncatedBlocks() {
+        decoder.process(new ByteArrayInputStream(new byte[]{'M', 'F', 'E', 'S', 1, 10, 10, 1}));
+    }
+
+}
@@ -0,0 +1,211 @@
+/*
+ * Copyright 2026 hbz
+ *
+ * Licensed under the Apache License, Version 2.0 the "License";
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.metafacture.io;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.inOrder;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.metafacture.framework.StreamReceiver;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnit;
+import org.mockito.junit.MockitoRule;
+
+/**
+ * Tests for {@link EventStreamWriter} and {@link EventStreamDecoder}.
+ */
+public final class EventStreamWriterTest {
+
+    @Rule
+    public final MockitoRule mockitoRule = MockitoJUnit.rule();
+
+    @Rule
+    public final TemporaryFolder tempFolder = new TemporaryFolder();
+
+    @Mock
+    private StreamReceiver receiver;
+
+    @Test
+    public void shouldWriteAndDecodeEvents() throws IOException {
+        final File file = tempFolder.newFile();
+        final EventStreamWriter writer = new EventStreamWriter(file.getPath());
+        writer.startRecord("1");
+        writer.literal("l", "v");
+        writer.startEntity("e");
+        writer.literal("l", "v2");
+        writer.endEntity();
+        writer.endRecord();
+        writer.startRecord("2");
+        writer.endRecord();
+        writer.closeStream();
+
+        decode(file);
+
+        final InOrder ordered = inOrder(receiver);
+        ordered.verify(receiver).startRecord("1");
+        ordered.verify(receiver).literal("l", "v");
+        ordered.verify(receiver).startEntity("e");
+        ordered.verify(receiver).literal("l", "v2");
+        ordered.verify(receiver).endEntity();
+        ordered.verify(receiver).endRecord();
+        ordered.verify(receiver).startRecord("2");
+        ordered.verify(receiver).endRecord();
+        ordered.verify(receiver).closeStream();
+        ordered.verifyNoMoreInteractions();
+    }
+
+    @Test
+    public void shouldEncodeNullAndNonAsciiStrings() throws IOException {
+        final String value = "ä€😀x";
+        final File file = tempFolder.newFile();
+        final EventStreamWriter writer = new EventStreamWriter(file.getPath());
+        writer.startRecord(null);
+        writer.startEntity(null);
+        writer.literal(null, null);
+        writer.literal(value, value);
+        writer.literal("lone", "\ud83d");
+        writer.endEntity();
+        writer.endRecord();
+        writer.closeStream();
+
+        decode(file);
+
+        final InOrder ordered = inOrder(receiver);
+        ordered.verify(receiver).startRecord(null);
+        ordered.verify(receiver).startEntity(null);
+        ordered.verify(receiver).literal(null, null);
+        ordered.verify(receiver).literal(value, value);
+        ordered.verify(receiver).literal("lone", "?");
+        ordered.verify(receiver).endEntity();
+        ordered.verify(receiver).endRecord();
+    }
+
+    @Test
+    public void shouldWriteRecordsInSeveralBlocks() throws IOException {
+        final File file = tempFolder.newFile();
+        final EventStreamWriter writer = new EventStreamWriter(file.getPath());
+        writer.setBlockSize(100);
+        for (int i = 0; i < 1000; ++i) {
+            writer.startRecord(Integer.toString(i));
+            writer.literal("name" + i % 3, "value" + i);
+            writer.endRecord();
+        }
+        writer.closeStream();
+
+        decode(file);
+
+        final InOrder ordered = inOrder(receiver);
+        for (int i = 0; i < 1000; ++i) {
+            ordered.verify(receiver).startRecord(Integer.toString(i));
+            ordered.verify(receiver).literal("name" + i % 3, "value" + i);
+            ordered.verify(receiver).endRecord();
+        }
+    }
+
+    @Test
+    public void shouldCompressBlocks() throws IOException {
+        final File compressedFile = tempFolder.newFile();
+        final File uncompressedFile = tempFolder.newFile();
+        final EventStreamWriter compressingWriter = new EventStreamWriter(compressedFile.getPath());
+        final EventStreamWriter writer = new EventStreamWriter(uncompressedFile.getPath());
+        writer.setCompressionLevel(0);
+        for (final EventStreamWriter w : new EventStreamWriter[]{compressingWriter, writer}) {
+            for (int i = 0; i < 100; ++i) {
+                w.startRecord("record");
+                w.literal("name", "a repeated value");
+                w.endRecord();
+            }
+            w.closeStream();
+        }
+
+        assertTrue(compressedFile.length() < uncompressedFile.length() / 4);
+        decode(compressedFile);
+        decode(uncompressedFile);
+    }
+
+    @Test
+    public void shouldStartNewFileOnResetStream() throws IOException {
+        final String path = new File(tempFolder.getRoot(), "events-${i}.bin").getPath();
+        final EventStreamWriter writer = new EventStreamWriter(path);
+        writer.startRecord("1");
+        writer.endRecord();
+        writer.resetStream();
+        writer.startRecord("2");
+        writer.endRecord();
+        writer.closeStream();
+
+        decode(new File(tempFolder.getRoot(), "events-1.bin"));
+
+        final InOrder ordered = inOrder(receiver);
+        ordered.verify(receiver).startRecord("2");
+        ordered.verify(receiver).endRecord();
+        ordered.verify(receiver).closeStream();
+        ordered.verifyNoMoreInteractions();
+        assertEquals(true, new File(tempFolder.getRoot(), "events-0.bin").isFile());
+    }
+
+    @Test
+    public void shouldWriteFileForEmptyStream() throws IOException {
+        final File file = new File(tempFolder.getRoot(), "events.bin");
+        final EventStreamWriter writer = new EventStreamWriter(file.getPath());
+        writer.closeStream();
+
+        assertTrue(file.isFile());
+        decode(file);
+
+        final InOrder ordered = inOrder(receiver);
+        ordered.verify(receiver).closeStream();
+        ordered.verifyNoMoreInteractions();
+    }
+
+    @Test
+    public void shouldWriteFileForResetWithoutRecords() throws IOException {
+        final String path = new File(tempFolder.getRoot(), "events-${i}.bin").getPath();
+        final EventStreamWriter writer = new EventStreamWriter(path);
+        writer.startRecord("1");
+        writer.endRecord();
+        writer.resetStream();
+        writer.resetStream();
+        writer.closeStream();
+
+        decode(new File(tempFolder.getRoot(), "events-1.bin"));
+        decode(new File(tempFolder.getRoot(), "events-2.bin"));
+
+        final InOrder ordered = inOrder(receiver);
+        ordered.verify(receiver).closeStream();
+        ordered.verify(receiver).closeStream();
+        ordered.verifyNoMoreInteractions();
+    }
+
+    private void decode(final File file) throws IOException {
+        final EventStreamDecoder decoder = new EventStreamDecoder();
+        decoder.setReceiver(receiver);
+        try (InputStream in = new FileInputStream(file)) {
+            decoder.process(in);
+        }
+        decoder.closeStream();
+    }
+
+}
@@ -0,0 +1,54 @@
+/*
+ * Copyright 2026 hbz
+ *
+ * Licensed under the Apache License, Version 2.0 the "License";
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.metafacture.io;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.metafacture.framework.MetafactureException;
+
+/**
+ * Tests for class {@link NumberedFiles}.
+ */
+public final class NumberedFilesTest {
+
+    @Rule
+    public final TemporaryFolder tempFolder = new TemporaryFolder();
+
+    @Test
+    public void shouldReplaceVariableWithFileNumber() {
+        assertEquals("out-0.xml", NumberedFiles.getFileName("out-${i}.xml", 0));
+        assertEquals("out-12.xml", NumberedFiles.getFileName("out-${i}.xml", 12));
+    }
+
+    @Test
+    public void shouldAppendFileNumberToAllButFirstFile() {
+        assertEquals("out.xml", NumberedFiles.getFileName("out.xml", 0));
+        assertEquals("out.xml1", NumberedFiles.getFileName("out.xml", 1));
+    }
+
+    @Test(expected = MetafactureException.class)
+    public void shouldFailIfFileCannotBeCreated() {
+        final File file = new File(tempFolder.getRoot(), "missing/out.txt");
+
+        NumberedFiles.openOutputStream(file.getPath(), FileCompression.NONE, 1024);
+    }
+
+}
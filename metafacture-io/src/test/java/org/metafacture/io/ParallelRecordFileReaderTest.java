@@ -0,0 +1,230 @@
+/*
+ * Copyright 2026 hbz
+ *
+ * Licensed under the Apache License, Version 2.0 the "License";
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.metafacture.io;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.metafacture.framework.helpers.DefaultObjectReceiver;
+
+/**
+ * Tests for {@link ParallelRecordFileReader}.
+ */
+public final class ParallelRecordFileReaderTest {
+
+    private static final char SEPARATOR = '\u001d';
+
+    @Rule
+    public final TemporaryFolder tempFolder = new TemporaryFolder();
+
+    private ParallelRecordFileReader reader;
+    private RecordCollector collector;
+
+    @Before
+    public void setup() {
+        reader = new ParallelRecordFileReader();
+        reader.setThreads(3);
+        collector = new RecordCollector();
+        reader.setReceiver(collector);
+    }
+
+    @After
+    public void cleanup() {
+        reader.closeStream();
+    }
+
+    @Test
+    public void shouldProduceSameRecordsAsRecordReader() throws IOException {
+        final String data = "first" + SEPARATOR + "zwëite" + SEPARATOR
+                + SEPARATOR + "third" + SEPARATOR + "a" + SEPARATOR + "last";
+        final File file = createFile(data);
+
+        for (int segmentSize = 1; segmentSize <= data.length() + 2; ++segmentSize) {
+            for (final boolean skipEmptyRecords : new boolean[]{true, false}) {
+                collector.records.clear();
+                reader.setSegmentSize(segmentSize);
+                reader.setSkipEmptyRecords(skipEmptyRecords);
+
+                reader.process(file.getAbsolutePath());
+
+                assertEquals("segment size " + segmentSize,
+                        readWithRecordReader(data, skipEmptyRecords),
+                        collector.records);
+            }
+        }
+    }
+
+    @Test
+    public void shouldHandleTrailingAndLeadingSeparators() throws IOException {
+        final String data = SEPARATOR + "first" + SEPARATOR + "second" + SEPARATOR;
+        final File file = createFile(data);
+        reader.setSkipEmptyRecords(false);
+
+        for (int segmentSize = 1; segmentSize <= data.length() + 1; ++segmentSize) {
+            collector.records.clear();
+            reader.setSegmentSize(segmentSize);
+
+            reader.process(file.getAbsolutePath());
+
+            assertEquals(readWithRecordReader(data, false), collector.records);
+        }
+    }
+
+    @Test
+    public void shouldUseConfiguredSeparator() throws IOException {
+        final File file = createFile("a:b:c");
+        reader.setSeparator(":");
+        reader.setSegmentSize(2);
+
+        reader.process(file.getAbsolutePath());
+
+        assertEquals(list("a", "b", "c"), collector.records);
+    }
+
+    @Test
+    public void shouldIgnoreEmptyFiles() throws IOException {
+        reader.process(createFile("").getAbsolutePath());
+
+        assertTrue(collector.records.isEmpty());
+    }
+
+    @Test
+    public void shouldDistributeRecordsOverReceiversInFileOrder() throws IOException {
+        final RecordCollector second = new RecordCollector();
+        reader.addReceiver(second);
+        reader.setSegmentSize(4);
+
+        reader.process(createFile("a" + SEPARATOR + "b" + SEPARATOR + "c"
+                + SEPARATOR + "d" + SEPARATOR + "e").getAbsolutePath());
+
+        assertEquals(list("a", "c", "e"), collector.records);
+        assertEquals(list("b", "d"), second.records);
+    }
+
+    @Test
+    public void shouldPassAllRecordsInUnorderedMode() throws IOException {
+        final RecordCollector second = new RecordCollector();
+        final RecordCollector third = new RecordCollector();
+        reader.addReceiver(second);
+        reader.addReceiver(third);
+        reader.setOrdered(false);
+        reader.setSegmentSize(64);
+        final StringBuilder data = new StringBuilder();
+        final List<String> expected = new ArrayList<>();
+        final Random random = new Random(1);
+        for (int i = 0; i < 2000; ++i) {
+            final String record = "record-" + i + "-" + random.nextInt(100000);
+            expected.add(record);
+            data.append(record).append(SEPARATOR);
+        }
+
+        reader.process(createFile(data.toString()).getAbsolutePath());
+
+        final List<String> actual = new ArrayList<>();
+        actual.addAll(collector.records);
+        actual.addAll(second.records);
+        actual.addAll(third.records);
+        Collections.sort(expected);
+        Collections.sort(actual);
+        assertEquals(expected, actual);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectNonAsciiSeparators() {
+        reader.setSeparator('ä');
+    }
+
+    @Test
+    public void shouldSkipByteOrderMark() throws IOException {
+        final String data = "first" + SEPARATOR + "second";
+        final File file = createFile("\ufeff" + data);
+        reader.setSkipEmptyRecords(false);
+
+        for (int segmentSize = 1; segmentSize <= data.length() + 4; ++segmentSize) {
+            collector.records.clear();
+            reader.setSegmentSize(segmentSize);
+
+            reader.process(file.getAbsolutePath());
+
+            assertEquals("segment size " + segmentSize,
+                    readWithRecordReader(data, false), collector.records);
+        }
+    }
+
+    @Test
+    public void shouldIgnoreFilesWithByteOrderMarkOnly() throws IOException {
+        reader.setSkipEmptyRecords(false);
+        reader.setSegmentSize(1);
+
+        reader.process(createFile("\ufeff").getAbsolutePath());
+
+        assertTrue(collector.records.isEmpty());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectEncodingsWhichAreNotAsciiCompatible() {
+        reader.setEncoding("UTF-16");
+    }
+
+    private File createFile(final String data) throws IOException {
+        final File file = tempFolder.newFile();
+        Files.write(file.toPath(), data.getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+
+    private static List<String> readWithRecordReader(final String data,
+            final boolean skipEmptyRecords) {
+        final RecordReader recordReader = new RecordReader();
+        final RecordCollector recordCollector = new RecordCollector();
+        recordReader.setSkipEmptyRecords(skipEmptyRecords);
+        recordReader.setReceiver(recordCollector);
+        recordReader.process(new StringReader(data));
+        return recordCollector.records;
+    }
+
+    private static List<String> list(final String... records) {
+        final List<String> list = new ArrayList<>();
+        Collections.addAll(list, records);
+        return list;
+    }
+
+    private static final class RecordCollector extends DefaultObjectReceiver<String> {
+
+        private final List<String> records = new ArrayList<>();
+
+        @Override
+        public void process(final String obj) {
+            records.add(obj);
+        }
+
+    }
+
+}
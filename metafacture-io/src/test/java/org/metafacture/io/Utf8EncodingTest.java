@@ -0,0 +1,58 @@
+/*
+ * Copyright 2026 hbz
+ *
+ * Licensed under the Apache License, Version 2.0 the "License";
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.metafacture.io;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import org.junit.Test;
+
+/**
+ * Tests for class {@link Utf8Encoding}.
+ */
+public final class Utf8EncodingTest {
+
+    private static final String[] STRINGS = {
+        "", "ascii", "Käse", "€￿", "🧀", "a\uD800b", "\uDC00", "\uD83E",
+    };
+
+    @Test
+    public void shouldEncodeLikeStringGetBytes() {
+        for (final String string : STRINGS) {
+            final byte[] expected = string.getBytes(StandardCharsets.UTF_8);
+            final byte[] buffer = new byte[1 + string.length() * Utf8Encoding.MAX_BYTES_PER_CHAR];
+
+            final int end = Utf8Encoding.encode(string, 0, string.length(), buffer, 1);
+
+            assertEquals(string, expected.length, Utf8Encoding.getEncodedLength(string));
+            assertArrayEquals(string, expected, Arrays.copyOfRange(buffer, 1, end));
+        }
+    }
+
+    @Test
+    public void shouldEncodePartOfString() {
+        final byte[] buffer = new byte[8];
+
+        final int end = Utf8Encoding.encode("aäb", 1, 2, buffer, 0);
+
+        assertArrayEquals("ä".getBytes(StandardCharsets.UTF_8),
+                Arrays.copyOf(buffer, end));
+    }
+
+}
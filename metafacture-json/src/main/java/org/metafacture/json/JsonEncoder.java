@@ -16,7 +16,7 @@
 package org.metafacture.json;
 
 import java.io.IOException;
-import java.io.StringWriter;
+import java.io.Writer;
 
 import org.metafacture.framework.FluxCommand;
 import org.metafacture.framework.MetafactureException;
@@ -28,18 +28,15 @@
 import org.metafacture.framework.helpers.DefaultStreamPipe;
 
 import com.fasterxml.jackson.core.JsonFactory;
-import com.fasterxml.jackson.core.JsonGenerationException;
-import com.fasterxml.jackson.core.JsonGenerator;
-import com.fasterxml.jackson.core.JsonStreamContext;
-import com.fasterxml.jackson.core.SerializableString;
 import com.fasterxml.jackson.core.io.CharacterEscapes;
-import com.fasterxml.jackson.core.io.SerializedString;
-import com.fasterxml.jackson.core.util.DefaultPrettyPrinter;
 
 /**
  * Serialises an object as JSON. Records and entities are represented
  * as objects unless their name ends with []. If the name ends with [],
  * an array is created.
+ * <p>
+ * Use {@link JsonFileWriter} to write the JSON directly into a file
+ * without creating a string for each record.
  *
  * @author Christoph Böhme
  * @author Michael Büchner
@@ -54,24 +51,24 @@ public final class JsonEncoder extends
 
     public static final String ARRAY_MARKER = "[]";
 
-    private final JsonGenerator jsonGenerator;
-    private final StringWriter writer = new StringWriter();
+    private final StringBuilderWriter writer = new StringBuilderWriter();
+    private final JsonEventSerializer serializer;
 
     public JsonEncoder() {
         try {
-            jsonGenerator = new JsonFactory().createGenerator(writer);
-            jsonGenerator.setRootValueSeparator(null);
+            serializer = new JsonEventSerializer(
+                    new JsonFactory().createGenerator(writer));
         } catch (final IOException e) {
             throw new MetafactureException(e);
         }
     }
 
     public void setPrettyPrinting(final boolean prettyPrinting) {
-        jsonGenerator.setPrettyPrinter(prettyPrinting ? new DefaultPrettyPrinter((SerializableString) null) : null);
+        serializer.setPrettyPrinting(prettyPrinting);
     }
 
     public boolean getPrettyPrinting() {
-        return jsonGenerator.getPrettyPrinter() != null;
+        return serializer.getPrettyPrinting();
     }
 
     /**
@@ -90,145 +87,74 @@ public boolean getPrettyPrinting() {
      *                         }</pre>
      */
     public void setJavaScriptEscapeChars(final int[] escapeCharacters) {
-
-        final CharacterEscapes ce = new CharacterEscapes() {
-
-            private static final long serialVersionUID = 1L;
-
-            @Override
-            public int[] getEscapeCodesForAscii() {
-                if (escapeCharacters == null) {
-                    return CharacterEscapes.standardAsciiEscapesForJSON();
-                }
-                return escapeCharacters;
-            }
-
-            @Override
-            public SerializableString getEscapeSequence(final int ch) {
-                final String jsEscaped = escapeChar((char) ch);
-                return new SerializedString(jsEscaped);
-            }
-
-        };
-
-        jsonGenerator.setCharacterEscapes(ce);
+        serializer.setJavaScriptEscapeChars(escapeCharacters);
     }
 
     @Override
     public void startRecord(final String id) {
-        final StringBuffer buffer = writer.getBuffer();
-        buffer.delete(0, buffer.length());
-        startGroup(id);
+        writer.builder.setLength(0);
+        serializer.startGroup(id);
     }
 
     @Override
     public void endRecord() {
-        endGroup();
+        serializer.endGroup();
         try {
-            jsonGenerator.flush();
+            serializer.getGenerator().flush();
         } catch (final IOException e) {
             throw new MetafactureException(e);
         }
-        getReceiver().process(writer.toString());
+        getReceiver().process(writer.builder.toString());
     }
 
     @Override
     public void startEntity(final String name) {
-        startGroup(name);
+        serializer.startGroup(name);
     }
 
     @Override
     public void endEntity() {
-        endGroup();
+        serializer.endGroup();
     }
 
     @Override
     public void literal(final String name, final String value) {
-        try {
-            final JsonStreamContext ctx = jsonGenerator.getOutputContext();
-            if (ctx.inObject()) {
-                jsonGenerator.writeFieldName(name);
-            }
-            if (value == null) {
-                jsonGenerator.writeNull();
-            } else {
-                jsonGenerator.writeString(value);
-            }
-        } catch (final JsonGenerationException e) {
-            throw new MetafactureException(e);
-        }
-        catch (final IOException e) {
-            throw new MetafactureException(e);
-        }
+        serializer.literal(name, value);
     }
 
-    private void startGroup(final String name) {
-        try {
-            final JsonStreamContext ctx = jsonGenerator.getOutputContext();
-            if (name.endsWith(ARRAY_MARKER)) {
-                if (ctx.inObject()) {
-                    jsonGenerator.writeFieldName(name.substring(0, name.length() - ARRAY_MARKER.length()));
-                }
-                jsonGenerator.writeStartArray();
-            } else {
-                if (ctx.inObject()) {
-                    jsonGenerator.writeFieldName(name);
-                }
-                jsonGenerator.writeStartObject();
-            }
-        } catch (final JsonGenerationException e) {
-            throw new MetafactureException(e);
-        }
-        catch (final IOException e) {
-            throw new MetafactureException(e);
-        }
-    }
+    /**
+     * Unlike {@link java.io.StringWriter}, this writer does not synchronise
+     * on each write.
+     */
+    private static final class StringBuilderWriter extends Writer {
 
-    private void endGroup() {
-        try {
-            final JsonStreamContext ctx = jsonGenerator.getOutputContext();
-            if (ctx.inObject()) {
-                jsonGenerator.writeEndObject();
-            } else if (ctx.inArray()) {
-                jsonGenerator.writeEndArray();
-            }
-        } catch (final JsonGenerationException e) {
-            throw new MetafactureException(e);
+        private final StringBuilder builder = new StringBuilder();
+
+        @Override
+        public void write(final char[] cbuf, final int off, final int len) {
+            builder.append(cbuf, off, len);
         }
-        catch (final IOException e) {
-            throw new MetafactureException(e);
+
+        @Override
+        public void write(final String str, final int off, final int len) {
+            builder.append(str, off, off + len);
         }
-    }
 
-    private String escapeChar(char ch) {
-        final String namedEscape = namedEscape(ch);
-        if (namedEscape != null) {
-            return namedEscape;
+        @Override
+        public void write(final int c) {
+            builder.append((char) c);
         }
-        if (ch < 0x20 || 0x7f < ch ) {
-            return unicodeEscape(ch);
+
+        @Override
+        public void flush() {
+            // Nothing to do
         }
-        return Character.toString(ch);
-    }
 
-    private String namedEscape(char ch) {
-        switch(ch) {
-            case '\b': return "\\b";
-            case '\n': return "\\n";
-            case '\t': return "\\t";
-            case '\f': return "\\f";
-            case '\r': return "\\r";
-            case '\'': return "\\'";
-            case '\\': return "\\\\";
-            case '"': return "\\\"";
-            case '/': return "\\/";
-            default:
-                return null;
+        @Override
+        public void close() {
+            // Nothing to do
         }
-    }
 
-    private String unicodeEscape(char ch) {
-        return String.format("\\u%4H", ch).replace(' ', '0');
     }
 
 }
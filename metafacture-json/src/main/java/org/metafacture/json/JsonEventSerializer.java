@@ -0,0 +1,161 @@
+/*
+ * Copyright 2026 hbz
+ *
+ * Licensed under the Apache License, Version 2.0 the "License";
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.metafacture.json;
+
+import java.io.IOException;
+
+import org.metafacture.framework.MetafactureException;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonStreamContext;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.CharacterEscapes;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.core.util.DefaultPrettyPrinter;
+
+/**
+ * Translates stream events into calls of a {@link JsonGenerator}. Records
+ * and entities are written as objects unless their name ends with
+ * {@value JsonEncoder#ARRAY_MARKER}, in which case an array is written.
+ * <p>
+ * This class is shared by {@link JsonEncoder} and {@link JsonFileWriter}.
+ */
+final class JsonEventSerializer {
+
+    private final JsonGenerator jsonGenerator;
+
+    JsonEventSerializer(final JsonGenerator jsonGenerator) {
+        this.jsonGenerator = jsonGenerator;
+        jsonGenerator.setRootValueSeparator(null);
+    }
+
+    JsonGenerator getGenerator() {
+        return jsonGenerator;
+    }
+
+    void setPrettyPrinting(final boolean prettyPrinting) {
+        jsonGenerator.setPrettyPrinter(prettyPrinting ? new DefaultPrettyPrinter((SerializableString) null) : null);
+    }
+
+    boolean getPrettyPrinting() {
+        return jsonGenerator.getPrettyPrinter() != null;
+    }
+
+    void setJavaScriptEscapeChars(final int[] escapeCharacters) {
+
+        final CharacterEscapes ce = new CharacterEscapes() {
+
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            public int[] getEscapeCodesForAscii() {
+                if (escapeCharacters == null) {
+                    return CharacterEscapes.standardAsciiEscapesForJSON();
+                }
+                return escapeCharacters;
+            }
+
+            @Override
+            public SerializableString getEscapeSequence(final int ch) {
+                final String jsEscaped = escapeChar((char) ch);
+                return new SerializedString(jsEscaped);
+            }
+
+        };
+
+        jsonGenerator.setCharacterEscapes(ce);
+    }
+
+    void startGroup(final String name) {
+        try {
+            final JsonStreamContext ctx = jsonGenerator.getOutputContext();
+            if (name.endsWith(JsonEncoder.ARRAY_MARKER)) {
+                if (ctx.inObject()) {
+                    jsonGenerator.writeFieldName(name.substring(0, name.length() - JsonEncoder.ARRAY_MARKER.length()));
+                }
+                jsonGenerator.writeStartArray();
+            } else {
+                if (ctx.inObject()) {
+                    jsonGenerator.writeFieldName(name);
+                }
+                jsonGenerator.writeStartObject();
+            }
+        } catch (final IOException e) {
+            throw new MetafactureException(e);
+        }
+    }
+
+    void endGroup() {
+        try {
+            final JsonStreamContext ctx = jsonGenerator.getOutputContext();
+            if (ctx.inObject()) {
+                jsonGenerator.writeEndObject();
+            } else if (ctx.inArray()) {
+                jsonGenerator.writeEndArray();
+            }
+        } catch (final IOException e) {
+            throw new MetafactureException(e);
+        }
+    }
+
+    void literal(final String name, final String value) {
+        try {
+            final JsonStreamContext ctx = jsonGenerator.getOutputContext();
+            if (ctx.inObject()) {
+                jsonGenerator.writeFieldName(name);
+            }
+            if (value == null) {
+                jsonGenerator.writeNull();
+            } else {
+                jsonGenerator.writeString(value);
+            }
+        } catch (final IOException e) {
+            throw new MetafactureException(e);
+        }
+    }
+
+    private String escapeChar(char ch) {
+        final String namedEscape = namedEscape(ch);
+        if (namedEscape != null) {
+            return namedEscape;
+        }
+        if (ch < 0x20 || 0x7f < ch ) {
+            return unicodeEscape(ch);
+        }
+        return Character.toString(ch);
+    }
+
+    private String namedEscape(char ch) {
+        switch(ch) {
+            case '\b': return "\\b";
+            case '\n': return "\\n";
+            case '\t': return "\\t";
+            case '\f': return "\\f";
+            case '\r': return "\\r";
+            case '\'': return "\\'";
+            case '\\': return "\\\\";
+            case '"': return "\\\"";
+            case '/': return "\\/";
+            default:
+                return null;
+        }
+    }
+
+    private String unicodeEscape(char ch) {
+        return String.format("\\u%4H", ch).replace(' ', '0');
+    }
+
+}
@@ -0,0 +1,265 @@
+/*
+ * Copyright 2026 hbz
+ *
+ * Licensed under the Apache License, Version 2.0 the "License";
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.metafacture.json;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+import org.metafacture.framework.FluxCommand;
+import org.metafacture.framework.MetafactureException;
+import org.metafacture.framework.StreamReceiver;
+import org.metafacture.framework.annotations.Description;
+import org.metafacture.framework.annotations.In;
+import org.metafacture.io.FileCompression;
+import org.metafacture.io.NumberedFiles;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+/**
+ * Serialises records as JSON and writes them directly into a file, one
+ * record per line (JSON lines). This produces the same output as
+ * {@code encode-json | write} but the JSON generator writes UTF-8 bytes
+ * straight into a buffered (and optionally compressed) output stream, so
+ * no intermediate string is created for the records.
+ * <p>
+ * The output is flushed every {@link #setFlushInterval(int) flushInterval}
+ * records and when the stream is closed. A new file is started on
+ * <i>reset-stream</i>; the file name may contain the variable
+ * {@code ${i}} which is replaced with the number of the file as in
+ * {@code write-files}. As with {@code write-files}, a file is written for
+ * each part of the stream, even if it contains no records.
+ *
+ * @see JsonEncoder
+ */
+@Description("Serialises records as JSON lines and writes them into a file. "
+        + "The file name is given in brackets.")
+@In(StreamReceiver.class)
+@FluxCommand("write-json")
+public final class JsonFileWriter implements StreamReceiver {
+
+    public static final int DEFAULT_BUFFER_SIZE = 1024 * 1024;
+
+    private static final char RECORD_SEPARATOR = '\n';
+
+    private final JsonFactory jsonFactory = new JsonFactory();
+    private final String path;
+
+    private FileCompression compression = FileCompression.AUTO;
+    private int bufferSize = DEFAULT_BUFFER_SIZE;
+    private int flushInterval;
+    private boolean prettyPrinting;
+    private int[] escapeCharacters;
+    private boolean escapeJavaScript;
+
+    private JsonEventSerializer serializer;
+    private int fileNumber;
+    private int unflushedRecords;
+
+    public JsonFileWriter(final String path) {
+        this.path = path;
+    }
+
+    public FileCompression getCompression() {
+        return compression;
+    }
+
+    /**
+     * Sets the compression of the output file. The default is
+     * {@link FileCompression#AUTO} which selects the compression based on the
+     * file name extension.
+     * <p>
+     * The new value becomes effective when the next file is opened.
+     *
+     * @param compression the compression to use
+     */
+    public void setCompression(final FileCompression compression) {
+        this.compression = compression;
+    }
+
+    public void setCompression(final String compression) {
+        setCompression(FileCompression.valueOf(compression.toUpperCase()));
+    }
+
+    /**
+     * Sets the size of the buffer between the JSON generator and the file or
+     * compressor.
+     * <p>
+     * The default value is {@value #DEFAULT_BUFFER_SIZE} bytes.
+     * <p>
+     * The new value becomes effective when the next file is opened.
+     *
+     * @param bufferSize buffer size in bytes
+     */
+    public void setBufferSize(final int bufferSize) {
+        if (bufferSize < 1) {
+            throw new IllegalArgumentException("'bufferSize' must be at least 1");
+        }
+        this.bufferSize = bufferSize;
+    }
+
+    public int getBufferSize() {
+        return bufferSize;
+    }
+
+    /**
+     * Sets the number of records after which the output is flushed. If the
+     * value is zero, the output is only flushed when the buffers are full and
+     * when the stream is closed or reset.
+     * <p>
+     * The default value is 0.
+     *
+     * @param flushInterval number of records between two flushes
+     */
+    public void setFlushInterval(final int flushInterval) {
+        if (flushInterval < 0) {
+            throw new IllegalArgumentException("'flushInterval' must not be negative");
+        }
+        this.flushInterval = flushInterval;
+    }
+
+    public int getFlushInterval() {
+        return flushInterval;
+    }
+
+    /**
+     * Controls whether records are pretty printed. Pretty printed records span
+     * several lines.
+     * <p>
+     * The default value is false.
+     *
+     * @param prettyPrinting true if records should be pretty printed
+     */
+    public void setPrettyPrinting(final boolean prettyPrinting) {
+        this.prettyPrinting = prettyPrinting;
+        if (serializer != null) {
+            serializer.setPrettyPrinting(prettyPrinting);
+        }
+    }
+
+    public boolean getPrettyPrinting() {
+        return prettyPrinting;
+    }
+
+    /**
+     * Sets additional characters to escape. See
+     * {@link JsonEncoder#setJavaScriptEscapeChars(int[])}.
+     *
+     * @param escapeCharacters an array which defines which characters should
+     *                         be escaped and how.
+     */
+    public void setJavaScriptEscapeChars(final int[] escapeCharacters) {
+        this.escapeCharacters = escapeCharacters;
+        escapeJavaScript = true;
+        if (serializer != null) {
+            serializer.setJavaScriptEscapeChars(escapeCharacters);
+        }
+    }
+
+    @Override
+    public void startRecord(final String identifier) {
+        if (serializer == null) {
+            openFile();
+        }
+        serializer.startGroup(identifier);
+    }
+
+    @Override
+    public void endRecord() {
+        serializer.endGroup();
+        try {
+            serializer.getGenerator().writeRaw(RECORD_SEPARATOR);
+            unflushedRecords += 1;
+            if (flushInterval > 0 && unflushedRecords >= flushInterval) {
+                serializer.getGenerator().flush();
+                unflushedRecords = 0;
+            }
+        } catch (final IOException e) {
+            throw new MetafactureException(e);
+        }
+    }
+
+    @Override
+    public void startEntity(final String name) {
+        serializer.startGroup(name);
+    }
+
+    @Override
+    public void endEntity() {
+        serializer.endGroup();
+    }
+
+    @Override
+    public void literal(final String name, final String value) {
+        serializer.literal(name, value);
+    }
+
+    @Override
+    public void resetStream() {
+        if (serializer == null) {
+            openFile();
+        }
+        closeFile();
+        fileNumber += 1;
+    }
+
+    @Override
+    public void closeStream() {
+        if (serializer == null) {
+            openFile();
+        }
+        closeFile();
+    }
+
+    private void openFile() {
+        final String fileName = NumberedFiles.getFileName(path, fileNumber);
+        final OutputStream out = NumberedFiles.openOutputStream(fileName,
+                compression, bufferSize);
+        try {
+            try {
+                final JsonGenerator generator = jsonFactory.createGenerator(
+                        out, JsonEncoding.UTF8);
+                serializer = new JsonEventSerializer(generator);
+                serializer.setPrettyPrinting(prettyPrinting);
+                if (escapeJavaScript) {
+                    serializer.setJavaScriptEscapeChars(escapeCharacters);
+                }
+                unflushedRecords = 0;
+            } catch (final IOException | MetafactureException e) {
+                out.close();
+                throw e;
+            }
+        } catch (final IOException e) {
+            throw new MetafactureException("Error creating file '" + fileName + "'.", e);
+        }
+    }
+
+    private void closeFile() {
+        if (serializer == null) {
+            return;
+        }
+        try {
+            // Closing the generator also closes the output stream:
+            serializer.getGenerator().close();
+        } catch (final IOException e) {
+            throw new MetafactureException(e);
+        } finally {
+            serializer = null;
+        }
+    }
+
+}
@@ -0,0 +1,173 @@
+/*
+ * Copyright 2026 hbz
+ *
+ * Licensed under the Apache License, Version 2.0 the "License";
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.metafacture.json;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.metafacture.framework.StreamReceiver;
+import org.metafacture.framework.helpers.DefaultObjectReceiver;
+
+/**
+ * Tests for class {@link JsonFileWriter}.
+ */
+public final class JsonFileWriterTest {
+
+    private static final String RECORD1 = fixQuotes(
+            "{'L1':'V1','En1':{'L2':'V2'},'Li1':['V3','V4']}");
+    private static final String RECORD2 = fixQuotes("{'L1':'Vä'}");
+
+    @Rule
+    public final TemporaryFolder tempFolder = new TemporaryFolder();
+
+    private File file;
+
+    @Before
+    public void setup() {
+        file = new File(tempFolder.getRoot(), "out.json");
+    }
+
+    @Test
+    public void shouldWriteOneRecordPerLine() throws IOException {
+        final JsonFileWriter writer = new JsonFileWriter(file.getPath());
+
+        writeRecords(writer);
+        writer.closeStream();
+
+        assertEquals(RECORD1 + "\n" + RECORD2 + "\n", read(file));
+    }
+
+    @Test
+    public void shouldWriteSameJsonAsJsonEncoder() throws IOException {
+        final StringBuilder expected = new StringBuilder();
+        final JsonEncoder encoder = new JsonEncoder();
+        encoder.setReceiver(new DefaultObjectReceiver<String>() {
+            @Override
+            public void process(final String obj) {
+                expected.append(obj).append('\n');
+            }
+        });
+        final JsonFileWriter writer = new JsonFileWriter(file.getPath());
+
+        writeRecords(encoder);
+        writeRecords(writer);
+        writer.closeStream();
+
+        assertEquals(expected.toString(), read(file));
+    }
+
+    @Test
+    public void shouldCompressOutputIfConfigured() throws IOException {
+        final File gzipFile = new File(tempFolder.getRoot(), "out.json.gz");
+        final JsonFileWriter writer = new JsonFileWriter(gzipFile.getPath());
+
+        writeRecords(writer);
+        writer.closeStream();
+
+        try (InputStream in = new GZIPInputStream(new FileInputStream(gzipFile))) {
+            assertEquals(RECORD1 + "\n" + RECORD2 + "\n", readAll(in));
+        }
+    }
+
+    @Test
+    public void shouldFlushAfterFlushInterval() throws IOException {
+        final JsonFileWriter writer = new JsonFileWriter(file.getPath());
+        writer.setFlushInterval(2);
+
+        writeRecords(writer);
+
+        assertEquals(RECORD1 + "\n" + RECORD2 + "\n", read(file));
+        writer.closeStream();
+    }
+
+    @Test
+    public void shouldStartNewFileOnResetStream() throws IOException {
+        final JsonFileWriter writer = new JsonFileWriter(
+                new File(tempFolder.getRoot(), "out${i}.json").getPath());
+
+        writeRecords(writer);
+        writer.resetStream();
+        writeRecords(writer);
+        writer.closeStream();
+
+        final String expected = RECORD1 + "\n" + RECORD2 + "\n";
+        assertEquals(expected, read(new File(tempFolder.getRoot(), "out0.json")));
+        assertEquals(expected, read(new File(tempFolder.getRoot(), "out1.json")));
+    }
+
+    @Test
+    public void shouldWriteEmptyFilesForPartsWithoutRecords() throws IOException {
+        final JsonFileWriter writer = new JsonFileWriter(
+                new File(tempFolder.getRoot(), "out${i}.json").getPath());
+
+        writer.resetStream();
+        writeRecords(writer);
+        writer.resetStream();
+        writer.closeStream();
+
+        assertEquals("", read(new File(tempFolder.getRoot(), "out0.json")));
+        assertEquals(RECORD1 + "\n" + RECORD2 + "\n",
+                read(new File(tempFolder.getRoot(), "out1.json")));
+        assertEquals("", read(new File(tempFolder.getRoot(), "out2.json")));
+    }
+
+    private static void writeRecords(final StreamReceiver receiver) {
+        receiver.startRecord("1");
+        receiver.literal("L1", "V1");
+        receiver.startEntity("En1");
+        receiver.literal("L2", "V2");
+        receiver.endEntity();
+        receiver.startEntity("Li1[]");
+        receiver.literal("1", "V3");
+        receiver.literal("2", "V4");
+        receiver.endEntity();
+        receiver.endRecord();
+        receiver.startRecord("2");
+        receiver.literal("L1", "Vä");
+        receiver.endRecord();
+    }
+
+    private static String read(final File file) throws IOException {
+        return new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+    }
+
+    private static String readAll(final InputStream in) throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final byte[] buffer = new byte[1024];
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            out.write(buffer, 0, read);
+        }
+        return new String(out.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    private static String fixQuotes(final String str) {
+        return str.replace('\'', '"');
+    }
+
+}
@@ -17,12 +17,9 @@
 
 import java.io.FileNotFoundException;
 
-import javax.script.Invocable;
-import javax.script.ScriptEngine;
-import javax.script.ScriptEngineManager;
 import javax.script.ScriptException;
 
-import org.metafacture.commons.ResourceUtil;
+import org.metafacture.commons.script.SharedScript;
 import org.metafacture.framework.FluxCommand;
 import org.metafacture.framework.MetafactureException;
 import org.metafacture.framework.ObjectReceiver;
@@ -33,6 +30,10 @@
 
 /**
  * Executes the function process(obj) in a given jscript.
+ * <p>
+ * Script files are compiled only once and shared by all instances of this
+ * pipe. Each instance evaluates the script in its own global scope per
+ * thread, see {@link SharedScript}.
  *
  * @author Markus Geipel
  *
@@ -45,7 +46,7 @@ public final class JScriptObjectPipe extends DefaultObjectPipe<Object, ObjectRec
 
     private static final String PROCESS = "process";
     private String invoke = PROCESS;
-    private Invocable invocable;
+    private SharedScript.Invoker invoker;
 
     public JScriptObjectPipe(final String script) {
         setScript(script);
@@ -56,18 +57,14 @@ public void setInvoke(final String invoke) {
     }
 
     private void setScript(final String file) {
-
-        final ScriptEngineManager manager = new ScriptEngineManager();
-        final ScriptEngine engine = manager.getEngineByName("JavaScript");
         try {
             // LOG.info("loading code from '" + file + "'");
-            engine.eval(ResourceUtil.getReader(file));
+            invoker = SharedScript.forFile(file).newInvoker();
         } catch (ScriptException e) {
             throw new MetafactureException("Error in script", e);
         } catch (FileNotFoundException e) {
             throw new MetafactureException("Error loading script '" + file + "'", e);
         }
-        invocable = (Invocable) engine;
     }
 
 
@@ -78,7 +75,7 @@ public void process(final Object obj) {
         try {
 
             // LOG.info("processing: " + value);
-            final Object retObj = invocable.invokeFunction(invoke, obj);
+            final Object retObj = invoker.invoke(invoke, obj);
             // LOG.info("returning: " + obj);
 
             getReceiver().process(retObj);
@@ -15,10 +15,9 @@
  */
 package org.metafacture.statistics;
 
-import java.util.Hashtable;
-import java.util.Map;
 import java.util.regex.Pattern;
 
+import org.metafacture.commons.types.CounterMap;
 import org.metafacture.framework.ObjectReceiver;
 import org.metafacture.framework.helpers.DefaultObjectPipe;
 import org.metafacture.framework.objects.Triple;
@@ -39,12 +38,12 @@ public abstract class AbstractCountProcessor extends DefaultObjectPipe<Triple, O
     private static final String MARGINAL_PREFIX = "1:";
     private static final String JOINT_PREFIX = "2:";
 
-    private final Map<String, Integer> marginals = new Hashtable<String, Integer>();
+    private final CounterMap<String> marginals = new CounterMap<>();
     private boolean inHeader = true;
     private int minCount;
 
-    protected final int getTotal() {
-        return getMarginal("");
+    protected final long getTotal() {
+        return marginals.get("");
     }
 
     protected final void setMinCount(final int min) {
@@ -61,10 +60,10 @@ public final void process(final Triple triple) {
             if (!triple.getSubject().startsWith(MARGINAL_PREFIX)) {
                 throw new IllegalArgumentException("Marginal counts must start with '1:'");
             }
-            final int marginal = Integer.parseInt(triple.getObject());
+            final long marginal = Long.parseLong(triple.getObject());
             if (marginal >= minCount) {
 
-                marginals.put(triple.getSubject().substring(2), Integer.valueOf(marginal));
+                marginals.put(triple.getSubject().substring(2), marginal);
             }
 
         } else {
@@ -73,27 +72,19 @@ public final void process(final Triple triple) {
                 throw new IllegalArgumentException("Joint counts must start with '2:'");
             }
 
-            final int nab = Integer.parseInt(triple.getObject());
+            final long nab = Long.parseLong(triple.getObject());
             final String[] keyParts = KEY_SPLIT_PATTERN.split(triple.getSubject().substring(2));
             if (nab >= minCount) {
 
-                final int na = getMarginal(keyParts[0]);
-                final int nb = getMarginal(keyParts[1]);
+                final long na = marginals.get(keyParts[0]);
+                final long nb = marginals.get(keyParts[1]);
                 processCount(keyParts[0], keyParts[1], na, nb, nab);
             }
         }
     }
 
-    protected abstract void processCount(final String varA, final String varB, final int countA, final int countB,
-            final int countAandB);
-
-    private int getMarginal(final String string) {
-        final Integer value = marginals.get(string);
-        if(null==value){
-            return 0;
-        }
-        return value.intValue();
-    }
+    protected abstract void processCount(final String varA, final String varB, final long countA, final long countB,
+            final long countAandB);
 
     @Override
     protected final void onResetStream() {
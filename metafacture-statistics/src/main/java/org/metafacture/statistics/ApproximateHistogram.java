@@ -0,0 +1,218 @@
+/*
+ * Copyright 2026 hbz
+ *
+ * Licensed under the Apache License, Version 2.0 the "License";
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.metafacture.statistics;
+
+import org.metafacture.framework.helpers.DefaultStreamReceiver;
+
+/**
+ * Counts entity names, literal names, or literal values like
+ * {@link Histogram} but in a fixed amount of memory. Counts are estimated with
+ * a {@link CountMinSketch} and the number of distinct names or values with a
+ * {@link HyperLogLog} sketch.
+ * <p>
+ * To count in several threads, give each thread its own instance and set the
+ * same {@link #setMergeTarget(ApproximateHistogram) merge target} on all of
+ * them. All instances must use the same sketch parameters.
+ */
+public final class ApproximateHistogram extends DefaultStreamReceiver {
+
+    private boolean countEntities;
+    private boolean countLiterals;
+    private String countField;
+    private ApproximateHistogram mergeTarget;
+
+    private CountMinSketch counts = new CountMinSketch();
+    private HyperLogLog distinctValues = new HyperLogLog();
+
+    public ApproximateHistogram() {
+        super();
+    }
+
+    /**
+     * Initialises the module with a countField.
+     *
+     * @param countField name of the field whose content is counted
+     */
+    public ApproximateHistogram(final String countField) {
+        super();
+        setCountField(countField);
+    }
+
+    public boolean isCountEntities() {
+        return countEntities;
+    }
+
+    public void setCountEntities(final boolean countEntities) {
+        this.countEntities = countEntities;
+    }
+
+    public boolean isCountLiterals() {
+        return countLiterals;
+    }
+
+    public void setCountLiterals(final boolean countLiterals) {
+        this.countLiterals = countLiterals;
+    }
+
+    public String getCountField() {
+        return countField;
+    }
+
+    public void setCountField(final String countField) {
+        this.countField = countField;
+    }
+
+    /**
+     * Sets the number of hash functions of the count-min sketch. More hash
+     * functions increase the confidence of the estimates. The default is
+     * {@value CountMinSketch#DEFAULT_DEPTH}.
+     * <p>
+     * This parameter must not be changed while processing a stream.
+     *
+     * @param sketchDepth number of hash functions
+     */
+    public void setSketchDepth(final int sketchDepth) {
+        counts = new CountMinSketch(sketchDepth, counts.getWidth());
+    }
+
+    public int getSketchDepth() {
+        return counts.getDepth();
+    }
+
+    /**
+     * Sets the number of counters per hash function of the count-min sketch.
+     * More counters decrease the error of the estimates. The default is
+     * {@value CountMinSketch#DEFAULT_WIDTH}.
+     * <p>
+     * This parameter must not be changed while processing a stream.
+     *
+     * @param sketchWidth number of counters per hash function
+     */
+    public void setSketchWidth(final int sketchWidth) {
+        counts = new CountMinSketch(counts.getDepth(), sketchWidth);
+    }
+
+    public int getSketchWidth() {
+        return counts.getWidth();
+    }
+
+    /**
+     * Sets the precision of the HyperLogLog sketch. The default is
+     * {@value HyperLogLog#DEFAULT_PRECISION}.
+     * <p>
+     * This parameter must not be changed while processing a stream.
+     *
+     * @param precision the precision of the sketch
+     */
+    public void setPrecision(final int precision) {
+        distinctValues = new HyperLogLog(precision);
+    }
+
+    public int getPrecision() {
+        return distinctValues.getPrecision();
+    }
+
+    public ApproximateHistogram getMergeTarget() {
+        return mergeTarget;
+    }
+
+    /**
+     * Sets an instance to which the sketches of this instance are added when
+     * the stream is closed. Several instances running in different threads
+     * may share the same merge target.
+     *
+     * @param mergeTarget the instance receiving the sketches
+     */
+    public void setMergeTarget(final ApproximateHistogram mergeTarget) {
+        this.mergeTarget = mergeTarget;
+    }
+
+    /**
+     * Returns the estimated count of a name or value. The estimate is never
+     * lower than the true count.
+     *
+     * @param key the counted name or value
+     * @return the estimated count
+     */
+    public long estimateCount(final String key) {
+        return counts.estimateCount(key);
+    }
+
+    /**
+     * Returns the estimated number of distinct names or values.
+     *
+     * @return the estimated number of distinct names or values
+     */
+    public long estimateDistinctCount() {
+        return distinctValues.estimate();
+    }
+
+    /**
+     * Returns the number of counted names or values.
+     *
+     * @return the exact number of counted names or values
+     */
+    public long getTotalCount() {
+        return counts.getTotalCount();
+    }
+
+    /**
+     * Adds the sketches of {@code other} to this instance. Calls from
+     * different threads are synchronised.
+     *
+     * @param other the instance whose sketches are added
+     */
+    public synchronized void merge(final ApproximateHistogram other) {
+        counts.merge(other.counts);
+        distinctValues.merge(other.distinctValues);
+    }
+
+    @Override
+    public void startEntity(final String name) {
+        if (countEntities) {
+            count(name);
+        }
+    }
+
+    @Override
+    public void literal(final String name, final String value) {
+        if (countLiterals) {
+            count(name);
+        }
+        if (name.equals(countField)) {
+            count(value);
+        }
+    }
+
+    @Override
+    public void resetStream() {
+        counts.clear();
+        distinctValues.clear();
+    }
+
+    @Override
+    public void closeStream() {
+        if (mergeTarget != null) {
+            mergeTarget.merge(this);
+        }
+    }
+
+    private void count(final String value) {
+        counts.add(value);
+        distinctValues.add(value);
+    }
+
+}
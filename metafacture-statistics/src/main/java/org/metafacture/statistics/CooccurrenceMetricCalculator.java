@@ -45,7 +45,7 @@ public final class CooccurrenceMetricCalculator extends AbstractCountProcessor {
     enum Metric {
         X2 {
             @Override
-            double calculate(final int countA, final int countB, final int countAandB, final int total) {
+            double calculate(final long countA, final long countB, final long countAandB, final long total) {
                 final double o12 = countA - countAandB;
                 final double o21 = countB - countAandB;
                 final double o22 = total - countAandB;
@@ -58,7 +58,7 @@ enum Metric {
         },
         F {
             @Override
-            double calculate(final int countA, final int countB, final int countAandB, final int total) {
+            double calculate(final long countA, final long countB, final long countAandB, final long total) {
                 final double pa = (double) countA / total;
                 final double pb = (double) countB / total;
                 final double pab = (double) countAandB / total;
@@ -70,7 +70,7 @@ enum Metric {
         },
         PRECISSION {
             @Override
-            double calculate(final int countA, final int countB, final int countAandB, final int total) {
+            double calculate(final long countA, final long countB, final long countAandB, final long total) {
                 final double pa = (double) countA / total;
                 final double pab = (double) countAandB / total;
                 return pab / pa;
@@ -78,7 +78,7 @@ enum Metric {
         },
         RECALL {
             @Override
-            double calculate(final int countA, final int countB, final int countAandB, final int total) {
+            double calculate(final long countA, final long countB, final long countAandB, final long total) {
                 final double pb = (double) countB / total;
                 final double pab = (double) countAandB / total;
                 return pab / pb;
@@ -86,12 +86,12 @@ enum Metric {
         },
         JACCARD {
             @Override
-            double calculate(final int countA, final int countB, final int countAandB, final int total) {
+            double calculate(final long countA, final long countB, final long countAandB, final long total) {
                 return countAandB / (double)(countA + countB - countAandB);
             }
         };
 
-        abstract double calculate(final int countA, final int countB, final int countAandB, final int total);
+        abstract double calculate(final long countA, final long countB, final long countAandB, final long total);
     }
 
     private static final int MIN_COUNT = 5;
@@ -114,11 +114,13 @@ public CooccurrenceMetricCalculator(final Metric... metrics) {
     }
 
     @Override
-    protected void processCount(final String varA, final String varB, final int countA, final int countB,
-            final int countAandB) {
+    protected void processCount(final String varA, final String varB, final long countA, final long countB,
+            final long countAandB) {
+        final String key = varA + "&" + varB;
+        final long total = getTotal();
         for (Metric metric : metrics) {
-            final double value = metric.calculate(countA, countB, countAandB, getTotal());
-            getReceiver().process(new Triple(varA + "&" + varB, metric.toString(), String.valueOf(value)));
+            final double value = metric.calculate(countA, countB, countAandB, total);
+            getReceiver().process(new Triple(key, metric.toString(), String.valueOf(value)));
         }
     }
 }
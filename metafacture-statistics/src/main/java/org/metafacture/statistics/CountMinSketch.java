@@ -0,0 +1,139 @@
+/*
+ * Copyright 2026 hbz
+ *
+ * Licensed under the Apache License, Version 2.0 the "License";
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.metafacture.statistics;
+
+import java.util.Arrays;
+
+import org.metafacture.commons.HashUtil;
+
+/**
+ * Estimates how often strings occur in a stream with a count-min sketch. The
+ * sketch uses a fixed amount of memory ({@code depth * width} counters)
+ * regardless of the number of distinct strings.
+ * <p>
+ * Estimates are never lower than the true counts. With probability
+ * 1 - e<sup>-depth</sup> an estimate exceeds the true count by at most
+ * e / width times the {@link #getTotalCount() total count}.
+ * <p>
+ * Sketches with the same dimensions can be {@link #merge(CountMinSketch)
+ * merged} without losing accuracy. This allows to count in several threads
+ * and combine the results. Instances are not thread-safe.
+ */
+public final class CountMinSketch {
+
+    public static final int DEFAULT_DEPTH = 5;
+    public static final int DEFAULT_WIDTH = 2048;
+
+    private final int depth;
+    private final int width;
+    private final long[] counters;
+    private long totalCount;
+
+    public CountMinSketch() {
+        this(DEFAULT_DEPTH, DEFAULT_WIDTH);
+    }
+
+    /**
+     * Creates an empty sketch.
+     *
+     * @param depth number of hash functions; determines the confidence
+     * @param width number of counters per hash function; determines the error
+     */
+    public CountMinSketch(final int depth, final int width) {
+        if (depth <= 0 || width <= 0) {
+            throw new IllegalArgumentException("depth and width must be positive");
+        }
+        this.depth = depth;
+        this.width = width;
+        counters = new long[Math.multiplyExact(depth, width)];
+    }
+
+    public int getDepth() {
+        return depth;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public void add(final String value) {
+        add(value, 1);
+    }
+
+    /**
+     * Adds {@code count} occurrences of {@code value}.
+     *
+     * @param value the string to count
+     * @param count number of occurrences; must not be negative
+     */
+    public void add(final String value, final long count) {
+        final long hash = HashUtil.hash64(value);
+        for (int row = 0; row < depth; ++row) {
+            counters[row * width + column(hash, row)] += count;
+        }
+        totalCount += count;
+    }
+
+    /**
+     * Returns the estimated number of occurrences of {@code value}.
+     *
+     * @param value the string to look up
+     * @return an estimate which is not lower than the true count
+     */
+    public long estimateCount(final String value) {
+        final long hash = HashUtil.hash64(value);
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < depth; ++row) {
+            estimate = Math.min(estimate, counters[row * width + column(hash, row)]);
+        }
+        return estimate;
+    }
+
+    public long getTotalCount() {
+        return totalCount;
+    }
+
+    /**
+     * Adds all counts of {@code other} to this sketch.
+     *
+     * @param other a sketch with the same depth and width
+     */
+    public void merge(final CountMinSketch other) {
+        if (other.depth != depth || other.width != width) {
+            throw new IllegalArgumentException("Cannot merge sketches with different dimensions");
+        }
+        for (int i = 0; i < counters.length; ++i) {
+            counters[i] += other.counters[i];
+        }
+        totalCount += other.totalCount;
+    }
+
+    public void clear() {
+        Arrays.fill(counters, 0);
+        totalCount = 0;
+    }
+
+    /*
+     * Derives the hash functions of the rows from two halves of one hash
+     * value (Kirsch and Mitzenmacher).
+     */
+
+    private int column(final long hash, final int row) {
+        final int combinedHash = (int) hash + row * (int) (hash >>> 32);
+        return (combinedHash & Integer.MAX_VALUE) % width;
+    }
+
+}
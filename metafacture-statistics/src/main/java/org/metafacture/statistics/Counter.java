@@ -26,6 +26,10 @@
 /**
  * Counts the number of records and fields read. Used mainly for test cases and
  * debugging.
+ * <p>
+ * Counters running in different threads can add their counts to a shared
+ * {@link #setMergeTarget(Counter) merge target} when their streams are
+ * closed.
  *
  * @author Markus Michael Geipel
  * @author Christoph Böhme
@@ -41,6 +45,7 @@ public final class Counter extends DefaultStreamPipe<StreamReceiver> {
     private int numRecords;
     private int numEntities;
     private int numLiterals;
+    private Counter mergeTarget;
 
     /**
      * @return the numRecords
@@ -63,6 +68,33 @@ public int getNumLiterals() {
         return numLiterals;
     }
 
+    public Counter getMergeTarget() {
+        return mergeTarget;
+    }
+
+    /**
+     * Sets a counter to which the counts of this counter are added when the
+     * stream is closed. Several counters running in different threads may
+     * share the same merge target.
+     *
+     * @param mergeTarget the counter receiving the counts
+     */
+    public void setMergeTarget(final Counter mergeTarget) {
+        this.mergeTarget = mergeTarget;
+    }
+
+    /**
+     * Adds the counts of {@code other} to this counter. Calls from different
+     * threads are synchronised.
+     *
+     * @param other the counter whose counts are added
+     */
+    public synchronized void merge(final Counter other) {
+        numRecords += other.numRecords;
+        numEntities += other.numEntities;
+        numLiterals += other.numLiterals;
+    }
+
     @Override
     public void startRecord(final String identifier) {
         assert !isClosed();
@@ -111,6 +143,13 @@ public void onResetStream() {
         numLiterals = 0;
     }
 
+    @Override
+    protected void onCloseStream() {
+        if (mergeTarget != null) {
+            mergeTarget.merge(this);
+        }
+    }
+
     @Override
     public String toString() {
         String streamClosed = "";
@@ -15,25 +15,40 @@
  */
 package org.metafacture.statistics;
 
-import java.util.Collections;
-import java.util.HashMap;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
 import java.util.Map;
+import java.util.Set;
+import java.util.function.ObjLongConsumer;
 
+import org.metafacture.commons.types.CounterMap;
 import org.metafacture.framework.helpers.DefaultStreamReceiver;
 
 
 /**
  * Counts entity names, literal names, or literal values.
+ * <p>
+ * The counts are kept as primitive {@code long} values. Use
+ * {@link #getCount(String)} or {@link #forEachCount(ObjLongConsumer)} to read
+ * them without boxing.
+ * <p>
+ * To count in several threads, give each thread its own histogram and set the
+ * same {@link #setMergeTarget(Histogram) merge target} on all of them. Each
+ * histogram counts without synchronisation and adds its counts to the target
+ * when its stream is closed.
  *
  * @author Christoph Böhme
  */
 public final class Histogram extends DefaultStreamReceiver {
 
-    private final Map<String, Integer> histogram = new HashMap<String, Integer>();
+    private final CounterMap<String> histogram = new CounterMap<>();
+    private final Map<String, Integer> histogramView = new HistogramView();
 
     private boolean countEntities;
     private boolean countLiterals;
     private String countField;
+    private Histogram mergeTarget;
 
     public Histogram() {
         super();
@@ -49,8 +64,36 @@ public Histogram(final String countField) {
         setCountField(countField);
     }
 
+    /**
+     * Returns an unmodifiable view of the counts which reflects later
+     * changes. Counts larger than {@link Integer#MAX_VALUE} are reported as
+     * {@link Integer#MAX_VALUE}; {@link #getCount(String)} returns the exact
+     * count.
+     *
+     * @return a map from the counted names or values to their counts
+     */
     public Map<String, Integer> getHistogram() {
-        return Collections.unmodifiableMap(histogram);
+        return histogramView;
+    }
+
+    /**
+     * Returns the count of a name or value.
+     *
+     * @param key the counted name or value
+     * @return the count or zero if {@code key} was not counted
+     */
+    public long getCount(final String key) {
+        return histogram.get(key);
+    }
+
+    /**
+     * Passes all counted names or values and their counts to
+     * {@code consumer}. The iteration order is unspecified.
+     *
+     * @param consumer receives the names or values and their counts
+     */
+    public void forEachCount(final ObjLongConsumer<String> consumer) {
+        histogram.forEach(consumer);
     }
 
     public boolean isCountEntities() {
@@ -77,6 +120,31 @@ public void setCountField(final String countField) {
         this.countField = countField;
     }
 
+    public Histogram getMergeTarget() {
+        return mergeTarget;
+    }
+
+    /**
+     * Sets a histogram to which the counts of this histogram are added when
+     * the stream is closed. Several histograms running in different threads
+     * may share the same merge target.
+     *
+     * @param mergeTarget the histogram receiving the counts
+     */
+    public void setMergeTarget(final Histogram mergeTarget) {
+        this.mergeTarget = mergeTarget;
+    }
+
+    /**
+     * Adds the counts of {@code other} to this histogram. Calls from
+     * different threads are synchronised.
+     *
+     * @param other the histogram whose counts are added
+     */
+    public synchronized void merge(final Histogram other) {
+        histogram.addAll(other.histogram);
+    }
+
     @Override
     public void startEntity(final String name) {
         if (countEntities) {
@@ -99,12 +167,73 @@ public void resetStream() {
         histogram.clear();
     }
 
+    @Override
+    public void closeStream() {
+        if (mergeTarget != null) {
+            mergeTarget.merge(this);
+        }
+    }
+
     private void count(final String value) {
-        Integer c = histogram.get(value);
-        if (c == null) {
-            c = Integer.valueOf(0);
+        histogram.increment(value);
+    }
+
+    private static Integer toInteger(final long count) {
+        return Integer.valueOf((int) Math.min(count, Integer.MAX_VALUE));
+    }
+
+    /**
+     * Read-only {@link Map} adapter for the counter map.
+     */
+    private final class HistogramView extends AbstractMap<String, Integer> {
+
+        @Override
+        public Integer get(final Object key) {
+            return histogram.containsKey(key) ? toInteger(histogram.get(key)) : null;
+        }
+
+        @Override
+        public boolean containsKey(final Object key) {
+            return histogram.containsKey(key);
+        }
+
+        @Override
+        public int size() {
+            return histogram.size();
+        }
+
+        @Override
+        public Set<Map.Entry<String, Integer>> entrySet() {
+            return new AbstractSet<Map.Entry<String, Integer>>() {
+
+                @Override
+                public Iterator<Map.Entry<String, Integer>> iterator() {
+                    final Iterator<String> keys = histogram.keyIterator();
+                    return new Iterator<Map.Entry<String, Integer>>() {
+
+                        @Override
+                        public boolean hasNext() {
+                            return keys.hasNext();
+                        }
+
+                        @Override
+                        public Map.Entry<String, Integer> next() {
+                            final String key = keys.next();
+                            return new SimpleImmutableEntry<>(key,
+                                    toInteger(histogram.get(key)));
+                        }
+
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return histogram.size();
+                }
+
+            };
         }
-        histogram.put(value, Integer.valueOf(c.intValue() + 1));
+
     }
 
 }
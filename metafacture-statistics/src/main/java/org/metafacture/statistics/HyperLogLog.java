@@ -0,0 +1,133 @@
+/*
+ * Copyright 2026 hbz
+ *
+ * Licensed under the Apache License, Version 2.0 the "License";
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.metafacture.statistics;
+
+import java.util.Arrays;
+
+import org.metafacture.commons.HashUtil;
+
+/**
+ * Estimates the number of distinct strings in a stream with the HyperLogLog
+ * algorithm. The memory used is fixed at 2<sup>precision</sup> bytes; the
+ * standard error of the estimate is about 1.04 / sqrt(2<sup>precision</sup>),
+ * for example 0.8% with the default precision of 14.
+ * <p>
+ * Sketches with the same precision can be {@link #merge(HyperLogLog) merged}
+ * without losing accuracy. This allows to count distinct values in several
+ * threads and combine the results. Instances are not thread-safe.
+ */
+public final class HyperLogLog {
+
+    public static final int DEFAULT_PRECISION = 14;
+    public static final int MIN_PRECISION = 4;
+    public static final int MAX_PRECISION = 18;
+
+    private final int precision;
+    private final byte[] registers;
+
+    public HyperLogLog() {
+        this(DEFAULT_PRECISION);
+    }
+
+    /**
+     * Creates an empty sketch.
+     *
+     * @param precision number of hash bits used for selecting a register.
+     *                  Must be between {@value #MIN_PRECISION} and
+     *                  {@value #MAX_PRECISION}.
+     */
+    public HyperLogLog(final int precision) {
+        if (precision < MIN_PRECISION || precision > MAX_PRECISION) {
+            throw new IllegalArgumentException("precision must be between "
+                    + MIN_PRECISION + " and " + MAX_PRECISION + ": " + precision);
+        }
+        this.precision = precision;
+        registers = new byte[1 << precision];
+    }
+
+    public int getPrecision() {
+        return precision;
+    }
+
+    public void add(final String value) {
+        final long hash = HashUtil.hash64(value);
+        final int register = (int) (hash >>> (Long.SIZE - precision));
+        // The sentinel bit limits the rank if all remaining bits are zero:
+        final long remainingBits = (hash << precision) | (1L << (precision - 1));
+        final byte rank = (byte) (Long.numberOfLeadingZeros(remainingBits) + 1);
+        if (rank > registers[register]) {
+            registers[register] = rank;
+        }
+    }
+
+    /**
+     * Returns the estimated number of distinct strings added to this sketch
+     * and all sketches merged into it.
+     *
+     * @return the estimated number of distinct strings
+     */
+    public long estimate() {
+        final int registerCount = registers.length;
+        double sum = 0;
+        int zeros = 0;
+        for (final byte rank : registers) {
+            sum += 1.0 / (1L << rank);
+            if (rank == 0) {
+                zeros += 1;
+            }
+        }
+        final double estimate = alpha(registerCount) * registerCount * registerCount / sum;
+        if (estimate <= 2.5 * registerCount && zeros > 0) {
+            // Linear counting is more accurate for small cardinalities:
+            return Math.round(registerCount * Math.log((double) registerCount / zeros));
+        }
+        return Math.round(estimate);
+    }
+
+    /**
+     * Adds all strings counted by {@code other} to this sketch.
+     *
+     * @param other a sketch with the same precision
+     */
+    public void merge(final HyperLogLog other) {
+        if (other.precision != precision) {
+            throw new IllegalArgumentException("Cannot merge sketches with different precision");
+        }
+        for (int i = 0; i < registers.length; ++i) {
+            if (other.registers[i] > registers[i]) {
+                registers[i] = other.registers[i];
+            }
+        }
+    }
+
+    public void clear() {
+        Arrays.fill(registers, (byte) 0);
+    }
+
+    private static double alpha(final int registerCount) {
+        switch (registerCount) {
+        case 16:
+            return 0.673;
+        case 32:
+            return 0.697;
+        case 64:
+            return 0.709;
+        default:
+            return 0.7213 / (1 + 1.079 / registerCount);
+        }
+    }
+
+}
@@ -0,0 +1,32 @@
+/*
+ * Copyright 2026 hbz
+ *
+ * Licensed under the Apache License, Version 2.0 the "License";
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.metafacture.statistics;
+
+import java.util.function.Consumer;
+
+/**
+ * A reservoir holding a random sample of bounded size from a stream of
+ * objects.
+ *
+ * @param <T> object type
+ */
+interface Reservoir<T> {
+
+    void offer(T obj);
+
+    void forEach(Consumer<? super T> action);
+
+}
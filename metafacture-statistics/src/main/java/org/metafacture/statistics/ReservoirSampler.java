@@ -0,0 +1,203 @@
+/*
+ * Copyright 2026 hbz
+ *
+ * Licensed under the Apache License, Version 2.0 the "License";
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.metafacture.statistics;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.metafacture.framework.FluxCommand;
+import org.metafacture.framework.ObjectReceiver;
+import org.metafacture.framework.annotations.Description;
+import org.metafacture.framework.annotations.In;
+import org.metafacture.framework.annotations.Out;
+import org.metafacture.framework.helpers.DefaultObjectPipe;
+
+/**
+ * Draws a random sample of records from the input stream and emits it when
+ * the stream is closed. Only the sampled records are kept in memory.
+ * <p>
+ * By default, a uniform sample is drawn with Algorithm L which skips ahead
+ * over records which are not sampled. Unlike {@link UniformSampler}, which
+ * needs a random number for every record, random numbers are only drawn for
+ * the sampled records.
+ * <p>
+ * If a {@link #setWeight(ToDoubleFunction) weight function} is set, the
+ * probability of a record to be sampled is proportional to its weight.
+ * If a {@link #setStratum(Function) stratum function} is set, a separate
+ * sample of {@code sampleSize} records is drawn for each stratum. The samples
+ * are emitted in the order in which their strata first appeared.
+ * <p>
+ * In Flux, weight and stratum are extracted from the records with regular
+ * expressions, see {@link #setWeightPattern(String)} and
+ * {@link #setStratumPattern(String)}.
+ *
+ * @param <T> object type
+ */
+@Description("Draws a uniform sample of records from the input stream using reservoir sampling with skip-ahead. "
+        + "Records are weighted or stratified by regular expressions matched against them if weightpattern or stratumpattern are set.")
+@In(Object.class)
+@Out(Object.class)
+@FluxCommand("draw-reservoir-sample")
+public final class ReservoirSampler<T> extends DefaultObjectPipe<T, ObjectReceiver<T>> {
+
+    private final int sampleSize;
+    private final Random random = new Random();
+    private final Map<Object, Reservoir<T>> reservoirs = new LinkedHashMap<>();
+    private Reservoir<T> reservoir;
+
+    private ToDoubleFunction<? super T> weight;
+    private Function<? super T, ?> stratum;
+
+    public ReservoirSampler(final int sampleSize) {
+        super();
+        if (sampleSize < 0) {
+            throw new IllegalArgumentException("sampleSize must not be negative");
+        }
+        this.sampleSize = sampleSize;
+    }
+
+    public ReservoirSampler(final String sampleSize) {
+        this(Integer.parseInt(sampleSize));
+    }
+
+    public int getSampleSize() {
+        return sampleSize;
+    }
+
+    public void setSeed(final long seed) {
+        random.setSeed(seed);
+    }
+
+    /**
+     * Sets a function returning the weight of a record. Records with a weight
+     * of zero or less are never sampled. By default, a uniform sample is
+     * drawn.
+     * <p>
+     * This parameter must not be changed while processing a stream.
+     *
+     * @param weight function returning the weight of a record
+     */
+    public void setWeight(final ToDoubleFunction<? super T> weight) {
+        this.weight = weight;
+    }
+
+    /**
+     * Sets a function returning the stratum of a record, for example its
+     * type. A sample is drawn for each stratum. Strata are compared with
+     * {@link Object#equals(Object)}. By default, one sample is drawn from all
+     * records.
+     * <p>
+     * This parameter must not be changed while processing a stream.
+     *
+     * @param stratum function returning the stratum of a record
+     */
+    public void setStratum(final Function<? super T, ?> stratum) {
+        this.stratum = stratum;
+    }
+
+    /**
+     * Sets a regular expression which extracts the weight from the string
+     * representation of a record. The weight is the first group of the first
+     * match or, if the expression has no groups, the match itself. Records
+     * for which the expression does not yield a number have a weight of zero.
+     * <p>
+     * This parameter must not be changed while processing a stream.
+     *
+     * @param weightPattern regular expression matching the weight
+     */
+    public void setWeightPattern(final String weightPattern) {
+        final Pattern pattern = Pattern.compile(weightPattern);
+        setWeight(obj -> parseWeight(extract(pattern, obj)));
+    }
+
+    /**
+     * Sets a regular expression which extracts the stratum from the string
+     * representation of a record. The stratum is the first group of the first
+     * match or, if the expression has no groups, the match itself. Records
+     * which do not match form a stratum of their own.
+     * <p>
+     * This parameter must not be changed while processing a stream.
+     *
+     * @param stratumPattern regular expression matching the stratum
+     */
+    public void setStratumPattern(final String stratumPattern) {
+        final Pattern pattern = Pattern.compile(stratumPattern);
+        setStratum(obj -> extract(pattern, obj));
+    }
+
+    @Override
+    public void process(final T obj) {
+        assert !isClosed();
+        assert null != obj;
+        if (stratum == null) {
+            if (reservoir == null) {
+                reservoir = createReservoir();
+            }
+            reservoir.offer(obj);
+        } else {
+            reservoirs.computeIfAbsent(stratum.apply(obj), key -> createReservoir()).offer(obj);
+        }
+    }
+
+    @Override
+    protected void onCloseStream() {
+        if (reservoir != null) {
+            reservoir.forEach(getReceiver()::process);
+        }
+        for (final Reservoir<T> stratumReservoir : reservoirs.values()) {
+            stratumReservoir.forEach(getReceiver()::process);
+        }
+        onResetStream();
+    }
+
+    @Override
+    protected void onResetStream() {
+        reservoir = null;
+        reservoirs.clear();
+    }
+
+    private static String extract(final Pattern pattern, final Object obj) {
+        final Matcher matcher = pattern.matcher(obj.toString());
+        if (!matcher.find()) {
+            return null;
+        }
+        return matcher.groupCount() > 0 ? matcher.group(1) : matcher.group();
+    }
+
+    private static double parseWeight(final String weight) {
+        if (weight == null) {
+            return 0;
+        }
+        try {
+            return Double.parseDouble(weight);
+        } catch (final NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    private Reservoir<T> createReservoir() {
+        if (weight == null) {
+            return new UniformReservoir<>(sampleSize, random);
+        }
+        return new WeightedReservoir<>(sampleSize, random, weight);
+    }
+
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright 2026 hbz
+ *
+ * Licensed under the Apache License, Version 2.0 the "License";
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.metafacture.statistics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Consumer;
+
+/**
+ * Uniform reservoir sampling with Algorithm L (Li 1994). Once the reservoir
+ * is full, the number of objects to skip before the next replacement is drawn
+ * from a geometric distribution. Random numbers are only needed for objects
+ * which enter the reservoir, so that the cost per skipped object is a single
+ * decrement.
+ *
+ * @param <T> object type
+ */
+final class UniformReservoir<T> implements Reservoir<T> {
+
+    private final int size;
+    private final Random random;
+    private final List<T> items;
+
+    private double w;
+    private long skip;
+
+    UniformReservoir(final int size, final Random random) {
+        this.size = size;
+        this.random = random;
+        items = new ArrayList<>(size);
+    }
+
+    @Override
+    public void offer(final T obj) {
+        if (size == 0) {
+            return;
+        }
+        if (items.size() < size) {
+            items.add(obj);
+            if (items.size() == size) {
+                w = Math.exp(Math.log(nextOpenDouble()) / size);
+                drawSkip();
+            }
+        } else if (skip > 0) {
+            skip -= 1;
+        } else {
+            items.set(random.nextInt(size), obj);
+            w *= Math.exp(Math.log(nextOpenDouble()) / size);
+            drawSkip();
+        }
+    }
+
+    @Override
+    public void forEach(final Consumer<? super T> action) {
+        items.forEach(action);
+    }
+
+    private void drawSkip() {
+        skip = (long) Math.floor(Math.log(nextOpenDouble()) / Math.log1p(-w));
+    }
+
+    private double nextOpenDouble() {
+        // Excludes zero so that the logarithm is finite:
+        return 1.0 - random.nextDouble();
+    }
+
+}
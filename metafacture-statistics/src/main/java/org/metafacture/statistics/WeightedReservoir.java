@@ -0,0 +1,105 @@
+/*
+ * Copyright 2026 hbz
+ *
+ * Licensed under the Apache License, Version 2.0 the "License";
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.metafacture.statistics;
+
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.function.Consumer;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Weighted reservoir sampling with exponential jumps (algorithm A-ExpJ by
+ * Efraimidis and Spirakis). Each object gets the key u<sup>1/weight</sup> for
+ * a random u; the reservoir keeps the objects with the largest keys. The
+ * probability of an object to be sampled is thus proportional to its weight.
+ * Keys are stored as logarithms to avoid underflow for large weights. Once
+ * the reservoir is full, the total weight to skip before the next
+ * replacement is drawn at once.
+ * <p>
+ * Objects with a weight of zero or less are never sampled.
+ *
+ * @param <T> object type
+ */
+final class WeightedReservoir<T> implements Reservoir<T> {
+
+    private final int size;
+    private final Random random;
+    private final ToDoubleFunction<? super T> weightFunction;
+    private final PriorityQueue<Item<T>> items;
+
+    private double weightToSkip;
+
+    WeightedReservoir(final int size, final Random random,
+            final ToDoubleFunction<? super T> weightFunction) {
+        this.size = size;
+        this.random = random;
+        this.weightFunction = weightFunction;
+        items = new PriorityQueue<>(Math.max(size, 1),
+                (a, b) -> Double.compare(a.logKey, b.logKey));
+    }
+
+    @Override
+    public void offer(final T obj) {
+        final double weight = weightFunction.applyAsDouble(obj);
+        if (!(weight > 0) || size == 0) {
+            return;
+        }
+        if (items.size() < size) {
+            items.add(new Item<>(obj, Math.log(nextOpenDouble()) / weight));
+            if (items.size() == size) {
+                drawWeightToSkip();
+            }
+            return;
+        }
+        weightToSkip -= weight;
+        if (weightToSkip > 0) {
+            return;
+        }
+        // The new key must be larger than the smallest key in the reservoir:
+        final double threshold = Math.exp(weight * items.peek().logKey);
+        final double u = threshold + (1.0 - threshold) * nextOpenDouble();
+        items.poll();
+        items.add(new Item<>(obj, Math.log(u) / weight));
+        drawWeightToSkip();
+    }
+
+    @Override
+    public void forEach(final Consumer<? super T> action) {
+        items.forEach(item -> action.accept(item.obj));
+    }
+
+    private void drawWeightToSkip() {
+        weightToSkip = Math.log(nextOpenDouble()) / items.peek().logKey;
+    }
+
+    private double nextOpenDouble() {
+        // Excludes zero so that the logarithm is finite:
+        return 1.0 - random.nextDouble();
+    }
+
+    private static final class Item<T> {
+
+        private final T obj;
+        private final double logKey;
+
+        Item(final T obj, final double logKey) {
+            this.obj = obj;
+            this.logKey = logKey;
+        }
+
+    }
+
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright 2026 hbz
+ *
+ * Licensed under the Apache License, Version 2.0 the "License";
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.metafacture.statistics;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+/**
+ * Tests for class {@link ApproximateHistogram}.
+ */
+public final class ApproximateHistogramTest {
+
+    private static final String RECORD_ID = "1";
+    private static final String FIELD = "field";
+
+    @Test
+    public void shouldEstimateCountsOfField() {
+        final ApproximateHistogram histogram = new ApproximateHistogram(FIELD);
+
+        histogram.startRecord(RECORD_ID);
+        histogram.literal(FIELD, "a");
+        histogram.literal(FIELD, "b");
+        histogram.literal(FIELD, "a");
+        histogram.literal("other", "a");
+        histogram.endRecord();
+        histogram.closeStream();
+
+        assertEquals(2, histogram.estimateCount("a"));
+        assertEquals(1, histogram.estimateCount("b"));
+        assertEquals(2, histogram.estimateDistinctCount());
+        assertEquals(3, histogram.getTotalCount());
+    }
+
+    @Test
+    public void shouldCountNullValues() {
+        final ApproximateHistogram histogram = new ApproximateHistogram(FIELD);
+
+        histogram.startRecord(RECORD_ID);
+        histogram.literal(FIELD, null);
+        histogram.literal(FIELD, "");
+        histogram.literal(FIELD, null);
+        histogram.endRecord();
+        histogram.closeStream();
+
+        assertEquals(2, histogram.estimateCount(null));
+        assertEquals(1, histogram.estimateCount(""));
+        assertEquals(2, histogram.estimateDistinctCount());
+        assertEquals(3, histogram.getTotalCount());
+    }
+
+    @Test
+    public void shouldMergeIntoTargetOnCloseStream() {
+        final ApproximateHistogram target = new ApproximateHistogram();
+        final ApproximateHistogram first = new ApproximateHistogram();
+        first.setCountLiterals(true);
+        first.setMergeTarget(target);
+        final ApproximateHistogram second = new ApproximateHistogram();
+        second.setCountLiterals(true);
+        second.setMergeTarget(target);
+
+        first.literal("a", "");
+        second.literal("a", "");
+        second.literal("b", "");
+        first.closeStream();
+        second.closeStream();
+
+        assertEquals(2, target.estimateCount("a"));
+        assertEquals(2, target.estimateDistinctCount());
+        assertEquals(3, target.getTotalCount());
+    }
+
+    @Test
+    public void shouldClearSketchesOnResetStream() {
+        final ApproximateHistogram histogram = new ApproximateHistogram();
+        histogram.setCountEntities(true);
+        histogram.startEntity("a");
+
+        histogram.resetStream();
+
+        assertEquals(0, histogram.estimateCount("a"));
+        assertEquals(0, histogram.estimateDistinctCount());
+    }
+
+}
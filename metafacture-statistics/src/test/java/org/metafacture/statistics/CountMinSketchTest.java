@@ -0,0 +1,86 @@
+/*
+ * Copyright 2026 hbz
+ *
+ * Licensed under the Apache License, Version 2.0 the "License";
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.metafacture.statistics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Test;
+
+/**
+ * Tests for class {@link CountMinSketch}.
+ */
+public final class CountMinSketchTest {
+
+    @Test
+    public void shouldCountFewValuesExactly() {
+        final CountMinSketch sketch = new CountMinSketch();
+        sketch.add("a");
+        sketch.add("a");
+        sketch.add("b", 5);
+
+        assertEquals(2, sketch.estimateCount("a"));
+        assertEquals(5, sketch.estimateCount("b"));
+        assertEquals(0, sketch.estimateCount("c"));
+        assertEquals(7, sketch.getTotalCount());
+    }
+
+    @Test
+    public void shouldNeverUnderestimateCounts() {
+        final CountMinSketch sketch = new CountMinSketch(4, 256);
+        final Map<String, Long> counts = new HashMap<>();
+        for (int i = 0; i < 20000; ++i) {
+            final String value = "value" + (i * i % 3001);
+            sketch.add(value);
+            counts.merge(value, Long.valueOf(1), Long::sum);
+        }
+
+        final long maxError = (long) Math.ceil(Math.E / 256 * sketch.getTotalCount());
+        int exceedingCount = 0;
+        for (final Map.Entry<String, Long> entry : counts.entrySet()) {
+            final long estimate = sketch.estimateCount(entry.getKey());
+            assertTrue(estimate >= entry.getValue().longValue());
+            if (estimate > entry.getValue().longValue() + maxError) {
+                exceedingCount += 1;
+            }
+        }
+        assertTrue(exceedingCount < counts.size() * 0.05);
+    }
+
+    @Test
+    public void shouldAddCountsWhenMerging() {
+        final CountMinSketch first = new CountMinSketch();
+        first.add("a", 2);
+        final CountMinSketch second = new CountMinSketch();
+        second.add("a", 3);
+        second.add("b");
+
+        first.merge(second);
+
+        assertEquals(5, first.estimateCount("a"));
+        assertEquals(1, first.estimateCount("b"));
+        assertEquals(6, first.getTotalCount());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldNotMergeSketchesWithDifferentDimensions() {
+        new CountMinSketch(4, 100).merge(new CountMinSketch(4, 200));
+    }
+
+}
@@ -19,6 +19,7 @@
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -117,6 +118,70 @@ public void testCountField() {
         assertEquals(expected, histogram.getHistogram());
     }
 
+    @Test
+    public void testGetCount() {
+        final Histogram histogram = new Histogram(LITERALS[0]);
+
+        histogram.startRecord(RECORD_ID);
+        histogram.literal(LITERALS[0], VALUES[0]);
+        histogram.literal(LITERALS[0], VALUES[0]);
+        histogram.endRecord();
+        histogram.closeStream();
+
+        final Map<String, Long> counts = new HashMap<String, Long>();
+        histogram.forEachCount((key, count) -> counts.put(key, Long.valueOf(count)));
+
+        assertEquals(2, histogram.getCount(VALUES[0]));
+        assertEquals(0, histogram.getCount(VALUES[1]));
+        assertEquals(1, counts.size());
+        assertEquals(Long.valueOf(2), counts.get(VALUES[0]));
+    }
+
+    @Test
+    public void testHistogramIsReadOnlyView() {
+        final Histogram histogram = new Histogram(LITERALS[0]);
+        final Map<String, Integer> view = histogram.getHistogram();
+
+        histogram.startRecord(RECORD_ID);
+        histogram.literal(LITERALS[0], VALUES[0]);
+        histogram.endRecord();
+
+        assertEquals(Integer.valueOf(1), view.get(VALUES[0]));
+        assertNull(view.get(VALUES[1]));
+        try {
+            view.put(VALUES[1], Integer.valueOf(1));
+            fail("view must not be modifiable");
+        } catch (final UnsupportedOperationException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testMergeTarget() throws InterruptedException {
+        final Histogram target = new Histogram();
+        final Thread[] threads = new Thread[4];
+        for (int i = 0; i < threads.length; ++i) {
+            final Histogram histogram = new Histogram(LITERALS[0]);
+            histogram.setMergeTarget(target);
+            threads[i] = new Thread(() -> {
+                for (int j = 0; j < 1000; ++j) {
+                    histogram.literal(LITERALS[0], VALUES[j % 2]);
+                }
+                histogram.closeStream();
+            });
+            threads[i].start();
+        }
+        for (final Thread thread : threads) {
+            thread.join();
+        }
+
+        final Map<String, Integer> expected = new HashMap<String, Integer>();
+        expected.put(VALUES[0], Integer.valueOf(2000));
+        expected.put(VALUES[1], Integer.valueOf(2000));
+
+        assertEquals(expected, target.getHistogram());
+    }
+
     @Test
     public void testCountFieldConstructor() {
         final Histogram histogram = new Histogram(LITERALS[0]);
@@ -128,6 +193,25 @@ public void testCountFieldConstructor() {
     }
 
 
+    @Test
+    public void testCountNullValues() {
+        final Histogram histogram = new Histogram(LITERALS[0]);
+
+        histogram.startRecord(RECORD_ID);
+        histogram.literal(LITERALS[0], null);
+        histogram.literal(LITERALS[0], VALUES[0]);
+        histogram.literal(LITERALS[0], null);
+        histogram.endRecord();
+        histogram.closeStream();
+
+        final Map<String, Integer> expected = new HashMap<String, Integer>();
+        expected.put(null, Integer.valueOf(2));
+        expected.put(VALUES[0], Integer.valueOf(1));
+
+        assertEquals(expected, histogram.getHistogram());
+        assertEquals(2, histogram.getCount(null));
+    }
+
     @Test
     public void testResetStream() {
         final Histogram histogram = new Histogram();
@@ -0,0 +1,81 @@
+/*
+ * Copyright 2026 hbz
+ *
+ * Licensed under the Apache License, Version 2.0 the "License";
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.metafacture.statistics;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+/**
+ * Tests for class {@link HyperLogLog}.
+ */
+public final class HyperLogLogTest {
+
+    @Test
+    public void shouldCountFewValuesExactly() {
+        final HyperLogLog hyperLogLog = new HyperLogLog();
+        for (int i = 0; i < 3; ++i) {
+            hyperLogLog.add("a");
+            hyperLogLog.add("b");
+        }
+
+        assertEquals(2, hyperLogLog.estimate());
+    }
+
+    @Test
+    public void shouldEstimateManyValues() {
+        final HyperLogLog hyperLogLog = new HyperLogLog();
+        for (int i = 0; i < 100000; ++i) {
+            hyperLogLog.add("value" + i);
+            hyperLogLog.add("value" + i / 2);
+        }
+
+        assertEquals(100000, hyperLogLog.estimate(), 100000 * 0.03);
+    }
+
+    @Test
+    public void shouldEstimateUnionWhenMerging() {
+        final HyperLogLog first = new HyperLogLog(12);
+        final HyperLogLog second = new HyperLogLog(12);
+        final HyperLogLog all = new HyperLogLog(12);
+        for (int i = 0; i < 50000; ++i) {
+            first.add("value" + i);
+            second.add("value" + (i + 25000));
+            all.add("value" + i);
+            all.add("value" + (i + 25000));
+        }
+
+        first.merge(second);
+
+        assertEquals(all.estimate(), first.estimate());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldNotMergeSketchesWithDifferentPrecision() {
+        new HyperLogLog(10).merge(new HyperLogLog(11));
+    }
+
+    @Test
+    public void shouldBeEmptyAfterClear() {
+        final HyperLogLog hyperLogLog = new HyperLogLog();
+        hyperLogLog.add("a");
+
+        hyperLogLog.clear();
+
+        assertEquals(0, hyperLogLog.estimate());
+    }
+
+}
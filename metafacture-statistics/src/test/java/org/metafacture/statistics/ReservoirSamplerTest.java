@@ -0,0 +1,210 @@
+/*
+ * Copyright 2026 hbz
+ *
+ * Licensed under the Apache License, Version 2.0 the "License";
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.metafacture.statistics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.metafacture.framework.helpers.DefaultObjectReceiver;
+
+/**
+ * Tests for class {@link ReservoirSampler}.
+ */
+public final class ReservoirSamplerTest {
+
+    private static final long SEED = 1;  // Use a fixed random seed to make the test repeatable
+    private static final int SAMPLE_SIZE = 5;
+
+    private List<String> output;
+    private ReservoirSampler<String> sampler;
+
+    @Before
+    public void setup() {
+        output = new ArrayList<>();
+        sampler = createSampler(SAMPLE_SIZE, SEED);
+    }
+
+    @Test
+    public void shouldEmitAllObjectsIfInputIsSmallerThanSample() {
+        processRange(sampler, 0, 3);
+        sampler.closeStream();
+
+        assertEquals(list("0", "1", "2"), output);
+    }
+
+    @Test
+    public void shouldEmitSampleOfDistinctInputObjects() {
+        processRange(sampler, 0, 10000);
+        sampler.closeStream();
+
+        assertEquals(SAMPLE_SIZE, output.size());
+        assertEquals(SAMPLE_SIZE, new HashSet<>(output).size());
+        for (final String obj : output) {
+            final int value = Integer.parseInt(obj);
+            assertTrue(value >= 0 && value < 10000);
+        }
+    }
+
+    @Test
+    public void shouldDrawUniformSample() {
+        final int runs = 20000;
+        final int[] frequencies = new int[10];
+        // Seeds of consecutive runs must not be correlated:
+        final Random seeds = new Random(SEED);
+        for (int run = 0; run < runs; ++run) {
+            output.clear();
+            final ReservoirSampler<String> runSampler = createSampler(2, seeds.nextLong());
+            processRange(runSampler, 0, frequencies.length);
+            runSampler.closeStream();
+            for (final String obj : output) {
+                frequencies[Integer.parseInt(obj)] += 1;
+            }
+        }
+
+        final double expected = runs * 2.0 / frequencies.length;
+        for (final int frequency : frequencies) {
+            assertEquals(expected, frequency, expected * 0.05);
+        }
+    }
+
+    @Test
+    public void shouldPreferObjectsWithHigherWeight() {
+        final int runs = 2000;
+        int heavyCount = 0;
+        final Random seeds = new Random(SEED);
+        for (int run = 0; run < runs; ++run) {
+            output.clear();
+            final ReservoirSampler<String> runSampler = createSampler(1, seeds.nextLong());
+            runSampler.setWeight(obj -> obj.equals("heavy") ? 9 : 1);
+            runSampler.process("light1");
+            runSampler.process("heavy");
+            runSampler.process("light2");
+            runSampler.process("light3");
+            runSampler.closeStream();
+            if (output.contains("heavy")) {
+                heavyCount += 1;
+            }
+        }
+
+        assertEquals(runs * 0.75, heavyCount, runs * 0.05);
+    }
+
+    @Test
+    public void shouldNeverSampleObjectsWithoutWeight() {
+        sampler.setWeight(obj -> Integer.parseInt(obj) % 2);
+
+        processRange(sampler, 0, 1000);
+        sampler.closeStream();
+
+        assertEquals(SAMPLE_SIZE, output.size());
+        for (final String obj : output) {
+            assertEquals(1, Integer.parseInt(obj) % 2);
+        }
+    }
+
+    @Test
+    public void shouldDrawSamplePerStratum() {
+        sampler.setStratum(obj -> obj.substring(0, 1));
+
+        processRange(sampler, 100, 1000);
+        sampler.process("x");
+        sampler.closeStream();
+
+        assertEquals(9 * SAMPLE_SIZE + 1, output.size());
+        for (int i = 0; i < 9; ++i) {
+            for (final String obj : output.subList(i * SAMPLE_SIZE, (i + 1) * SAMPLE_SIZE)) {
+                assertEquals(Integer.toString(i + 1), obj.substring(0, 1));
+            }
+        }
+        assertEquals("x", output.get(output.size() - 1));
+    }
+
+    @Test
+    public void shouldExtractWeightWithPattern() {
+        sampler.setWeightPattern("[13579]$");
+
+        processRange(sampler, 0, 1000);
+        sampler.process("no weight");
+        sampler.closeStream();
+
+        assertEquals(SAMPLE_SIZE, output.size());
+        for (final String obj : output) {
+            assertEquals(1, Integer.parseInt(obj) % 2);
+        }
+    }
+
+    @Test
+    public void shouldExtractStratumWithPattern() {
+        sampler.setStratumPattern("^(\\d)\\d*$");
+
+        processRange(sampler, 100, 1000);
+        sampler.process("x");
+        sampler.closeStream();
+
+        assertEquals(9 * SAMPLE_SIZE + 1, output.size());
+        for (int i = 0; i < 9; ++i) {
+            for (final String obj : output.subList(i * SAMPLE_SIZE, (i + 1) * SAMPLE_SIZE)) {
+                assertEquals(Integer.toString(i + 1), obj.substring(0, 1));
+            }
+        }
+        assertEquals("x", output.get(output.size() - 1));
+    }
+
+    @Test
+    public void shouldDiscardSampleOnResetStream() {
+        processRange(sampler, 0, 3);
+        sampler.resetStream();
+        sampler.process("a");
+        sampler.closeStream();
+
+        assertEquals(list("a"), output);
+    }
+
+    private ReservoirSampler<String> createSampler(final int sampleSize, final long seed) {
+        final ReservoirSampler<String> newSampler = new ReservoirSampler<>(sampleSize);
+        newSampler.setSeed(seed);
+        newSampler.setReceiver(new DefaultObjectReceiver<String>() {
+            @Override
+            public void process(final String obj) {
+                output.add(obj);
+            }
+        });
+        return newSampler;
+    }
+
+    private static void processRange(final ReservoirSampler<String> sampler,
+            final int start, final int end) {
+        for (int i = start; i < end; ++i) {
+            sampler.process(Integer.toString(i));
+        }
+    }
+
+    private static List<String> list(final String... values) {
+        final List<String> list = new ArrayList<>();
+        for (final String value : values) {
+            list.add(value);
+        }
+        return list;
+    }
+
+}
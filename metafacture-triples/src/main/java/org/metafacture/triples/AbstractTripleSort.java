@@ -16,14 +16,11 @@
 package org.metafacture.triples;
 
 import java.io.File;
-import java.io.FileOutputStream;
 import java.io.IOException;
-import java.io.ObjectOutputStream;
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.Arrays;
 import java.util.Comparator;
 import java.util.List;
-import java.util.PriorityQueue;
 
 import org.metafacture.framework.MetafactureException;
 import org.metafacture.framework.ObjectReceiver;
@@ -62,10 +59,17 @@ public int order(final int indicator) {
         public abstract int order(int indicator);
     }
 
+    private static final long MEGABYTE = 1024 * 1024;
+
     private final List<Triple> buffer = new ArrayList<Triple>();
     private final List<File> tempFiles;
     private Compare compare = Compare.SUBJECT;
     private Order order = Order.INCREASING;
+    private boolean compressTempFiles;
+    private int bufferSizeLimit;
+    private long bufferMemoryLimit;
+    private long bufferedBytes;
+    private boolean registered;
     private volatile boolean memoryLow;
 
     public AbstractTripleSort() {
@@ -92,9 +96,77 @@ protected final void setSortOrder(final Order order) {
         this.order = order;
     }
 
+    /**
+     * Sets whether the sorted runs which are written to temporary files when
+     * memory gets low are compressed. Compression reduces disk I/O at the
+     * cost of CPU time.
+     * <p>
+     * The default value is {@code false}.
+     * <p>
+     * This parameter must not be changed while processing a stream.
+     *
+     * @param compressTempFiles true if temporary files should be compressed
+     */
+    public final void setCompressTempFiles(final boolean compressTempFiles) {
+        this.compressTempFiles = compressTempFiles;
+    }
+
+    public final boolean getCompressTempFiles() {
+        return compressTempFiles;
+    }
+
+    /**
+     * Sets the maximum number of triples which are kept in memory. When the
+     * limit is reached, the buffered triples are sorted and written to a
+     * temporary file.
+     * <p>
+     * The default value is 0 which means that the number of triples is not
+     * limited.
+     *
+     * @param bufferSizeLimit maximum number of buffered triples
+     */
+    public final void setBufferSizeLimit(final int bufferSizeLimit) {
+        this.bufferSizeLimit = bufferSizeLimit;
+    }
+
+    public final int getBufferSizeLimit() {
+        return bufferSizeLimit;
+    }
+
+    /**
+     * Sets the maximum amount of memory in megabytes which may be used for
+     * buffering triples. The memory used by the buffer is estimated from the
+     * length of the strings in the triples. When the limit is reached, the
+     * buffered triples are sorted and written to a temporary file.
+     * <p>
+     * The default value is 0 which means that all active triple sorts share a
+     * common budget equally. The common budget is a quarter of the maximum
+     * heap size unless the system property
+     * {@code org.metafacture.triples.sortMemoryBudget} defines a size in bytes.
+     * Each share is at least 8 megabytes.
+     *
+     * @param bufferMemoryLimit maximum buffer size in megabytes
+     */
+    public final void setBufferMemoryLimit(final int bufferMemoryLimit) {
+        this.bufferMemoryLimit = bufferMemoryLimit * MEGABYTE;
+    }
+
+    public final int getBufferMemoryLimit() {
+        return (int) (bufferMemoryLimit / MEGABYTE);
+    }
+
     @Override
     public final void process(final Triple namedValue) {
-        if (memoryLow) {
+        if (processUnsorted(namedValue)) {
+            return;
+        }
+        if (!registered) {
+            // Only sorts which actually buffer triples take a share of the
+            // budget, so unused sorts do not shrink the shares of others.
+            SortMemoryBudget.register();
+            registered = true;
+        }
+        if (memoryLow || isBufferFull()) {
             try {
                 if (!buffer.isEmpty()) {
                     nextBatch();
@@ -106,72 +178,80 @@ public final void process(final Triple namedValue) {
             }
         }
         buffer.add(namedValue);
+        bufferedBytes += SortMemoryBudget.estimateSize(namedValue);
+    }
+
+    private boolean isBufferFull() {
+        if (bufferSizeLimit > 0 && buffer.size() >= bufferSizeLimit) {
+            return true;
+        }
+        if (bufferMemoryLimit > 0) {
+            return bufferedBytes >= bufferMemoryLimit;
+        }
+        return bufferedBytes >= SortMemoryBudget.getShare();
     }
 
     private void nextBatch() throws IOException {
-        Collections.sort(buffer, createComparator(compare, order));
+        final Triple[] sorted = sortBuffer();
         final File tempFile = File.createTempFile("sort", "namedValues", null);
         tempFile.deleteOnExit();
-        final ObjectOutputStream out = new ObjectOutputStream(new FileOutputStream(tempFile));
+        final SortedTripleFileWriter out = new SortedTripleFileWriter(tempFile, compressTempFiles);
 
         try {
-            for (final Triple triple : buffer) {
-                triple.write(out);
+            for (final Triple triple : sorted) {
+                out.write(triple);
             }
         } finally {
             out.close();
         }
         buffer.clear();
+        bufferedBytes = 0;
         tempFiles.add(tempFile);
     }
 
+    private Triple[] sortBuffer() {
+        final Triple[] sorted = buffer.toArray(new Triple[buffer.size()]);
+        Arrays.parallelSort(sorted, createComparator(compare, order));
+        return sorted;
+    }
+
     @Override
     public final void onCloseStream() {
 
         if (tempFiles.isEmpty()) {
-            Collections.sort(buffer, createComparator(compare, order));
-            for (final Triple triple : buffer) {
+            for (final Triple triple : sortBuffer()) {
                 sortedTriple(triple);
             }
             onFinished();
         } else {
-            final Comparator<Triple> comparator = createComparator(compare, order);
-            final PriorityQueue<SortedTripleFileFacade> queue = new PriorityQueue<SortedTripleFileFacade>(11,
-                    new Comparator<SortedTripleFileFacade>() {
-                        // private final Comparator<Triple> comparator =
-                        // getComparator();
-
-                        @Override
-                        public int compare(final SortedTripleFileFacade o1, final SortedTripleFileFacade o2) {
-                            return comparator.compare(o1.peek(), o2.peek());
-                        }
-                    });
+            final List<SortedTripleFileFacade> runs = new ArrayList<SortedTripleFileFacade>();
             try {
                 nextBatch();
                 for (final File file : tempFiles) {
-                    queue.add(new SortedTripleFileFacade(file));
+                    runs.add(new SortedTripleFileFacade(file, compressTempFiles));
                 }
-
-                while (queue.size() > 0) {
-                    final SortedTripleFileFacade sortedFileFacade = queue.poll();
-                    final Triple triple = sortedFileFacade.pop();
-                    sortedTriple(triple);
-                    if (sortedFileFacade.isEmpty()) {
-                        sortedFileFacade.close();
-                    } else {
-                        queue.add(sortedFileFacade);
-                    }
+                final LoserTree merger = new LoserTree(runs, createComparator(compare, order));
+                while (!merger.isEmpty()) {
+                    sortedTriple(merger.pop());
                 }
                 onFinished();
             } catch (final IOException e) {
                 throw new MetafactureException("Error merging temp files", e);
             } finally {
-                for (final SortedTripleFileFacade sortedFileFacade : queue) {
+                for (final SortedTripleFileFacade sortedFileFacade : runs) {
                     sortedFileFacade.close();
                 }
             }
         }
         MemoryWarningSystem.removeListener(this);
+        unregisterFromBudget();
+    }
+
+    private void unregisterFromBudget() {
+        if (registered) {
+            SortMemoryBudget.unregister();
+            registered = false;
+        }
     }
 
     protected void onFinished() {
@@ -179,6 +259,26 @@ protected void onFinished() {
 
     }
 
+    /**
+     * Invoked when the stream is reset. Subclasses may override this method
+     * to discard state which they keep in addition to the sort buffer.
+     */
+    protected void onReset() {
+        // nothing to do
+    }
+
+    /**
+     * Invoked for each triple before it is added to the sort buffer.
+     * Subclasses may override this method to handle triples which do not need
+     * to be sorted.
+     *
+     * @param namedValue the received triple
+     * @return true if the triple was handled and must not be sorted
+     */
+    protected boolean processUnsorted(final Triple namedValue) {
+        return false;
+    }
+
     protected abstract void sortedTriple(Triple namedValue);
 
     public final Comparator<Triple> createComparator() {
@@ -229,11 +329,14 @@ public int compare(final Triple o1, final Triple o2) {
     @Override
     public final void onResetStream() {
         buffer.clear();
+        bufferedBytes = 0;
         for (final File file : tempFiles) {
             if (file.exists()) {
                 file.delete();
             }
         }
         tempFiles.clear();
+        unregisterFromBudget();
+        onReset();
     }
 }
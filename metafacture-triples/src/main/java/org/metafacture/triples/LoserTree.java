@@ -0,0 +1,92 @@
+/*
+ * Copyright 2026 hbz
+ *
+ * Licensed under the Apache License, Version 2.0 the "License";
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.metafacture.triples;
+
+import java.io.IOException;
+import java.util.Comparator;
+import java.util.List;
+
+import org.metafacture.framework.objects.Triple;
+
+/**
+ * Merges sorted runs of triples with a tournament tree of losers. Each
+ * inner node stores the run which lost the match at this node, so that
+ * replacing the overall winner only requires one comparison per tree level
+ * on the path from the winner's leaf to the root.
+ * <p>
+ * Triples which compare equal are returned in the order of their runs, so
+ * the merge is stable.
+ */
+final class LoserTree {
+
+    private final SortedTripleFileFacade[] runs;
+    private final Comparator<Triple> comparator;
+    private final int[] tree;
+
+    LoserTree(final List<SortedTripleFileFacade> runs,
+            final Comparator<Triple> comparator) {
+        this.runs = runs.toArray(new SortedTripleFileFacade[runs.size()]);
+        this.comparator = comparator;
+        tree = new int[Math.max(1, this.runs.length)];
+        if (this.runs.length > 0) {
+            tree[0] = build(1);
+        }
+    }
+
+    private int build(final int node) {
+        if (node >= runs.length) {
+            return node - runs.length;
+        }
+        final int left = build(2 * node);
+        final int right = build(2 * node + 1);
+        if (beats(left, right)) {
+            tree[node] = right;
+            return left;
+        }
+        tree[node] = left;
+        return right;
+    }
+
+    boolean isEmpty() {
+        return runs.length == 0 || runs[tree[0]].isEmpty();
+    }
+
+    Triple pop() throws IOException {
+        int winner = tree[0];
+        final Triple triple = runs[winner].pop();
+        for (int node = (winner + runs.length) / 2; node > 0; node /= 2) {
+            if (beats(tree[node], winner)) {
+                final int loser = winner;
+                winner = tree[node];
+                tree[node] = loser;
+            }
+        }
+        tree[0] = winner;
+        return triple;
+    }
+
+    private boolean beats(final int run1, final int run2) {
+        if (runs[run1].isEmpty()) {
+            return false;
+        }
+        if (runs[run2].isEmpty()) {
+            return true;
+        }
+        final int result = comparator.compare(runs[run1].peek(), runs[run2].peek());
+        return result < 0 || result == 0 && run1 < run2;
+    }
+
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright 2026 hbz
+ *
+ * Licensed under the Apache License, Version 2.0 the "License";
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.metafacture.triples;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.metafacture.framework.objects.Triple;
+
+/**
+ * Memory budget which is shared by all {@link AbstractTripleSort} instances
+ * in the JVM. Each active sort may buffer triples up to an equal share of the
+ * budget before it writes them to a temporary file.
+ * <p>
+ * A share is never smaller than {@value #MIN_SHARE} bytes (or the whole
+ * budget if the budget is smaller than that). This keeps many concurrent
+ * sorts from writing lots of tiny temporary files. With many active sorts the
+ * buffers may therefore use more memory than the budget in total.
+ * <p>
+ * The budget defaults to a quarter of the maximum heap size. It can be set in
+ * bytes with the system property {@value #BUDGET_PROPERTY}; values which are
+ * not a positive number are ignored. The class is static since the budget is
+ * a property of the JVM.
+ */
+final class SortMemoryBudget {
+
+    public static final String BUDGET_PROPERTY = "org.metafacture.triples.sortMemoryBudget";
+
+    public static final long MIN_SHARE = 8 * 1024 * 1024;
+
+    private static final int DEFAULT_HEAP_FRACTION = 4;
+
+    // Rough estimates of the heap footprint of a buffered triple: the triple
+    // object, three strings with their char arrays, and the list slot.
+    private static final int TRIPLE_OVERHEAD = 160;
+    private static final int BYTES_PER_CHAR = 2;
+
+    private static final AtomicInteger ACTIVE_SORTS = new AtomicInteger();
+    private static volatile long budget = getDefaultBudget();
+
+    private SortMemoryBudget() {
+        // no instances
+    }
+
+    static void register() {
+        ACTIVE_SORTS.incrementAndGet();
+    }
+
+    static void unregister() {
+        ACTIVE_SORTS.decrementAndGet();
+    }
+
+    static long getBudget() {
+        return budget;
+    }
+
+    static void setBudget(final long budget) {
+        if (budget <= 0) {
+            throw new IllegalArgumentException("'budget' must be positive");
+        }
+        SortMemoryBudget.budget = budget;
+    }
+
+    /**
+     * Returns the part of the budget which is available to each active sort,
+     * but at least {@value #MIN_SHARE} bytes.
+     *
+     * @return share of the budget in bytes
+     */
+    static long getShare() {
+        final long currentBudget = budget;
+        final long share = currentBudget / Math.max(1, ACTIVE_SORTS.get());
+        return Math.max(share, Math.min(MIN_SHARE, currentBudget));
+    }
+
+    static long estimateSize(final Triple triple) {
+        return TRIPLE_OVERHEAD + BYTES_PER_CHAR * ((long) triple.getSubject().length()
+                + triple.getPredicate().length() + triple.getObject().length());
+    }
+
+    private static long getDefaultBudget() {
+        return parseBudget(System.getProperty(BUDGET_PROPERTY));
+    }
+
+    /**
+     * Parses the value of the system property {@value #BUDGET_PROPERTY}.
+     * The class is initialised by the first sort, so an invalid value must not
+     * throw; the default budget is used instead.
+     *
+     * @param property the value of the property or null
+     * @return the budget in bytes
+     */
+    static long parseBudget(final String property) {
+        if (property != null) {
+            try {
+                final long budget = Long.parseLong(property.trim());
+                if (budget > 0) {
+                    return budget;
+                }
+            } catch (final NumberFormatException e) {
+                // Use the default budget
+            }
+        }
+        return Runtime.getRuntime().maxMemory() / DEFAULT_HEAP_FRACTION;
+    }
+
+}
@@ -20,26 +20,52 @@
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
-import java.io.ObjectInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
 
 import org.metafacture.framework.MetafactureException;
 import org.metafacture.framework.objects.Triple;
 
 
 /**
+ * Reads a run of sorted triples written by {@link SortedTripleFileWriter}.
+ *
  * @author markus geipel
  *
  */
 public final class SortedTripleFileFacade {
-    public static final int BUFFERSIZE = 2048;
-    private final ObjectInputStream in;
+    public static final int BUFFERSIZE = SortedTripleFileWriter.BUFFERSIZE;
+
+    private static final Triple.ObjectType[] OBJECT_TYPES = Triple.ObjectType.values();
+    private static final int VARINT_PAYLOAD_BITS = 7;
+    private static final int VARINT_PAYLOAD_MASK = 0x7f;
+    private static final int VARINT_CONTINUATION_BIT = 0x80;
+    private static final int MAX_VARINT_SHIFT = 28;
+
+    private final InputStream in;
+    private final Inflater inflater;
     private final File file;
+    private byte[] stringBuffer = new byte[256];
     private Triple triple;
     private boolean empty;
 
     public SortedTripleFileFacade(final File file) throws IOException {
+        this(file, false);
+    }
+
+    public SortedTripleFileFacade(final File file, final boolean compressed) throws IOException {
         this.file = file;
-        in = new ObjectInputStream(new BufferedInputStream(new FileInputStream(file), BUFFERSIZE));
+        final InputStream fileIn = new FileInputStream(file);
+        if (compressed) {
+            inflater = new Inflater();
+            in = new BufferedInputStream(
+                    new InflaterInputStream(fileIn, inflater, BUFFERSIZE), BUFFERSIZE);
+        } else {
+            inflater = null;
+            in = new BufferedInputStream(fileIn, BUFFERSIZE);
+        }
         next();
     }
 
@@ -48,13 +74,56 @@ public boolean isEmpty() {
     }
 
     private void next() throws IOException {
-        try {
-            triple = Triple.read(in);
-            empty = false;
-
-        } catch (EOFException e) {
+        final int length = in.read();
+        if (length < 0) {
             empty = true;
             triple = null;
+            return;
+        }
+        final String subject = readString(length);
+        final String predicate = readString(in.read());
+        final String object = readString(in.read());
+        final int objectType = in.read();
+        if (objectType < 0) {
+            throw new EOFException("Truncated triple in " + file);
+        }
+        triple = new Triple(subject, predicate, object, OBJECT_TYPES[objectType]);
+        empty = false;
+    }
+
+    private String readString(final int firstByte) throws IOException {
+        final int length = readVarInt(firstByte);
+        if (stringBuffer.length < length) {
+            stringBuffer = new byte[Math.max(length, 2 * stringBuffer.length)];
+        }
+        int offset = 0;
+        while (offset < length) {
+            final int count = in.read(stringBuffer, offset, length - offset);
+            if (count < 0) {
+                throw new EOFException("Truncated triple in " + file);
+            }
+            offset += count;
+        }
+        return new String(stringBuffer, 0, length, StandardCharsets.UTF_8);
+    }
+
+    private int readVarInt(final int firstByte) throws IOException {
+        int currentByte = firstByte;
+        int value = 0;
+        int shift = 0;
+        while (true) {
+            if (currentByte < 0) {
+                throw new EOFException("Truncated triple in " + file);
+            }
+            value |= (currentByte & VARINT_PAYLOAD_MASK) << shift;
+            if ((currentByte & VARINT_CONTINUATION_BIT) == 0) {
+                return value;
+            }
+            shift += VARINT_PAYLOAD_BITS;
+            if (shift > MAX_VARINT_SHIFT) {
+                throw new IOException("Malformed string length in " + file);
+            }
+            currentByte = in.read();
         }
     }
 
@@ -64,6 +133,10 @@ public void close() {
             in.close();
         } catch (IOException e) {
             throw new MetafactureException("Error closing input stream", e);
+        } finally {
+            if (inflater != null) {
+                inflater.end();
+            }
         }
         if (file.exists()) {
             file.delete();
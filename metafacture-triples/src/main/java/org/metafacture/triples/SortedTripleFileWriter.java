@@ -0,0 +1,101 @@
+/*
+ * Copyright 2026 hbz
+ *
+ * Licensed under the Apache License, Version 2.0 the "License";
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.metafacture.triples;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+import org.metafacture.framework.objects.Triple;
+
+/**
+ * Writes a run of sorted triples to a temporary file which can be read back
+ * with {@link SortedTripleFileFacade}.
+ * <p>
+ * Each triple is stored as subject, predicate and object followed by a single
+ * byte for the object type. Strings are encoded in UTF-8 and prefixed with
+ * their length in bytes, which is written as a variable length integer (seven
+ * bits per byte, least significant group first). Optionally, the run is
+ * written as a plain deflate stream using the fastest compression level.
+ */
+public final class SortedTripleFileWriter implements Closeable {
+
+    public static final int BUFFERSIZE = 64 * 1024;
+
+    private static final int VARINT_PAYLOAD_BITS = 7;
+    private static final int VARINT_PAYLOAD_MASK = 0x7f;
+    private static final int VARINT_CONTINUATION_BIT = 0x80;
+
+    private final OutputStream out;
+    private final Deflater deflater;
+
+    public SortedTripleFileWriter(final File file) throws IOException {
+        this(file, false);
+    }
+
+    public SortedTripleFileWriter(final File file, final boolean compressed)
+            throws IOException {
+        final OutputStream fileOut = new FileOutputStream(file);
+        if (compressed) {
+            deflater = new Deflater(Deflater.BEST_SPEED);
+            out = new BufferedOutputStream(
+                    new DeflaterOutputStream(fileOut, deflater, BUFFERSIZE), BUFFERSIZE);
+        } else {
+            deflater = null;
+            out = new BufferedOutputStream(fileOut, BUFFERSIZE);
+        }
+    }
+
+    public void write(final Triple triple) throws IOException {
+        writeString(triple.getSubject());
+        writeString(triple.getPredicate());
+        writeString(triple.getObject());
+        out.write(triple.getObjectType().ordinal());
+    }
+
+    private void writeString(final String string) throws IOException {
+        final byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+        writeVarInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private void writeVarInt(final int value) throws IOException {
+        int remaining = value;
+        while ((remaining & ~VARINT_PAYLOAD_MASK) != 0) {
+            out.write((remaining & VARINT_PAYLOAD_MASK) | VARINT_CONTINUATION_BIT);
+            remaining >>>= VARINT_PAYLOAD_BITS;
+        }
+        out.write(remaining);
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            out.close();
+        } finally {
+            if (deflater != null) {
+                deflater.end();
+            }
+        }
+    }
+
+}
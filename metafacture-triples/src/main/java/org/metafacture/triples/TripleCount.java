@@ -15,8 +15,11 @@
  */
 package org.metafacture.triples;
 
+import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.List;
 
+import org.metafacture.commons.types.CounterMap;
 import org.metafacture.framework.FluxCommand;
 import org.metafacture.framework.annotations.Description;
 import org.metafacture.framework.annotations.In;
@@ -25,6 +28,12 @@
 
 /**
  * Counts triples.
+ * <p>
+ * By default, all triples are sorted before they are counted. If a
+ * {@link #setHashAggregationLimit(int) hash aggregation limit} is set, the
+ * counters are kept in a hash table instead. Only triples whose keys do not
+ * fit into the hash table anymore are sorted. The counts from both sources
+ * are merged when the stream is closed. The output is the same in both modes.
  *
  * @author markus geipel
  *
@@ -40,10 +49,28 @@ public final class TripleCount extends AbstractTripleSort {
     private static final Triple INIT = new Triple("", "", "");
 
     private Triple current = INIT;
-    private int count;
+    private long count;
     private String countPredicate = DEFAULT_COUNTP_REDICATE;
     private Comparator<Triple> comparator;
 
+    private int hashAggregationLimit;
+    private final CounterMap<Object> hashCounts = new CounterMap<>();
+    private List<Triple> hashKeys;
+    private int nextHashKey;
+
+    @Override
+    protected boolean processUnsorted(final Triple triple) {
+        if (hashAggregationLimit <= 0) {
+            return false;
+        }
+        final Object key = getKey(triple);
+        if (hashCounts.size() < hashAggregationLimit || hashCounts.containsKey(key)) {
+            hashCounts.increment(key);
+            return true;
+        }
+        return false;
+    }
+
     @Override
     protected void sortedTriple(final Triple triple) {
 
@@ -55,7 +82,7 @@ protected void sortedTriple(final Triple triple) {
         if(comparator.compare(current, triple)==0){
             ++count;
         }else{
-            writeResult();
+            writeResult(current, count);
             current = triple;
             count = 1;
         }
@@ -65,26 +92,123 @@ public void setCountPredicate(final String countPredicate) {
         this.countPredicate = countPredicate;
     }
 
+    /**
+     * Sets the maximum number of distinct keys which are counted in a hash
+     * table without sorting the triples. Triples with further keys are counted
+     * by sorting them.
+     * <p>
+     * The default value is 0 which means that all triples are sorted.
+     * <p>
+     * This parameter must not be changed while processing a stream.
+     *
+     * @param hashAggregationLimit maximum number of keys in the hash table
+     */
+    public void setHashAggregationLimit(final int hashAggregationLimit) {
+        this.hashAggregationLimit = hashAggregationLimit;
+    }
+
+    public int getHashAggregationLimit() {
+        return hashAggregationLimit;
+    }
+
     @Override
     protected void onFinished() {
-        writeResult();
+        if (current != INIT || hashCounts.isEmpty()) {
+            writeResult(current, count);
+        }
+        writeHashCounts(null);
+        hashCounts.clear();
+        hashKeys = null;
+    }
+
+    @Override
+    protected void onReset() {
+        current = INIT;
+        count = 0;
+        hashCounts.clear();
+        hashKeys = null;
+        nextHashKey = 0;
+    }
+
+    private void writeResult(final Triple triple, final long tripleCount) {
+        long totalCount = tripleCount;
+        if (!hashCounts.isEmpty()) {
+            writeHashCounts(triple);
+            if (nextHashKey < hashKeys.size()
+                    && comparator.compare(hashKeys.get(nextHashKey), triple) == 0) {
+                totalCount += hashCounts.get(getKey(triple));
+                nextHashKey += 1;
+            }
+        }
+        emit(triple, totalCount);
+    }
+
+    /**
+     * Emits the counts from the hash table whose keys are sorted before
+     * {@code limit}. All counts are emitted if {@code limit} is null.
+     */
+    private void writeHashCounts(final Triple limit) {
+        if (hashCounts.isEmpty()) {
+            return;
+        }
+        if (hashKeys == null) {
+            comparator = createComparator();
+            hashKeys = new ArrayList<>(hashCounts.size());
+            hashCounts.forEach((key, keyCount) -> hashKeys.add(toTriple(key)));
+            hashKeys.sort(comparator);
+            nextHashKey = 0;
+        }
+        while (nextHashKey < hashKeys.size() && (limit == null
+                || comparator.compare(hashKeys.get(nextHashKey), limit) < 0)) {
+            final Triple triple = hashKeys.get(nextHashKey);
+            emit(triple, hashCounts.get(getKey(triple)));
+            nextHashKey += 1;
+        }
+    }
+
+    private Object getKey(final Triple triple) {
+        switch (getCompare()) {
+        case ALL:
+            return triple;
+        case OBJECT:
+            return triple.getObject();
+        case PREDICATE:
+            return triple.getPredicate();
+        case SUBJECT:
+        default:
+            return triple.getSubject();
+        }
+    }
+
+    private Triple toTriple(final Object key) {
+        switch (getCompare()) {
+        case ALL:
+            return (Triple) key;
+        case OBJECT:
+            return new Triple("", "", (String) key);
+        case PREDICATE:
+            return new Triple("", (String) key, "");
+        case SUBJECT:
+        default:
+            return new Triple((String) key, "", "");
+        }
     }
 
-    private void writeResult() {
+    private void emit(final Triple triple, final long tripleCount) {
         final Compare compareBy = getCompare();
         switch (compareBy) {
         case ALL:
-            getReceiver().process(new Triple(current.toString(), countPredicate , String.valueOf(count)));
+            getReceiver().process(new Triple(triple.toString(), countPredicate , String.valueOf(tripleCount)));
             break;
         case OBJECT:
-            getReceiver().process(new Triple(current.getObject(), countPredicate, String.valueOf(count)));
+            getReceiver().process(new Triple(triple.getObject(), countPredicate, String.valueOf(tripleCount)));
             break;
         case PREDICATE:
-            getReceiver().process(new Triple(current.getPredicate(), countPredicate, String.valueOf(count)));
+            getReceiver().process(new Triple(triple.getPredicate(), countPredicate, String.valueOf(tripleCount)));
             break;
         case SUBJECT:
         default:
-            getReceiver().process(new Triple(current.getSubject(), countPredicate, String.valueOf(count)));
+            getReceiver().process(new Triple(triple.getSubject(), countPredicate, String.valueOf(tripleCount)));
             break;
         }
     }
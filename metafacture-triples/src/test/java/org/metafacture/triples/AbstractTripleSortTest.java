@@ -15,13 +15,18 @@
  */
 package org.metafacture.triples;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
 import java.lang.ref.ReferenceQueue;
 import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
 import org.junit.Before;
 import org.junit.Test;
+import org.metafacture.framework.helpers.DefaultObjectReceiver;
 import org.metafacture.framework.objects.Triple;
 
 /**
@@ -33,16 +38,127 @@ public final class AbstractTripleSortTest {
 
     private static final Triple T1 = new Triple("s", "p", "o");
 
+    private final List<Triple> sortedTriples = new ArrayList<>();
+
     private AbstractTripleSort tripleSort;
 
     @Before
     public void setup() {
         tripleSort = new AbstractTripleSort() {
             @Override
-            protected void sortedTriple(final Triple namedValue) {}
+            protected void sortedTriple(final Triple namedValue) {
+                sortedTriples.add(namedValue);
+            }
         };
     }
 
+    @Test
+    public void shouldMergeTempFiles() {
+        processInBatches();
+
+        assertEquals(Arrays.asList(new Triple("a", "p", "3"),
+                new Triple("b", "p", "1"), new Triple("b", "p", "2"),
+                new Triple("b", "p", "4"), new Triple("c", "p", "5"),
+                new Triple("d", "p", "6")), sortedTriples);
+    }
+
+    @Test
+    public void shouldMergeCompressedTempFiles() {
+        tripleSort.setCompressTempFiles(true);
+
+        processInBatches();
+
+        assertEquals(6, sortedTriples.size());
+        assertEquals(new Triple("a", "p", "3"), sortedTriples.get(0));
+        assertEquals(new Triple("d", "p", "6"), sortedTriples.get(5));
+    }
+
+    @Test
+    public void shouldSpillWhenBufferSizeLimitIsReached() {
+        tripleSort.setBufferSizeLimit(1);
+
+        tripleSort.process(new Triple("c", "p", "1"));
+        tripleSort.process(new Triple("a", "p", "2"));
+        tripleSort.process(new Triple("b", "p", "3"));
+        tripleSort.closeStream();
+
+        assertEquals(Arrays.asList(new Triple("a", "p", "2"),
+                new Triple("b", "p", "3"), new Triple("c", "p", "1")),
+                sortedTriples);
+    }
+
+    @Test
+    public void shouldShareMemoryBudgetBetweenActiveSorts() {
+        tripleSort.process(T1);
+        final long share = SortMemoryBudget.getShare();
+
+        final TripleSort otherSort = new TripleSort();
+        otherSort.setReceiver(new DefaultObjectReceiver<>());
+        assertEquals(share, SortMemoryBudget.getShare());
+
+        otherSort.process(T1);
+        assertTrue(SortMemoryBudget.getShare() < share);
+
+        otherSort.closeStream();
+        assertEquals(share, SortMemoryBudget.getShare());
+    }
+
+    @Test
+    public void shouldReleaseMemoryBudgetOnResetStream() {
+        tripleSort.process(T1);
+        final long share = SortMemoryBudget.getShare();
+
+        final TripleSort otherSort = new TripleSort();
+        otherSort.setReceiver(new DefaultObjectReceiver<>());
+        otherSort.process(T1);
+        assertTrue(SortMemoryBudget.getShare() < share);
+
+        otherSort.resetStream();
+        assertEquals(share, SortMemoryBudget.getShare());
+    }
+
+    @Test
+    public void shouldNotShrinkSharesBelowMinimum() {
+        final long budget = SortMemoryBudget.getBudget();
+        SortMemoryBudget.setBudget(SortMemoryBudget.MIN_SHARE);
+        try {
+            tripleSort.process(T1);
+            final TripleSort otherSort = new TripleSort();
+            otherSort.setReceiver(new DefaultObjectReceiver<>());
+            otherSort.process(T1);
+
+            assertEquals(SortMemoryBudget.MIN_SHARE, SortMemoryBudget.getShare());
+
+            SortMemoryBudget.setBudget(1024);
+            assertEquals(1024, SortMemoryBudget.getShare());
+
+            otherSort.closeStream();
+        } finally {
+            SortMemoryBudget.setBudget(budget);
+        }
+    }
+
+    @Test
+    public void shouldIgnoreInvalidBudgetProperty() {
+        final long defaultBudget = SortMemoryBudget.parseBudget(null);
+
+        assertEquals(1024, SortMemoryBudget.parseBudget("1024"));
+        assertEquals(defaultBudget, SortMemoryBudget.parseBudget("1G"));
+        assertEquals(defaultBudget, SortMemoryBudget.parseBudget("0"));
+    }
+
+    private void processInBatches() {
+        tripleSort.process(new Triple("b", "p", "1"));
+        tripleSort.process(new Triple("d", "p", "6"));
+        tripleSort.memoryLow(0, 0);
+        tripleSort.process(new Triple("b", "p", "2"));
+        tripleSort.process(new Triple("a", "p", "3"));
+        tripleSort.memoryLow(0, 0);
+        tripleSort.process(new Triple("c", "p", "5"));
+        tripleSort.process(new Triple("b", "p", "4"));
+        tripleSort.closeStream();
+    }
+
     @Test
     public void shouldNotFailIfFlushingBeforeFirstRecord() {
         tripleSort.memoryLow(0, 0);
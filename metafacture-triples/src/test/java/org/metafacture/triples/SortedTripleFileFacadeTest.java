@@ -0,0 +1,81 @@
+/*
+ * Copyright 2026 hbz
+ *
+ * Licensed under the Apache License, Version 2.0 the "License";
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.metafacture.triples;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.metafacture.framework.objects.Triple;
+import org.metafacture.framework.objects.Triple.ObjectType;
+
+/**
+ * Tests for classes {@link SortedTripleFileWriter} and
+ * {@link SortedTripleFileFacade}.
+ *
+ */
+public final class SortedTripleFileFacadeTest {
+
+    private static final Triple TRIPLE1 = new Triple("S", "P", "O1");
+    private static final Triple TRIPLE2 = new Triple("Sübject", "",
+            repeat('x', 300), ObjectType.ENTITY);
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    @Test
+    public void shouldReadWrittenTriples() throws IOException {
+        shouldReadWrittenTriples(false);
+    }
+
+    @Test
+    public void shouldReadWrittenCompressedTriples() throws IOException {
+        shouldReadWrittenTriples(true);
+    }
+
+    private void shouldReadWrittenTriples(final boolean compressed)
+            throws IOException {
+        final File file = tempFolder.newFile();
+        try (SortedTripleFileWriter writer = new SortedTripleFileWriter(file, compressed)) {
+            writer.write(TRIPLE1);
+            writer.write(TRIPLE2);
+        }
+
+        final SortedTripleFileFacade facade = new SortedTripleFileFacade(file, compressed);
+        assertEquals(TRIPLE1, facade.pop());
+        assertEquals(TRIPLE2, facade.peek());
+        assertEquals(TRIPLE2, facade.pop());
+        assertTrue(facade.isEmpty());
+        facade.close();
+
+        assertFalse(file.exists());
+    }
+
+    private static String repeat(final char c, final int count) {
+        final StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < count; ++i) {
+            builder.append(c);
+        }
+        return builder.toString();
+    }
+
+}
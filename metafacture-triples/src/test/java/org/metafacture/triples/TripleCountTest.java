@@ -0,0 +1,113 @@
+/*
+ * Copyright 2026 hbz
+ *
+ * Licensed under the Apache License, Version 2.0 the "License";
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.metafacture.triples;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.metafacture.framework.ObjectReceiver;
+import org.metafacture.framework.objects.Triple;
+import org.metafacture.triples.AbstractTripleSort.Compare;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.MockitoAnnotations;
+
+/**
+ * Tests for class {@link TripleCount}.
+ *
+ */
+public final class TripleCountTest {
+
+    private static final String COUNT = TripleCount.DEFAULT_COUNTP_REDICATE;
+
+    @Mock
+    private ObjectReceiver<Triple> receiver;
+
+    private TripleCount tripleCount;
+
+    @Before
+    public void initMocks() {
+        MockitoAnnotations.initMocks(this);
+        tripleCount = new TripleCount();
+        tripleCount.setCountBy(Compare.PREDICATE);
+        tripleCount.setReceiver(receiver);
+    }
+
+    @Test
+    public void shouldCountBySorting() {
+        processTriples();
+
+        verifyCounts();
+    }
+
+    @Test
+    public void shouldCountInHashTable() {
+        tripleCount.setHashAggregationLimit(10);
+
+        processTriples();
+
+        verifyCounts();
+    }
+
+    @Test
+    public void shouldMergeHashTableWithSortedTriples() {
+        tripleCount.setHashAggregationLimit(2);
+
+        processTriples();
+
+        verifyCounts();
+    }
+
+    @Test
+    public void shouldDiscardHashTableOnResetStream() {
+        tripleCount.setHashAggregationLimit(10);
+
+        tripleCount.process(new Triple("s0", "a", "o"));
+        tripleCount.process(new Triple("s0", "e", "o"));
+        tripleCount.resetStream();
+        processTriples();
+
+        final InOrder ordered = Mockito.inOrder(receiver);
+        ordered.verify(receiver).resetStream();
+        verifyCounts(ordered);
+    }
+
+    private void processTriples() {
+        tripleCount.process(new Triple("s1", "c", "o"));
+        tripleCount.process(new Triple("s1", "a", "o"));
+        tripleCount.process(new Triple("s2", "d", "o"));
+        tripleCount.process(new Triple("s2", "c", "o"));
+        tripleCount.process(new Triple("s3", "b", "o"));
+        tripleCount.process(new Triple("s3", "a", "o"));
+        tripleCount.process(new Triple("s3", "d", "o"));
+        tripleCount.process(new Triple("s3", "c", "o"));
+        tripleCount.closeStream();
+    }
+
+    private void verifyCounts() {
+        verifyCounts(Mockito.inOrder(receiver));
+    }
+
+    private void verifyCounts(final InOrder ordered) {
+        ordered.verify(receiver).process(new Triple("a", COUNT, "2"));
+        ordered.verify(receiver).process(new Triple("b", COUNT, "1"));
+        ordered.verify(receiver).process(new Triple("c", COUNT, "3"));
+        ordered.verify(receiver).process(new Triple("d", COUNT, "2"));
+        ordered.verify(receiver).closeStream();
+        ordered.verifyNoMoreInteractions();
+    }
+
+}
@@ -15,8 +15,6 @@
  */
 package org.metafacture.xml;
 
-import java.util.regex.Pattern;
-
 import org.metafacture.framework.FluxCommand;
 import org.metafacture.framework.MetafactureException;
 import org.metafacture.framework.StreamReceiver;
@@ -42,12 +40,10 @@ public final class GenericXmlHandler extends DefaultXmlPipe<StreamReceiver> {
 
     public static final String DEFAULT_RECORD_TAG = "record";
 
-    private static final Pattern TABS = Pattern.compile("\t+");
-
     private String recordTagName = DEFAULT_RECORD_TAG;
 
     private boolean inRecord;
-    private StringBuilder valueBuffer = new StringBuilder();
+    private final StringBuilder valueBuffer = new StringBuilder();
 
     public GenericXmlHandler() {
         super();
@@ -128,8 +124,15 @@ public void endElement(final String uri, final String localName,
     @Override
     public void characters(final char[] chars, final int start, final int length) {
         if (inRecord) {
-            valueBuffer.append(TABS.matcher(new String(chars, start, length))
-                    .replaceAll(""));
+            final int end = start + length;
+            int runStart = start;
+            for (int i = start; i < end; ++i) {
+                if (chars[i] == '\t') {
+                    valueBuffer.append(chars, runStart, i - runStart);
+                    runStart = i + 1;
+                }
+            }
+            valueBuffer.append(chars, runStart, end - runStart);
         }
     }
 
@@ -138,7 +141,7 @@ private void writeValue() {
         if (!value.trim().isEmpty()) {
             getReceiver().literal("value", value.replace('\n', ' '));
         }
-        valueBuffer = new StringBuilder();
+        valueBuffer.setLength(0);
     }
 
     private void writeAttributes(final Attributes attributes) {
@@ -0,0 +1,392 @@
+/*
+ * Copyright 2026 hbz
+ *
+ * Licensed under the Apache License, Version 2.0 the "License";
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.metafacture.xml;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+
+import org.metafacture.commons.ResourceUtil;
+import org.metafacture.commons.reflection.ConfigurableClass;
+import org.metafacture.commons.reflection.ReflectionUtil;
+import org.metafacture.flowcontrol.StreamBuffer;
+import org.metafacture.framework.FluxCommand;
+import org.metafacture.framework.MetafactureException;
+import org.metafacture.framework.StreamReceiver;
+import org.metafacture.framework.XmlPipe;
+import org.metafacture.framework.annotations.Description;
+import org.metafacture.framework.annotations.In;
+import org.metafacture.framework.annotations.Out;
+import org.metafacture.framework.helpers.DefaultObjectPipe;
+import org.metafacture.framework.helpers.DefaultStreamReceiver;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+import org.xml.sax.helpers.XMLReaderFactory;
+
+/**
+ * Reads a large XML document which contains many records and parses the
+ * records on several threads. The document is cut into records at the
+ * {@link #setRecordElement(String) record element} by a byte-level scanner
+ * (see {@link XmlRecordScanner}), which is much faster than parsing. Each
+ * record becomes a standalone XML document which carries the namespace
+ * declarations of its ancestors. The records are parsed in batches by a
+ * pool of threads. Each thread has its own SAX parser and its own instance
+ * of the {@link #setHandler(String) handler}, which turns the XML events
+ * into stream events.
+ * <p>
+ * All stream events are passed downstream from the thread which feeds this
+ * module. If {@link #setOrdered(boolean) ordered} is true (the default), the
+ * records are passed on in document order. Otherwise, batches are passed on
+ * as soon as they have been parsed.
+ * <p>
+ * The input must be encoded in UTF-8 or another ASCII-compatible encoding.
+ * Since every record is parsed as a document of its own, handlers only see
+ * the XML events of the record element and its content.
+ */
+@Description("Splits an XML document into records at the given element and "
+        + "parses the records on several threads. The XML events are converted "
+        + "by a handler such as handle-marcxml (default: handle-generic-xml).")
+@In(InputStream.class)
+@Out(StreamReceiver.class)
+@FluxCommand("decode-xml-parallel")
+public final class ParallelXmlDecoder
+        extends DefaultObjectPipe<InputStream, StreamReceiver> {
+
+    public static final String DEFAULT_RECORD_ELEMENT = "record";
+    public static final int DEFAULT_THREADS =
+            Runtime.getRuntime().availableProcessors();
+
+    private static final String SAX_PROPERTY_LEXICAL_HANDLER = "http://xml.org/sax/properties/lexical-handler";
+    private static final String FLUX_COMMANDS = "flux-commands.properties";
+
+    private static final int BATCH_SIZE = 256 * 1024;
+    private static final int PENDING_BATCHES_PER_THREAD = 2;
+    private static final StreamReceiver NO_RECEIVER = new DefaultStreamReceiver();
+
+    private String recordElement = DEFAULT_RECORD_ELEMENT;
+    private Supplier<? extends XmlPipe<StreamReceiver>> handlerFactory =
+            () -> configureHandler(new GenericXmlHandler());
+    private int threads = DEFAULT_THREADS;
+    private boolean ordered = true;
+
+    /**
+     * Sets the local name of the elements which are records. The name may
+     * have any namespace prefix.
+     * <p>
+     * The default value is {@value #DEFAULT_RECORD_ELEMENT}.
+     * <p>
+     * The new value becomes effective with the next document.
+     *
+     * @param recordElement local name of the record elements
+     */
+    public void setRecordElement(final String recordElement) {
+        this.recordElement = recordElement;
+    }
+
+    public String getRecordElement() {
+        return recordElement;
+    }
+
+    /**
+     * Sets the module which converts the XML events of a record into stream
+     * events. The module is given as the name of a Flux command (for
+     * instance, {@code handle-marcxml}) or as a class name. It must
+     * implement {@link XmlPipe} and have a public default constructor. One
+     * instance is created per thread.
+     * <p>
+     * The default handler is {@link GenericXmlHandler}. If this handler is
+     * used, its record tag name is set to the
+     * {@link #setRecordElement(String) record element}.
+     * <p>
+     * The new value becomes effective with the next document.
+     *
+     * @param handler name of a Flux command or a class
+     */
+    public void setHandler(final String handler) {
+        final String className = findFluxCommand(handler);
+        @SuppressWarnings({"unchecked", "rawtypes"})  // Only the receiver type is not checked
+        final ConfigurableClass<? extends XmlPipe<StreamReceiver>> handlerClass =
+                (ConfigurableClass) ReflectionUtil.loadClass(
+                        className == null ? handler : className, XmlPipe.class);
+        handlerFactory = () -> configureHandler(handlerClass.newInstance());
+    }
+
+    private XmlPipe<StreamReceiver> configureHandler(final XmlPipe<StreamReceiver> handler) {
+        if (handler instanceof GenericXmlHandler) {
+            // The handler must recognise the records which are split off:
+            ((GenericXmlHandler) handler).setRecordTagName(recordElement);
+        }
+        return handler;
+    }
+
+    /**
+     * Sets a factory for the modules which convert the XML events of a
+     * record into stream events. The factory is invoked once per thread and
+     * must return a new instance on each call.
+     * <p>
+     * The new value becomes effective with the next document.
+     *
+     * @param handlerFactory creates the handlers
+     */
+    public void setHandlerFactory(
+            final Supplier<? extends XmlPipe<StreamReceiver>> handlerFactory) {
+        this.handlerFactory = handlerFactory;
+    }
+
+    /**
+     * Sets the number of threads which parse records.
+     * <p>
+     * The default value is the number of available processors.
+     * <p>
+     * The new value becomes effective with the next document.
+     *
+     * @param threads number of threads
+     */
+    public void setThreads(final int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("'threads' must be at least 1");
+        }
+        this.threads = threads;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    /**
+     * Controls whether records are passed on in document order or in the
+     * order in which their batches have been parsed.
+     * <p>
+     * The default value is true.
+     * <p>
+     * The new value becomes effective with the next document.
+     *
+     * @param ordered true if the document order should be kept
+     */
+    public void setOrdered(final boolean ordered) {
+        this.ordered = ordered;
+    }
+
+    public boolean getOrdered() {
+        return ordered;
+    }
+
+    @Override
+    public void process(final InputStream inputStream) {
+        final BlockingQueue<RecordParser> idleParsers = new ArrayBlockingQueue<>(threads);
+        for (int i = 0; i < threads; ++i) {
+            idleParsers.add(new RecordParser(handlerFactory.get()));
+        }
+        final ExecutorService executor = Executors.newFixedThreadPool(threads, runnable -> {
+            final Thread thread = new Thread(runnable, "xml-record-parser");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            final XmlRecordScanner scanner = new XmlRecordScanner(inputStream, recordElement);
+            if (ordered) {
+                processOrdered(scanner, executor, idleParsers);
+            } else {
+                processUnordered(scanner, executor, idleParsers);
+            }
+            for (final RecordParser parser : idleParsers) {
+                parser.close();
+            }
+        } catch (final IOException e) {
+            throw new MetafactureException(e);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private void processOrdered(final XmlRecordScanner scanner,
+            final ExecutorService executor, final BlockingQueue<RecordParser> idleParsers)
+            throws IOException {
+        final Deque<Future<StreamBuffer>> pending = new ArrayDeque<>();
+        List<byte[]> batch;
+        while ((batch = nextBatch(scanner)) != null) {
+            final List<byte[]> records = batch;
+            pending.add(executor.submit(() -> parse(records, idleParsers)));
+            while (!pending.isEmpty() && (pending.peek().isDone()
+                    || pending.size() > maxPending())) {
+                emit(pending.poll());
+            }
+        }
+        while (!pending.isEmpty()) {
+            emit(pending.poll());
+        }
+    }
+
+    private void processUnordered(final XmlRecordScanner scanner,
+            final ExecutorService executor, final BlockingQueue<RecordParser> idleParsers)
+            throws IOException {
+        final CompletionService<StreamBuffer> parsedBatches =
+                new ExecutorCompletionService<>(executor);
+        int pending = 0;
+        List<byte[]> batch;
+        while ((batch = nextBatch(scanner)) != null) {
+            final List<byte[]> records = batch;
+            parsedBatches.submit(() -> parse(records, idleParsers));
+            pending += 1;
+            Future<StreamBuffer> parsed;
+            while ((parsed = parsedBatches.poll()) != null) {
+                emit(parsed);
+                pending -= 1;
+            }
+            if (pending > maxPending()) {
+                emit(take(parsedBatches));
+                pending -= 1;
+            }
+        }
+        for (; pending > 0; --pending) {
+            emit(take(parsedBatches));
+        }
+    }
+
+    private int maxPending() {
+        return threads * PENDING_BATCHES_PER_THREAD;
+    }
+
+    private static List<byte[]> nextBatch(final XmlRecordScanner scanner)
+            throws IOException {
+        List<byte[]> batch = null;
+        int size = 0;
+        byte[] record;
+        while (size < BATCH_SIZE && (record = scanner.next()) != null) {
+            if (batch == null) {
+                batch = new ArrayList<>();
+            }
+            batch.add(record);
+            size += record.length;
+        }
+        return batch;
+    }
+
+    private static StreamBuffer parse(final List<byte[]> records,
+            final BlockingQueue<RecordParser> idleParsers) throws InterruptedException {
+        final RecordParser parser = idleParsers.take();
+        try {
+            final StreamBuffer output = new StreamBuffer();
+            parser.parse(records, output);
+            return output;
+        } finally {
+            idleParsers.put(parser);
+        }
+    }
+
+    private void emit(final Future<StreamBuffer> parsedBatch) {
+        final StreamBuffer output;
+        try {
+            output = parsedBatch.get();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MetafactureException("Interrupted while parsing records", e);
+        } catch (final ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new MetafactureException(e.getCause());
+        }
+        output.setReceiver(getReceiver());
+        output.replay();
+    }
+
+    private static <T> Future<T> take(final CompletionService<T> service) {
+        try {
+            return service.take();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MetafactureException("Interrupted while parsing records", e);
+        }
+    }
+
+    private static String findFluxCommand(final String name) {
+        try {
+            final Enumeration<URL> resources = ReflectionUtil.getContextClassLoader()
+                    .getResources(FLUX_COMMANDS);
+            while (resources.hasMoreElements()) {
+                final String className = ResourceUtil.loadProperties(
+                        resources.nextElement()).getProperty(name);
+                if (className != null) {
+                    return className;
+                }
+            }
+            return null;
+        } catch (final IOException e) {
+            throw new MetafactureException("Cannot load " + FLUX_COMMANDS, e);
+        }
+    }
+
+    /**
+     * A SAX parser connected to a handler. Each parser is used by one
+     * thread at a time.
+     */
+    private static final class RecordParser {
+
+        private final XMLReader saxReader;
+        private final XmlPipe<StreamReceiver> handler;
+
+        RecordParser(final XmlPipe<StreamReceiver> handler) {
+            this.handler = handler;
+            handler.setReceiver(NO_RECEIVER);
+            try {
+                saxReader = XMLReaderFactory.createXMLReader();
+                saxReader.setContentHandler(handler);
+                saxReader.setDTDHandler(handler);
+                saxReader.setEntityResolver(handler);
+                saxReader.setErrorHandler(handler);
+                saxReader.setProperty(SAX_PROPERTY_LEXICAL_HANDLER, handler);
+            } catch (final SAXException e) {
+                throw new MetafactureException(e);
+            }
+        }
+
+        void parse(final List<byte[]> records, final StreamReceiver output) {
+            handler.setReceiver(output);
+            try {
+                for (final byte[] record : records) {
+                    saxReader.parse(new InputSource(new ByteArrayInputStream(record)));
+                }
+            } catch (final IOException | SAXException e) {
+                throw new MetafactureException(e);
+            } finally {
+                handler.setReceiver(NO_RECEIVER);
+            }
+        }
+
+        void close() {
+            handler.closeStream();
+        }
+
+    }
+
+}
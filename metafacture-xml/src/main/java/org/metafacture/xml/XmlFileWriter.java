@@ -0,0 +1,598 @@
+/*
+ * Copyright 2026 hbz
+ *
+ * Licensed under the Apache License, Version 2.0 the "License";
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.metafacture.xml;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Properties;
+
+import org.metafacture.commons.ResourceUtil;
+import org.metafacture.flowcontrol.StreamBuffer;
+import org.metafacture.framework.FluxCommand;
+import org.metafacture.framework.MetafactureException;
+import org.metafacture.framework.StreamReceiver;
+import org.metafacture.framework.annotations.Description;
+import org.metafacture.framework.annotations.In;
+import org.metafacture.framework.helpers.DefaultObjectReceiver;
+import org.metafacture.io.FileCompression;
+import org.metafacture.io.NumberedFiles;
+import org.metafacture.io.Utf8Encoding;
+
+/**
+ * Encodes records as XML and writes them directly into a file. This
+ * produces the same output as {@code stream-to-xml | write} but writes
+ * escaped UTF-8 bytes into a buffered (and optionally compressed) output
+ * stream while the events arrive. No element tree and no intermediate
+ * strings are created for the records. The start and end tags of each
+ * element name are encoded only once.
+ * <p>
+ * Streaming requires that the events of an element arrive in the order in
+ * which they are written: attributes ({@value SimpleXmlEncoder#ATTRIBUTE_MARKER}
+ * literals) and text (literals with an empty name) first, then the child
+ * elements. If a record does not follow this order, it is encoded with
+ * {@link SimpleXmlEncoder} instead, so the output is the same in any case.
+ * <p>
+ * A new file is started on <i>reset-stream</i>; the file name may contain
+ * the variable {@code ${i}} which is replaced with the number of the file
+ * as in {@code write-files}. As with {@code stream-to-xml | write}, a file
+ * is written for each part of the stream, even if it contains no records.
+ * The file is always encoded in UTF-8.
+ *
+ * @see SimpleXmlEncoder
+ */
+@Description("Encodes records as XML and writes them into a file. "
+        + "The file name is given in brackets.")
+@In(StreamReceiver.class)
+@FluxCommand("write-xml")
+public final class XmlFileWriter implements StreamReceiver {
+
+    public static final int DEFAULT_BUFFER_SIZE = 1024 * 1024;
+
+    // Separators and footer written by the file writer of stream-to-xml | write:
+    private static final byte OBJECT_SEPARATOR = '\n';
+    private static final byte FILE_FOOTER = '\n';
+
+    private static final String XML_HEADER = "<?xml version=\"%s\" encoding=\"%s\"?>\n";
+    private static final String XMLNS_MARKER = " xmlns";
+
+    private static final byte[][] ESCAPES = new byte[128][];
+    private static final byte[] BEGIN_ATTRIBUTE = bytes("=\"");
+    private static final byte[] END_EMPTY_ELEMENT = bytes(" />");
+
+    private static final int INITIAL_BUFFER_SIZE = 64 * 1024;
+    private static final int INITIAL_DEPTH = 16;
+    private static final int MAX_CACHED_TAGS = 4096;
+
+    // Element states:
+    private static final byte OPEN = 0;
+    private static final byte HAS_TEXT = 1;
+    private static final byte HAS_CHILDREN = 2;
+
+    static {
+        ESCAPES['&'] = bytes("&amp;");
+        ESCAPES['<'] = bytes("&lt;");
+        ESCAPES['>'] = bytes("&gt;");
+        ESCAPES['\''] = bytes("&apos;");
+        ESCAPES['"'] = bytes("&quot;");
+    }
+
+    private final String path;
+
+    private FileCompression compression = FileCompression.AUTO;
+    private int bufferSize = DEFAULT_BUFFER_SIZE;
+
+    private String rootTag = SimpleXmlEncoder.DEFAULT_ROOT_TAG;
+    private String recordTag = SimpleXmlEncoder.DEFAULT_RECORD_TAG;
+    private Map<String, String> namespaces = new HashMap<String, String>();
+    private boolean writeRootTag = true;
+    private boolean writeXmlHeader = true;
+    private String xmlHeaderEncoding = "UTF-8";
+    private String xmlHeaderVersion = "1.0";
+    private boolean separateRoots;
+
+    private OutputStream out;
+    private int fileNumber;
+    private int objectsInFile;
+    private boolean atStreamStart = true;
+
+    private byte[] buffer = new byte[INITIAL_BUFFER_SIZE];
+    private int length;
+    private int recordStart;
+
+    private final Map<String, Tag> tags = new HashMap<>();
+    private Tag[] elements = new Tag[INITIAL_DEPTH];
+    private byte[] states = new byte[INITIAL_DEPTH];
+    private int depth;
+
+    private final StreamBuffer recordEvents = new StreamBuffer();
+    private boolean reordered;
+    private SimpleXmlEncoder treeEncoder;
+    private String treeOutput;
+
+    public XmlFileWriter(final String path) {
+        this.path = path;
+    }
+
+    public FileCompression getCompression() {
+        return compression;
+    }
+
+    /**
+     * Sets the compression of the output file. The default is
+     * {@link FileCompression#AUTO} which selects the compression based on the
+     * file name extension.
+     * <p>
+     * The new value becomes effective when the next file is opened.
+     *
+     * @param compression the compression to use
+     */
+    public void setCompression(final FileCompression compression) {
+        this.compression = compression;
+    }
+
+    public void setCompression(final String compression) {
+        setCompression(FileCompression.valueOf(compression.toUpperCase()));
+    }
+
+    /**
+     * Sets the size of the buffer between the encoder and the file or
+     * compressor.
+     * <p>
+     * The default value is {@value #DEFAULT_BUFFER_SIZE} bytes.
+     * <p>
+     * The new value becomes effective when the next file is opened.
+     *
+     * @param bufferSize buffer size in bytes
+     */
+    public void setBufferSize(final int bufferSize) {
+        if (bufferSize < 1) {
+            throw new IllegalArgumentException("'bufferSize' must be at least 1");
+        }
+        this.bufferSize = bufferSize;
+    }
+
+    public int getBufferSize() {
+        return bufferSize;
+    }
+
+    public void setRootTag(final String rootTag) {
+        this.rootTag = rootTag;
+    }
+
+    public void setRecordTag(final String tag) {
+        recordTag = tag;
+        treeEncoder = null;
+    }
+
+    public void setNamespaceFile(final String file) {
+        try {
+            addNamespaces(ResourceUtil.loadProperties(file));
+        } catch (IOException e) {
+            throw new MetafactureException("Failed to load namespaces list", e);
+        }
+    }
+
+    public void setNamespaceFile(final URL url) {
+        try {
+            addNamespaces(ResourceUtil.loadProperties(url));
+        } catch (IOException e) {
+            throw new MetafactureException("Failed to load namespaces list", e);
+        }
+    }
+
+    private void addNamespaces(final Properties properties) {
+        for (final Entry<Object, Object> entry : properties.entrySet()) {
+            namespaces.put(entry.getKey().toString(), entry.getValue().toString());
+        }
+        treeEncoder = null;
+    }
+
+    public void setWriteXmlHeader(final boolean writeXmlHeader) {
+        this.writeXmlHeader = writeXmlHeader;
+    }
+
+    public void setXmlHeaderEncoding(final String xmlHeaderEncoding) {
+        this.xmlHeaderEncoding = xmlHeaderEncoding;
+    }
+
+    public void setXmlHeaderVersion(final String xmlHeaderVersion) {
+        this.xmlHeaderVersion = xmlHeaderVersion;
+    }
+
+    public void setWriteRootTag(final boolean writeRootTag) {
+        this.writeRootTag = writeRootTag;
+        treeEncoder = null;
+    }
+
+    public void setSeparateRoots(final boolean separateRoots) {
+        this.separateRoots = separateRoots;
+    }
+
+    public void setNamespaces(final Map<String, String> namespaces) {
+        this.namespaces = namespaces;
+        treeEncoder = null;
+    }
+
+    @Override
+    public void startRecord(final String identifier) {
+        if (out == null) {
+            openFile();
+        }
+        if (separateRoots) {
+            beginObject();
+            writeHeader();
+        } else {
+            if (atStreamStart) {
+                beginObject();
+                writeHeader();
+            }
+            beginObject();
+        }
+        atStreamStart = false;
+
+        recordStart = length;
+        recordEvents.clear();
+        recordEvents.startRecord(identifier);
+        reordered = false;
+        depth = 0;
+        startElement(recordTag, 1);
+        if (!writeRootTag) {
+            for (final Entry<String, String> namespace : namespaces.entrySet()) {
+                final String key = namespace.getKey();
+                writeAttribute(XMLNS_MARKER + (key.isEmpty() ? "" : ":") + key,
+                        namespace.getValue());
+            }
+        }
+    }
+
+    @Override
+    public void endRecord() {
+        recordEvents.endRecord();
+        if (reordered) {
+            length = recordStart;
+            writeString(encodeAsTree(), false);
+        } else {
+            endElement(1);
+        }
+        if (separateRoots) {
+            writeFooter();
+        }
+        flushBuffer();
+    }
+
+    @Override
+    public void startEntity(final String name) {
+        recordEvents.startEntity(name);
+        if (!reordered) {
+            startChild(name);
+        }
+    }
+
+    @Override
+    public void endEntity() {
+        recordEvents.endEntity();
+        if (!reordered) {
+            endElement(depth);
+        }
+    }
+
+    @Override
+    public void literal(final String name, final String value) {
+        recordEvents.literal(name, value);
+        if (reordered) {
+            return;
+        }
+        if (name.isEmpty()) {
+            writeText(value);
+        } else if (name.startsWith(SimpleXmlEncoder.ATTRIBUTE_MARKER)) {
+            if (states[depth - 1] == OPEN) {
+                writeAttribute(name.substring(1), value);
+            } else if (elements[depth - 1] != null) {
+                reordered = true;
+            }
+        } else {
+            startChild(name);
+            writeText(value);
+            endElement(depth);
+        }
+    }
+
+    @Override
+    public void resetStream() {
+        if (out == null) {
+            openFile();
+        }
+        // stream-to-xml emits an object on reset-stream even if it is empty:
+        beginObject();
+        if (!atStreamStart) {
+            writeFooter();
+            atStreamStart = true;
+        }
+        closeFile();
+        fileNumber += 1;
+    }
+
+    @Override
+    public void closeStream() {
+        if (out == null) {
+            openFile();
+        }
+        if (!separateRoots) {
+            beginObject();
+            if (!atStreamStart) {
+                writeFooter();
+            }
+        }
+        closeFile();
+    }
+
+    private void startChild(final String name) {
+        final int parent = depth - 1;
+        if (states[parent] == OPEN && elements[parent] != null) {
+            writeByte('>');
+        }
+        states[parent] |= HAS_CHILDREN;
+        startElement(name, depth + 1);
+    }
+
+    private void startElement(final String name, final int indent) {
+        if (depth == elements.length) {
+            elements = Arrays.copyOf(elements, depth * 2);
+            states = Arrays.copyOf(states, depth * 2);
+        }
+        final Tag tag = name.isEmpty() ? null : getTag(name);
+        elements[depth] = tag;
+        states[depth] = OPEN;
+        depth += 1;
+        if (tag != null) {
+            writeIndent(indent);
+            writeBytes(tag.start);
+        }
+    }
+
+    private void endElement(final int indent) {
+        depth -= 1;
+        final Tag tag = elements[depth];
+        final byte state = states[depth];
+        if (tag != null && state == OPEN) {
+            writeBytes(END_EMPTY_ELEMENT);
+            return;
+        }
+        if (state == HAS_CHILDREN) {
+            writeIndent(indent);
+        }
+        if (tag != null) {
+            writeBytes(tag.end);
+        }
+    }
+
+    private void writeText(final String text) {
+        final int element = depth - 1;
+        final byte state = states[element];
+        if (state == OPEN) {
+            if (!text.isEmpty()) {
+                if (elements[element] != null) {
+                    writeByte('>');
+                }
+                writeString(text, true);
+                states[element] = HAS_TEXT;
+            }
+        } else if (state != HAS_CHILDREN || !text.isEmpty()) {
+            // Text replaces earlier text and precedes all children:
+            reordered = true;
+        }
+    }
+
+    private void writeAttribute(final String name, final String value) {
+        if (elements[depth - 1] == null) {
+            // Attributes of elements without name are not written
+            return;
+        }
+        writeByte(' ');
+        writeString(name, false);
+        writeBytes(BEGIN_ATTRIBUTE);
+        writeString(value, true);
+        writeByte('"');
+    }
+
+    private Tag getTag(final String name) {
+        Tag tag = tags.get(name);
+        if (tag == null) {
+            if (tags.size() >= MAX_CACHED_TAGS) {
+                tags.clear();
+            }
+            tag = new Tag(name);
+            tags.put(name, tag);
+        }
+        return tag;
+    }
+
+    private String encodeAsTree() {
+        if (treeEncoder == null) {
+            treeEncoder = new SimpleXmlEncoder();
+            treeEncoder.setRecordTag(recordTag);
+            treeEncoder.setNamespaces(namespaces);
+            treeEncoder.setWriteRootTag(writeRootTag);
+            treeEncoder.setWriteXmlHeader(false);
+            treeEncoder.setReceiver(new DefaultObjectReceiver<String>() {
+                @Override
+                public void process(final String obj) {
+                    treeOutput = obj;
+                }
+            });
+        }
+        recordEvents.setReceiver(treeEncoder);
+        recordEvents.replay();
+        return treeOutput;
+    }
+
+    /**
+     * Starts a new object of the output of {@code stream-to-xml}.
+     */
+    private void beginObject() {
+        if (objectsInFile > 0) {
+            writeByte(OBJECT_SEPARATOR);
+        }
+        objectsInFile += 1;
+    }
+
+    private void writeHeader() {
+        if (writeXmlHeader) {
+            writeString(String.format(XML_HEADER, xmlHeaderVersion, xmlHeaderEncoding), false);
+        }
+        if (writeRootTag) {
+            writeByte('<');
+            writeString(rootTag, false);
+            for (final Entry<String, String> entry : namespaces.entrySet()) {
+                writeString(XMLNS_MARKER, false);
+                if (!entry.getKey().isEmpty()) {
+                    writeByte(':');
+                    writeString(entry.getKey(), false);
+                }
+                writeBytes(BEGIN_ATTRIBUTE);
+                writeString(entry.getValue(), true);
+                writeByte('"');
+            }
+            writeByte('>');
+        }
+    }
+
+    private void writeFooter() {
+        if (writeRootTag) {
+            writeString("\n</" + rootTag + ">", false);
+        }
+    }
+
+    private void writeIndent(final int indent) {
+        ensureCapacity(indent + 1);
+        buffer[length++] = '\n';
+        for (int i = 0; i < indent; ++i) {
+            buffer[length++] = '\t';
+        }
+    }
+
+    private void writeByte(final int b) {
+        ensureCapacity(1);
+        buffer[length++] = (byte) b;
+    }
+
+    private void writeBytes(final byte[] bytes) {
+        ensureCapacity(bytes.length);
+        System.arraycopy(bytes, 0, buffer, length, bytes.length);
+        length += bytes.length;
+    }
+
+    /**
+     * Writes a string in UTF-8. If {@code escape} is true, the characters
+     * which are reserved in XML are replaced by entity references.
+     */
+    private void writeString(final String string, final boolean escape) {
+        final int stringLength = string.length();
+        // At most six bytes per char (for "&quot;"):
+        ensureCapacity(stringLength * 6);
+        if (!escape) {
+            length = Utf8Encoding.encode(string, 0, stringLength, buffer, length);
+            return;
+        }
+        int pos = length;
+        int unescaped = 0;
+        for (int i = 0; i < stringLength; ++i) {
+            final char c = string.charAt(i);
+            final byte[] escaped = c < 0x80 ? ESCAPES[c] : null;
+            if (escaped != null) {
+                pos = Utf8Encoding.encode(string, unescaped, i, buffer, pos);
+                System.arraycopy(escaped, 0, buffer, pos, escaped.length);
+                pos += escaped.length;
+                unescaped = i + 1;
+            }
+        }
+        length = Utf8Encoding.encode(string, unescaped, stringLength, buffer, pos);
+    }
+
+    private void ensureCapacity(final int additionalBytes) {
+        final long required = (long) length + additionalBytes;
+        if (required > buffer.length) {
+            if (required > Integer.MAX_VALUE - 8) {
+                throw new MetafactureException("record is too large");
+            }
+            buffer = Arrays.copyOf(buffer, (int) Math.max(required,
+                    Math.min(Integer.MAX_VALUE - 8, 2L * buffer.length)));
+        }
+    }
+
+    private void flushBuffer() {
+        try {
+            out.write(buffer, 0, length);
+        } catch (final IOException e) {
+            throw new MetafactureException(e);
+        }
+        length = 0;
+        if (buffer.length > INITIAL_BUFFER_SIZE * 16) {
+            // Do not keep the memory of an exceptionally large record:
+            buffer = new byte[INITIAL_BUFFER_SIZE];
+        }
+    }
+
+    private void openFile() {
+        out = NumberedFiles.openOutputStream(NumberedFiles.getFileName(path, fileNumber),
+                compression, bufferSize);
+        objectsInFile = 0;
+    }
+
+    private void closeFile() {
+        if (out == null) {
+            length = 0;
+            return;
+        }
+        try {
+            if (objectsInFile > 0) {
+                writeByte(FILE_FOOTER);
+            }
+            flushBuffer();
+            out.close();
+        } catch (final IOException e) {
+            throw new MetafactureException(e);
+        } finally {
+            out = null;
+        }
+    }
+
+    private static byte[] bytes(final String string) {
+        return string.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * The encoded start and end tag of an element name.
+     */
+    private static final class Tag {
+
+        private final byte[] start;
+        private final byte[] end;
+
+        Tag(final String name) {
+            start = bytes("<" + name);
+            end = bytes("</" + name + ">");
+        }
+
+    }
+
+}
@@ -0,0 +1,450 @@
+/*
+ * Copyright 2026 hbz
+ *
+ * Licensed under the Apache License, Version 2.0 the "License";
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.metafacture.xml;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+
+import org.metafacture.framework.MetafactureException;
+
+/**
+ * Cuts an XML document into records without parsing it. The scanner works
+ * on bytes and only looks at markup, so it supports UTF-8 and other
+ * ASCII-compatible encodings.
+ * <p>
+ * Each record is returned as a standalone XML document. It starts with the
+ * XML declaration of the input document (if there is one) followed by the
+ * record element. Namespace declarations of the ancestors of the record
+ * element which are not redeclared on the record element are copied into
+ * its start tag. Comments, CDATA sections, processing instructions and
+ * quoted attribute values are skipped, so they may contain anything that
+ * looks like a record tag. Entities declared in a DOCTYPE are not available
+ * in the records.
+ * <p>
+ * Record elements are recognised by their local name and are only searched
+ * for outside of records. Elements of the same name inside a record are
+ * part of the record.
+ */
+final class XmlRecordScanner {
+
+    private static final int INITIAL_BUFFER_SIZE = 64 * 1024;
+    private static final int NO_MARK = -1;
+
+    private static final byte[] COMMENT_END = bytes("-->");
+    private static final byte[] CDATA_END = bytes("]]>");
+    private static final byte[] PI_END = bytes("?>");
+    private static final byte[] XML_DECLARATION = bytes("<?xml");
+    private static final byte[] XMLNS = bytes("xmlns");
+
+    private final InputStream in;
+    private final byte[] recordName;
+
+    private byte[] buffer = new byte[INITIAL_BUFFER_SIZE];
+    private int pos;
+    private int limit;
+    // Start of the data which must be kept when the buffer is refilled.
+    // While a tag or record is read, all positions are stored relative
+    // to the mark.
+    private int mark = NO_MARK;
+    private boolean endOfInput;
+
+    private byte[] declaration = new byte[0];
+    private boolean inProlog = true;
+    private final Deque<List<Namespace>> ancestors = new ArrayDeque<>();
+    private final List<Namespace> tagNamespaces = new ArrayList<>();
+    private byte[] inheritedNamespaces;
+
+    XmlRecordScanner(final InputStream in, final String recordName) {
+        this.in = in;
+        this.recordName = bytes(recordName);
+    }
+
+    /**
+     * Returns the next record.
+     *
+     * @return the record as a UTF-8 encoded XML document or null if there
+     *         are no more records
+     * @throws IOException if the input cannot be read
+     */
+    byte[] next() throws IOException {
+        while (true) {
+            mark = NO_MARK;
+            if (!skipToTag()) {
+                return null;
+            }
+            mark = pos - 1;
+            final int c = readRequired();
+            if (c == '!') {
+                skipDeclaration();
+            } else if (c == '?') {
+                skipPast(PI_END);
+                if (inProlog && regionStartsWith(0, XML_DECLARATION)
+                        && isWhitespace(buffer[mark + XML_DECLARATION.length])) {
+                    declaration = Arrays.copyOfRange(buffer, mark, pos);
+                }
+            } else if (c == '/') {
+                skipTag();
+                if (!ancestors.isEmpty()) {
+                    ancestors.pop();
+                    inheritedNamespaces = null;
+                }
+            } else {
+                inProlog = false;
+                pos -= 1;
+                final int nameStart = pos - mark;
+                skipName();
+                final int nameEnd = pos - mark;
+                tagNamespaces.clear();
+                final boolean emptyElement = readAttributes();
+                if (isRecordName(nameStart, nameEnd)) {
+                    if (!emptyElement) {
+                        skipRecordContent();
+                    }
+                    return createRecord(nameEnd);
+                }
+                if (!emptyElement) {
+                    ancestors.push(tagNamespaces.isEmpty() ? Collections.emptyList()
+                            : new ArrayList<>(tagNamespaces));
+                    inheritedNamespaces = null;
+                }
+            }
+        }
+    }
+
+    private byte[] createRecord(final int nameEnd) {
+        final byte[] namespaces = getInheritedNamespaces();
+        final int length = pos - mark;
+        final byte[] record = new byte[declaration.length + namespaces.length + length];
+        System.arraycopy(declaration, 0, record, 0, declaration.length);
+        int offset = declaration.length;
+        System.arraycopy(buffer, mark, record, offset, nameEnd);
+        offset += nameEnd;
+        System.arraycopy(namespaces, 0, record, offset, namespaces.length);
+        offset += namespaces.length;
+        System.arraycopy(buffer, mark + nameEnd, record, offset, length - nameEnd);
+        mark = NO_MARK;
+        return record;
+    }
+
+    private byte[] getInheritedNamespaces() {
+        // Records are usually siblings without own namespace declarations,
+        // so the declarations of the ancestors are only collected once:
+        if (tagNamespaces.isEmpty() && inheritedNamespaces != null) {
+            return inheritedNamespaces;
+        }
+        final List<String> prefixes = new ArrayList<>();
+        for (final Namespace namespace : tagNamespaces) {
+            prefixes.add(namespace.prefix);
+        }
+        final List<byte[]> declarations = new ArrayList<>();
+        int length = 0;
+        for (final List<Namespace> namespaces : ancestors) {
+            for (final Namespace namespace : namespaces) {
+                if (!prefixes.contains(namespace.prefix)) {
+                    prefixes.add(namespace.prefix);
+                    declarations.add(namespace.declaration);
+                    length += namespace.declaration.length + 1;
+                }
+            }
+        }
+        final byte[] result = new byte[length];
+        int offset = 0;
+        for (final byte[] declaration : declarations) {
+            result[offset] = ' ';
+            System.arraycopy(declaration, 0, result, offset + 1, declaration.length);
+            offset += declaration.length + 1;
+        }
+        if (tagNamespaces.isEmpty()) {
+            inheritedNamespaces = result;
+        }
+        return result;
+    }
+
+    private void skipRecordContent() throws IOException {
+        int depth = 1;
+        while (depth > 0) {
+            if (!skipToTag()) {
+                throw unexpectedEnd();
+            }
+            final int c = readRequired();
+            if (c == '!') {
+                skipDeclaration();
+            } else if (c == '?') {
+                skipPast(PI_END);
+            } else if (c == '/') {
+                skipTag();
+                depth -= 1;
+            } else if (!skipTag()) {
+                depth += 1;
+            }
+        }
+    }
+
+    /**
+     * Reads the attributes of a start tag and collects its namespace
+     * declarations in {@link #tagNamespaces}.
+     *
+     * @return true if the tag is an empty-element tag
+     */
+    private boolean readAttributes() throws IOException {
+        while (true) {
+            final int c = readRequired();
+            if (c == '>') {
+                return false;
+            }
+            if (c == '/') {
+                expect('>');
+                return true;
+            }
+            if (!isWhitespace(c)) {
+                pos -= 1;
+                final int attributeStart = pos - mark;
+                skipName();
+                final int nameEnd = pos - mark;
+                int quote = skipWhitespace();
+                if (quote != '=') {
+                    throw malformed("'=' expected after attribute name");
+                }
+                quote = skipWhitespace();
+                if (quote != '"' && quote != '\'') {
+                    throw malformed("quoted attribute value expected");
+                }
+                while (readRequired() != quote) {
+                    // skip attribute value
+                }
+                addNamespace(attributeStart, nameEnd);
+            }
+        }
+    }
+
+    private void addNamespace(final int attributeStart, final int nameEnd) {
+        final int nameLength = nameEnd - attributeStart;
+        if (!regionStartsWith(attributeStart, XMLNS)) {
+            return;
+        }
+        final String prefix;
+        if (nameLength == XMLNS.length) {
+            prefix = "";
+        } else if (buffer[mark + attributeStart + XMLNS.length] == ':') {
+            prefix = new String(buffer, mark + attributeStart + XMLNS.length + 1,
+                    nameLength - XMLNS.length - 1, StandardCharsets.UTF_8);
+        } else {
+            return;
+        }
+        tagNamespaces.add(new Namespace(prefix, Arrays.copyOfRange(buffer,
+                mark + attributeStart, pos)));
+    }
+
+    private boolean isRecordName(final int nameStart, final int nameEnd) {
+        int localStart = nameStart;
+        for (int i = nameStart; i < nameEnd; ++i) {
+            if (buffer[mark + i] == ':') {
+                localStart = i + 1;
+            }
+        }
+        return nameEnd - localStart == recordName.length
+                && regionStartsWith(localStart, recordName);
+    }
+
+    private boolean regionStartsWith(final int offset, final byte[] prefix) {
+        if (mark + offset + prefix.length > limit) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length; ++i) {
+            if (buffer[mark + offset + i] != prefix[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Skips the rest of a comment, CDATA section or declaration such as a
+     * DOCTYPE after the opening {@code <!}.
+     */
+    private void skipDeclaration() throws IOException {
+        final int c = readRequired();
+        if (c == '-') {
+            expect('-');
+            skipPast(COMMENT_END);
+        } else if (c == '[') {
+            skipPast(CDATA_END);
+        } else {
+            int quote = 0;
+            int depth = 0;
+            int next = c;
+            while (quote != 0 || depth > 0 || next != '>') {
+                if (quote != 0) {
+                    if (next == quote) {
+                        quote = 0;
+                    }
+                } else if (next == '"' || next == '\'') {
+                    quote = next;
+                } else if (next == '[') {
+                    depth += 1;
+                } else if (next == ']') {
+                    depth -= 1;
+                }
+                next = readRequired();
+            }
+        }
+    }
+
+    private void skipPast(final byte[] terminator) throws IOException {
+        int matched = 0;
+        while (matched < terminator.length) {
+            final int c = readRequired();
+            if (c == terminator[matched]) {
+                matched += 1;
+            } else if (c != terminator[0]) {
+                matched = 0;
+            } else if (matched < 2 || terminator[1] != terminator[0]) {
+                // Terminators such as "-->" stay matched on additional dashes
+                matched = 1;
+            }
+        }
+    }
+
+    /**
+     * Skips to the end of a tag, ignoring '>' in attribute values.
+     *
+     * @return true if the tag is an empty-element tag
+     */
+    private boolean skipTag() throws IOException {
+        int quote = 0;
+        int previous = 0;
+        while (true) {
+            final int c = readRequired();
+            if (quote != 0) {
+                if (c == quote) {
+                    quote = 0;
+                }
+            } else if (c == '"' || c == '\'') {
+                quote = c;
+            } else if (c == '>') {
+                return previous == '/';
+            }
+            previous = c;
+        }
+    }
+
+    private boolean skipToTag() throws IOException {
+        while (true) {
+            for (; pos < limit; ++pos) {
+                if (buffer[pos] == '<') {
+                    pos += 1;
+                    return true;
+                }
+            }
+            if (!fill()) {
+                return false;
+            }
+        }
+    }
+
+    private void skipName() throws IOException {
+        while (pos < limit || fill()) {
+            final byte b = buffer[pos];
+            if (isWhitespace(b) || b == '>' || b == '/' || b == '=') {
+                return;
+            }
+            pos += 1;
+        }
+        throw unexpectedEnd();
+    }
+
+    private int skipWhitespace() throws IOException {
+        int c;
+        do {
+            c = readRequired();
+        } while (isWhitespace(c));
+        return c;
+    }
+
+    private void expect(final int expected) throws IOException {
+        if (readRequired() != expected) {
+            throw malformed("'" + (char) expected + "' expected");
+        }
+    }
+
+    private int readRequired() throws IOException {
+        if (pos == limit && !fill()) {
+            throw unexpectedEnd();
+        }
+        return buffer[pos++] & 0xff;
+    }
+
+    private boolean fill() throws IOException {
+        if (endOfInput) {
+            return false;
+        }
+        final int keep = mark == NO_MARK ? pos : mark;
+        if (keep > 0) {
+            System.arraycopy(buffer, keep, buffer, 0, limit - keep);
+            limit -= keep;
+            pos -= keep;
+            if (mark != NO_MARK) {
+                mark = 0;
+            }
+        }
+        if (limit == buffer.length) {
+            buffer = Arrays.copyOf(buffer, buffer.length * 2);
+        }
+        final int read = in.read(buffer, limit, buffer.length - limit);
+        if (read < 0) {
+            endOfInput = true;
+            return false;
+        }
+        limit += read;
+        return true;
+    }
+
+    private static boolean isWhitespace(final int c) {
+        return c == ' ' || c == '\n' || c == '\r' || c == '\t';
+    }
+
+    private static MetafactureException unexpectedEnd() {
+        return new MetafactureException("Unexpected end of XML document");
+    }
+
+    private static MetafactureException malformed(final String message) {
+        return new MetafactureException("Malformed XML: " + message);
+    }
+
+    private static byte[] bytes(final String string) {
+        return string.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static final class Namespace {
+
+        private final String prefix;
+        private final byte[] declaration;
+
+        Namespace(final String prefix, final byte[] declaration) {
+            this.prefix = prefix;
+            this.declaration = declaration;
+        }
+
+    }
+
+}
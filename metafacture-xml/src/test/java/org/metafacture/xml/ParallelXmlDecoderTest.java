@@ -0,0 +1,176 @@
+/*
+ * Copyright 2026 hbz
+ *
+ * Licensed under the Apache License, Version 2.0 the "License";
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.metafacture.xml;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+import org.metafacture.framework.MetafactureException;
+import org.metafacture.framework.helpers.DefaultStreamReceiver;
+
+/**
+ * Tests for class {@link ParallelXmlDecoder}.
+ */
+public final class ParallelXmlDecoderTest {
+
+    private static final int RECORDS = 2000;
+
+    @Test
+    public void shouldEmitSameRecordsAsXmlDecoderInDocumentOrder() {
+        final ParallelXmlDecoder decoder = new ParallelXmlDecoder();
+        decoder.setThreads(4);
+
+        assertEquals(decodeSequentially(), decodeInParallel(decoder));
+    }
+
+    @Test
+    public void shouldEmitAllRecordsIfNotOrdered() {
+        final ParallelXmlDecoder decoder = new ParallelXmlDecoder();
+        decoder.setThreads(4);
+        decoder.setOrdered(false);
+
+        final List<String> expected = decodeSequentially();
+        final List<String> actual = decodeInParallel(decoder);
+        Collections.sort(expected);
+        Collections.sort(actual);
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    public void shouldCreateHandlerFromFluxCommandName() {
+        final ParallelXmlDecoder decoder = new ParallelXmlDecoder();
+        decoder.setThreads(2);
+        decoder.setHandler("handle-generic-xml");
+
+        assertEquals(decodeSequentially(), decodeInParallel(decoder));
+    }
+
+    @Test
+    public void shouldCreateHandlerFromClassName() {
+        final ParallelXmlDecoder decoder = new ParallelXmlDecoder();
+        decoder.setThreads(1);
+        decoder.setHandler(GenericXmlHandler.class.getName());
+
+        assertEquals(decodeSequentially(), decodeInParallel(decoder));
+    }
+
+    @Test
+    public void shouldPassRecordElementToDefaultHandler() {
+        final ParallelXmlDecoder decoder = new ParallelXmlDecoder();
+        decoder.setThreads(2);
+        decoder.setRecordElement("item");
+
+        final List<String> expected = decodeSequentially("item");
+        assertEquals(RECORDS, expected.size());
+        assertEquals(expected, decodeInParallel(decoder, "item"));
+    }
+
+    @Test(expected = MetafactureException.class)
+    public void shouldPassOnParseErrors() {
+        final ParallelXmlDecoder decoder = new ParallelXmlDecoder();
+        decoder.setReceiver(new DefaultStreamReceiver());
+        decoder.process(toStream("<c><record><a></b></record></c>"));
+    }
+
+    private static List<String> decodeSequentially() {
+        return decodeSequentially(ParallelXmlDecoder.DEFAULT_RECORD_ELEMENT);
+    }
+
+    private static List<String> decodeSequentially(final String recordElement) {
+        final XmlDecoder decoder = new XmlDecoder();
+        final RecordCollector collector = new RecordCollector();
+        final GenericXmlHandler handler = new GenericXmlHandler();
+        handler.setRecordTagName(recordElement);
+        decoder.setReceiver(handler).setReceiver(collector);
+        decoder.process(new StringReader(createDocument(recordElement)));
+        decoder.closeStream();
+        return collector.records;
+    }
+
+    private static List<String> decodeInParallel(final ParallelXmlDecoder decoder) {
+        return decodeInParallel(decoder, ParallelXmlDecoder.DEFAULT_RECORD_ELEMENT);
+    }
+
+    private static List<String> decodeInParallel(final ParallelXmlDecoder decoder,
+            final String recordElement) {
+        final RecordCollector collector = new RecordCollector();
+        decoder.setReceiver(collector);
+        decoder.process(toStream(createDocument(recordElement)));
+        decoder.closeStream();
+        return collector.records;
+    }
+
+    private static String createDocument(final String recordElement) {
+        final StringBuilder builder = new StringBuilder(
+                "<?xml version='1.0' encoding='UTF-8'?>"
+                + "<collection xmlns='urn:x' xmlns:p='urn:p'>");
+        for (int i = 0; i < RECORDS; ++i) {
+            builder.append('<').append(recordElement).append(" id='").append(i).append("'>")
+                    .append("<p:field code='a'>Value ").append(i).append(" &amp; ä</p:field>")
+                    .append("<field><![CDATA[</record>]]></field>")
+                    .append("</").append(recordElement).append(">\n");
+        }
+        return builder.append("</collection>").toString();
+    }
+
+    private static InputStream toStream(final String document) {
+        return new ByteArrayInputStream(document.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Collects each record as a string of its events.
+     */
+    private static final class RecordCollector extends DefaultStreamReceiver {
+
+        private final List<String> records = new ArrayList<>();
+        private StringBuilder record;
+
+        @Override
+        public void startRecord(final String identifier) {
+            record = new StringBuilder(identifier).append('{');
+        }
+
+        @Override
+        public void endRecord() {
+            records.add(record.append('}').toString());
+        }
+
+        @Override
+        public void startEntity(final String name) {
+            record.append(name).append('[');
+        }
+
+        @Override
+        public void endEntity() {
+            record.append(']');
+        }
+
+        @Override
+        public void literal(final String name, final String value) {
+            record.append(name).append('=').append(value).append(';');
+        }
+
+    }
+
+}
@@ -0,0 +1,247 @@
+/*
+ * Copyright 2026 hbz
+ *
+ * Licensed under the Apache License, Version 2.0 the "License";
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.metafacture.xml;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.metafacture.framework.StreamReceiver;
+import org.metafacture.io.ObjectFileWriter;
+
+/**
+ * Tests for class {@link XmlFileWriter}.
+ */
+public final class XmlFileWriterTest {
+
+    private static final String FILE_NAME = "out-${i}.xml";
+
+    @Rule
+    public final TemporaryFolder tempFolder = new TemporaryFolder();
+
+    @Test
+    public void shouldWriteRecordsAsXml() throws IOException {
+        final File file = tempFolder.newFile();
+        final XmlFileWriter writer = new XmlFileWriter(file.getPath());
+
+        writer.startRecord("1");
+        writer.literal("~id", "1");
+        writer.startEntity("a");
+        writer.literal("", "x & y");
+        writer.literal("b", "");
+        writer.endEntity();
+        writer.endRecord();
+        writer.closeStream();
+
+        assertEquals("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<records>\n"
+                + "\n\t<record id=\"1\">"
+                + "\n\t\t<a>x &amp; y"
+                + "\n\t\t\t<b /></a>"
+                + "\n\t</record>"
+                + "\n\n</records>\n", read(file));
+    }
+
+    @Test
+    public void shouldWriteSameXmlAsSimpleXmlEncoder() throws IOException {
+        assertSameOutput(writer -> { }, encoder -> { });
+    }
+
+    @Test
+    public void shouldWriteSameXmlAsSimpleXmlEncoderWithSeparateRoots() throws IOException {
+        assertSameOutput(writer -> writer.setSeparateRoots(true),
+                encoder -> encoder.setSeparateRoots(true));
+    }
+
+    @Test
+    public void shouldWriteSameXmlAsSimpleXmlEncoderWithoutRootTag() throws IOException {
+        final Map<String, String> namespaces = new LinkedHashMap<>();
+        namespaces.put("", "urn:default");
+        namespaces.put("ns", "urn:\"ns\"");
+        assertSameOutput(writer -> {
+            writer.setNamespaces(namespaces);
+            writer.setWriteRootTag(false);
+            writer.setWriteXmlHeader(false);
+        }, encoder -> {
+            encoder.setNamespaces(namespaces);
+            encoder.setWriteRootTag(false);
+            encoder.setWriteXmlHeader(false);
+        });
+    }
+
+    @Test
+    public void shouldWriteSameXmlAsSimpleXmlEncoderWithNamespacesAndCustomTags() throws IOException {
+        final Map<String, String> namespaces = new LinkedHashMap<>();
+        namespaces.put("rdf", "http://www.w3.org/1999/02/22-rdf-syntax-ns#");
+        assertSameOutput(writer -> {
+            writer.setNamespaces(namespaces);
+            writer.setRootTag("rdf:RDF");
+            writer.setRecordTag("rdf:Description");
+            writer.setXmlHeaderVersion("1.1");
+        }, encoder -> {
+            encoder.setNamespaces(namespaces);
+            encoder.setRootTag("rdf:RDF");
+            encoder.setRecordTag("rdf:Description");
+            encoder.setXmlHeaderVersion("1.1");
+        });
+    }
+
+    @Test
+    public void shouldStartNewFileOnResetStream() throws IOException {
+        final File file = new File(tempFolder.getRoot(), "out-${i}.xml");
+        final XmlFileWriter writer = new XmlFileWriter(file.getPath());
+        writer.setWriteXmlHeader(false);
+
+        writer.startRecord("1");
+        writer.endRecord();
+        writer.resetStream();
+        writer.startRecord("2");
+        writer.endRecord();
+        writer.closeStream();
+
+        final String expected = "<records>\n\n\t<record />\n\n</records>\n";
+        assertEquals(expected, read(new File(tempFolder.getRoot(), "out-0.xml")));
+        assertEquals(expected, read(new File(tempFolder.getRoot(), "out-1.xml")));
+    }
+
+    @Test
+    public void shouldWriteSameFileAsSimpleXmlEncoderForEmptyStream() throws IOException {
+        assertSameFiles(writer -> { }, encoder -> { }, StreamReceiver::closeStream);
+    }
+
+    @Test
+    public void shouldWriteSameFileAsSimpleXmlEncoderForEmptyStreamWithSeparateRoots()
+            throws IOException {
+        assertSameFiles(writer -> writer.setSeparateRoots(true),
+                encoder -> encoder.setSeparateRoots(true), StreamReceiver::closeStream);
+    }
+
+    @Test
+    public void shouldWriteFilesForResetsWithoutRecords() throws IOException {
+        final XmlFileWriter writer = new XmlFileWriter(
+                new File(tempFolder.getRoot(), FILE_NAME).getPath());
+        writer.setWriteXmlHeader(false);
+
+        writer.resetStream();
+        writer.startRecord("1");
+        writer.endRecord();
+        writer.resetStream();
+        writer.resetStream();
+        writer.closeStream();
+
+        // stream-to-xml | write ends each file with a new line:
+        assertEquals("\n", read(new File(tempFolder.getRoot(), "out-0.xml")));
+        assertEquals("<records>\n\n\t<record />\n\n</records>\n",
+                read(new File(tempFolder.getRoot(), "out-1.xml")));
+        assertEquals("\n", read(new File(tempFolder.getRoot(), "out-2.xml")));
+        assertEquals("\n", read(new File(tempFolder.getRoot(), "out-3.xml")));
+    }
+
+    private void assertSameOutput(final Consumer<XmlFileWriter> writerConfiguration,
+            final Consumer<SimpleXmlEncoder> encoderConfiguration) throws IOException {
+        assertSameFiles(writerConfiguration, encoderConfiguration, receiver -> {
+            writeRecords(receiver);
+            receiver.closeStream();
+        });
+    }
+
+    /**
+     * Compares the files written by {@link XmlFileWriter} with the files
+     * written by {@code stream-to-xml | write}.
+     */
+    private void assertSameFiles(final Consumer<XmlFileWriter> writerConfiguration,
+            final Consumer<SimpleXmlEncoder> encoderConfiguration,
+            final Consumer<StreamReceiver> events) throws IOException {
+        final File expectedFolder = tempFolder.newFolder();
+        final File actualFolder = tempFolder.newFolder();
+
+        final XmlFileWriter writer = new XmlFileWriter(
+                new File(actualFolder, FILE_NAME).getPath());
+        writerConfiguration.accept(writer);
+        final SimpleXmlEncoder encoder = new SimpleXmlEncoder();
+        encoderConfiguration.accept(encoder);
+        encoder.setReceiver(new ObjectFileWriter<>(
+                new File(expectedFolder, FILE_NAME).getPath()));
+
+        events.accept(writer);
+        events.accept(encoder);
+
+        final String[] expectedFiles = expectedFolder.list();
+        final String[] actualFiles = actualFolder.list();
+        Arrays.sort(expectedFiles);
+        Arrays.sort(actualFiles);
+        assertArrayEquals(expectedFiles, actualFiles);
+        for (final String fileName : expectedFiles) {
+            assertEquals(read(new File(expectedFolder, fileName)),
+                    read(new File(actualFolder, fileName)));
+        }
+    }
+
+    private static void writeRecords(final StreamReceiver receiver) {
+        receiver.startRecord("1");
+        receiver.literal("~id", "1 <\"'>");
+        receiver.literal("title", "Käse & 🧀 \uD800");
+        receiver.literal("empty", "");
+        receiver.startEntity("entity");
+        receiver.literal("~type", "a");
+        receiver.literal("", "text");
+        receiver.startEntity("nested");
+        receiver.literal("x", "1");
+        receiver.endEntity();
+        receiver.endEntity();
+        receiver.startEntity("");
+        receiver.literal("~dropped", "a");
+        receiver.literal("inUnnamed", "b");
+        receiver.endEntity();
+        receiver.startEntity("emptyEntity");
+        receiver.literal("", "");
+        receiver.endEntity();
+        receiver.endRecord();
+
+        // Attributes and text after children need reordering:
+        receiver.startRecord("2");
+        receiver.literal("a", "1");
+        receiver.literal("~late", "attribute");
+        receiver.startEntity("entity");
+        receiver.literal("b", "2");
+        receiver.literal("", "late text");
+        receiver.endEntity();
+        receiver.endRecord();
+
+        receiver.startRecord("3");
+        receiver.literal("", "first");
+        receiver.literal("", "second");
+        receiver.endRecord();
+
+        receiver.startRecord("4");
+        receiver.endRecord();
+    }
+
+    private static String read(final File file) throws IOException {
+        return new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+    }
+
+}
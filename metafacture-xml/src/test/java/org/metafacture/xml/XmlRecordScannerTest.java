@@ -0,0 +1,124 @@
+/*
+ * Copyright 2026 hbz
+ *
+ * Licensed under the Apache License, Version 2.0 the "License";
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.metafacture.xml;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Test;
+import org.metafacture.framework.MetafactureException;
+
+/**
+ * Tests for class {@link XmlRecordScanner}.
+ */
+public final class XmlRecordScannerTest {
+
+    private static final String DECLARATION = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>";
+
+    @Test
+    public void shouldSplitRecordsAndCarryNamespaceDeclarations() throws IOException {
+        final XmlRecordScanner scanner = scanner(DECLARATION + "\n"
+                + "<!-- <record> --><c xmlns=\"urn:a\" xmlns:m='urn:m'>"
+                + "<m:record id=\"1\">x<!-- </m:record> --><![CDATA[</m:record>]]></m:record>"
+                + "<other/><record xmlns=\"urn:b\" a=\">\"><record>nested</record></record>"
+                + "<m:record/></c>");
+
+        assertEquals(DECLARATION + "<m:record xmlns=\"urn:a\" xmlns:m='urn:m' id=\"1\">"
+                + "x<!-- </m:record> --><![CDATA[</m:record>]]></m:record>", next(scanner));
+        assertEquals(DECLARATION + "<record xmlns:m='urn:m' xmlns=\"urn:b\" a=\">\">"
+                + "<record>nested</record></record>", next(scanner));
+        assertEquals(DECLARATION + "<m:record xmlns=\"urn:a\" xmlns:m='urn:m'/>",
+                next(scanner));
+        assertNull(scanner.next());
+    }
+
+    @Test
+    public void shouldUseNamespacesOfInnermostAncestor() throws IOException {
+        final XmlRecordScanner scanner = scanner("<a xmlns:p='urn:1'>"
+                + "<b xmlns:p='urn:2'><record/></b><record/></a>");
+
+        assertEquals("<record xmlns:p='urn:2'/>", next(scanner));
+        assertEquals("<record xmlns:p='urn:1'/>", next(scanner));
+        assertNull(scanner.next());
+    }
+
+    @Test
+    public void shouldSkipDoctypeAndProcessingInstructions() throws IOException {
+        final XmlRecordScanner scanner = scanner("<!DOCTYPE c [<!ENTITY e '<record>'>]>"
+                + "<?pi <record>?><c><record><?pi </record>?></record></c>");
+
+        assertEquals("<record><?pi </record>?></record>", next(scanner));
+        assertNull(scanner.next());
+    }
+
+    @Test
+    public void shouldHandleRecordsLargerThanBuffer() throws IOException {
+        final StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 100000; ++i) {
+            text.append("ä").append(i % 10);
+        }
+        final StringBuilder document = new StringBuilder("<c>");
+        for (int i = 0; i < 5; ++i) {
+            document.append("<record n='").append(i).append("'>")
+                    .append(text).append("</record>");
+        }
+        document.append("</c>");
+        final XmlRecordScanner scanner = new XmlRecordScanner(new TrickleInputStream(
+                document.toString().getBytes(StandardCharsets.UTF_8)), "record");
+
+        for (int i = 0; i < 5; ++i) {
+            assertEquals("<record n='" + i + "'>" + text + "</record>", next(scanner));
+        }
+        assertNull(scanner.next());
+    }
+
+    @Test(expected = MetafactureException.class)
+    public void shouldThrowExceptionIfRecordIsNotClosed() throws IOException {
+        scanner("<c><record><a></a>").next();
+    }
+
+    private static XmlRecordScanner scanner(final String document) {
+        return new XmlRecordScanner(new ByteArrayInputStream(
+                document.getBytes(StandardCharsets.UTF_8)), "record");
+    }
+
+    private static String next(final XmlRecordScanner scanner) throws IOException {
+        return new String(scanner.next(), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Returns at most 1000 bytes per read.
+     */
+    private static final class TrickleInputStream extends FilterInputStream {
+
+        TrickleInputStream(final byte[] bytes) {
+            super(new ByteArrayInputStream(bytes));
+        }
+
+        @Override
+        public int read(final byte[] b, final int off, final int len) throws IOException {
+            return super.read(b, off, Math.min(len, 1000));
+        }
+
+    }
+
+}
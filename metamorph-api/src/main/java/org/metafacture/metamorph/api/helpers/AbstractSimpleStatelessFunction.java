@@ -15,24 +15,42 @@
  */
 package org.metafacture.metamorph.api.helpers;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 import org.metafacture.metamorph.api.Function;
 import org.metafacture.metamorph.api.NamedValueSource;
 
 /**
  * Baseclass for {@link Function}s returning only one or zero results and do not
  * maintain a state.
+ * <p>
+ * As the result of such a function depends on the input value only, results
+ * can be memoized: if {@link #setCacheSize(int) cacheSize} is greater than
+ * zero, the results of up to {@code cacheSize} distinct values are kept and
+ * the least recently used results are evicted first. Memoization is disabled
+ * by default as some functions depend on external state (such as lookups in
+ * maps backed by a database).
  *
  * @author Markus Michael Geipel
  *
  */
 public abstract class AbstractSimpleStatelessFunction extends AbstractFunction {
 
+    // Marks values for which process returned null:
+    private static final String NO_RESULT = new String();
+
+    private int cacheSize;
+    private Map<String, String> cache;
+    private long cacheHits;
+    private long cacheMisses;
+
     @Override
     public final void receive(final String name, final String value,
             final NamedValueSource source, final int recordCount,
             final int entityCount) {
 
-        final String processedValue = process(value);
+        final String processedValue = cache == null ? process(value) : processCached(value);
         if (processedValue == null) {
             return;
         }
@@ -41,6 +59,78 @@ public final void receive(final String name, final String value,
                 recordCount, entityCount);
     }
 
+    private String processCached(final String value) {
+        final String cachedValue = cache.get(value);
+        if (cachedValue != null) {
+            cacheHits += 1;
+            return cachedValue == NO_RESULT ? null : cachedValue;
+        }
+        cacheMisses += 1;
+        final String processedValue = process(value);
+        cache.put(value, processedValue == null ? NO_RESULT : processedValue);
+        return processedValue;
+    }
+
     protected abstract String process(String value);
 
+    /**
+     * Sets the number of results which are memoized. Zero disables
+     * memoization. Changing the cache size clears the cache and its
+     * counters.
+     * <p>
+     * The default value is 0.
+     *
+     * @param cacheSize maximum number of memoized results
+     */
+    public final void setCacheSize(final int cacheSize) {
+        if (cacheSize < 0) {
+            throw new IllegalArgumentException("'cacheSize' must not be negative");
+        }
+        this.cacheSize = cacheSize;
+        cache = cacheSize == 0 ? null : new ResultCache(cacheSize);
+        cacheHits = 0;
+        cacheMisses = 0;
+    }
+
+    public final int getCacheSize() {
+        return cacheSize;
+    }
+
+    /**
+     * Returns the number of values whose result was taken from the cache.
+     *
+     * @return the number of cache hits
+     */
+    public final long getCacheHits() {
+        return cacheHits;
+    }
+
+    /**
+     * Returns the number of values which were processed because their result
+     * was not in the cache.
+     *
+     * @return the number of cache misses
+     */
+    public final long getCacheMisses() {
+        return cacheMisses;
+    }
+
+    private static final class ResultCache extends LinkedHashMap<String, String> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int maxEntries;
+
+        ResultCache(final int maxEntries) {
+            super(16, 0.75f, true);
+            this.maxEntries = maxEntries;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<String, String> eldest) {
+            return size() > maxEntries;
+        }
+
+    }
+
 }
@@ -0,0 +1,43 @@
+/*
+ * Copyright 2026 hbz
+ *
+ * Licensed under the Apache License, Version 2.0 the "License";
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.metafacture.metamorph;
+
+import java.util.List;
+
+import org.metafacture.commons.tries.CompiledWildcardTrie;
+
+/**
+ * Implements {@link Registry} with a {@link CompiledWildcardTrie}. Supports
+ * the same source patterns as {@link WildcardRegistry} but compiles them into
+ * a deterministic automaton so that lookups do not allocate objects.
+ *
+ * @param <T> type of the values this registry stores
+ */
+final class CompiledWildcardRegistry<T> implements Registry<T> {
+
+    private final CompiledWildcardTrie<T> trie = new CompiledWildcardTrie<T>();
+
+    @Override
+    public void register(final String path, final T value) {
+        trie.put(path, value);
+    }
+
+    @Override
+    public List<T> get(final String path) {
+        return trie.get(path);
+    }
+
+}
@@ -78,7 +78,7 @@ public final class Metamorph implements StreamPipe<StreamReceiver>, NamedValuePi
     private static final Map<String, String> NO_VARS = Collections.emptyMap();
 
     private final Registry<NamedValueReceiver> dataRegistry =
-            new WildcardRegistry<>();
+            new CompiledWildcardRegistry<>();
     private final List<NamedValueReceiver> elseSources = new ArrayList<>();
 
     private final Map<String, Map<String, String>> maps = new HashMap<>();
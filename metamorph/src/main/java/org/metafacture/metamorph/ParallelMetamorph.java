@@ -0,0 +1,235 @@
+/*
+ * Copyright 2026 hbz
+ *
+ * Licensed under the Apache License, Version 2.0 the "License";
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.metafacture.metamorph;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+
+import org.metafacture.flowcontrol.StreamBuffer;
+import org.metafacture.framework.FluxCommand;
+import org.metafacture.framework.StreamReceiver;
+import org.metafacture.framework.annotations.Description;
+import org.metafacture.framework.annotations.In;
+import org.metafacture.framework.annotations.Out;
+import org.metafacture.framework.helpers.DefaultStreamPipe;
+import org.metafacture.framework.helpers.DefaultStreamReceiver;
+
+/**
+ * Runs a metamorph transformation on several threads. Each thread uses its
+ * own {@link Metamorph} instance which is built from the same definition.
+ * Incoming records are buffered and handed to the next free instance. The
+ * transformed records are passed downstream in the same order in which the
+ * input records were received. All downstream events are sent from the
+ * thread which feeds this module.
+ * <p>
+ * Since records are distributed over independent instances, the output is
+ * only identical to that of a single {@link Metamorph} if the transformation
+ * does not keep state across records (for instance, in a {@code <count>}
+ * function or in {@code <occurrence>}).
+ */
+@Description("applies a metamorph transformation to the event stream using "
+        + "several threads. The output order matches the input order. "
+        + "Metamorph definition is given in brackets.")
+@In(StreamReceiver.class)
+@Out(StreamReceiver.class)
+@FluxCommand("parallel-morph")
+public final class ParallelMetamorph extends DefaultStreamPipe<StreamReceiver> {
+
+    public static final int DEFAULT_THREADS =
+            Runtime.getRuntime().availableProcessors();
+
+    private static final int PENDING_RECORDS_PER_THREAD = 4;
+    private static final StreamReceiver NO_RECEIVER = new DefaultStreamReceiver();
+
+    private final Supplier<Metamorph> metamorphFactory;
+    private int threads = DEFAULT_THREADS;
+
+    private final List<Metamorph> metamorphs = new ArrayList<>();
+    private BlockingQueue<Metamorph> idleMetamorphs;
+    private ExecutorService executor;
+    private final Deque<Future<StreamBuffer>> pendingRecords = new ArrayDeque<>();
+
+    private StreamBuffer currentRecord;
+
+    public ParallelMetamorph(final String morphDef) {
+        this(morphDef, Collections.emptyMap());
+    }
+
+    public ParallelMetamorph(final String morphDef, final Map<String, String> vars) {
+        this(() -> new Metamorph(morphDef, vars));
+    }
+
+    /**
+     * Creates an instance which obtains its {@link Metamorph} instances from
+     * {@code metamorphFactory}. The factory is invoked once per thread and
+     * must return a new instance on each call.
+     *
+     * @param metamorphFactory creates the metamorph instances
+     */
+    public ParallelMetamorph(final Supplier<Metamorph> metamorphFactory) {
+        this.metamorphFactory = metamorphFactory;
+    }
+
+    /**
+     * Sets the number of threads and {@link Metamorph} instances.
+     * <p>
+     * The default value is the number of available processors.
+     * <p>
+     * This parameter must not be changed after processing has started.
+     *
+     * @param threads number of threads
+     */
+    public void setThreads(final int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("'threads' must be at least 1");
+        }
+        this.threads = threads;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    @Override
+    public void startRecord(final String identifier) {
+        if (executor == null) {
+            start();
+        }
+        currentRecord = new StreamBuffer();
+        currentRecord.startRecord(identifier);
+    }
+
+    @Override
+    public void endRecord() {
+        final StreamBuffer input = currentRecord;
+        currentRecord = null;
+        input.endRecord();
+        pendingRecords.add(executor.submit(() -> transform(input)));
+        emitCompletedRecords();
+    }
+
+    @Override
+    public void startEntity(final String name) {
+        currentRecord.startEntity(name);
+    }
+
+    @Override
+    public void endEntity() {
+        currentRecord.endEntity();
+    }
+
+    @Override
+    public void literal(final String name, final String value) {
+        currentRecord.literal(name, value);
+    }
+
+    @Override
+    protected void onResetStream() {
+        emitAllRecords();
+        currentRecord = null;
+        for (final Metamorph metamorph : metamorphs) {
+            metamorph.resetStream();
+        }
+    }
+
+    @Override
+    protected void onCloseStream() {
+        if (executor == null) {
+            return;
+        }
+        emitAllRecords();
+        executor.shutdown();
+        for (final Metamorph metamorph : metamorphs) {
+            metamorph.closeStream();
+        }
+        metamorphs.clear();
+        idleMetamorphs = null;
+        executor = null;
+    }
+
+    private void start() {
+        idleMetamorphs = new ArrayBlockingQueue<>(threads);
+        for (int i = 0; i < threads; ++i) {
+            final Metamorph metamorph = metamorphFactory.get();
+            metamorph.setReceiver(NO_RECEIVER);
+            metamorphs.add(metamorph);
+            idleMetamorphs.add(metamorph);
+        }
+        executor = Executors.newFixedThreadPool(threads, runnable -> {
+            final Thread thread = new Thread(runnable, "parallel-morph");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    private StreamBuffer transform(final StreamBuffer input)
+            throws InterruptedException {
+        final Metamorph metamorph = idleMetamorphs.take();
+        try {
+            final StreamBuffer output = new StreamBuffer();
+            metamorph.setReceiver(output);
+            input.setReceiver(metamorph);
+            input.replay();
+            return output;
+        } finally {
+            metamorph.setReceiver(NO_RECEIVER);
+            idleMetamorphs.put(metamorph);
+        }
+    }
+
+    private void emitCompletedRecords() {
+        while (!pendingRecords.isEmpty() && (pendingRecords.peek().isDone()
+                || pendingRecords.size() > threads * PENDING_RECORDS_PER_THREAD)) {
+            emit(pendingRecords.poll());
+        }
+    }
+
+    private void emitAllRecords() {
+        while (!pendingRecords.isEmpty()) {
+            emit(pendingRecords.poll());
+        }
+    }
+
+    private void emit(final Future<StreamBuffer> pendingRecord) {
+        final StreamBuffer output;
+        try {
+            output = pendingRecord.get();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MetamorphException("Interrupted while waiting for a record", e);
+        } catch (final ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new MetamorphException("Error while transforming a record: " +
+                    e.getCause().getMessage(), e.getCause());
+        }
+        output.setReceiver(getReceiver());
+        output.replay();
+    }
+
+}
@@ -68,6 +68,13 @@ public class DateFormat extends AbstractSimpleStatelessFunction {
     private boolean removeLeadingZeros = DEFAULT_REMOVE_LEADING_ZEROS;
     private Locale outputLocale = Locale.getDefault();
 
+    // The formats are created on first use and reused for all values. This
+    // is safe as functions are only invoked by a single thread.
+    private final Calendar calendar = Calendar.getInstance();
+    private SimpleDateFormat inputDateFormat;
+    private SimpleDateFormat outputDateFormatAD;
+    private SimpleDateFormat outputDateFormatBC;
+
     /**
      * Supported date formats. Maps to the date formats in
      * {@link java.text.DateFormat}.
@@ -125,26 +132,21 @@ int getEraId() {
     public final String process(final String value) {
         String result;
         try {
-            final Calendar c = Calendar.getInstance();
-            final SimpleDateFormat sdf = new SimpleDateFormat(inputFormat);
-            c.setTime(sdf.parse(value));
+            if (inputDateFormat == null) {
+                inputDateFormat = new SimpleDateFormat(inputFormat);
+            }
+            calendar.setTime(inputDateFormat.parse(value));
             if (era == Era.BC) {
-                c.set(Calendar.ERA, GregorianCalendar.BC);
+                calendar.set(Calendar.ERA, GregorianCalendar.BC);
             } else if (era == Era.AD) {
-                c.set(Calendar.ERA, GregorianCalendar.AD);
-            }
-
-            final SimpleDateFormat sdfp = (SimpleDateFormat) java.text.DateFormat.getDateInstance(outputFormat.getFormatId(), outputLocale);
-            String p = sdfp.toPattern();
-            if (c.get(Calendar.ERA) == GregorianCalendar.BC) {
-                p = p.replace("yyyy", "yyyy G");
+                calendar.set(Calendar.ERA, GregorianCalendar.AD);
             }
 
-            final SimpleDateFormat sdfo = new SimpleDateFormat(p, outputLocale);
-            result = sdfo.format(c.getTime());
+            result = getOutputDateFormat(calendar.get(Calendar.ERA))
+                    .format(calendar.getTime());
 
             if (removeLeadingZeros) {
-                result = result.replaceAll("([0]{1,})([0-9]{1,})", "$2");
+                result = removeLeadingZeros(result);
             }
 
         } catch (final IllegalArgumentException e) {
@@ -155,12 +157,76 @@ public final String process(final String value) {
         return result;
     }
 
+    private SimpleDateFormat getOutputDateFormat(final int eraId) {
+        if (eraId == GregorianCalendar.BC) {
+            if (outputDateFormatBC == null) {
+                outputDateFormatBC = new SimpleDateFormat(
+                        getOutputPattern().replace("yyyy", "yyyy G"), outputLocale);
+            }
+            return outputDateFormatBC;
+        }
+        if (outputDateFormatAD == null) {
+            outputDateFormatAD = new SimpleDateFormat(getOutputPattern(), outputLocale);
+        }
+        return outputDateFormatAD;
+    }
+
+    private String getOutputPattern() {
+        final SimpleDateFormat localizedFormat = (SimpleDateFormat) java.text.DateFormat
+                .getDateInstance(outputFormat.getFormatId(), outputLocale);
+        return localizedFormat.toPattern();
+    }
+
+    /**
+     * Removes zeros which precede a digit. This is equivalent to
+     * {@code replaceAll("([0]{1,})([0-9]{1,})", "$2")} without the overhead of
+     * a regular expression. As with the regular expression, this also
+     * affects zeros within numbers: "2000" becomes "20".
+     */
+    static String removeLeadingZeros(final String str) {
+        final int length = str.length();
+        final StringBuilder builder = new StringBuilder(length);
+        int i = 0;
+        while (i < length) {
+            final char c = str.charAt(i);
+            if (c != '0') {
+                builder.append(c);
+                i += 1;
+                continue;
+            }
+            int end = i;
+            while (end < length && str.charAt(end) == '0') {
+                end += 1;
+            }
+            if (end < length && isDigit(str.charAt(end))) {
+                // Drop all zeros and keep the following digits:
+                int digitsEnd = end;
+                while (digitsEnd < length && isDigit(str.charAt(digitsEnd))) {
+                    digitsEnd += 1;
+                }
+                builder.append(str, end, digitsEnd);
+                i = digitsEnd;
+            } else {
+                // The last zero of the run is kept as a digit:
+                builder.append('0');
+                i = end;
+            }
+        }
+        return builder.toString();
+    }
+
+    private static boolean isDigit(final char c) {
+        return c >= '0' && c <= '9';
+    }
+
     public final void setInputFormat(final String inputFormat) {
         this.inputFormat = inputFormat;
+        inputDateFormat = null;
     }
 
     public final void setOutputFormat(final DateFormats outputFormat) {
         this.outputFormat = outputFormat;
+        resetOutputDateFormats();
     }
 
     public final void setEra(final Era era) {
@@ -176,5 +242,12 @@ public final void setLanguage(final String language) {
             throw new MorphBuildException("Language '" + language + "' not supported.");
         }
         this.outputLocale = new Locale(language);
+        resetOutputDateFormats();
     }
+
+    private void resetOutputDateFormats() {
+        outputDateFormatAD = null;
+        outputDateFormatBC = null;
+    }
+
 }
@@ -17,24 +17,25 @@
 
 import java.io.FileNotFoundException;
 
-import javax.script.Invocable;
-import javax.script.ScriptEngine;
-import javax.script.ScriptEngineManager;
 import javax.script.ScriptException;
 
-import org.metafacture.commons.ResourceUtil;
+import org.metafacture.commons.script.SharedScript;
 import org.metafacture.metamorph.api.MorphBuildException;
 import org.metafacture.metamorph.api.MorphExecutionException;
 import org.metafacture.metamorph.api.helpers.AbstractSimpleStatelessFunction;
 
 /**
  * A function which executes a javascript function.
+ * <p>
+ * Script files are compiled only once and shared by all instances of this
+ * function. Each instance evaluates the script in its own global scope per
+ * thread, see {@link SharedScript}.
  *
  * @author Markus Michael Geipel
  */
 public final class Script extends AbstractSimpleStatelessFunction {
 
-    private Invocable invocable;
+    private SharedScript.Invoker invoker;
     private String invoke;
 
     public void setInvoke(final String invoke) {
@@ -42,26 +43,22 @@ public void setInvoke(final String invoke) {
     }
 
     public void setFile(final String file) {
-
-        final ScriptEngineManager manager = new ScriptEngineManager();
-        final ScriptEngine engine = manager.getEngineByName("JavaScript");
         try {
             // TODO: The script file should be loaded relatively to the base URI
-            engine.eval(ResourceUtil.getReader(file));
+            invoker = SharedScript.forFile(file).newInvoker();
         } catch (final ScriptException e) {
             throw new MorphBuildException("Error in script", e);
         } catch (final FileNotFoundException e) {
             throw new MorphBuildException("Error loading script '" + file + "'",
                     e);
         }
-        invocable = (Invocable) engine;
     }
 
     @Override
     public String process(final String value) {
         final Object obj;
         try {
-            obj = invocable.invokeFunction(invoke, value);
+            obj = invoker.invoke(invoke, value);
             return obj.toString();
         } catch (final ScriptException e) {
             throw new MorphExecutionException(
@@ -16,6 +16,8 @@
 package org.metafacture.metamorph.maps;
 
 import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.IOException;
@@ -25,7 +27,10 @@
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.regex.Pattern;
@@ -37,14 +42,25 @@
  * Provides a {@link Map} based on a file. The file is supposed to be UTF-8
  * encoded. The separator is by default \t. <strong>Important:</strong> Lines
  * that are not split in two parts by the separator are ignored!
+ * <p>
+ * The files are read when the first value is looked up; they are only
+ * checked for existence when they are set, except for urls. The contents are
+ * shared through the {@link MapRegistry} by all file maps with the same
+ * files (including their modification times) and separator, so that the
+ * files are loaded only once per JVM. {@link #close()} releases the shared
+ * contents.
  *
  * @author Markus Michael Geipel
  */
-public final class FileMap extends AbstractReadOnlyMap<String, String> {
+public final class FileMap extends AbstractReadOnlyMap<String, String>
+        implements Closeable {
 
-    private final Map<String, String> map = new HashMap<String, String>();
+    private final List<String> files = new ArrayList<>();
 
-    private Pattern split = Pattern.compile("\t", Pattern.LITERAL);
+    private String separator = "\t";
+
+    private String registryKey;
+    private volatile Map<String, String> map;
 
     public void setFiles(final String files) {
         final String[] parts = files.split("\\s*,\\s*");
@@ -54,6 +70,88 @@ public void setFiles(final String files) {
     }
 
     public void setFile(final String file) {
+        checkReadable(file);
+        files.add(file);
+    }
+
+    public void setSeparator(final String delimiter) {
+        separator = delimiter;
+    }
+
+    @Override
+    public String get(final Object key) {
+        return getMap().get(key);
+    }
+
+    @Override
+    public synchronized void close() {
+        if (registryKey != null) {
+            MapRegistry.release(registryKey);
+            registryKey = null;
+            map = null;
+        }
+    }
+
+    private Map<String, String> getMap() {
+        Map<String, String> currentMap = map;
+        if (currentMap == null) {
+            synchronized (this) {
+                if (map == null) {
+                    final String key = createRegistryKey();
+                    map = MapRegistry.acquire(key, this::load);
+                    registryKey = key;
+                }
+                currentMap = map;
+            }
+        }
+        return currentMap;
+    }
+
+    private String createRegistryKey() {
+        final StringBuilder key = new StringBuilder("filemap:");
+        key.append(separator.length()).append(':').append(separator);
+        for (final String file : files) {
+            final File localFile = new File(file);
+            key.append('\n').append(file);
+            if (localFile.isFile()) {
+                key.append('@').append(localFile.lastModified());
+            }
+        }
+        return key.toString();
+    }
+
+    /**
+     * Checks that the file exists so that missing files are reported when the
+     * map is configured and not on the first lookup. The file is not opened.
+     * Urls are only checked when they are read, so that they are not
+     * downloaded twice.
+     */
+    private static void checkReadable(final String file) {
+        final File localFile = new File(file);
+        if (localFile.isFile() && localFile.canRead()) {
+            return;
+        }
+        if (Thread.currentThread().getContextClassLoader().getResource(file) != null) {
+            return;
+        }
+        try {
+            new URL(file);
+        } catch (final MalformedURLException e) {
+            throw new MorphExecutionException("File not found: " + file);
+        }
+    }
+
+    private Map<String, String> load() {
+        final Map<String, String> contents = new HashMap<>();
+        final Pattern split = Pattern.compile(separator, Pattern.LITERAL);
+        for (final String file : files) {
+            load(file, split, contents);
+        }
+        return Collections.unmodifiableMap(contents);
+    }
+
+    private static void load(final String file, final Pattern split,
+            final Map<String, String> contents) {
         try (
                 final InputStream stream = openStream(file);
                 final BufferedReader reader = new BufferedReader(
@@ -66,7 +164,7 @@ public void setFile(final String file) {
                 }
                 final String[] parts = split.split(line);
                 if (parts.length == 2) {
-                    map.put(parts[0], parts[1]);
+                    contents.put(parts[0], parts[1]);
                 }
             }
         } catch (final IOException | UncheckedIOException e) {
@@ -74,7 +172,13 @@ public void setFile(final String file) {
         }
     }
 
-    private InputStream openStream(String file) {
+    /**
+     * Opens a file which is given as file name, class path resource or url.
+     *
+     * @param file name of the file
+     * @return a stream for reading the file
+     */
+    static InputStream openStream(String file) {
         return openAsFile(file)
                 .orElseGet(() -> openAsResource(file)
                         .orElseGet(() -> openAsUrl(file)
@@ -82,7 +186,7 @@ private InputStream openStream(String file) {
                                         "File not found: " + file))));
     }
 
-    private Optional<InputStream> openAsFile(String file) {
+    private static Optional<InputStream> openAsFile(String file) {
         try {
             return Optional.of(new FileInputStream(file));
         } catch (FileNotFoundException e) {
@@ -90,12 +194,12 @@ private Optional<InputStream> openAsFile(String file) {
         }
     }
 
-    private Optional<InputStream> openAsResource(String file) {
+    private static Optional<InputStream> openAsResource(String file) {
         return Optional.ofNullable(Thread.currentThread()
                 .getContextClassLoader().getResourceAsStream(file));
     }
 
-    private Optional<InputStream> openAsUrl(String file) {
+    private static Optional<InputStream> openAsUrl(String file) {
         final URL url;
         try {
             url = new URL(file);
@@ -109,13 +213,4 @@ private Optional<InputStream> openAsUrl(String file) {
         }
     }
 
-    public void setSeparator(final String delimiter) {
-        split = Pattern.compile(delimiter, Pattern.LITERAL);
-    }
-
-    @Override
-    public String get(final Object key) {
-        return map.get(key);
-    }
-
 }
@@ -0,0 +1,129 @@
+/*
+ * Copyright 2026 hbz
+ *
+ * Licensed under the Apache License, Version 2.0 the "License";
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.metafacture.metamorph.maps;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Process-wide registry of immutable lookup data which is shared by all
+ * map instances with the same key. This avoids loading the same lookup
+ * table for every Metamorph instance if several instances run in parallel.
+ * <p>
+ * The registry counts the references to each entry. The data is loaded by
+ * the first call to {@link #acquire(String, Supplier)} and dropped when the
+ * last reference is {@link #release(String) released}. Data which
+ * implements {@link Closeable} is closed at that point. Callers must not
+ * modify the shared data.
+ */
+public final class MapRegistry {
+
+    private static final Map<String, Entry> ENTRIES = new HashMap<>();
+
+    private MapRegistry() {
+        throw new AssertionError("No instances allowed");
+    }
+
+    /**
+     * Returns the data registered under {@code key} and increments its
+     * reference count. If there is no data yet, it is created with
+     * {@code loader}. Concurrent callers with the same key wait until the
+     * data has been loaded once.
+     *
+     * @param key the key identifying the data, for example the names and
+     *            modification times of the source files
+     * @param loader creates the data if it is not registered yet
+     * @param <T> type of the data
+     * @return the shared data
+     */
+    public static <T> T acquire(final String key, final Supplier<T> loader) {
+        final Entry entry;
+        synchronized (ENTRIES) {
+            entry = ENTRIES.computeIfAbsent(key, k -> new Entry());
+            entry.references += 1;
+        }
+        try {
+            @SuppressWarnings("unchecked")  // Keys identify the type of data
+            final T data = (T) entry.getData(loader);
+            return data;
+        } catch (final RuntimeException | Error e) {
+            release(key);
+            throw e;
+        }
+    }
+
+    /**
+     * Decrements the reference count of the data registered under
+     * {@code key}. The data is removed from the registry and closed if it is
+     * {@link Closeable} when it is no longer referenced.
+     *
+     * @param key the key identifying the data
+     * @throws UncheckedIOException if closing the data fails
+     */
+    public static void release(final String key) {
+        final Entry releasedEntry;
+        synchronized (ENTRIES) {
+            final Entry entry = ENTRIES.get(key);
+            if (entry == null) {
+                return;
+            }
+            entry.references -= 1;
+            if (entry.references > 0) {
+                return;
+            }
+            ENTRIES.remove(key);
+            releasedEntry = entry;
+        }
+        releasedEntry.close();
+    }
+
+    static int getReferenceCount(final String key) {
+        synchronized (ENTRIES) {
+            final Entry entry = ENTRIES.get(key);
+            return entry == null ? 0 : entry.references;
+        }
+    }
+
+    private static final class Entry {
+
+        private int references;
+        private Object data;
+
+        synchronized Object getData(final Supplier<?> loader) {
+            if (data == null) {
+                data = loader.get();
+            }
+            return data;
+        }
+
+        synchronized void close() {
+            if (data instanceof Closeable) {
+                try {
+                    ((Closeable) data).close();
+                } catch (final IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+            data = null;
+        }
+
+    }
+
+}
@@ -0,0 +1,196 @@
+/*
+ * Copyright 2026 hbz
+ *
+ * Licensed under the Apache License, Version 2.0 the "License";
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.metafacture.metamorph.maps;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import org.metafacture.metamorph.api.MorphExecutionException;
+import org.metafacture.metamorph.api.helpers.AbstractReadOnlyMap;
+
+/**
+ * Provides a {@link Map} based on files in the same format as
+ * {@link FileMap}. Instead of loading the files onto the heap, an index file
+ * is built from them once and accessed through memory mapping. This allows
+ * for maps which are larger than the available heap.
+ * <p>
+ * If an {@link #setIndex(String) index} file name is set, the index file is
+ * kept and reused as long as it was built from the same map files and
+ * separator and is newer than all map files which are local files. Otherwise
+ * the index is written to a temporary file which is deleted when the last map
+ * using it is closed or, at the latest, when the JVM exits.
+ * <p>
+ * Index files are opened only once per JVM. All maps using the same map
+ * files in the same version, separator and index file share one mapping
+ * through the {@link MapRegistry}. {@link #close()}
+ * releases the mapping. The map can be used by several threads at once.
+ *
+ * @see MappedIndex
+ */
+public final class MappedFileMap extends AbstractReadOnlyMap<String, String>
+        implements Closeable {
+
+    private final List<String> files = new ArrayList<>();
+    private String separator = "\t";
+    private String index;
+
+    private String registryKey;
+    private volatile MappedIndex mappedIndex;
+
+    public void setFiles(final String files) {
+        this.files.addAll(Arrays.asList(files.split("\\s*,\\s*")));
+    }
+
+    public void setFile(final String file) {
+        files.add(file);
+    }
+
+    public void setSeparator(final String delimiter) {
+        separator = delimiter;
+    }
+
+    /**
+     * Sets the name of the index file. The file is created if it does not
+     * exist, is older than the map files, or was built from other map files
+     * or with another separator.
+     *
+     * @param index name of the index file
+     */
+    public void setIndex(final String index) {
+        this.index = index;
+    }
+
+    @Override
+    public String get(final Object key) {
+        final byte[] value = getIndex().get(key.toString().getBytes(StandardCharsets.UTF_8));
+        return value == null ? null : new String(value, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public synchronized void close() {
+        if (registryKey != null) {
+            MapRegistry.release(registryKey);
+            registryKey = null;
+            mappedIndex = null;
+        }
+    }
+
+    private MappedIndex getIndex() {
+        MappedIndex currentIndex = mappedIndex;
+        if (currentIndex == null) {
+            synchronized (this) {
+                if (mappedIndex == null) {
+                    final String key = createRegistryKey();
+                    try {
+                        mappedIndex = MapRegistry.acquire(key, this::openIndex);
+                    } catch (final UncheckedIOException e) {
+                        throw new MorphExecutionException(
+                                "mappedfilemap: cannot create index", e.getCause());
+                    }
+                    registryKey = key;
+                }
+                currentIndex = mappedIndex;
+            }
+        }
+        return currentIndex;
+    }
+
+    private String createRegistryKey() {
+        final StringBuilder key = new StringBuilder();
+        if (index == null) {
+            key.append("mappedfilemap:");
+        } else {
+            key.append("mappedfilemap-index:").append(new File(index).getAbsolutePath())
+                    .append('\n');
+        }
+        key.append(describeSources());
+        for (final String file : files) {
+            final File localFile = new File(file);
+            if (localFile.isFile()) {
+                key.append('\n').append(file).append('@').append(localFile.lastModified());
+            }
+        }
+        return key.toString();
+    }
+
+    private String describeSources() {
+        return separator.length() + ":" + separator + files;
+    }
+
+    private MappedIndex openIndex() {
+        final Pattern split = Pattern.compile(separator, Pattern.LITERAL);
+        try {
+            if (index == null) {
+                final File indexFile = File.createTempFile("metamorph-map", ".index");
+                indexFile.deleteOnExit();
+                try {
+                    MappedIndex.build(indexFile, files, split, describeSources());
+                    return MappedIndex.openTemporary(indexFile);
+                } catch (final IOException | RuntimeException e) {
+                    indexFile.delete();
+                    throw e;
+                }
+            }
+            final File indexFile = new File(index).getAbsoluteFile();
+            if (isUpToDate(indexFile)) {
+                try {
+                    final MappedIndex existingIndex = MappedIndex.open(indexFile);
+                    if (existingIndex.getDescription().equals(describeSources())) {
+                        return existingIndex;
+                    }
+                } catch (final IOException e) {
+                    // Not a valid index, so build a new one
+                }
+            }
+            final File tempFile = File.createTempFile(indexFile.getName(), ".tmp",
+                    indexFile.getParentFile());
+            try {
+                MappedIndex.build(tempFile, files, split, describeSources());
+                Files.move(tempFile.toPath(), indexFile.toPath(),
+                        StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(tempFile.toPath());
+            }
+            return MappedIndex.open(indexFile);
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private boolean isUpToDate(final File indexFile) {
+        if (!indexFile.isFile()) {
+            return false;
+        }
+        for (final String file : files) {
+            final File mapFile = new File(file);
+            if (mapFile.isFile() && mapFile.lastModified() > indexFile.lastModified()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+}
@@ -0,0 +1,348 @@
+/*
+ * Copyright 2026 hbz
+ *
+ * Licensed under the Apache License, Version 2.0 the "License";
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.metafacture.metamorph.maps;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import org.metafacture.commons.HashUtil;
+
+/**
+ * A read-only hash table stored in a file which is accessed through memory
+ * mapping. Lookups do not load any data onto the heap except for the
+ * returned value. Instances are safe for use by multiple threads.
+ * <p>
+ * The file starts with a header (magic number, offset of the slot table,
+ * number of slots, number of lines read, length and UTF-8 encoded
+ * description of the sources), followed by the entries (key length, value
+ * length, UTF-8 encoded key and value) and the slot table. Each slot
+ * holds the hash of a key and the offset of its entry; empty slots have
+ * offset zero. Collisions are resolved by linear probing. The table is at
+ * most half full.
+ * <p>
+ * Indexes {@link #openTemporary(File) opened as temporary} delete their file
+ * when they are closed. The index must not be used after closing it.
+ */
+final class MappedIndex implements Closeable {
+
+    private static final long MAGIC = 0x4d4649444d415032L;  // "MFIDMAP2"
+    private static final int HEADER_SIZE = 32;
+    private static final int DESCRIPTION_OFFSET = HEADER_SIZE + 4;
+    private static final int SLOT_SIZE = 16;
+    private static final int ENTRY_HEADER_SIZE = 8;
+
+    private static final int CHUNK_BITS = 30;
+    private static final long CHUNK_SIZE = 1L << CHUNK_BITS;
+    // Chunks overlap so that numbers never span two chunks:
+    private static final long CHUNK_OVERLAP = 8;
+
+    private static final int OUTPUT_BUFFER_SIZE = 1024 * 1024;
+
+    private final MappedByteBuffer[] chunks;
+    private final long slotsOffset;
+    private final long slotMask;
+    private final File temporaryFile;
+
+    private MappedIndex(final MappedByteBuffer[] chunks, final File temporaryFile)
+            throws IOException {
+        this.chunks = chunks;
+        this.temporaryFile = temporaryFile;
+        if (getLong(0) != MAGIC) {
+            throw new IOException("not an index file");
+        }
+        slotsOffset = getLong(8);
+        slotMask = getLong(16) - 1;
+    }
+
+    /**
+     * Maps an existing index file into memory.
+     *
+     * @param file the index file
+     * @return the index
+     * @throws IOException if the file cannot be read or is not an index
+     */
+    static MappedIndex open(final File file) throws IOException {
+        return open(file, null);
+    }
+
+    /**
+     * Maps an existing index file into memory. The file is deleted when the
+     * index is closed.
+     *
+     * @param file the index file
+     * @return the index
+     * @throws IOException if the file cannot be read or is not an index
+     */
+    static MappedIndex openTemporary(final File file) throws IOException {
+        return open(file, file);
+    }
+
+    private static MappedIndex open(final File file, final File temporaryFile)
+            throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+            if (raf.length() < DESCRIPTION_OFFSET) {
+                throw new IOException("not an index file: " + file);
+            }
+            return new MappedIndex(map(raf.getChannel(), MapMode.READ_ONLY, raf.length()),
+                    temporaryFile);
+        }
+    }
+
+    /**
+     * Builds an index file from key-value pairs in text files. Lines which
+     * are not split in two parts by the separator are ignored. If a key
+     * occurs several times, the last value is used.
+     *
+     * @param file the index file to create
+     * @param sources the text files as accepted by {@link FileMap#openStream(String)}
+     * @param separator the separator of key and value
+     * @param description identifies the sources and the separator; it is
+     *                    stored in the header and returned by
+     *                    {@link #getDescription()}
+     * @throws IOException if the source files cannot be read or the index
+     *                     cannot be written
+     */
+    static void build(final File file, final List<String> sources,
+            final Pattern separator, final String description) throws IOException {
+        long entries = 0;
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                new FileOutputStream(file), OUTPUT_BUFFER_SIZE))) {
+            final byte[] descriptionBytes = description.getBytes(StandardCharsets.UTF_8);
+            out.write(new byte[HEADER_SIZE]);
+            out.writeInt(descriptionBytes.length);
+            out.write(descriptionBytes);
+            for (final String source : sources) {
+                entries += writeEntries(out, source, separator);
+            }
+        }
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            final long slotsOffset = raf.length();
+            final long slotCount = slotCount(entries);
+            raf.setLength(slotsOffset + slotCount * SLOT_SIZE);
+            final MappedByteBuffer[] chunks = map(raf.getChannel(), MapMode.READ_WRITE,
+                    raf.length());
+            putLong(chunks, 0, MAGIC);
+            putLong(chunks, 8, slotsOffset);
+            putLong(chunks, 16, slotCount);
+            putLong(chunks, 24, entries);
+            new MappedIndex(chunks, null).insertEntries();
+            for (final MappedByteBuffer chunk : chunks) {
+                chunk.force();
+            }
+        }
+    }
+
+    private static long writeEntries(final DataOutputStream out, final String source,
+            final Pattern separator) throws IOException {
+        long entries = 0;
+        try (InputStream stream = FileMap.openStream(source);
+                BufferedReader reader = new BufferedReader(
+                        new InputStreamReader(stream, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isEmpty()) {
+                    continue;
+                }
+                final String[] parts = separator.split(line);
+                if (parts.length == 2) {
+                    final byte[] key = parts[0].getBytes(StandardCharsets.UTF_8);
+                    final byte[] value = parts[1].getBytes(StandardCharsets.UTF_8);
+                    out.writeInt(key.length);
+                    out.writeInt(value.length);
+                    out.write(key);
+                    out.write(value);
+                    entries += 1;
+                }
+            }
+        }
+        return entries;
+    }
+
+    private static long slotCount(final long entries) {
+        long slotCount = 2;
+        while (slotCount < entries * 2) {
+            slotCount <<= 1;
+        }
+        return slotCount;
+    }
+
+    /**
+     * Returns the description of the sources which was passed to
+     * {@link #build(File, List, Pattern, String)}.
+     *
+     * @return the description of the sources
+     */
+    String getDescription() {
+        final byte[] description = new byte[getInt(HEADER_SIZE)];
+        getBytes(DESCRIPTION_OFFSET, description);
+        return new String(description, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Deletes the file of a temporary index. The mapping itself is released
+     * by the garbage collector. On systems which do not allow deleting
+     * mapped files, the file is left for deletion on exit.
+     */
+    @Override
+    public void close() {
+        if (temporaryFile != null) {
+            temporaryFile.delete();
+        }
+    }
+
+    private void insertEntries() {
+        long offset = DESCRIPTION_OFFSET + getInt(HEADER_SIZE);
+        while (offset < slotsOffset) {
+            final int keyLength = getInt(offset);
+            final int valueLength = getInt(offset + 4);
+            final long keyOffset = offset + ENTRY_HEADER_SIZE;
+            final long hash = hash(keyOffset, keyLength);
+            long slot = hash & slotMask;
+            while (true) {
+                final long slotPosition = slotsOffset + slot * SLOT_SIZE;
+                final long entry = getLong(slotPosition + 8);
+                if (entry == 0 || getLong(slotPosition) == hash
+                        && keyEquals(entry, keyOffset, keyLength)) {
+                    putLong(chunks, slotPosition, hash);
+                    putLong(chunks, slotPosition + 8, offset);
+                    break;
+                }
+                slot = (slot + 1) & slotMask;
+            }
+            offset = keyOffset + keyLength + valueLength;
+        }
+    }
+
+    /**
+     * Looks up the value of a key.
+     *
+     * @param key UTF-8 encoded key
+     * @return the UTF-8 encoded value or null if the key is not in the index
+     */
+    byte[] get(final byte[] key) {
+        final long hash = HashUtil.hash64(key);
+        long slot = hash & slotMask;
+        while (true) {
+            final long slotPosition = slotsOffset + slot * SLOT_SIZE;
+            final long entry = getLong(slotPosition + 8);
+            if (entry == 0) {
+                return null;
+            }
+            if (getLong(slotPosition) == hash && getInt(entry) == key.length
+                    && bytesEqual(entry + ENTRY_HEADER_SIZE, key)) {
+                final byte[] value = new byte[getInt(entry + 4)];
+                getBytes(entry + ENTRY_HEADER_SIZE + key.length, value);
+                return value;
+            }
+            slot = (slot + 1) & slotMask;
+        }
+    }
+
+    private boolean keyEquals(final long entry, final long keyOffset, final int keyLength) {
+        if (getInt(entry) != keyLength) {
+            return false;
+        }
+        final long otherKeyOffset = entry + ENTRY_HEADER_SIZE;
+        for (int i = 0; i < keyLength; ++i) {
+            if (getByte(otherKeyOffset + i) != getByte(keyOffset + i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean bytesEqual(final long offset, final byte[] bytes) {
+        for (int i = 0; i < bytes.length; ++i) {
+            if (getByte(offset + i) != bytes[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private long hash(final long offset, final int length) {
+        // Same as HashUtil#hash64(byte[]) but without copying the key:
+        long hash = HashUtil.FNV_OFFSET_BASIS;
+        for (int i = 0; i < length; ++i) {
+            hash = HashUtil.fnv1a(hash, getByte(offset + i) & 0xff);
+        }
+        return HashUtil.mix(hash);
+    }
+
+    private static MappedByteBuffer[] map(final FileChannel channel, final MapMode mode,
+            final long size) throws IOException {
+        final int chunkCount = (int) ((size + CHUNK_SIZE - 1) >>> CHUNK_BITS);
+        final MappedByteBuffer[] chunks = new MappedByteBuffer[Math.max(chunkCount, 1)];
+        for (int i = 0; i < chunks.length; ++i) {
+            final long start = (long) i << CHUNK_BITS;
+            chunks[i] = channel.map(mode, start,
+                    Math.min(CHUNK_SIZE + CHUNK_OVERLAP, size - start));
+        }
+        return chunks;
+    }
+
+    private byte getByte(final long position) {
+        return chunks[(int) (position >>> CHUNK_BITS)]
+                .get((int) (position & (CHUNK_SIZE - 1)));
+    }
+
+    private int getInt(final long position) {
+        return chunks[(int) (position >>> CHUNK_BITS)]
+                .getInt((int) (position & (CHUNK_SIZE - 1)));
+    }
+
+    private long getLong(final long position) {
+        return chunks[(int) (position >>> CHUNK_BITS)]
+                .getLong((int) (position & (CHUNK_SIZE - 1)));
+    }
+
+    private void getBytes(final long position, final byte[] dst) {
+        final int chunk = (int) (position >>> CHUNK_BITS);
+        final int index = (int) (position & (CHUNK_SIZE - 1));
+        if (index + (long) dst.length <= chunks[chunk].limit()) {
+            // Use a duplicate because bulk reads change the buffer position:
+            final ByteBuffer buffer = chunks[chunk].duplicate();
+            buffer.position(index);
+            buffer.get(dst);
+        } else {
+            for (int i = 0; i < dst.length; ++i) {
+                dst[i] = getByte(position + i);
+            }
+        }
+    }
+
+    private static void putLong(final MappedByteBuffer[] chunks, final long position,
+            final long value) {
+        chunks[(int) (position >>> CHUNK_BITS)]
+                .putLong((int) (position & (CHUNK_SIZE - 1)), value);
+    }
+
+}
@@ -15,14 +15,25 @@
  */
 package org.metafacture.metamorph.maps;
 
-import java.io.BufferedReader;
+import java.io.Closeable;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.Reader;
+import java.net.HttpURLConnection;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.net.URL;
+import java.net.URLConnection;
 import java.nio.charset.Charset;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -31,16 +42,41 @@
 /**
  * A map which resolves its keys by doing a REST request and returning the
  * response as value.
+ * <p>
+ * Responses are read completely so that the connection can be reused for
+ * further requests to the same server (HTTP keep-alive). If several threads
+ * look up the same key at the same time, only one request is sent.
+ * <p>
+ * Optionally, responses are cached. The cache holds up to
+ * {@link #setCacheSize(int) cacheSize} entries and evicts the least recently
+ * used ones first. Entries expire after {@link #setCacheTtl(int) cacheTtl}
+ * milliseconds. Keys for which no response could be retrieved are not
+ * cached. With a cache, keys can be {@link #prefetch(Collection) prefetched}
+ * in the background.
  *
  * @author Markus Michael Geipel
  * @author Philipp v. Böselager
  */
-public final class RestMap extends AbstractReadOnlyMap<String, String> {
+public final class RestMap extends AbstractReadOnlyMap<String, String>
+        implements Closeable {
+
+    public static final int DEFAULT_PREFETCH_THREADS = 4;
 
     private static final Pattern VAR_PATTERN = Pattern.compile("${key}", Pattern.LITERAL);
+    private static final int BUFFER_SIZE = 8192;
+
     private String charsetName = "UTF-8";
     private String url;
 
+    private int cacheSize;
+    private int cacheTtl;
+    private int prefetchThreads = DEFAULT_PREFETCH_THREADS;
+
+    private Map<String, CacheEntry> cache;
+    private final Map<String, CompletableFuture<String>> pendingRequests =
+            new ConcurrentHashMap<>();
+    private ExecutorService prefetchExecutor;
+
     public RestMap() {
     }
 
@@ -50,9 +86,83 @@ public RestMap(String url) {
 
     @Override
     public String get(final Object key) {
+        final String keyString = key.toString();
+        final String cached = getCached(keyString);
+        if (cached != null) {
+            return cached;
+        }
+        final CompletableFuture<String> request = new CompletableFuture<>();
+        final CompletableFuture<String> pendingRequest =
+                pendingRequests.putIfAbsent(keyString, request);
+        if (pendingRequest != null) {
+            return waitFor(pendingRequest);
+        }
+        try {
+            final String value = request(keyString);
+            putCached(keyString, value);
+            request.complete(value);
+            return value;
+        } catch (final RuntimeException e) {
+            request.completeExceptionally(e);
+            throw e;
+        } finally {
+            pendingRequests.remove(keyString, request);
+        }
+    }
+
+    /**
+     * Requests the values of the given keys in the background and stores
+     * them in the cache. Does nothing if the cache is disabled.
+     *
+     * @param keys the keys to look up
+     */
+    public void prefetch(final Collection<?> keys) {
+        if (cacheSize == 0) {
+            return;
+        }
+        final ExecutorService executor = getPrefetchExecutor();
+        for (final Object key : keys) {
+            final String keyString = key.toString();
+            if (getCached(keyString) == null && !pendingRequests.containsKey(keyString)) {
+                executor.execute(() -> get(keyString));
+            }
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        if (prefetchExecutor != null) {
+            prefetchExecutor.shutdownNow();
+            prefetchExecutor = null;
+        }
+    }
+
+    private synchronized ExecutorService getPrefetchExecutor() {
+        if (prefetchExecutor == null) {
+            prefetchExecutor = Executors.newFixedThreadPool(prefetchThreads, runnable -> {
+                final Thread thread = new Thread(runnable, "restmap-prefetch");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return prefetchExecutor;
+    }
+
+    private static String waitFor(final CompletableFuture<String> request) {
+        try {
+            return request.join();
+        } catch (final CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    private String request(final String key) {
         final Matcher matcher = VAR_PATTERN.matcher(url);
         try {
-            String urlString = matcher.replaceAll(key.toString());
+            String urlString = matcher.replaceAll(Matcher.quoteReplacement(key));
             return readFromUrl(urlString);
         } catch (IOException | URISyntaxException e) {
             // There was no data result for the given URL
@@ -61,22 +171,93 @@ public String get(final Object key) {
     }
 
     private String readFromUrl(final String url) throws IOException, URISyntaxException {
-        InputStream inputStream = new URL(new URI(url.replace(" ", "%20")).toASCIIString()).openConnection()
-                .getInputStream();
+        final URLConnection connection = new URL(new URI(url.replace(" ", "%20")).toASCIIString())
+                .openConnection();
+        final InputStream inputStream;
         try {
-            BufferedReader reader = new BufferedReader(
-                    new InputStreamReader(inputStream, Charset.forName(charsetName)));
-            StringBuilder stringBuffer = new StringBuilder();
-            int value;
-            while ((value = reader.read()) != -1) {
-                stringBuffer.append((char) value);
-            }
-            return stringBuffer.toString();
+            inputStream = connection.getInputStream();
+        } catch (final IOException e) {
+            discardErrorResponse(connection);
+            throw e;
+        }
+        try {
+            return readFully(inputStream, connection.getContentLength());
         } finally {
             inputStream.close();
         }
     }
 
+    private String readFully(final InputStream inputStream, final int contentLength)
+            throws IOException {
+        final Reader reader = new InputStreamReader(inputStream, Charset.forName(charsetName));
+        final StringBuilder stringBuffer = new StringBuilder(
+                contentLength > 0 ? contentLength : BUFFER_SIZE);
+        final char[] buffer = new char[BUFFER_SIZE];
+        int count;
+        while ((count = reader.read(buffer)) != -1) {
+            stringBuffer.append(buffer, 0, count);
+        }
+        return stringBuffer.toString();
+    }
+
+    /**
+     * Reads and closes the body of an error response. Otherwise the
+     * connection cannot be reused.
+     */
+    private static void discardErrorResponse(final URLConnection connection) {
+        if (!(connection instanceof HttpURLConnection)) {
+            return;
+        }
+        final InputStream errorStream = ((HttpURLConnection) connection).getErrorStream();
+        if (errorStream == null) {
+            return;
+        }
+        try {
+            final byte[] buffer = new byte[BUFFER_SIZE];
+            while (errorStream.read(buffer) != -1) {
+                // Discard the response body
+            }
+            errorStream.close();
+        } catch (final IOException e) {
+            // The connection will not be reused
+        }
+    }
+
+    private String getCached(final String key) {
+        if (cacheSize == 0) {
+            return null;
+        }
+        synchronized (this) {
+            final CacheEntry entry = getCache().get(key);
+            if (entry == null) {
+                return null;
+            }
+            if (entry.isExpired()) {
+                cache.remove(key);
+                return null;
+            }
+            return entry.value;
+        }
+    }
+
+    private void putCached(final String key, final String value) {
+        if (cacheSize == 0 || value == null) {
+            return;
+        }
+        final long expiry = cacheTtl == 0 ? Long.MAX_VALUE
+                : System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(cacheTtl);
+        synchronized (this) {
+            getCache().put(key, new CacheEntry(value, expiry));
+        }
+    }
+
+    private Map<String, CacheEntry> getCache() {
+        if (cache == null) {
+            cache = new LruCache<>(cacheSize);
+        }
+        return cache;
+    }
+
     public void setUrl(final String url) {
         this.url = url;
     }
@@ -85,4 +266,64 @@ public void setCharsetName(String name) {
         charsetName = name;
     }
 
+    /**
+     * Sets the maximum number of cached responses. Zero disables the cache.
+     * <p>
+     * The default value is 0.
+     *
+     * @param cacheSize number of cached responses
+     */
+    public synchronized void setCacheSize(final int cacheSize) {
+        if (cacheSize < 0) {
+            throw new IllegalArgumentException("'cacheSize' must not be negative");
+        }
+        this.cacheSize = cacheSize;
+        cache = null;
+    }
+
+    /**
+     * Sets the time in milliseconds after which cached responses expire. Zero
+     * means that cached responses do not expire.
+     * <p>
+     * The default value is 0.
+     *
+     * @param cacheTtl time to live of cached responses in milliseconds
+     */
+    public void setCacheTtl(final int cacheTtl) {
+        if (cacheTtl < 0) {
+            throw new IllegalArgumentException("'cacheTtl' must not be negative");
+        }
+        this.cacheTtl = cacheTtl;
+    }
+
+    /**
+     * Sets the number of threads which send prefetch requests.
+     * <p>
+     * The default value is {@value #DEFAULT_PREFETCH_THREADS}.
+     *
+     * @param prefetchThreads number of threads
+     */
+    public void setPrefetchThreads(final int prefetchThreads) {
+        if (prefetchThreads < 1) {
+            throw new IllegalArgumentException("'prefetchThreads' must be at least 1");
+        }
+        this.prefetchThreads = prefetchThreads;
+    }
+
+    private static final class CacheEntry {
+
+        private final String value;
+        private final long expiry;
+
+        CacheEntry(final String value, final long expiry) {
+            this.value = value;
+            this.expiry = expiry;
+        }
+
+        boolean isExpired() {
+            return expiry != Long.MAX_VALUE && System.nanoTime() - expiry > 0;
+        }
+
+    }
+
 }
@@ -22,12 +22,42 @@
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
 
 import org.metafacture.metamorph.api.MorphExecutionException;
 import org.metafacture.metamorph.api.helpers.AbstractReadOnlyMap;
 
 /**
  * A map implementation that queries an sql database.
+ * <p>
+ * The database is either given as a JDBC url or, for compatibility, by host
+ * and database name of a MySQL server. The query must have exactly one
+ * parameter which receives the key. The first column of the first row of the
+ * result is the value.
+ * <p>
+ * Optionally, results are kept in a cache with up to
+ * {@link #setCacheSize(int) cacheSize} entries which are evicted in least
+ * recently used order. Keys without a value are only cached if
+ * {@link #setCacheMisses(boolean) cacheMisses} is set.
+ * <p>
+ * {@link #getAll(Collection)} looks up several keys at once. If a
+ * {@link #setBatchQuery(String) batch query} is set, the keys missing in the
+ * cache are retrieved with one query per {@link #setBatchSize(int)
+ * batchSize} keys. The batch query contains a single parameter in an
+ * {@code IN} clause, for example
+ * {@code SELECT id, name FROM authority WHERE id IN (?)}, which is
+ * expanded to the number of keys in a batch. It returns the key in the first
+ * and the value in the second column.
+ * <p>
+ * Lookups may be performed by several threads. Each thread borrows one of up
+ * to {@link #setPoolSize(int) poolSize} connections for the duration of a
+ * query.
  *
  * @author Daniel Schäfer
  * @author Markus Michael Geipel
@@ -36,54 +66,110 @@
 public final class SqlMap extends AbstractReadOnlyMap<String, String> implements
         Closeable {
 
-    private boolean isUninitialized = true;
+    public static final int DEFAULT_BATCH_SIZE = 100;
+    public static final int DEFAULT_POOL_SIZE = 1;
 
-    private Connection conn;
+    private static final String MYSQL_DRIVER = "com.mysql.jdbc.Driver";
+    private static final String PARAMETER_MARKER = "?";
+    private static final String MISSING_VALUE = new String();
+
+    private volatile boolean isUninitialized = true;
+
+    private String url;
     private String host;
     private String login;
     private String password;
     private String database;
     private String query;
+    private String batchQuery;
     private String driver;
 
-    private PreparedStatement preparedStatement;
+    private int cacheSize;
+    private boolean cacheMisses;
+    private int batchSize = DEFAULT_BATCH_SIZE;
+    private int poolSize = DEFAULT_POOL_SIZE;
 
-    public void init() {
+    private Map<String, String> cache;
+    private BlockingQueue<PooledConnection> idleConnections;
+    private final List<PooledConnection> connections = new ArrayList<>();
 
-        try {
-            preparedStatement = getMySqlConnection().prepareStatement(query);
-        } catch (final SQLException e) {
-            throw new MorphExecutionException(
-                    "sqlmap: could not create prepared statement for query", e);
+    public synchronized void init() {
+        if (!isUninitialized) {
+            return;
         }
+        final String driverClass = driver == null && url == null ? MYSQL_DRIVER : driver;
+        if (driverClass != null) {
+            try {
+                Class.forName(driverClass);
+            } catch (final ClassNotFoundException e) {
+                throw new MorphExecutionException(
+                        "sqlmap: cannot load db driver", e);
+            }
+        }
+        cache = new LruCache<>(cacheSize);
+        idleConnections = new ArrayBlockingQueue<>(poolSize);
+        // Fail early if the database cannot be reached:
+        idleConnections.add(openConnection());
         isUninitialized = false;
     }
 
     @Override
-    public void close() throws IOException {
+    public synchronized void close() throws IOException {
         try {
-
-            if (conn != null) {
-                conn.close();
+            for (final PooledConnection connection : connections) {
+                connection.conn.close();
             }
         } catch (final SQLException e) {
             throw new MorphExecutionException("sqlmap: could not close db connection",
                     e);
+        } finally {
+            connections.clear();
+            isUninitialized = true;
         }
     }
 
-    private Connection getMySqlConnection() {
+    private PooledConnection openConnection() {
+        final Connection conn;
         try {
-            Class.forName(driver);
-
-            conn = DriverManager.getConnection("jdbc:mysql://" + host + "/"
-                    + database + "?" + "user=" + login + "&" + "password="
-                    + password);
-        } catch (final ClassNotFoundException | SQLException e) {
+            if (url == null) {
+                conn = DriverManager.getConnection("jdbc:mysql://" + host + "/"
+                        + database + "?" + "user=" + login + "&" + "password="
+                        + password);
+            } else {
+                conn = DriverManager.getConnection(url, login, password);
+            }
+        } catch (final SQLException e) {
             throw new MorphExecutionException("sqlmap: cannot create db connection",
                     e);
         }
-        return conn;
+        final PooledConnection connection = new PooledConnection(conn);
+        synchronized (this) {
+            connections.add(connection);
+        }
+        return connection;
+    }
+
+    private PooledConnection borrowConnection() {
+        PooledConnection connection = idleConnections.poll();
+        if (connection != null) {
+            return connection;
+        }
+        synchronized (this) {
+            if (connections.size() < poolSize) {
+                return openConnection();
+            }
+        }
+        try {
+            return idleConnections.take();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MorphExecutionException(
+                    "sqlmap: interrupted while waiting for db connection", e);
+        }
+    }
+
+    private void returnConnection(final PooledConnection connection) {
+        idleConnections.add(connection);
     }
 
     @Override
@@ -91,20 +177,109 @@ public String get(final Object key) {
         if (isUninitialized) {
             init();
         }
-        String resultString = null;
-        final ResultSet resultSet;
+        final String keyString = key.toString();
+        final String cached = getCached(keyString);
+        if (cached != null) {
+            return cached == MISSING_VALUE ? null : cached;
+        }
+        final PooledConnection connection = borrowConnection();
+        final String value;
         try {
-            preparedStatement.setString(1, key.toString());
-            resultSet = preparedStatement.executeQuery();
-            if (resultSet.first()) {
-                resultString = resultSet.getString(1);
-            }
-            resultSet.close();
+            value = connection.lookup(keyString);
         } catch (final SQLException e) {
             throw new MorphExecutionException(
                     "sqlmap: execution of prepared statement failed", e);
+        } finally {
+            returnConnection(connection);
+        }
+        putCached(keyString, value);
+        return value;
+    }
+
+    /**
+     * Looks up the values of several keys. Keys which are not in the cache
+     * are queried in batches if a batch query is set.
+     *
+     * @param keys the keys to look up
+     * @return a map with the values of all keys which have a value
+     */
+    public Map<String, String> getAll(final Collection<?> keys) {
+        if (isUninitialized) {
+            init();
+        }
+        final Map<String, String> values = new HashMap<>();
+        final List<String> misses = new ArrayList<>();
+        for (final Object key : keys) {
+            final String keyString = key.toString();
+            final String cached = getCached(keyString);
+            if (cached == null) {
+                misses.add(keyString);
+            } else if (cached != MISSING_VALUE) {
+                values.put(keyString, cached);
+            }
+        }
+        if (misses.isEmpty()) {
+            return values;
+        }
+        if (batchQuery == null) {
+            for (final String key : misses) {
+                final String value = get(key);
+                if (value != null) {
+                    values.put(key, value);
+                }
+            }
+            return values;
+        }
+        final PooledConnection connection = borrowConnection();
+        try {
+            final int connectionBatchSize = connection.getBatchSize();
+            for (int i = 0; i < misses.size(); i += connectionBatchSize) {
+                final List<String> batch = misses.subList(i,
+                        Math.min(i + connectionBatchSize, misses.size()));
+                final Map<String, String> results = connection.lookupBatch(batch);
+                for (final String key : batch) {
+                    final String value = results.get(key);
+                    putCached(key, value);
+                    if (value != null) {
+                        values.put(key, value);
+                    }
+                }
+            }
+        } catch (final SQLException e) {
+            throw new MorphExecutionException(
+                    "sqlmap: execution of batch query failed", e);
+        } finally {
+            returnConnection(connection);
+        }
+        return values;
+    }
+
+    private String getCached(final String key) {
+        if (cacheSize == 0) {
+            return null;
+        }
+        synchronized (cache) {
+            return cache.get(key);
         }
-        return resultString;
+    }
+
+    private void putCached(final String key, final String value) {
+        if (cacheSize == 0 || value == null && !cacheMisses) {
+            return;
+        }
+        synchronized (cache) {
+            cache.put(key, value == null ? MISSING_VALUE : value);
+        }
+    }
+
+    /**
+     * Sets the JDBC url of the database. If no url is set, a MySQL database
+     * on {@code host} is used. Login and password are passed separately.
+     *
+     * @param url a JDBC url
+     */
+    public void setUrl(final String url) {
+        this.url = url;
     }
 
     public void setDriver(final String driver) {
@@ -131,4 +306,151 @@ public void setQuery(final String query) {
         this.query = query;
     }
 
+    /**
+     * Sets the query which is used by {@link #getAll(Collection)}. The query
+     * must contain exactly one parameter marker in an {@code IN} clause.
+     *
+     * @param batchQuery the query for looking up several keys
+     */
+    public void setBatchQuery(final String batchQuery) {
+        final int marker = batchQuery.indexOf(PARAMETER_MARKER);
+        if (marker < 0 || batchQuery.indexOf(PARAMETER_MARKER, marker + 1) >= 0) {
+            throw new IllegalArgumentException(
+                    "'batchQuery' must contain exactly one parameter");
+        }
+        this.batchQuery = batchQuery;
+    }
+
+    /**
+     * Sets the maximum number of keys per batch query. Each connection keeps
+     * the batch size which is set when it runs its first batch query, so
+     * changes only affect connections which have not run a batch query yet.
+     * <p>
+     * The default value is {@value #DEFAULT_BATCH_SIZE}.
+     *
+     * @param batchSize number of keys per query
+     */
+    public void setBatchSize(final int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("'batchSize' must be at least 1");
+        }
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Sets the maximum number of cached keys. Zero disables the cache. Changes
+     * become effective when the map is initialised.
+     * <p>
+     * The default value is 0.
+     *
+     * @param cacheSize number of cached keys
+     */
+    public void setCacheSize(final int cacheSize) {
+        if (cacheSize < 0) {
+            throw new IllegalArgumentException("'cacheSize' must not be negative");
+        }
+        this.cacheSize = cacheSize;
+    }
+
+    /**
+     * Controls whether keys without a value are cached, too.
+     * <p>
+     * The default value is false.
+     *
+     * @param cacheMisses true if missing keys should be cached
+     */
+    public void setCacheMisses(final boolean cacheMisses) {
+        this.cacheMisses = cacheMisses;
+    }
+
+    /**
+     * Sets the maximum number of open connections. Changes become effective
+     * when the map is initialised.
+     * <p>
+     * The default value is {@value #DEFAULT_POOL_SIZE}.
+     *
+     * @param poolSize number of connections
+     */
+    public void setPoolSize(final int poolSize) {
+        if (poolSize < 1) {
+            throw new IllegalArgumentException("'poolSize' must be at least 1");
+        }
+        this.poolSize = poolSize;
+    }
+
+    /**
+     * A connection with its prepared statements. The batch statement always
+     * has as many parameters as the batch size when it was prepared; smaller
+     * batches repeat their last key so that the statement can be reused.
+     */
+    private final class PooledConnection {
+
+        private final Connection conn;
+        private PreparedStatement lookupStatement;
+        private PreparedStatement batchStatement;
+        private int batchStatementSize;
+
+        PooledConnection(final Connection conn) {
+            this.conn = conn;
+        }
+
+        String lookup(final String key) throws SQLException {
+            if (lookupStatement == null) {
+                lookupStatement = prepare(query);
+            }
+            lookupStatement.setString(1, key);
+            try (ResultSet resultSet = lookupStatement.executeQuery()) {
+                if (resultSet.next()) {
+                    return resultSet.getString(1);
+                }
+            }
+            return null;
+        }
+
+        /**
+         * Returns the number of keys per batch query. The batch statement is
+         * prepared on first use with the current batch size of the map.
+         */
+        int getBatchSize() {
+            if (batchStatement == null) {
+                batchStatementSize = batchSize;
+                batchStatement = prepare(expandBatchQuery());
+            }
+            return batchStatementSize;
+        }
+
+        Map<String, String> lookupBatch(final List<String> keys)
+                throws SQLException {
+            final int size = getBatchSize();
+            for (int i = 0; i < size; ++i) {
+                batchStatement.setString(i + 1, keys.get(Math.min(i, keys.size() - 1)));
+            }
+            final Map<String, String> results = new HashMap<>();
+            try (ResultSet resultSet = batchStatement.executeQuery()) {
+                while (resultSet.next()) {
+                    results.putIfAbsent(resultSet.getString(1), resultSet.getString(2));
+                }
+            }
+            return results;
+        }
+
+        private PreparedStatement prepare(final String sql) {
+            try {
+                return conn.prepareStatement(sql);
+            } catch (final SQLException e) {
+                throw new MorphExecutionException(
+                        "sqlmap: could not create prepared statement for query", e);
+            }
+        }
+
+        private String expandBatchQuery() {
+            final StringBuilder markers = new StringBuilder(PARAMETER_MARKER);
+            for (int i = 1; i < batchStatementSize; ++i) {
+                markers.append(", ").append(PARAMETER_MARKER);
+            }
+            return batchQuery.replace(PARAMETER_MARKER, markers);
+        }
+
+    }
+
 }
@@ -0,0 +1,117 @@
+/*
+ * Copyright 2026 hbz
+ *
+ * Licensed under the Apache License, Version 2.0 the "License";
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.metafacture.metamorph;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.metafacture.framework.StreamReceiver;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnit;
+import org.mockito.junit.MockitoRule;
+
+/**
+ * Tests for class {@link ParallelMetamorph}.
+ *
+ */
+public final class ParallelMetamorphTest {
+
+    private static final int RECORDS = 1000;
+
+    @Rule
+    public final MockitoRule mockitoRule = MockitoJUnit.rule();
+
+    @Mock
+    private StreamReceiver receiver;
+
+    private ParallelMetamorph parallelMetamorph;
+
+    @Before
+    public void initSystemUnderTest() {
+        parallelMetamorph = new ParallelMetamorph(() -> InlineMorph.in(this)
+                .with("<rules>")
+                .with("  <data source='entity.literal' name='data'>")
+                .with("    <case to='upper' />")
+                .with("  </data>")
+                .with("</rules>")
+                .create());
+        parallelMetamorph.setThreads(4);
+        parallelMetamorph.setReceiver(receiver);
+    }
+
+    @Test
+    public void shouldTransformRecords() {
+        parallelMetamorph.startRecord("1");
+        parallelMetamorph.startEntity("entity");
+        parallelMetamorph.literal("literal", "aloha");
+        parallelMetamorph.endEntity();
+        parallelMetamorph.literal("other", "ignored");
+        parallelMetamorph.endRecord();
+        parallelMetamorph.closeStream();
+
+        final InOrder ordered = inOrder(receiver);
+        ordered.verify(receiver).startRecord("1");
+        ordered.verify(receiver).literal("data", "ALOHA");
+        ordered.verify(receiver).endRecord();
+        ordered.verify(receiver).closeStream();
+        ordered.verifyNoMoreInteractions();
+    }
+
+    @Test
+    public void shouldEmitRecordsInInputOrder() {
+        for (int i = 0; i < RECORDS; ++i) {
+            parallelMetamorph.startRecord(Integer.toString(i));
+            parallelMetamorph.startEntity("entity");
+            parallelMetamorph.literal("literal", "v" + i);
+            parallelMetamorph.endEntity();
+            parallelMetamorph.endRecord();
+        }
+        parallelMetamorph.closeStream();
+
+        final InOrder ordered = inOrder(receiver);
+        for (int i = 0; i < RECORDS; ++i) {
+            ordered.verify(receiver).startRecord(Integer.toString(i));
+            ordered.verify(receiver).literal("data", "V" + i);
+            ordered.verify(receiver).endRecord();
+        }
+        ordered.verify(receiver).closeStream();
+        ordered.verifyNoMoreInteractions();
+    }
+
+    @Test
+    public void shouldForwardResetStreamOnlyOnce() {
+        parallelMetamorph.startRecord("1");
+        parallelMetamorph.endRecord();
+        parallelMetamorph.resetStream();
+        parallelMetamorph.closeStream();
+
+        verify(receiver, times(1)).resetStream();
+        verify(receiver, times(1)).closeStream();
+    }
+
+    @Test
+    public void shouldUseNumberOfProcessorsAsDefault() {
+        assertEquals(Runtime.getRuntime().availableProcessors(),
+                new ParallelMetamorph("unused").getThreads());
+    }
+
+}
@@ -15,6 +15,7 @@
  */
 package org.metafacture.metamorph.functions;
 
+import static org.junit.Assert.assertEquals;
 import static org.mockito.Mockito.inOrder;
 
 import org.junit.Rule;
@@ -64,4 +65,39 @@ public void shouldMakeOutputFormatConfigurable() {
     ordered.verifyNoMoreInteractions();
   }
 
+  @Test
+  public void shouldReuseFormatsForValuesOfDifferentEras() {
+    metamorph = InlineMorph.in(this)
+        .with("<rules>")
+        .with("  <data source='date'>")
+        .with("    <dateformat outputformat='LONG' language='de' removeLeadingZeros='true' />")
+        .with("  </data>")
+        .with("</rules>")
+        .createConnectedTo(receiver);
+
+    metamorph.startRecord("1");
+    metamorph.literal("date", "20.07.-356");
+    metamorph.literal("date", "20.07.356");
+    metamorph.literal("date", "no date");
+    metamorph.endRecord();
+
+    final InOrder ordered = inOrder(receiver);
+    ordered.verify(receiver).startRecord("1");
+    ordered.verify(receiver).literal("date", "20. Juli 357 v. Chr.");
+    ordered.verify(receiver).literal("date", "20. Juli 356");
+    ordered.verify(receiver).literal("date", "no date");
+    ordered.verify(receiver).endRecord();
+    ordered.verifyNoMoreInteractions();
+  }
+
+  @Test
+  public void shouldRemoveLeadingZerosLikeRegularExpression() {
+    final String[] values = {"", "0", "00", "007", "2000", "1005", "20. Juli 0356",
+        "0.0.00", "a0b00c", "10 000 1"};
+    for (final String value : values) {
+      assertEquals(value, value.replaceAll("([0]{1,})([0-9]{1,})", "$2"),
+          DateFormat.removeLeadingZeros(value));
+    }
+  }
+
 }
@@ -15,13 +15,21 @@
  */
 package org.metafacture.metamorph.functions;
 
+import static org.junit.Assert.assertEquals;
 import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.util.ArrayList;
+import java.util.List;
 
 import org.junit.Rule;
 import org.junit.Test;
 import org.metafacture.framework.StreamReceiver;
 import org.metafacture.metamorph.InlineMorph;
 import org.metafacture.metamorph.Metamorph;
+import org.metafacture.metamorph.api.NamedValueReceiver;
+import org.metafacture.metamorph.api.helpers.AbstractSimpleStatelessFunction;
 import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnit;
@@ -41,6 +49,9 @@ public final class TestFunctionBasics {
   @Mock
   private StreamReceiver receiver;
 
+  @Mock
+  private NamedValueReceiver namedValueReceiver;
+
   private Metamorph metamorph;
 
   @Test
@@ -126,4 +137,61 @@ public void shouldUseJavaClassesAsFunctions() {
     ordered.verifyNoMoreInteractions();
   }
 
+  @Test
+  public void shouldMemoizeResultsIfCacheSizeIsSet() {
+    metamorph = InlineMorph.in(this)
+        .with("<rules>")
+        .with("  <data source='data'>")
+        .with("    <lookup cacheSize='2'>")
+        .with("      <entry name='a' value='A' />")
+        .with("      <entry name='b' value='B' />")
+        .with("    </lookup>")
+        .with("  </data>")
+        .with("</rules>")
+        .createConnectedTo(receiver);
+
+    metamorph.startRecord("1");
+    metamorph.literal("data", "a");
+    metamorph.literal("data", "x");
+    metamorph.literal("data", "a");
+    metamorph.literal("data", "b");
+    metamorph.literal("data", "x");
+    metamorph.endRecord();
+
+    final InOrder ordered = inOrder(receiver);
+    ordered.verify(receiver).startRecord("1");
+    ordered.verify(receiver, times(2)).literal("data", "A");
+    ordered.verify(receiver).literal("data", "B");
+    ordered.verify(receiver).endRecord();
+    ordered.verifyNoMoreInteractions();
+  }
+
+  @Test
+  public void shouldProcessEachDistinctValueOnceIfMemoized() {
+    final List<String> processed = new ArrayList<>();
+    final AbstractSimpleStatelessFunction function = new AbstractSimpleStatelessFunction() {
+      @Override
+      protected String process(final String value) {
+        processed.add(value);
+        return value.isEmpty() ? null : value.toUpperCase();
+      }
+    };
+    function.setNamedValueReceiver(namedValueReceiver);
+    function.setCacheSize(2);
+
+    for (final String value : new String[]{"a", "b", "a", "c", "a", "b", "", ""}) {
+      function.receive("name", value, null, 1, 0);
+    }
+
+    // "b" is evicted by "c" as it was used less recently than "a":
+    final List<String> expected = new ArrayList<>();
+    for (final String value : new String[]{"a", "b", "c", "b", ""}) {
+      expected.add(value);
+    }
+    assertEquals(expected, processed);
+    assertEquals(3, function.getCacheHits());
+    assertEquals(5, function.getCacheMisses());
+    verify(namedValueReceiver, times(3)).receive("name", "A", function, 1, 0);
+  }
+
 }
@@ -15,13 +15,21 @@
  */
 package org.metafacture.metamorph.maps;
 
+import static org.junit.Assert.assertEquals;
 import static org.mockito.Mockito.inOrder;
 
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
 import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import org.metafacture.framework.StreamReceiver;
 import org.metafacture.metamorph.InlineMorph;
 import org.metafacture.metamorph.Metamorph;
+import org.metafacture.metamorph.api.MorphExecutionException;
 import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnit;
@@ -38,6 +46,9 @@ public final class FileMapTest {
   @Rule
   public final MockitoRule mockitoRule = MockitoJUnit.rule();
 
+  @Rule
+  public final TemporaryFolder tempFolder = new TemporaryFolder();
+
   @Mock
   private StreamReceiver receiver;
 
@@ -69,4 +80,59 @@ public void shouldLookupValuesInFileBasedMap() {
     ordered.verifyNoMoreInteractions();
   }
 
+  @Test
+  public void shouldShareContentsOfSameFilesUntilClosed() throws IOException {
+    final File file = tempFolder.newFile();
+    writeFile(file, "k1\tv1");
+    final long lastModified = file.lastModified();
+    final FileMap first = createFileMap(file);
+    assertEquals("v1", first.get("k1"));
+
+    // Change the file without changing its modification time:
+    writeFile(file, "k1\tv2");
+    file.setLastModified(lastModified);
+
+    final FileMap second = createFileMap(file);
+    assertEquals("v1", second.get("k1"));
+
+    first.close();
+    second.close();
+    final FileMap third = createFileMap(file);
+    assertEquals("v2", third.get("k1"));
+    third.close();
+  }
+
+  @Test
+  public void shouldApplySeparatorToAllFiles() throws IOException {
+    final File file = tempFolder.newFile();
+    writeFile(file, "k1::v1");
+    final FileMap fileMap = createFileMap(file);
+    fileMap.setSeparator("::");
+
+    assertEquals("v1", fileMap.get("k1"));
+    fileMap.close();
+  }
+
+  @Test(expected = MorphExecutionException.class)
+  public void shouldFailWhenMissingFileIsSet() {
+    final FileMap fileMap = new FileMap();
+    fileMap.setFile(new File(tempFolder.getRoot(), "missing.txt").getPath());
+  }
+
+  @Test
+  public void shouldNotOpenUrlsWhenSet() {
+    final FileMap fileMap = new FileMap();
+    fileMap.setFile("http://example.invalid/map.txt");
+  }
+
+  private static FileMap createFileMap(final File file) {
+    final FileMap fileMap = new FileMap();
+    fileMap.setFile(file.getPath());
+    return fileMap;
+  }
+
+  private static void writeFile(final File file, final String contents) throws IOException {
+    Files.write(file.toPath(), contents.getBytes(StandardCharsets.UTF_8));
+  }
+
 }
@@ -0,0 +1,91 @@
+/*
+ * Copyright 2026 hbz
+ *
+ * Licensed under the Apache License, Version 2.0 the "License";
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.metafacture.metamorph.maps;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.io.Closeable;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+/**
+ * Tests for class {@link MapRegistry}.
+ */
+public final class MapRegistryTest {
+
+    private static final String KEY = MapRegistryTest.class.getName();
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    public void shouldLoadDataOnlyOnceWhileReferenced() {
+        final Object first = MapRegistry.acquire(KEY, this::load);
+        final Object second = MapRegistry.acquire(KEY, this::load);
+
+        assertSame(first, second);
+        assertEquals(1, loads.get());
+        assertEquals(2, MapRegistry.getReferenceCount(KEY));
+
+        MapRegistry.release(KEY);
+        MapRegistry.release(KEY);
+    }
+
+    @Test
+    public void shouldDropDataWhenLastReferenceIsReleased() {
+        MapRegistry.acquire(KEY, this::load);
+        MapRegistry.release(KEY);
+
+        assertEquals(0, MapRegistry.getReferenceCount(KEY));
+        MapRegistry.acquire(KEY, this::load);
+        assertEquals(2, loads.get());
+
+        MapRegistry.release(KEY);
+    }
+
+    @Test
+    public void shouldCloseDataWhenLastReferenceIsReleased() {
+        final AtomicInteger closes = new AtomicInteger();
+        final Closeable data = closes::incrementAndGet;
+        MapRegistry.acquire(KEY, () -> data);
+        MapRegistry.acquire(KEY, () -> data);
+
+        MapRegistry.release(KEY);
+        assertEquals(0, closes.get());
+        MapRegistry.release(KEY);
+        assertEquals(1, closes.get());
+    }
+
+    @Test
+    public void shouldNotKeepReferenceIfLoadingFails() {
+        try {
+            MapRegistry.acquire(KEY, () -> {
+                throw new IllegalStateException();
+            });
+        } catch (final IllegalStateException e) {
+            // expected
+        }
+
+        assertEquals(0, MapRegistry.getReferenceCount(KEY));
+    }
+
+    private Object load() {
+        loads.incrementAndGet();
+        return new Object();
+    }
+
+}
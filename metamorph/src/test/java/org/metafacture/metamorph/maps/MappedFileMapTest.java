@@ -0,0 +1,215 @@
+/*
+ * Copyright 2026 hbz
+ *
+ * Licensed under the Apache License, Version 2.0 the "License";
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.metafacture.metamorph.maps;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.inOrder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.metafacture.framework.StreamReceiver;
+import org.metafacture.metamorph.InlineMorph;
+import org.metafacture.metamorph.Metamorph;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnit;
+import org.mockito.junit.MockitoRule;
+
+/**
+ * Tests for class {@link MappedFileMap}.
+ */
+public final class MappedFileMapTest {
+
+    @Rule
+    public final MockitoRule mockitoRule = MockitoJUnit.rule();
+
+    @Rule
+    public final TemporaryFolder tempFolder = new TemporaryFolder();
+
+    @Mock
+    private StreamReceiver receiver;
+
+    @Test
+    public void shouldLookupValuesInMappedFileMap() {
+        final Metamorph metamorph = InlineMorph.in(this)
+                .with("<rules>")
+                .with("  <data source='1'>")
+                .with("    <lookup in='map1' />")
+                .with("  </data>")
+                .with("</rules>")
+                .with("<maps>")
+                .with("  <mappedfilemap name='map1' files='org/metafacture/metamorph/maps/file-map-test.txt' />")
+                .with("</maps>")
+                .createConnectedTo(receiver);
+
+        metamorph.startRecord("1");
+        metamorph.literal("1", "gw");
+        metamorph.literal("1", "fj");
+        metamorph.literal("1", "xx");
+        metamorph.endRecord();
+
+        final InOrder ordered = inOrder(receiver);
+        ordered.verify(receiver).startRecord("1");
+        ordered.verify(receiver).literal("1", "Germany");
+        ordered.verify(receiver).literal("1", "Fiji");
+        ordered.verify(receiver).endRecord();
+        ordered.verifyNoMoreInteractions();
+    }
+
+    @Test
+    public void shouldReturnSameValuesAsFileMap() throws IOException {
+        final File mapFile = writeMapFile(
+                "k1\tv1",
+                "",
+                "k2\tv2\tignored",
+                "ignored",
+                "k3\tvä",
+                "k1\tv4");
+        final FileMap fileMap = new FileMap();
+        fileMap.setFile(mapFile.getPath());
+        final MappedFileMap mappedFileMap = new MappedFileMap();
+        mappedFileMap.setFile(mapFile.getPath());
+
+        for (final String key : new String[]{"k1", "k2", "k3", "ignored", ""}) {
+            assertEquals(key, fileMap.get(key), mappedFileMap.get(key));
+        }
+    }
+
+    @Test
+    public void shouldUseSeparator() throws IOException {
+        final MappedFileMap mappedFileMap = new MappedFileMap();
+        mappedFileMap.setFile(writeMapFile("k1::v1", "k2\tv2").getPath());
+        mappedFileMap.setSeparator("::");
+
+        assertEquals("v1", mappedFileMap.get("k1"));
+        assertNull(mappedFileMap.get("k2"));
+    }
+
+    @Test
+    public void shouldHandleManyEntries() throws IOException {
+        final String[] lines = new String[10000];
+        for (int i = 0; i < lines.length; ++i) {
+            lines[i] = "key" + i + "\tvalue" + i;
+        }
+        final MappedFileMap mappedFileMap = new MappedFileMap();
+        mappedFileMap.setFiles(writeMapFile(lines).getPath() + ", "
+                + writeMapFile("key5\tother").getPath());
+
+        for (int i = 0; i < lines.length; ++i) {
+            assertEquals(i == 5 ? "other" : "value" + i, mappedFileMap.get("key" + i));
+        }
+        assertNull(mappedFileMap.get("key" + lines.length));
+    }
+
+    @Test
+    public void shouldLoadChangedMapFile() throws IOException {
+        final File mapFile = writeMapFile("k1\tv1");
+        final MappedFileMap first = new MappedFileMap();
+        first.setFile(mapFile.getPath());
+
+        assertEquals("v1", first.get("k1"));
+
+        Files.write(mapFile.toPath(), "k1\tv2".getBytes(StandardCharsets.UTF_8));
+        mapFile.setLastModified(mapFile.lastModified() + 10000);
+        final MappedFileMap second = new MappedFileMap();
+        second.setFile(mapFile.getPath());
+
+        assertEquals("v2", second.get("k1"));
+        first.close();
+        second.close();
+    }
+
+    @Test
+    public void shouldWriteAndReuseIndexFile() throws IOException {
+        final File mapFile = writeMapFile("k1\tv1");
+        final File indexFile = new File(tempFolder.getRoot(), "map.index");
+        final MappedFileMap first = createIndexedMap(indexFile, mapFile);
+
+        assertEquals("v1", first.get("k1"));
+        assertTrue(indexFile.isFile());
+        first.close();
+
+        // Change the map file without making it newer than the index:
+        overwriteMapFile(mapFile, indexFile, "k1\tv2");
+        final MappedFileMap second = createIndexedMap(indexFile, mapFile);
+
+        assertEquals("v1", second.get("k1"));
+        second.close();
+    }
+
+    @Test
+    public void shouldRebuildIndexFileForOtherSeparator() throws IOException {
+        final File mapFile = writeMapFile("k1::v1");
+        final File indexFile = new File(tempFolder.getRoot(), "map.index");
+        final MappedFileMap first = createIndexedMap(indexFile, mapFile);
+
+        assertNull(first.get("k1"));
+        first.close();
+
+        final MappedFileMap second = createIndexedMap(indexFile, mapFile);
+        second.setSeparator("::");
+
+        assertEquals("v1", second.get("k1"));
+        second.close();
+    }
+
+    @Test
+    public void shouldRebuildIndexFileForOtherFiles() throws IOException {
+        final File mapFile = writeMapFile("k1\tv1");
+        final File otherMapFile = writeMapFile("k1\tv2");
+        final File indexFile = new File(tempFolder.getRoot(), "map.index");
+        final MappedFileMap first = createIndexedMap(indexFile, mapFile);
+
+        assertEquals("v1", first.get("k1"));
+
+        // The other file is older than the index:
+        overwriteMapFile(otherMapFile, indexFile, "k1\tv2");
+        final MappedFileMap second = createIndexedMap(indexFile, otherMapFile);
+
+        assertEquals("v2", second.get("k1"));
+        assertEquals("v1", first.get("k1"));
+        first.close();
+        second.close();
+    }
+
+    private static MappedFileMap createIndexedMap(final File indexFile, final File mapFile) {
+        final MappedFileMap mappedFileMap = new MappedFileMap();
+        mappedFileMap.setFile(mapFile.getPath());
+        mappedFileMap.setIndex(indexFile.getPath());
+        return mappedFileMap;
+    }
+
+    private static void overwriteMapFile(final File mapFile, final File indexFile,
+            final String contents) throws IOException {
+        Files.write(mapFile.toPath(), contents.getBytes(StandardCharsets.UTF_8));
+        mapFile.setLastModified(indexFile.lastModified() - 10000);
+    }
+
+    private File writeMapFile(final String... lines) throws IOException {
+        final File file = tempFolder.newFile();
+        Files.write(file.toPath(), String.join("\n", lines).getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+
+}
@@ -0,0 +1,227 @@
+/*
+ * Copyright 2026 hbz
+ *
+ * Licensed under the Apache License, Version 2.0 the "License";
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.metafacture.metamorph.maps;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Tests for class {@link RestMap}. The tests use an embedded HTTP server
+ * which returns the requested key in upper case and answers requests for
+ * keys starting with "missing" with status 404.
+ */
+public final class RestMapTest {
+
+    private HttpServer server;
+    private final Map<String, AtomicInteger> requestCounts = new ConcurrentHashMap<>();
+    private volatile CountDownLatch responseLatch = new CountDownLatch(0);
+
+    private RestMap restMap;
+
+    @Before
+    public void setup() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/", this::handleRequest);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+        restMap = new RestMap("http://localhost:" + server.getAddress().getPort()
+                + "/lookup/${key}");
+    }
+
+    @After
+    public void cleanup() {
+        restMap.close();
+        server.stop(0);
+    }
+
+    @Test
+    public void shouldReturnResponseAsValue() {
+        assertEquals("GW", restMap.get("gw"));
+    }
+
+    @Test
+    public void shouldReadLongResponses() {
+        final char[] key = new char[100000];
+        Arrays.fill(key, 'a');
+        final String longKey = new String(key);
+
+        assertEquals(longKey.toUpperCase(), restMap.get(longKey));
+    }
+
+    @Test
+    public void shouldReturnNullIfRequestFails() {
+        assertNull(restMap.get("missing"));
+        assertEquals("GW", restMap.get("gw"));
+    }
+
+    @Test
+    public void shouldNotCacheByDefault() {
+        restMap.get("gw");
+        restMap.get("gw");
+
+        assertEquals(2, getRequestCount("gw"));
+    }
+
+    @Test
+    public void shouldCacheResponses() {
+        restMap.setCacheSize(10);
+
+        assertEquals("GW", restMap.get("gw"));
+        assertEquals("GW", restMap.get("gw"));
+
+        assertEquals(1, getRequestCount("gw"));
+    }
+
+    @Test
+    public void shouldNotCacheFailedRequests() {
+        restMap.setCacheSize(10);
+
+        restMap.get("missing");
+        restMap.get("missing");
+
+        assertEquals(2, getRequestCount("missing"));
+    }
+
+    @Test
+    public void shouldEvictLeastRecentlyUsedResponses() {
+        restMap.setCacheSize(2);
+
+        restMap.get("a");
+        restMap.get("b");
+        restMap.get("a");
+        restMap.get("c");
+        restMap.get("a");
+        restMap.get("b");
+
+        assertEquals(1, getRequestCount("a"));
+        assertEquals(2, getRequestCount("b"));
+    }
+
+    @Test
+    public void shouldExpireCachedResponses() throws InterruptedException {
+        restMap.setCacheSize(10);
+        restMap.setCacheTtl(1);
+
+        restMap.get("gw");
+        Thread.sleep(20);
+        restMap.get("gw");
+
+        assertEquals(2, getRequestCount("gw"));
+    }
+
+    @Test
+    public void shouldSendOneRequestForConcurrentLookupsOfSameKey() throws Exception {
+        responseLatch = new CountDownLatch(1);
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        final FutureTask<String> second = new FutureTask<>(() -> restMap.get("gw"));
+        final Thread secondThread = new Thread(second);
+        try {
+            final Future<String> first = executor.submit(() -> restMap.get("gw"));
+            waitForRequest("gw");
+            secondThread.start();
+            // The second lookup waits for the pending request of the first:
+            waitForState(secondThread, Thread.State.WAITING);
+            responseLatch.countDown();
+
+            assertEquals("GW", first.get(5, TimeUnit.SECONDS));
+            assertEquals("GW", second.get(5, TimeUnit.SECONDS));
+            assertEquals(1, getRequestCount("gw"));
+        } finally {
+            executor.shutdownNow();
+            secondThread.interrupt();
+        }
+    }
+
+    @Test
+    public void shouldPrefetchValues() throws InterruptedException {
+        restMap.setCacheSize(10);
+
+        restMap.prefetch(Arrays.asList("a", "b", "c"));
+        waitForRequest("a");
+        waitForRequest("b");
+        waitForRequest("c");
+
+        assertEquals("A", restMap.get("a"));
+        assertEquals("B", restMap.get("b"));
+        assertEquals("C", restMap.get("c"));
+        assertEquals(1, getRequestCount("a"));
+        assertEquals(1, getRequestCount("b"));
+        assertEquals(1, getRequestCount("c"));
+    }
+
+    private void handleRequest(final HttpExchange exchange) throws IOException {
+        final String path = exchange.getRequestURI().getPath();
+        final String key = path.substring(path.lastIndexOf('/') + 1);
+        requestCounts.computeIfAbsent(key, k -> new AtomicInteger()).incrementAndGet();
+        try {
+            responseLatch.await(5, TimeUnit.SECONDS);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        final byte[] body;
+        if (key.startsWith("missing")) {
+            body = "not found".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(404, body.length);
+        } else {
+            body = key.toUpperCase().getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+        }
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private int getRequestCount(final String key) {
+        final AtomicInteger count = requestCounts.get(key);
+        return count == null ? 0 : count.get();
+    }
+
+    private void waitForRequest(final String key) throws InterruptedException {
+        for (int i = 0; i < 500 && getRequestCount(key) == 0; ++i) {
+            Thread.sleep(10);
+        }
+    }
+
+    private static void waitForState(final Thread thread, final Thread.State state)
+            throws InterruptedException {
+        for (int i = 0; i < 500 && thread.getState() != state; ++i) {
+            Thread.sleep(10);
+        }
+    }
+
+}
@@ -0,0 +1,224 @@
+/*
+ * Copyright 2026 hbz
+ *
+ * Licensed under the Apache License, Version 2.0 the "License";
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.metafacture.metamorph.maps;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.mockito.Mockito.inOrder;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.metafacture.framework.StreamReceiver;
+import org.metafacture.metamorph.InlineMorph;
+import org.metafacture.metamorph.Metamorph;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnit;
+import org.mockito.junit.MockitoRule;
+
+/**
+ * Tests for class {@link SqlMap}. The tests use an in-memory H2 database.
+ */
+public final class SqlMapTest {
+
+    private static final String URL = "jdbc:h2:mem:sqlmaptest";
+    private static final String QUERY = "SELECT name FROM country WHERE code = ?";
+    private static final String BATCH_QUERY =
+            "SELECT code, name FROM country WHERE code IN (?)";
+
+    @Rule
+    public final MockitoRule mockitoRule = MockitoJUnit.rule();
+
+    @Mock
+    private StreamReceiver receiver;
+
+    private Connection connection;
+    private SqlMap sqlMap;
+
+    @Before
+    public void setup() throws SQLException {
+        // The in-memory database exists as long as this connection is open:
+        connection = DriverManager.getConnection(URL);
+        execute("CREATE TABLE country (code VARCHAR(8) PRIMARY KEY, name VARCHAR(64))");
+        execute("INSERT INTO country VALUES ('gw', 'Germany'), ('fj', 'Fiji'), ('fr', 'France')");
+        sqlMap = new SqlMap();
+        sqlMap.setUrl(URL);
+        sqlMap.setQuery(QUERY);
+    }
+
+    @After
+    public void cleanup() throws IOException, SQLException {
+        sqlMap.close();
+        execute("DROP TABLE country");
+        connection.close();
+    }
+
+    @Test
+    public void shouldLookupValues() {
+        assertEquals("Germany", sqlMap.get("gw"));
+        assertEquals("Fiji", sqlMap.get("fj"));
+        assertNull(sqlMap.get("xx"));
+    }
+
+    @Test
+    public void shouldCacheValues() throws SQLException {
+        sqlMap.setCacheSize(10);
+
+        sqlMap.get("gw");
+        execute("DELETE FROM country WHERE code = 'gw'");
+
+        assertEquals("Germany", sqlMap.get("gw"));
+    }
+
+    @Test
+    public void shouldNotCacheMissingValuesByDefault() throws SQLException {
+        sqlMap.setCacheSize(10);
+
+        sqlMap.get("xx");
+        execute("INSERT INTO country VALUES ('xx', 'Unknown')");
+
+        assertEquals("Unknown", sqlMap.get("xx"));
+    }
+
+    @Test
+    public void shouldCacheMissingValuesIfConfigured() throws SQLException {
+        sqlMap.setCacheSize(10);
+        sqlMap.setCacheMisses(true);
+
+        sqlMap.get("xx");
+        execute("INSERT INTO country VALUES ('xx', 'Unknown')");
+
+        assertNull(sqlMap.get("xx"));
+    }
+
+    @Test
+    public void shouldEvictLeastRecentlyUsedValues() throws SQLException {
+        sqlMap.setCacheSize(2);
+
+        sqlMap.get("gw");
+        sqlMap.get("fj");
+        sqlMap.get("gw");
+        sqlMap.get("fr");
+        execute("DELETE FROM country");
+
+        assertEquals("Germany", sqlMap.get("gw"));
+        assertEquals("France", sqlMap.get("fr"));
+        assertNull(sqlMap.get("fj"));
+    }
+
+    @Test
+    public void shouldNotCacheValuesByDefault() throws SQLException {
+        sqlMap.get("gw");
+        execute("DELETE FROM country WHERE code = 'gw'");
+
+        assertNull(sqlMap.get("gw"));
+    }
+
+    @Test
+    public void shouldLookupSeveralKeysInBatches() {
+        sqlMap.setBatchQuery(BATCH_QUERY);
+        sqlMap.setBatchSize(2);
+
+        final Map<String, String> expected = new HashMap<>();
+        expected.put("gw", "Germany");
+        expected.put("fj", "Fiji");
+        expected.put("fr", "France");
+        assertEquals(expected, sqlMap.getAll(Arrays.asList("gw", "fj", "xx", "fr")));
+    }
+
+    @Test
+    public void shouldKeepBatchSizeOfPreparedBatchQuery() {
+        sqlMap.setBatchQuery(BATCH_QUERY);
+        sqlMap.setBatchSize(2);
+        sqlMap.getAll(Arrays.asList("gw", "fj"));
+
+        sqlMap.setBatchSize(3);
+
+        final Map<String, String> expected = new HashMap<>();
+        expected.put("fr", "France");
+        assertEquals(expected, sqlMap.getAll(Arrays.asList("xx", "yy", "fr")));
+    }
+
+    @Test
+    public void shouldCacheValuesOfBatchLookups() throws SQLException {
+        sqlMap.setBatchQuery(BATCH_QUERY);
+        sqlMap.setCacheSize(10);
+
+        sqlMap.getAll(Arrays.asList("gw", "fj"));
+        execute("DELETE FROM country");
+
+        assertEquals("Germany", sqlMap.get("gw"));
+        assertEquals("Fiji", sqlMap.get("fj"));
+    }
+
+    @Test
+    public void shouldLookupKeysWithoutBatchQuery() {
+        final Map<String, String> expected = new HashMap<>();
+        expected.put("gw", "Germany");
+        assertEquals(expected, sqlMap.getAll(Arrays.asList("gw", "xx")));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectBatchQueryWithSeveralParameters() {
+        sqlMap.setBatchQuery("SELECT code, name FROM country WHERE code IN (?) OR name = ?");
+    }
+
+    @Test
+    public void shouldLookupValuesInMetamorph() {
+        final Metamorph metamorph = InlineMorph.in(this)
+                .with("<rules>")
+                .with("  <data source='1'>")
+                .with("    <lookup in='map1' />")
+                .with("  </data>")
+                .with("</rules>")
+                .with("<maps>")
+                .with("  <sqlmap name='map1' url='" + URL + "' query='" + QUERY + "' poolsize='2' />")
+                .with("</maps>")
+                .createConnectedTo(receiver);
+
+        metamorph.startRecord("1");
+        metamorph.literal("1", "gw");
+        metamorph.literal("1", "fj");
+        metamorph.endRecord();
+        metamorph.closeStream();
+
+        final InOrder ordered = inOrder(receiver);
+        ordered.verify(receiver).startRecord("1");
+        ordered.verify(receiver).literal("1", "Germany");
+        ordered.verify(receiver).literal("1", "Fiji");
+        ordered.verify(receiver).endRecord();
+        ordered.verify(receiver).closeStream();
+        ordered.verifyNoMoreInteractions();
+    }
+
+    private void execute(final String sql) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+
+}